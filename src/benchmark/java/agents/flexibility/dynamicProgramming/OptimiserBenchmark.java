@@ -0,0 +1,155 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.flexibility.dynamicProgramming;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import agents.flexibility.BidSchedule;
+import agents.flexibility.ConstantDevices;
+import agents.flexibility.GenericDevice;
+import agents.flexibility.dynamicProgramming.assessment.AssessmentFunction;
+import agents.flexibility.dynamicProgramming.assessment.MaxProfit;
+import agents.flexibility.dynamicProgramming.assessment.MaxProfitPriceTaker;
+import agents.flexibility.dynamicProgramming.assessment.MinSystemCost;
+import agents.flexibility.dynamicProgramming.bidding.BidScheduler;
+import agents.flexibility.dynamicProgramming.states.EnergyStateManager;
+import agents.flexibility.dynamicProgramming.states.StateEvaluations.ValueStorage;
+import agents.flexibility.dynamicProgramming.states.StateManager;
+import agents.flexibility.dynamicProgramming.states.StateManager.DispatchSchedule;
+import agents.flexibility.dynamicProgramming.states.WaterValues;
+import communications.message.PointInTime;
+import communications.portable.Sensitivity;
+import communications.portable.SensitivityCurves;
+import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
+import de.dlr.gitlab.fame.communication.message.Message;
+import de.dlr.gitlab.fame.time.Constants.Interval;
+import de.dlr.gitlab.fame.time.TimePeriod;
+import de.dlr.gitlab.fame.time.TimeSpan;
+import de.dlr.gitlab.fame.time.TimeStamp;
+
+/** Benchmarks the backward induction of {@link Optimiser#createSchedule(TimePeriod)} using an {@link EnergyStateManager} for a
+ * {@link GenericDevice} with synthetic sensitivity forecasts that differ per hour */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OptimiserBenchmark {
+	private static final double ENERGY_RESOLUTION_IN_MWH = 1;
+	private static final double POWER_IN_MW = 50;
+	private static final double EFFICIENCY = 0.9;
+	private static final double VARIABLE_COST_IN_EUR_PER_MWH = 1;
+	private static final int SEGMENTS_PER_CURVE = 20;
+	private static final double SEGMENT_POWER_IN_MW = 10;
+
+	/** {@link AssessmentFunction}s available for benchmarking */
+	public enum Assessment {
+		/** see {@link MaxProfitPriceTaker} */
+		MAX_PROFIT_PRICE_TAKER,
+		/** see {@link MinSystemCost} */
+		MIN_SYSTEM_COST,
+		/** see {@link MaxProfit} */
+		MAX_PROFIT
+	}
+
+	@Param({"100", "1000", "5000"})
+	private int numberOfStates;
+
+	@Param({"24", "168"})
+	private int planningHorizonInHours;
+
+	@Param({"0", "0.001"})
+	private double selfDischargeRatePerHour;
+
+	@Param({"MAX_PROFIT_PRICE_TAKER", "MIN_SYSTEM_COST", "MAX_PROFIT"})
+	private Assessment assessment;
+
+	private Optimiser optimiser;
+	private final TimePeriod startingPeriod = new TimePeriod(new TimeStamp(0), new TimeSpan(1, Interval.HOURS));
+
+	/** {@link BidScheduler} that creates no bids, isolating the optimisation itself */
+	private static class NoBidScheduler implements BidScheduler {
+		@Override
+		public BidSchedule createBidSchedule(TimePeriod startingTime, DispatchSchedule schedule) {
+			return null;
+		}
+
+		@Override
+		public double getScheduleHorizonInHours() {
+			return 0;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() throws MissingDataException {
+		double upperLimitInMWH = (numberOfStates - 1) * ENERGY_RESOLUTION_IN_MWH;
+		GenericDevice device = ConstantDevices.build(POWER_IN_MW, EFFICIENCY, upperLimitInMWH, selfDischargeRatePerHour,
+				VARIABLE_COST_IN_EUR_PER_MWH);
+		AssessmentFunction assessmentFunction = buildAssessment(device);
+		StateManager stateManager = new EnergyStateManager(device, assessmentFunction, planningHorizonInHours,
+				ENERGY_RESOLUTION_IN_MWH, new WaterValues(null), ValueStorage.FULL);
+		assessmentFunction.storeForecast(createForecastMessages(stateManager.getPlanningTimes(startingPeriod), 42));
+		optimiser = new Optimiser(stateManager, new NoBidScheduler(), assessmentFunction.getTargetType());
+	}
+
+	/** @return new {@link AssessmentFunction} of the benchmarked type for the given device */
+	private AssessmentFunction buildAssessment(GenericDevice device) {
+		switch (assessment) {
+			case MAX_PROFIT_PRICE_TAKER:
+				return new MaxProfitPriceTaker(device);
+			case MIN_SYSTEM_COST:
+				return new MinSystemCost(device);
+			case MAX_PROFIT:
+				return new MaxProfit(device);
+			default:
+				throw new RuntimeException("Assessment not implemented: " + assessment);
+		}
+	}
+
+	/** @return one forecast message per planning time, each with a random price level and merit order curves that exceed the
+	 *         device's power */
+	private static ArrayList<Message> createForecastMessages(List<TimeStamp> planningTimes, long seed) {
+		Random random = new Random(seed);
+		ArrayList<Message> messages = new ArrayList<>();
+		for (TimeStamp time : planningTimes) {
+			double priceInEURperMWH = 20 + random.nextDouble() * 100;
+			double[] powers = new double[SEGMENTS_PER_CURVE + 1];
+			double[] demandValues = new double[SEGMENTS_PER_CURVE + 1];
+			double[] supplyValues = new double[SEGMENTS_PER_CURVE + 1];
+			for (int i = 1; i <= SEGMENTS_PER_CURVE; i++) {
+				powers[i] = i * SEGMENT_POWER_IN_MW;
+				demandValues[i] = demandValues[i - 1] + (priceInEURperMWH + i) * SEGMENT_POWER_IN_MW;
+				supplyValues[i] = supplyValues[i - 1] + (priceInEURperMWH - i) * SEGMENT_POWER_IN_MW;
+			}
+			Sensitivity sensitivity = new Sensitivity(new SensitivityCurves(powers, demandValues, powers, supplyValues), 1);
+			Message message = mock(Message.class);
+			when(message.getAllPortableItemsOfType(Sensitivity.class)).thenReturn(new ArrayList<>(List.of(sensitivity)));
+			when(message.getDataItemOfType(PointInTime.class)).thenReturn(new PointInTime(time));
+			messages.add(message);
+		}
+		return messages;
+	}
+
+	@Benchmark
+	public BidSchedule createSchedule() throws DispatchPlanningError {
+		return optimiser.createSchedule(startingPeriod);
+	}
+}
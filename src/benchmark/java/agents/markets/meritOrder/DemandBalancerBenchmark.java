@@ -0,0 +1,90 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import agents.markets.meritOrder.books.DemandOrderBook;
+import agents.markets.meritOrder.books.SupplyOrderBook;
+import agents.markets.meritOrder.books.TransmissionBook;
+import communications.message.TransmissionCapacity;
+import communications.portable.CouplingData;
+import de.dlr.gitlab.fame.time.TimeStamp;
+
+/** Benchmarks {@link DemandBalancer#balance(Map)} for fully meshed markets with synthetic order books of different price
+ * levels */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DemandBalancerBenchmark {
+	private static final double MIN_EFFECTIVE_DEMAND_OFFSET_IN_MWH = 1;
+	private static final double MAX_ENERGY_SHIFT_PER_ITERATION_IN_MWH = 1000;
+	private static final double TRANSMISSION_CAPACITY_IN_MW = 500;
+
+	@Param({"2", "4", "8"})
+	private int numberOfMarkets;
+
+	@Param({"100", "1000"})
+	private int bidsPerBook;
+
+	private final Map<Long, CouplingData> templates = new HashMap<>();
+	private final Map<Long, CouplingData> couplingRequests = new HashMap<>();
+	private DemandBalancer demandBalancer;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		TimeStamp time = new TimeStamp(0);
+		for (long marketId = 0; marketId < numberOfMarkets; marketId++) {
+			SupplyOrderBook supplyBook = new SupplyOrderBook();
+			DemandOrderBook demandBook = new DemandOrderBook();
+			double priceLevel = 20 * (marketId + 1);
+			for (int i = 0; i < bidsPerBook; i++) {
+				double supplyPrice = priceLevel + random.nextDouble() * 100;
+				supplyBook.addBid(new Bid(1 + random.nextDouble() * 99, supplyPrice, supplyPrice), i);
+				demandBook.addBid(new Bid(1 + random.nextDouble() * 99, 50 + random.nextDouble() * 3000), i);
+			}
+			TransmissionBook transmissionBook = new TransmissionBook("Region" + marketId);
+			for (long targetId = 0; targetId < numberOfMarkets; targetId++) {
+				if (targetId != marketId) {
+					transmissionBook.add(new TransmissionCapacity("Region" + targetId, TRANSMISSION_CAPACITY_IN_MW));
+				}
+			}
+			templates.put(marketId, new CouplingData(time, demandBook, supplyBook, transmissionBook));
+		}
+		demandBalancer = new DemandBalancer(MIN_EFFECTIVE_DEMAND_OFFSET_IN_MWH, MAX_ENERGY_SHIFT_PER_ITERATION_IN_MWH);
+	}
+
+	/** Balancing modifies the coupling requests - hence, fresh copies are required for each invocation */
+	@Setup(Level.Invocation)
+	public void copyCouplingRequests() {
+		couplingRequests.clear();
+		for (Map.Entry<Long, CouplingData> entry : templates.entrySet()) {
+			couplingRequests.put(entry.getKey(), entry.getValue().clone());
+		}
+	}
+
+	@Benchmark
+	public Map<Long, CouplingData> balance() {
+		demandBalancer.balance(couplingRequests);
+		return couplingRequests;
+	}
+}
@@ -0,0 +1,62 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import agents.markets.meritOrder.MeritOrderKernel.MeritOrderClearingException;
+import agents.markets.meritOrder.books.DemandOrderBook;
+import agents.markets.meritOrder.books.OrderBook;
+import agents.markets.meritOrder.books.SupplyOrderBook;
+
+/** Benchmarks {@link MeritOrderKernel#clearMarketSimple(SupplyOrderBook, DemandOrderBook)} on synthetic, sorted order books */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeritOrderKernelBenchmark {
+	@Param({"100", "1000", "10000"})
+	private int bidsPerBook;
+
+	private SupplyOrderBook supplyBook;
+	private DemandOrderBook demandBook;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		supplyBook = new SupplyOrderBook();
+		demandBook = new DemandOrderBook();
+		addRandomBids(supplyBook, random, 0, 200);
+		addRandomBids(demandBook, random, 50, 3000);
+		supplyBook.sort();
+		demandBook.sort();
+	}
+
+	/** Adds {@link #bidsPerBook} bids with random power and prices in the given range to the given book */
+	private void addRandomBids(OrderBook book, Random random, double minPrice, double maxPrice) {
+		for (int i = 0; i < bidsPerBook; i++) {
+			double price = minPrice + random.nextDouble() * (maxPrice - minPrice);
+			book.addBid(new Bid(1 + random.nextDouble() * 99, price, price), i);
+		}
+	}
+
+	@Benchmark
+	public ClearingDetails clearMarketSimple() throws MeritOrderClearingException {
+		return MeritOrderKernel.clearMarketSimple(supplyBook, demandBook);
+	}
+}
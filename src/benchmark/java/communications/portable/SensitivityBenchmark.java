@@ -0,0 +1,70 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package communications.portable;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import communications.portable.Sensitivity.InterpolationType;
+
+/** Benchmarks {@link Sensitivity#getValue(double)} on synthetic sensitivity curves, querying a fixed set of energies that spans
+ * both demand and supply sides */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SensitivityBenchmark {
+	private static final int NUMBER_OF_QUERIES = 1000;
+
+	@Param({"100", "1000", "10000"})
+	private int pointsPerCurve;
+
+	@Param({"CUMULATIVE", "DIRECT"})
+	private InterpolationType interpolationType;
+
+	private Sensitivity sensitivity;
+	private final double[] requestedEnergies = new double[NUMBER_OF_QUERIES];
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		double[] demandPowers = new double[pointsPerCurve];
+		double[] demandValues = new double[pointsPerCurve];
+		double[] supplyPowers = new double[pointsPerCurve];
+		double[] supplyValues = new double[pointsPerCurve];
+		for (int i = 1; i < pointsPerCurve; i++) {
+			demandPowers[i] = demandPowers[i - 1] + 1 + random.nextDouble() * 99;
+			demandValues[i] = demandValues[i - 1] + random.nextDouble() * 200;
+			supplyPowers[i] = supplyPowers[i - 1] + 1 + random.nextDouble() * 99;
+			supplyValues[i] = supplyValues[i - 1] + random.nextDouble() * 200;
+		}
+		sensitivity = new Sensitivity(new SensitivityCurves(demandPowers, demandValues, supplyPowers, supplyValues), 1);
+		sensitivity.setInterpolationType(interpolationType);
+		double maxEnergy = Math.min(demandPowers[pointsPerCurve - 1], supplyPowers[pointsPerCurve - 1]);
+		for (int i = 0; i < NUMBER_OF_QUERIES; i++) {
+			requestedEnergies[i] = (2 * random.nextDouble() - 1) * maxEnergy;
+		}
+	}
+
+	@Benchmark
+	public void getValue(Blackhole blackhole) {
+		for (double requestedEnergy : requestedEnergies) {
+			blackhole.consume(sensitivity.getValue(requestedEnergy));
+		}
+	}
+}
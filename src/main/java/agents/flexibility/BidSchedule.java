@@ -104,6 +104,14 @@ public class BidSchedule {
 		return isWithinTimeFrame && matchesTimeElement && energyLevelWithinTolerance(time, currentEnergyLevelInMWH);
 	}
 
+	/** Returns true if this schedule defines an element that begins at the given time, regardless of the energy level
+	 * 
+	 * @param time TimeStamp which the schedule is checked for
+	 * @return true if the schedule has an element beginning at the specified time */
+	public boolean coversTime(TimeStamp time) {
+		return isWithinTimeFrame(time) && matchesBeginningOfTimeElement(time);
+	}
+
 	/** @return true if given {@link TimeStamp} is within the time frame of this schedule */
 	private boolean isWithinTimeFrame(TimeStamp time) {
 		int periodShiftCount = (durationInPeriods - 1);
@@ -15,6 +15,7 @@ public class GenericDeviceCache {
 	static final String ERR_PERIOD_INIT = "GenericDeviceCache's `setPeriod()` must be called at least once before `prepareFor()`.";
 
 	private final GenericDevice device;
+	private final GenericDeviceSnapshot snapshot;
 	private double intervalDurationInHours = Double.NaN;
 
 	private double chargingEfficiency;
@@ -34,6 +35,7 @@ public class GenericDeviceCache {
 	 * @param device the {@link GenericDevice} to cache properties for */
 	public GenericDeviceCache(GenericDevice device) {
 		this.device = device;
+		this.snapshot = new GenericDeviceSnapshot(device);
 	}
 
 	/** Extracts the time granularity of time steps; call again if time granularity changes
@@ -43,21 +45,53 @@ public class GenericDeviceCache {
 		intervalDurationInHours = (double) timePeriod.getDuration().getSteps() / STEPS_PER_HOUR;
 	}
 
+	/** Extracts the time granularity of time steps and reads all device properties of the given planning horizon into a
+	 * {@link GenericDeviceSnapshot}; subsequent calls to {@link #prepareFor(TimeStamp)} within this horizon use the snapshot
+	 * 
+	 * @param startingPeriod first period of the planning horizon
+	 * @param numberOfTimeSteps number of periods in the planning horizon */
+	public void setHorizon(TimePeriod startingPeriod, int numberOfTimeSteps) {
+		setPeriod(startingPeriod);
+		snapshot.update(startingPeriod, numberOfTimeSteps);
+	}
+
+	/** @return snapshot of device properties for the horizon last set via {@link #setHorizon(TimePeriod, int)} */
+	public GenericDeviceSnapshot getSnapshot() {
+		return snapshot;
+	}
+
 	/** Caches all time series information of {@link GenericDevice} at given time; properties are assumed to not change during the
-	 * previously set {@link #intervalDurationInHours}
+	 * previously set {@link #intervalDurationInHours}. Properties are taken from the {@link GenericDeviceSnapshot} if it covers
+	 * the given time, otherwise they are read from the device.
 	 * 
 	 * @param time to cache the device properties at */
 	public void prepareFor(TimeStamp time) {
 		ensurePeriodIsSet();
-		chargingEfficiency = device.getChargingEfficiency(time);
-		dischargingEfficiency = device.getDischargingEfficiency(time);
-		energyContentUpperLimitInMWH = device.getEnergyContentUpperLimitInMWH(time);
-		energyContentLowerLimitInMWH = device.getEnergyContentLowerLimitInMWH(time);
-		effectiveSelfDischargeRate = 1. - Math.pow(1 - device.getSelfDischargeRate(time), intervalDurationInHours);
-
-		double netInflowPowerInMW = device.getNetInflowInMW(time);
-		double externalChargingPowerInMW = device.getExternalChargingPowerInMW(time);
-		double externalDischargingPowerInMW = device.getExternalDischargingPowerInMW(time);
+		int timeIndex = snapshot.getTimeIndex(time);
+		double netInflowPowerInMW;
+		double externalChargingPowerInMW;
+		double externalDischargingPowerInMW;
+		if (timeIndex != GenericDeviceSnapshot.NOT_COVERED) {
+			chargingEfficiency = snapshot.getChargingEfficiency(timeIndex);
+			dischargingEfficiency = snapshot.getDischargingEfficiency(timeIndex);
+			energyContentUpperLimitInMWH = snapshot.getEnergyContentUpperLimitInMWH(timeIndex);
+			energyContentLowerLimitInMWH = snapshot.getEnergyContentLowerLimitInMWH(timeIndex);
+			effectiveSelfDischargeRate = snapshot.getEffectiveSelfDischargeRate(timeIndex);
+			netInflowPowerInMW = snapshot.getNetInflowInMW(timeIndex);
+			externalChargingPowerInMW = snapshot.getExternalChargingPowerInMW(timeIndex);
+			externalDischargingPowerInMW = snapshot.getExternalDischargingPowerInMW(timeIndex);
+			variableCostInEURperMWH = snapshot.getVariableCostInEURperMWH(timeIndex);
+		} else {
+			chargingEfficiency = device.getChargingEfficiency(time);
+			dischargingEfficiency = device.getDischargingEfficiency(time);
+			energyContentUpperLimitInMWH = device.getEnergyContentUpperLimitInMWH(time);
+			energyContentLowerLimitInMWH = device.getEnergyContentLowerLimitInMWH(time);
+			effectiveSelfDischargeRate = 1. - Math.pow(1 - device.getSelfDischargeRate(time), intervalDurationInHours);
+			netInflowPowerInMW = device.getNetInflowInMW(time);
+			externalChargingPowerInMW = device.getExternalChargingPowerInMW(time);
+			externalDischargingPowerInMW = device.getExternalDischargingPowerInMW(time);
+			variableCostInEURperMWH = device.getVariableCostInEURperMWH(time);
+		}
 
 		double maxInternalChargingPowerInMW = netInflowPowerInMW + externalChargingPowerInMW * chargingEfficiency;
 		double maxInternalDischargingPowerInMW = netInflowPowerInMW - externalDischargingPowerInMW / dischargingEfficiency;
@@ -66,7 +100,6 @@ public class GenericDeviceCache {
 		maxNetDischargingEnergyInMWH = maxInternalDischargingPowerInMW * intervalDurationInHours;
 
 		netInflowEnergyInMWH = netInflowPowerInMW * intervalDurationInHours;
-		variableCostInEURperMWH = device.getVariableCostInEURperMWH(time);
 		maxExternalChargingEnergyInMWH = externalChargingPowerInMW * intervalDurationInHours;
 		maxExternalDischargingEnergyInMWH = externalDischargingPowerInMW * intervalDurationInHours;
 	}
@@ -0,0 +1,154 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.flexibility;
+
+import static de.dlr.gitlab.fame.time.Constants.STEPS_PER_HOUR;
+import de.dlr.gitlab.fame.time.TimePeriod;
+import de.dlr.gitlab.fame.time.TimeStamp;
+
+/** Holds all time series properties of a {@link GenericDevice} for each period of a planning horizon. Properties are read once
+ * per horizon and stored in primitive arrays indexed by the period's time index; index -1 refers to the period preceding the
+ * horizon. */
+public class GenericDeviceSnapshot {
+	/** Returned by {@link #getTimeIndex(TimeStamp)} if a time is not covered by this snapshot */
+	public static final int NOT_COVERED = Integer.MIN_VALUE;
+
+	private final GenericDevice device;
+
+	private long firstStep;
+	private long stepsPerPeriod;
+	private int numberOfTimeSteps;
+
+	private double[] chargingEfficiency;
+	private double[] dischargingEfficiency;
+	private double[] energyContentUpperLimitInMWH;
+	private double[] energyContentLowerLimitInMWH;
+	private double[] selfDischargeRatePerHour;
+	private double[] effectiveSelfDischargeRate;
+	private double[] netInflowPowerInMW;
+	private double[] externalChargingPowerInMW;
+	private double[] externalDischargingPowerInMW;
+	private double[] variableCostInEURperMWH;
+
+	/** Instantiates a new, empty {@link GenericDeviceSnapshot} for given device
+	 *
+	 * @param device the {@link GenericDevice} to read properties from */
+	public GenericDeviceSnapshot(GenericDevice device) {
+		this.device = device;
+	}
+
+	/** Reads all time series properties of the device for the given planning horizon and the period preceding it
+	 *
+	 * @param startingPeriod first period of the planning horizon
+	 * @param numberOfTimeSteps number of periods in the planning horizon */
+	public void update(TimePeriod startingPeriod, int numberOfTimeSteps) {
+		this.numberOfTimeSteps = numberOfTimeSteps;
+		stepsPerPeriod = startingPeriod.getDuration().getSteps();
+		firstStep = startingPeriod.getStartTime().getStep();
+		ensureCapacity(numberOfTimeSteps + 1);
+		double intervalDurationInHours = (double) stepsPerPeriod / STEPS_PER_HOUR;
+		for (int row = 0; row <= numberOfTimeSteps; row++) {
+			TimeStamp time = new TimeStamp(firstStep + (row - 1) * stepsPerPeriod);
+			chargingEfficiency[row] = device.getChargingEfficiency(time);
+			dischargingEfficiency[row] = device.getDischargingEfficiency(time);
+			energyContentUpperLimitInMWH[row] = device.getEnergyContentUpperLimitInMWH(time);
+			energyContentLowerLimitInMWH[row] = device.getEnergyContentLowerLimitInMWH(time);
+			double selfDischargeRate = device.getSelfDischargeRate(time);
+			selfDischargeRatePerHour[row] = selfDischargeRate;
+			effectiveSelfDischargeRate[row] = selfDischargeRate == 0 ? 0
+					: 1. - Math.pow(1 - selfDischargeRate, intervalDurationInHours);
+			netInflowPowerInMW[row] = device.getNetInflowInMW(time);
+			externalChargingPowerInMW[row] = device.getExternalChargingPowerInMW(time);
+			externalDischargingPowerInMW[row] = device.getExternalDischargingPowerInMW(time);
+			variableCostInEURperMWH[row] = device.getVariableCostInEURperMWH(time);
+		}
+	}
+
+	/** Allocates new arrays if the current ones cannot hold the given number of rows */
+	private void ensureCapacity(int rowCount) {
+		if (chargingEfficiency == null || chargingEfficiency.length < rowCount) {
+			chargingEfficiency = new double[rowCount];
+			dischargingEfficiency = new double[rowCount];
+			energyContentUpperLimitInMWH = new double[rowCount];
+			energyContentLowerLimitInMWH = new double[rowCount];
+			selfDischargeRatePerHour = new double[rowCount];
+			effectiveSelfDischargeRate = new double[rowCount];
+			netInflowPowerInMW = new double[rowCount];
+			externalChargingPowerInMW = new double[rowCount];
+			externalDischargingPowerInMW = new double[rowCount];
+			variableCostInEURperMWH = new double[rowCount];
+		}
+	}
+
+	/** Returns time index of the period starting at given time
+	 *
+	 * @param time to search the period for
+	 * @return time index of the period starting at given time, or {@link #NOT_COVERED} if this snapshot holds no data for it */
+	public int getTimeIndex(TimeStamp time) {
+		if (stepsPerPeriod == 0) {
+			return NOT_COVERED;
+		}
+		long stepsSinceStart = time.getStep() - firstStep;
+		if (stepsSinceStart % stepsPerPeriod != 0) {
+			return NOT_COVERED;
+		}
+		long timeIndex = stepsSinceStart / stepsPerPeriod;
+		return timeIndex >= -1 && timeIndex < numberOfTimeSteps ? (int) timeIndex : NOT_COVERED;
+	}
+
+	/** @return number of periods in the planning horizon, excluding the preceding period */
+	public int getNumberOfTimeSteps() {
+		return numberOfTimeSteps;
+	}
+
+	/** @return charging efficiency in the period with given time index */
+	public double getChargingEfficiency(int timeIndex) {
+		return chargingEfficiency[timeIndex + 1];
+	}
+
+	/** @return discharging efficiency in the period with given time index */
+	public double getDischargingEfficiency(int timeIndex) {
+		return dischargingEfficiency[timeIndex + 1];
+	}
+
+	/** @return upper limit of energy content in MWh in the period with given time index */
+	public double getEnergyContentUpperLimitInMWH(int timeIndex) {
+		return energyContentUpperLimitInMWH[timeIndex + 1];
+	}
+
+	/** @return lower limit of energy content in MWh in the period with given time index */
+	public double getEnergyContentLowerLimitInMWH(int timeIndex) {
+		return energyContentLowerLimitInMWH[timeIndex + 1];
+	}
+
+	/** @return hourly self discharge rate in the period with given time index */
+	public double getSelfDischargeRate(int timeIndex) {
+		return selfDischargeRatePerHour[timeIndex + 1];
+	}
+
+	/** @return self discharge rate over the whole duration of the period with given time index */
+	public double getEffectiveSelfDischargeRate(int timeIndex) {
+		return effectiveSelfDischargeRate[timeIndex + 1];
+	}
+
+	/** @return net inflow power in MW in the period with given time index */
+	public double getNetInflowInMW(int timeIndex) {
+		return netInflowPowerInMW[timeIndex + 1];
+	}
+
+	/** @return external charging power in MW in the period with given time index */
+	public double getExternalChargingPowerInMW(int timeIndex) {
+		return externalChargingPowerInMW[timeIndex + 1];
+	}
+
+	/** @return external discharging power in MW in the period with given time index */
+	public double getExternalDischargingPowerInMW(int timeIndex) {
+		return externalDischargingPowerInMW[timeIndex + 1];
+	}
+
+	/** @return variable cost in EUR per MWh in the period with given time index */
+	public double getVariableCostInEURperMWH(int timeIndex) {
+		return variableCostInEURperMWH[timeIndex + 1];
+	}
+}
@@ -3,6 +3,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package agents.flexibility.dynamicProgramming;
 
+import java.util.stream.IntStream;
 import agents.flexibility.BidSchedule;
 import agents.flexibility.GenericDevice;
 import agents.flexibility.dynamicProgramming.bidding.BidScheduler;
@@ -10,6 +11,9 @@ import agents.flexibility.dynamicProgramming.states.StateManager;
 import agents.flexibility.dynamicProgramming.states.StateManager.DispatchSchedule;
 import de.dlr.gitlab.fame.time.Constants;
 import de.dlr.gitlab.fame.time.TimePeriod;
+import util.ActionProfiler;
+import util.ActionProfiler.Counter;
+import util.WorkerPools;
 
 /** {@link Optimiser} finds the best dispatch strategy for a {@link GenericDevice} using dynamic programming. The operational
  * states are controlled by a {@link StateManager}, which also assesses the value of transitions between states. The best
@@ -26,10 +30,16 @@ public final class Optimiser {
 		MINIMISE
 	}
 
+	/** Minimum number of initial states assessed by one concurrent task */
+	static final int MIN_STATES_PER_TASK = 64;
+	/** Number of concurrent tasks created per worker thread to balance uneven workloads */
+	static final int TASKS_PER_THREAD = 4;
+
 	private final StateManager stateManager;
 	private final BidScheduler bidScheduler;
 	private final double initialAssessmentValue;
 	private final boolean isMaximisation;
+	private final int parallelism;
 
 	/** Instantiates new {@link Optimiser}
 	 * 
@@ -37,10 +47,23 @@ public final class Optimiser {
 	 * @param bidScheduler to create bidding schedules
 	 * @param target type of optimisation target */
 	public Optimiser(StateManager stateManager, BidScheduler bidScheduler, Target target) {
+		this(stateManager, bidScheduler, target, 1);
+	}
+
+	/** Instantiates new {@link Optimiser}
+	 * 
+	 * @param stateManager to control feasible states
+	 * @param bidScheduler to create bidding schedules
+	 * @param target type of optimisation target
+	 * @param parallelism number of threads used to assess initial states of a period concurrently on a shared
+	 *          {@link WorkerPools worker pool}; only applies if the {@link StateManager}
+	 *          {@link StateManager#allowsConcurrentEvaluation() allows concurrent evaluation} */
+	public Optimiser(StateManager stateManager, BidScheduler bidScheduler, Target target, int parallelism) {
 		this.stateManager = stateManager;
 		this.bidScheduler = bidScheduler;
 		isMaximisation = target == Target.MAXIMISE;
 		initialAssessmentValue = isMaximisation ? -Double.MAX_VALUE : Double.MAX_VALUE;
+		this.parallelism = parallelism;
 	}
 
 	/** Create an optimal {@link BidSchedule} based on the available information
@@ -49,8 +72,8 @@ public final class Optimiser {
 	 * @return optimised {@link BidSchedule}
 	 * @throws DispatchPlanningError in case to valid schedule can be found */
 	public BidSchedule createSchedule(TimePeriod startingPeriod) throws DispatchPlanningError {
-		optimise(startingPeriod);
 		int numberOfSchedulingSteps = calcHorizonInPeriodSteps(startingPeriod, bidScheduler.getScheduleHorizonInHours());
+		optimise(startingPeriod, numberOfSchedulingSteps);
 		DispatchSchedule dispatchSchedule = stateManager.getBestDispatchSchedule(numberOfSchedulingSteps);
 		return bidScheduler.createBidSchedule(startingPeriod, dispatchSchedule);
 	}
@@ -58,9 +81,10 @@ public final class Optimiser {
 	/** Optimise dispatch, proceeding backwards in time
 	 *
 	 * @param startingPeriod first time period of the planning horizon that is to be optimised
+	 * @param numberOfSchedulingSteps number of time periods of the dispatch schedule built after optimisation
 	 * @throws DispatchPlanningError in case to valid transition can be found */
-	private void optimise(TimePeriod startingPeriod) throws DispatchPlanningError {
-		stateManager.initialise(startingPeriod);
+	private void optimise(TimePeriod startingPeriod, int numberOfSchedulingSteps) throws DispatchPlanningError {
+		stateManager.initialise(startingPeriod, numberOfSchedulingSteps);
 		for (int k = 0; k < stateManager.getNumberOfForecastTimeSteps(); k++) {
 			int step = stateManager.getNumberOfForecastTimeSteps() - k - 1;
 			TimePeriod timePeriod = startingPeriod.shiftByDuration(step);
@@ -77,7 +101,9 @@ public final class Optimiser {
 	/** Optimise using lists of initial and final state indices */
 	private boolean optimiseWithStateList(double[] bestValuesNextPeriod) {
 		boolean hasValidTransition = false;
-		for (int initialStateIndex : stateManager.getInitialStates()) {
+		int[] initialStates = stateManager.getInitialStates();
+		ActionProfiler.count(Counter.DISPATCH_STATE_EVALUATIONS, initialStates.length);
+		for (int initialStateIndex : initialStates) {
 			double bestAssessmentValue = initialAssessmentValue;
 			int bestFinalStateIndex = Integer.MIN_VALUE;
 			int[] finalStates = stateManager.getFinalStates(initialStateIndex);
@@ -108,24 +134,52 @@ public final class Optimiser {
 		}
 	}
 
-	/** Optimise using lowest and highest state index */
+	/** Optimise using lowest and highest state index; uses a fast path if the best final states are monotone, otherwise initial
+	 * states are split into concurrent tasks if permitted */
 	private boolean optimiseWithBoundaries(double[] bestValuesNextPeriod) {
-		boolean hasValidTransition = false;
 		int[] initialBoundaries = stateManager.getInitialStates();
-		for (int initialStateIndex = initialBoundaries[0]; initialStateIndex <= initialBoundaries[1]; initialStateIndex++) {
+		ActionProfiler.count(Counter.DISPATCH_STATE_EVALUATIONS, Math.max(0, initialBoundaries[1] - initialBoundaries[0] + 1));
+		if (stateManager.hasMonotoneBestFinalStates()) {
+			Boolean hasValidTransition = optimiseMonotone(initialBoundaries[0], initialBoundaries[1], bestValuesNextPeriod);
+			if (hasValidTransition != null) {
+				return hasValidTransition;
+			}
+		}
+		int firstInitialState = initialBoundaries[0];
+		int numberOfInitialStates = initialBoundaries[1] - firstInitialState + 1;
+		int numberOfTasks = Math.min(parallelism * TASKS_PER_THREAD, numberOfInitialStates / MIN_STATES_PER_TASK);
+		if (parallelism <= 1 || numberOfTasks <= 1 || !stateManager.allowsConcurrentEvaluation()) {
+			return optimiseWithBoundaries(firstInitialState, initialBoundaries[1], bestValuesNextPeriod);
+		}
+		return WorkerPools.get(parallelism).submit(() -> IntStream.range(0, numberOfTasks).parallel().mapToObj(task -> {
+			int first = firstInitialState + (int) ((long) numberOfInitialStates * task / numberOfTasks);
+			int last = firstInitialState + (int) ((long) numberOfInitialStates * (task + 1) / numberOfTasks) - 1;
+			return optimiseWithBoundaries(first, last, bestValuesNextPeriod);
+		}).reduce(false, Boolean::logicalOr)).join();
+	}
+
+	/** Optimise initial states in given inclusive index range using lowest and highest final state index
+	 * 
+	 * @return true if any of the initial states has a valid transition */
+	private boolean optimiseWithBoundaries(int firstInitialState, int lastInitialState, double[] bestValuesNextPeriod) {
+		boolean hasValidTransition = false;
+		double[] transitionValues = new double[bestValuesNextPeriod.length];
+		for (int initialStateIndex = firstInitialState; initialStateIndex <= lastInitialState; initialStateIndex++) {
 			double bestAssessmentValue = initialAssessmentValue;
 			int bestFinalStateIndex = StateManager.STATE_INFEASIBLE;
 			int[] finalBoundaries = stateManager.getFinalStates(initialStateIndex);
 			if (finalBoundaries.length == 1) {
 				bestFinalStateIndex = finalBoundaries[0];
-			} else {
-				for (int finalStateIndex = finalBoundaries[0]; finalStateIndex <= finalBoundaries[1]; finalStateIndex++) {
-					double value = stateManager.getTransitionValueFor(initialStateIndex, finalStateIndex)
-							+ bestValuesNextPeriod[finalStateIndex];
-					if (compare(value, bestAssessmentValue)) {
-						bestAssessmentValue = value;
-						bestFinalStateIndex = finalStateIndex;
-					}
+			} else if (finalBoundaries[1] >= finalBoundaries[0]) {
+				int firstFinalState = finalBoundaries[0];
+				int numberOfFinalStates = finalBoundaries[1] - firstFinalState + 1;
+				stateManager.getTransitionValuesFor(initialStateIndex, firstFinalState, finalBoundaries[1], transitionValues);
+				int bestOffset = isMaximisation
+						? findBestOffsetMaximising(transitionValues, bestValuesNextPeriod, firstFinalState, numberOfFinalStates)
+						: findBestOffsetMinimising(transitionValues, bestValuesNextPeriod, firstFinalState, numberOfFinalStates);
+				if (bestOffset >= 0) {
+					bestFinalStateIndex = firstFinalState + bestOffset;
+					bestAssessmentValue = transitionValues[bestOffset] + bestValuesNextPeriod[bestFinalStateIndex];
 				}
 			}
 			stateManager.updateBestFinalState(initialStateIndex, bestFinalStateIndex, bestAssessmentValue);
@@ -134,6 +188,115 @@ public final class Optimiser {
 		return hasValidTransition;
 	}
 
+	/** Optimise initial states in given inclusive index range exploiting that their best final states do not decrease with
+	 * increasing initial state; best final states are found by divide and conquer. Each recursion level scans each final state
+	 * about once, requiring O((n + m) log n) instead of O(n * r) transition assessments for n initial states, m final states, and r
+	 * reachable final states per initial state; i.e. O(S log S) for S states.
+	 * 
+	 * @return true if any of the initial states has a valid transition, false if none has, or null if ranges of final states are
+	 *         not monotone and thus the fast path is not applicable */
+	private Boolean optimiseMonotone(int firstInitialState, int lastInitialState, double[] bestValuesNextPeriod) {
+		int numberOfInitialStates = Math.max(0, lastInitialState - firstInitialState + 1);
+		int[] initialStates = new int[numberOfInitialStates];
+		int[] lowestFinalStates = new int[numberOfInitialStates];
+		int[] highestFinalStates = new int[numberOfInitialStates];
+		int count = 0;
+		boolean hasValidTransition = false;
+		for (int initialStateIndex = firstInitialState; initialStateIndex <= lastInitialState; initialStateIndex++) {
+			int[] finalBoundaries = stateManager.getFinalStates(initialStateIndex);
+			if (finalBoundaries.length == 1) {
+				stateManager.updateBestFinalState(initialStateIndex, finalBoundaries[0], initialAssessmentValue);
+				hasValidTransition = hasValidTransition || finalBoundaries[0] >= 0;
+			} else if (finalBoundaries[1] < finalBoundaries[0]) {
+				stateManager.updateBestFinalState(initialStateIndex, StateManager.STATE_INFEASIBLE, initialAssessmentValue);
+			} else {
+				if (count > 0 && (finalBoundaries[0] < lowestFinalStates[count - 1]
+						|| finalBoundaries[1] < highestFinalStates[count - 1])) {
+					return null;
+				}
+				initialStates[count] = initialStateIndex;
+				lowestFinalStates[count] = finalBoundaries[0];
+				highestFinalStates[count] = finalBoundaries[1];
+				count++;
+			}
+		}
+		if (count > 0) {
+			double[] transitionValues = new double[bestValuesNextPeriod.length];
+			int[] bestFinalStates = new int[count];
+			optimiseMonotone(initialStates, lowestFinalStates, highestFinalStates, 0, count - 1,
+					lowestFinalStates[0], highestFinalStates[count - 1], bestValuesNextPeriod, transitionValues, bestFinalStates);
+			for (int bestFinalState : bestFinalStates) {
+				hasValidTransition = hasValidTransition || bestFinalState >= 0;
+			}
+		}
+		return hasValidTransition;
+	}
+
+	/** Finds the best final state of the middle initial state in the given range of positions, searching only between the given
+	 * lower and upper bound; then recurses into both halves with bounds narrowed by the result found */
+	private void optimiseMonotone(int[] initialStates, int[] lowestFinalStates, int[] highestFinalStates, int from, int to,
+			int lowerBound, int upperBound, double[] bestValuesNextPeriod, double[] transitionValues, int[] bestFinalStates) {
+		if (from > to) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		int initialStateIndex = initialStates[middle];
+		int firstFinalState = Math.max(lowestFinalStates[middle], lowerBound);
+		int lastFinalState = Math.min(highestFinalStates[middle], upperBound);
+		double bestAssessmentValue = initialAssessmentValue;
+		int bestFinalStateIndex = StateManager.STATE_INFEASIBLE;
+		if (lastFinalState >= firstFinalState) {
+			int numberOfFinalStates = lastFinalState - firstFinalState + 1;
+			stateManager.getTransitionValuesFor(initialStateIndex, firstFinalState, lastFinalState, transitionValues);
+			int bestOffset = isMaximisation
+					? findBestOffsetMaximising(transitionValues, bestValuesNextPeriod, firstFinalState, numberOfFinalStates)
+					: findBestOffsetMinimising(transitionValues, bestValuesNextPeriod, firstFinalState, numberOfFinalStates);
+			if (bestOffset >= 0) {
+				bestFinalStateIndex = firstFinalState + bestOffset;
+				bestAssessmentValue = transitionValues[bestOffset] + bestValuesNextPeriod[bestFinalStateIndex];
+			}
+		}
+		stateManager.updateBestFinalState(initialStateIndex, bestFinalStateIndex, bestAssessmentValue);
+		bestFinalStates[middle] = bestFinalStateIndex;
+		boolean isFound = bestFinalStateIndex >= 0;
+		optimiseMonotone(initialStates, lowestFinalStates, highestFinalStates, from, middle - 1, lowerBound,
+				isFound ? bestFinalStateIndex : upperBound, bestValuesNextPeriod, transitionValues, bestFinalStates);
+		optimiseMonotone(initialStates, lowestFinalStates, highestFinalStates, middle + 1, to,
+				isFound ? bestFinalStateIndex : lowerBound, upperBound, bestValuesNextPeriod, transitionValues, bestFinalStates);
+	}
+
+	/** Finds the final state with the highest total value; loop is kept free of branches to allow for vectorisation
+	 * 
+	 * @return offset of the first final state with the highest total value above the initial assessment value, or -1 if none */
+	private int findBestOffsetMaximising(double[] transitionValues, double[] bestValuesNextPeriod, int firstFinalState,
+			int numberOfFinalStates) {
+		double bestValue = initialAssessmentValue;
+		int bestOffset = -1;
+		for (int offset = 0; offset < numberOfFinalStates; offset++) {
+			double value = transitionValues[offset] + bestValuesNextPeriod[firstFinalState + offset];
+			boolean isBetter = value > bestValue;
+			bestValue = isBetter ? value : bestValue;
+			bestOffset = isBetter ? offset : bestOffset;
+		}
+		return bestOffset;
+	}
+
+	/** Finds the final state with the lowest total value; loop is kept free of branches to allow for vectorisation
+	 * 
+	 * @return offset of the first final state with the lowest total value below the initial assessment value, or -1 if none */
+	private int findBestOffsetMinimising(double[] transitionValues, double[] bestValuesNextPeriod, int firstFinalState,
+			int numberOfFinalStates) {
+		double bestValue = initialAssessmentValue;
+		int bestOffset = -1;
+		for (int offset = 0; offset < numberOfFinalStates; offset++) {
+			double value = transitionValues[offset] + bestValuesNextPeriod[firstFinalState + offset];
+			boolean isBetter = value < bestValue;
+			bestValue = isBetter ? value : bestValue;
+			bestOffset = isBetter ? offset : bestOffset;
+		}
+		return bestOffset;
+	}
+
 	/** Assesses problems in the dispatch planning; then throws a {@link DispatchPlanningError}
 	 * 
 	 * @throws DispatchPlanningError indicating problems in the dispatch */
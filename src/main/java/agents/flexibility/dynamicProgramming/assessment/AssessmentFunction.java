@@ -25,6 +25,18 @@ public interface AssessmentFunction {
 	 * @return the value or costs of the transition at the time the {@link AssessmentFunction} was {@link #prepareFor(TimeStamp)} */
 	double assessTransition(double externalEnergyDeltaInMWH);
 
+	/** Return estimated values or costs of several transitions, each identical to that of {@link #assessTransition(double)};
+	 * implementations may be faster if the energy deltas are sorted
+	 * 
+	 * @param externalEnergyDeltasInMWH of the transitions to be assessed; positive values correspond to "charging"
+	 * @param count number of transitions to assess, starting at the first element
+	 * @param values array to write the values or costs to; may be the same array as the energy deltas */
+	default void assessTransitions(double[] externalEnergyDeltasInMWH, int count, double[] values) {
+		for (int index = 0; index < count; index++) {
+			values[index] = assessTransition(externalEnergyDeltasInMWH[index]);
+		}
+	}
+
 	/** Clear entries of electricity price forecasts before given time
 	 * 
 	 * @param time before which elements are cleared */
@@ -18,10 +18,9 @@ public class MaxProfit extends SensitivityBasedAssessment {
 	}
 
 	@Override
-	public double assessTransition(double externalEnergyDeltaInMWH) {
+	protected double assessTransition(double externalEnergyDeltaInMWH, double sensitivityValue) {
 		double sign = -Math.signum(externalEnergyDeltaInMWH);
-		return sign * currentSensitivity.getValue(externalEnergyDeltaInMWH)
-				- Math.abs(externalEnergyDeltaInMWH) * currentVariableCostInEURperMWH;
+		return sign * sensitivityValue - Math.abs(externalEnergyDeltaInMWH) * currentVariableCostInEURperMWH;
 	}
 
 	@Override
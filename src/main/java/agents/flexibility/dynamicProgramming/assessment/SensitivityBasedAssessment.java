@@ -9,6 +9,7 @@ import agents.flexibility.GenericDevice;
 import communications.message.PointInTime;
 import communications.portable.Sensitivity;
 import communications.portable.Sensitivity.InterpolationType;
+import communications.portable.SensitivityCurves.SegmentCursor;
 import de.dlr.gitlab.fame.communication.message.Message;
 import de.dlr.gitlab.fame.time.TimeStamp;
 
@@ -32,7 +33,26 @@ public abstract class SensitivityBasedAssessment implements AssessmentFunction {
 	}
 
 	@Override
-	public abstract double assessTransition(double externalEnergyDeltaInMWH);
+	public final double assessTransition(double externalEnergyDeltaInMWH) {
+		return assessTransition(externalEnergyDeltaInMWH, currentSensitivity.getValue(externalEnergyDeltaInMWH));
+	}
+
+	@Override
+	public void assessTransitions(double[] externalEnergyDeltasInMWH, int count, double[] values) {
+		SegmentCursor cursor = new SegmentCursor();
+		for (int index = 0; index < count; index++) {
+			double externalEnergyDeltaInMWH = externalEnergyDeltasInMWH[index];
+			values[index] = assessTransition(externalEnergyDeltaInMWH,
+					currentSensitivity.getValue(externalEnergyDeltaInMWH, cursor));
+		}
+	}
+
+	/** Return estimated value or costs of the transition
+	 * 
+	 * @param externalEnergyDeltaInMWH of the transition to be assessed; positive values correspond to "charging"
+	 * @param sensitivityValue of the current {@link Sensitivity} for the given energy delta
+	 * @return the value or costs of the transition */
+	protected abstract double assessTransition(double externalEnergyDeltaInMWH, double sensitivityValue);
 
 	@Override
 	public void clearBefore(TimeStamp time) {
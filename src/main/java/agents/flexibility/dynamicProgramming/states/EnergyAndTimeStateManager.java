@@ -6,9 +6,11 @@ package agents.flexibility.dynamicProgramming.states;
 import java.util.ArrayList;
 import agents.flexibility.GenericDevice;
 import agents.flexibility.GenericDeviceCache;
+import agents.flexibility.GenericDeviceSnapshot;
 import agents.flexibility.dynamicProgramming.DispatchPlanningError;
 import agents.flexibility.dynamicProgramming.Optimiser;
 import agents.flexibility.dynamicProgramming.assessment.AssessmentFunction;
+import agents.flexibility.dynamicProgramming.states.StateEvaluations.ValueStorage;
 import agents.flexibility.dynamicProgramming.states.StateManagerBuilder.Type;
 import de.dlr.gitlab.fame.time.TimePeriod;
 import de.dlr.gitlab.fame.time.TimeStamp;
@@ -22,6 +24,7 @@ public class EnergyAndTimeStateManager implements StateManager {
 
 	private final GenericDevice device;
 	private final GenericDeviceCache deviceCache;
+	private final GenericDeviceSnapshot snapshot;
 	private final double planningHorizonInHours;
 
 	private final StateDiscretiser stateDiscretiser;
@@ -29,39 +32,47 @@ public class EnergyAndTimeStateManager implements StateManager {
 	private final StateEvaluations stateEvaluations;
 
 	private int numberOfTimeSteps;
-	private TimeStamp timeAtFinalState;
+	private int initialStateTimeIndex;
 
 	public EnergyAndTimeStateManager(GenericDevice device, AssessmentFunction assessmentFunction,
-			double planningHorizonInHours, double energyResolutionInMWH, WaterValues waterValues) {
+			double planningHorizonInHours, double energyResolutionInMWH, WaterValues waterValues,
+			ValueStorage valueStorage) {
 		this.device = device;
 		this.deviceCache = new GenericDeviceCache(device);
+		this.snapshot = deviceCache.getSnapshot();
 		this.stateDiscretiser = new StateDiscretiser(energyResolutionInMWH, device.hasProlonging());
 		this.transitionEvaluator = new TransitionEvaluator(stateDiscretiser, deviceCache, assessmentFunction);
 		this.planningHorizonInHours = planningHorizonInHours;
-		this.stateEvaluations = new StateEvaluations(stateDiscretiser, deviceCache, assessmentFunction, waterValues);
+		this.stateEvaluations = new StateEvaluations(stateDiscretiser, deviceCache, assessmentFunction, waterValues,
+				valueStorage);
 	}
 
 	@Override
 	public void initialise(TimePeriod startingPeriod) {
-		deviceCache.setPeriod(startingPeriod);
-		stateDiscretiser.setTimeResolution(startingPeriod.getDuration());
+		initialise(startingPeriod, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public void initialise(TimePeriod startingPeriod, int schedulingSteps) {
 		numberOfTimeSteps = Optimiser.calcHorizonInPeriodSteps(startingPeriod, planningHorizonInHours);
-		double[] energyBoundaries = StateManager.analyseAvailableEnergyLevels(device, numberOfTimeSteps, startingPeriod);
+		deviceCache.setHorizon(startingPeriod, numberOfTimeSteps);
+		stateDiscretiser.setTimeResolution(startingPeriod.getDuration());
+		double[] energyBoundaries = StateManager.analyseAvailableEnergyLevels(snapshot);
 		stateDiscretiser.setBoundaries(energyBoundaries, device.getMaximumShiftTime());
-		raiseOnSelfDischarge(startingPeriod);
-		stateEvaluations.initialise(startingPeriod, numberOfTimeSteps, stateDiscretiser.getStateCount());
+		raiseOnSelfDischarge();
+		stateEvaluations.initialise(startingPeriod, numberOfTimeSteps, stateDiscretiser.getStateCount(), schedulingSteps);
 	}
 
 	/** @throws RuntimeException if self-discharge occurs */
-	private void raiseOnSelfDischarge(TimePeriod startingPeriod) {
-		if (StateManager.hasSelfDischarge(device, numberOfTimeSteps, startingPeriod)) {
+	private void raiseOnSelfDischarge() {
+		if (StateManager.hasSelfDischarge(snapshot)) {
 			throw new RuntimeException(ERR_SELF_DISCHARGE + Type.ENERGY_AND_TIME);
 		}
 	}
 
 	@Override
 	public void prepareFor(TimeStamp time) {
-		timeAtFinalState = time;
+		initialStateTimeIndex = snapshot.getTimeIndex(time) - 1;
 		transitionEvaluator.prepareFor(time, false);
 		stateEvaluations.prepareFor(time);
 		stateDiscretiser.setShiftEnergyDeltaLimits(deviceCache.getMaxNetDischargingEnergyInMWH(),
@@ -75,9 +86,8 @@ public class EnergyAndTimeStateManager implements StateManager {
 
 	@Override
 	public int[] getInitialStates() {
-		TimeStamp timeAtInitialState = timeAtFinalState.earlierBy(stateDiscretiser.getTimeResolution());
-		return stateDiscretiser.getAvailableStates(device.getEnergyContentLowerLimitInMWH(timeAtInitialState),
-				device.getEnergyContentUpperLimitInMWH(timeAtInitialState));
+		return stateDiscretiser.getAvailableStates(snapshot.getEnergyContentLowerLimitInMWH(initialStateTimeIndex),
+				snapshot.getEnergyContentUpperLimitInMWH(initialStateTimeIndex));
 	}
 
 	@Override
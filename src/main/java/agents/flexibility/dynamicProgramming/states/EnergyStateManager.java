@@ -6,9 +6,11 @@ package agents.flexibility.dynamicProgramming.states;
 import java.util.ArrayList;
 import agents.flexibility.GenericDevice;
 import agents.flexibility.GenericDeviceCache;
+import agents.flexibility.GenericDeviceSnapshot;
 import agents.flexibility.dynamicProgramming.DispatchPlanningError;
 import agents.flexibility.dynamicProgramming.Optimiser;
 import agents.flexibility.dynamicProgramming.assessment.AssessmentFunction;
+import agents.flexibility.dynamicProgramming.states.StateEvaluations.ValueStorage;
 import de.dlr.gitlab.fame.time.TimePeriod;
 import de.dlr.gitlab.fame.time.TimeSpan;
 import de.dlr.gitlab.fame.time.TimeStamp;
@@ -21,6 +23,7 @@ public class EnergyStateManager implements StateManager {
 
 	private final GenericDevice device;
 	private final GenericDeviceCache deviceCache;
+	private final GenericDeviceSnapshot snapshot;
 	private final double planningHorizonInHours;
 
 	private final StateDiscretiser stateDiscretiser;
@@ -29,32 +32,39 @@ public class EnergyStateManager implements StateManager {
 
 	private int numberOfTimeSteps;
 	private boolean hasSelfDischarge;
-	private TimeStamp timeAtFinalState;
+	private int initialStateTimeIndex;
 
 	public EnergyStateManager(GenericDevice device, AssessmentFunction assessmentFunction, double planningHorizonInHours,
-			double energyResolutionInMWH, WaterValues waterValues) {
+			double energyResolutionInMWH, WaterValues waterValues, ValueStorage valueStorage) {
 		this.device = device;
 		this.deviceCache = new GenericDeviceCache(device);
+		this.snapshot = deviceCache.getSnapshot();
 		this.stateDiscretiser = new StateDiscretiser(energyResolutionInMWH, false);
 		this.transitionEvaluator = new TransitionEvaluator(stateDiscretiser, deviceCache, assessmentFunction);
-		this.stateEvaluations = new StateEvaluations(stateDiscretiser, deviceCache, assessmentFunction, waterValues);
+		this.stateEvaluations = new StateEvaluations(stateDiscretiser, deviceCache, assessmentFunction, waterValues,
+				valueStorage);
 		this.planningHorizonInHours = planningHorizonInHours;
 	}
 
 	@Override
 	public void initialise(TimePeriod startingPeriod) {
-		deviceCache.setPeriod(startingPeriod);
-		stateDiscretiser.setTimeResolution(startingPeriod.getDuration());
+		initialise(startingPeriod, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public void initialise(TimePeriod startingPeriod, int schedulingSteps) {
 		numberOfTimeSteps = Optimiser.calcHorizonInPeriodSteps(startingPeriod, planningHorizonInHours);
-		double[] energyBoundaries = StateManager.analyseAvailableEnergyLevels(device, numberOfTimeSteps, startingPeriod);
+		deviceCache.setHorizon(startingPeriod, numberOfTimeSteps);
+		stateDiscretiser.setTimeResolution(startingPeriod.getDuration());
+		double[] energyBoundaries = StateManager.analyseAvailableEnergyLevels(snapshot);
 		stateDiscretiser.setBoundaries(energyBoundaries, MAX_SHIFT_TIME);
-		hasSelfDischarge = StateManager.hasSelfDischarge(device, numberOfTimeSteps, startingPeriod);
-		stateEvaluations.initialise(startingPeriod, numberOfTimeSteps, stateDiscretiser.getStateCount());
+		hasSelfDischarge = StateManager.hasSelfDischarge(snapshot);
+		stateEvaluations.initialise(startingPeriod, numberOfTimeSteps, stateDiscretiser.getStateCount(), schedulingSteps);
 	}
 
 	@Override
 	public void prepareFor(TimeStamp time) {
-		timeAtFinalState = time;
+		initialStateTimeIndex = snapshot.getTimeIndex(time) - 1;
 		transitionEvaluator.prepareFor(time, hasSelfDischarge);
 		stateEvaluations.prepareFor(time);
 	}
@@ -66,9 +76,8 @@ public class EnergyStateManager implements StateManager {
 
 	@Override
 	public int[] getInitialStates() {
-		TimeStamp timeAtInitialState = timeAtFinalState.earlierBy(stateDiscretiser.getTimeResolution());
-		return stateDiscretiser.getEnergyStateLimits(device.getEnergyContentLowerLimitInMWH(timeAtInitialState),
-				device.getEnergyContentUpperLimitInMWH(timeAtInitialState));
+		return stateDiscretiser.getEnergyStateLimits(snapshot.getEnergyContentLowerLimitInMWH(initialStateTimeIndex),
+				snapshot.getEnergyContentUpperLimitInMWH(initialStateTimeIndex));
 	}
 
 	@Override
@@ -93,6 +102,22 @@ public class EnergyStateManager implements StateManager {
 		return transitionEvaluator.getTransitionValueFor(initialStateIndex, finalStateIndex);
 	}
 
+	@Override
+	public void getTransitionValuesFor(int initialStateIndex, int firstFinalStateIndex, int lastFinalStateIndex,
+			double[] values) {
+		transitionEvaluator.getTransitionValuesFor(initialStateIndex, firstFinalStateIndex, lastFinalStateIndex, values);
+	}
+
+	@Override
+	public boolean allowsConcurrentEvaluation() {
+		return true;
+	}
+
+	@Override
+	public boolean hasMonotoneBestFinalStates() {
+		return transitionEvaluator.hasRegularCurvature();
+	}
+
 	@Override
 	public double[] getBestValuesNextPeriod() {
 		return stateEvaluations.getBestValuesNextPeriod();
@@ -0,0 +1,96 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.flexibility.dynamicProgramming.states;
+
+import java.util.Arrays;
+
+/** Stores the best next state for each state and time period in compact form: next states are stored relative to their initial
+ * state using the smallest integer type that can hold all possible offsets. Special states, e.g.
+ * {@link StateManager#STATE_INFEASIBLE}, are encoded using the lowest values of the respective type. */
+final class NextStateTable {
+	/** number of special states, i.e. {@link StateManager#STATE_INFEASIBLE}, {@link StateManager#STATE_OVERFLOW}, and
+	 * {@link StateManager#STATE_UNDERFLOW} */
+	private static final int SPECIAL_STATE_COUNT = 3;
+	static final int MAX_BYTE_OFFSET = Byte.MAX_VALUE - SPECIAL_STATE_COUNT + 1;
+	static final int MAX_SHORT_OFFSET = Short.MAX_VALUE - SPECIAL_STATE_COUNT + 1;
+
+	private final byte[][] byteOffsets;
+	private final short[][] shortOffsets;
+	private final int[][] states;
+
+	/** Creates a new {@link NextStateTable} with all entries set to {@link StateManager#STATE_INFEASIBLE}
+	 *
+	 * @param rowCount number of time periods to store
+	 * @param stateCount number of states per time period */
+	NextStateTable(int rowCount, int stateCount) {
+		int maxOffset = stateCount - 1;
+		byteOffsets = maxOffset <= MAX_BYTE_OFFSET ? new byte[rowCount][stateCount] : null;
+		shortOffsets = byteOffsets == null && maxOffset <= MAX_SHORT_OFFSET ? new short[rowCount][stateCount] : null;
+		states = byteOffsets == null && shortOffsets == null ? new int[rowCount][stateCount] : null;
+		for (int row = 0; row < rowCount; row++) {
+			clearRow(row);
+		}
+	}
+
+	/** Resets all entries of the given row to {@link StateManager#STATE_INFEASIBLE} */
+	void clearRow(int row) {
+		if (byteOffsets != null) {
+			Arrays.fill(byteOffsets[row], Byte.MIN_VALUE);
+		} else if (shortOffsets != null) {
+			Arrays.fill(shortOffsets[row], Short.MIN_VALUE);
+		} else {
+			Arrays.fill(states[row], StateManager.STATE_INFEASIBLE);
+		}
+	}
+
+	/** Stores the next state for given row and initial state
+	 *
+	 * @param row to store the next state at
+	 * @param stateIndex index of the initial state
+	 * @param nextStateIndex index of the next state or a special (negative) state */
+	void set(int row, int stateIndex, int nextStateIndex) {
+		if (byteOffsets != null) {
+			byteOffsets[row][stateIndex] = (byte) encode(stateIndex, nextStateIndex, Byte.MIN_VALUE);
+		} else if (shortOffsets != null) {
+			shortOffsets[row][stateIndex] = (short) encode(stateIndex, nextStateIndex, Short.MIN_VALUE);
+		} else {
+			states[row][stateIndex] = nextStateIndex;
+		}
+	}
+
+	/** @return offset of next state relative to the initial state, or a code below lowest valid offset for special states */
+	private static int encode(int stateIndex, int nextStateIndex, int minValue) {
+		if (isSpecialState(nextStateIndex)) {
+			return minValue + (nextStateIndex - Integer.MIN_VALUE);
+		}
+		return nextStateIndex - stateIndex;
+	}
+
+	/** @return true if the given state is a special state */
+	private static boolean isSpecialState(int stateIndex) {
+		return stateIndex < Integer.MIN_VALUE + SPECIAL_STATE_COUNT;
+	}
+
+	/** Returns next state for given row and initial state
+	 *
+	 * @param row to read the next state from
+	 * @param stateIndex index of the initial state
+	 * @return index of the next state or a special (negative) state */
+	int get(int row, int stateIndex) {
+		if (byteOffsets != null) {
+			return decode(stateIndex, byteOffsets[row][stateIndex], Byte.MIN_VALUE);
+		} else if (shortOffsets != null) {
+			return decode(stateIndex, shortOffsets[row][stateIndex], Short.MIN_VALUE);
+		}
+		return states[row][stateIndex];
+	}
+
+	/** @return next state from given initial state and encoded offset */
+	private static int decode(int stateIndex, int code, int minValue) {
+		if (code < minValue + SPECIAL_STATE_COUNT) {
+			return Integer.MIN_VALUE + (code - minValue);
+		}
+		return stateIndex + code;
+	}
+}
@@ -12,13 +12,23 @@ import agents.flexibility.dynamicProgramming.states.StateManager.DispatchSchedul
 import de.dlr.gitlab.fame.time.TimePeriod;
 import de.dlr.gitlab.fame.time.TimeStamp;
 
-/** Holds evaluations of states and creates dispatch schedules from these evaluations
+/** Holds evaluations of states and creates dispatch schedules from these evaluations. Best next states are stored as compact
+ * offsets; values are stored according to the configured {@link ValueStorage}.
  * 
  * @author Christoph Schimeczek */
 public class StateEvaluations {
 	static final String ERR_OVERFLOW = "Unavoidable energy overflow during planning at time: ";
 	static final String ERR_UNDERFLOW = "Unavoidable energy underflow during planning at time: ";
 	static final String ERR_INFEASIBLE = "Maybe too large inflows / outflows after: ";
+	static final String ERR_NOT_RETAINED = "Values were not retained for scheduling steps: ";
+
+	/** Defines how values of states are stored */
+	public enum ValueStorage {
+		/** values of all periods in the planning horizon are stored */
+		FULL,
+		/** values are only stored for periods within the scheduling horizon and two rolling periods beyond */
+		COMPACT
+	}
 
 	/** Used to avoid rounding errors in floating point calculation of transition steps */
 	static final double PRECISION_GUARD = 1E-6;
@@ -27,11 +37,14 @@ public class StateEvaluations {
 	private final GenericDeviceCache deviceCache;
 	private final AssessmentFunction assessmentFunction;
 	private final WaterValues waterValues;
+	private final ValueStorage valueStorage;
 
 	private int numberOfTimeSteps;
+	/** number of leading periods whose values are retained in {@link ValueStorage#COMPACT} mode */
+	private int retainedValueRows;
 	private TimePeriod startingPeriod;
 
-	private int[][] bestNextState;
+	private NextStateTable bestNextState;
 	private double[][] bestValue;
 	private double[] cachedWaterValuesInEUR;
 
@@ -45,10 +58,23 @@ public class StateEvaluations {
 	 * @param waterValues to be used as values for the last final state, assumed Zero if null or no data is given */
 	public StateEvaluations(StateDiscretiser stateDiscretiser, GenericDeviceCache deviceCache,
 			AssessmentFunction assessmentFunction, WaterValues waterValues) {
+		this(stateDiscretiser, deviceCache, assessmentFunction, waterValues, ValueStorage.FULL);
+	}
+
+	/** Initialises a new {@link StateEvaluations}
+	 * 
+	 * @param stateDiscretiser maps energy content and shift times to state indices
+	 * @param deviceCache caches values for a connected {@link GenericDevice}
+	 * @param assessmentFunction assesses values of energy transitions
+	 * @param waterValues to be used as values for the last final state, assumed Zero if null or no data is given
+	 * @param valueStorage defines how values of states are stored */
+	public StateEvaluations(StateDiscretiser stateDiscretiser, GenericDeviceCache deviceCache,
+			AssessmentFunction assessmentFunction, WaterValues waterValues, ValueStorage valueStorage) {
 		this.stateDiscretiser = stateDiscretiser;
 		this.deviceCache = deviceCache;
 		this.assessmentFunction = assessmentFunction;
 		this.waterValues = waterValues;
+		this.valueStorage = valueStorage;
 	}
 
 	/** Initialises storage for state evaluations in the forecast period determined by starting period and number of time steps
@@ -57,24 +83,29 @@ public class StateEvaluations {
 	 * @param numberOfTimeSteps number of time periods to store data for
 	 * @param stateCount number of states to store data for */
 	public void initialise(TimePeriod startingPeriod, int numberOfTimeSteps, int stateCount) {
+		initialise(startingPeriod, numberOfTimeSteps, stateCount, numberOfTimeSteps);
+	}
+
+	/** Initialises storage for state evaluations in the forecast period determined by starting period and number of time steps
+	 * 
+	 * @param startingPeriod first time period of forecast horizon
+	 * @param numberOfTimeSteps number of time periods to store data for
+	 * @param stateCount number of states to store data for
+	 * @param schedulingSteps maximum number of time periods dispatch schedules are built for */
+	public void initialise(TimePeriod startingPeriod, int numberOfTimeSteps, int stateCount, int schedulingSteps) {
 		this.startingPeriod = startingPeriod;
+		int retainedValueRows = schedulingSteps < numberOfTimeSteps ? Math.max(0, schedulingSteps) + 1 : numberOfTimeSteps;
+		int valueRowCount = valueStorage == ValueStorage.FULL ? numberOfTimeSteps
+				: Math.min(numberOfTimeSteps, retainedValueRows + 2);
 		this.numberOfTimeSteps = numberOfTimeSteps;
+		this.retainedValueRows = retainedValueRows;
 
-		bestNextState = getNewStateArray(numberOfTimeSteps, stateCount);
-		bestValue = new double[numberOfTimeSteps][stateCount];
+		bestNextState = new NextStateTable(numberOfTimeSteps, stateCount);
+		bestValue = new double[valueRowCount][stateCount];
 		cachedWaterValuesInEUR = new double[stateCount];
 		cacheWaterValues(waterValues, StateManager.getTimeByIndex(startingPeriod, numberOfTimeSteps));
 	}
 
-	/** @return newly allocated array to track best follow-up state, initialised to indicate infeasibility */
-	private int[][] getNewStateArray(int numberOfTimeSteps, int stateCount) {
-		int[][] bestNextState = new int[numberOfTimeSteps][stateCount];
-		for (int[] states : bestNextState) {
-			Arrays.fill(states, StateManager.STATE_INFEASIBLE);
-		}
-		return bestNextState;
-	}
-
 	/** Caches water values for each possible state and stores them to {@link #cachedWaterValuesInEUR} */
 	private void cacheWaterValues(WaterValues waterValues, TimeStamp targetTime) {
 		if (waterValues != null && waterValues.hasData()) {
@@ -85,11 +116,24 @@ public class StateEvaluations {
 		}
 	}
 
-	/** Prepares this {@link StateEvaluations} to hold data at the provided time stamp
+	/** Prepares this {@link StateEvaluations} to hold data at the provided time stamp; in {@link ValueStorage#COMPACT} mode, a
+	 * rolling value row still holding values of a later period is reset
 	 * 
 	 * @param time to store data at */
 	public void prepareFor(TimeStamp time) {
 		currentOptimisationTimeIndex = StateManager.getCurrentOptimisationTimeIndex(time, startingPeriod);
+		if (valueStorage == ValueStorage.COMPACT && currentOptimisationTimeIndex >= retainedValueRows) {
+			Arrays.fill(bestValue[getValueRow(currentOptimisationTimeIndex)], 0);
+		}
+	}
+
+	/** @return row of value storage that holds values for the given time index of the current planning; in
+	 *         {@link ValueStorage#COMPACT} mode, periods beyond the retained ones alternate between two rolling rows */
+	private int getValueRow(int timeIndex) {
+		if (valueStorage == ValueStorage.FULL) {
+			return timeIndex;
+		}
+		return timeIndex < retainedValueRows ? timeIndex : retainedValueRows + ((timeIndex - retainedValueRows) & 1);
 	}
 
 	/** Returns best values for the next time period after the current one as declared by {@link #prepareFor(TimeStamp)}
@@ -97,7 +141,7 @@ public class StateEvaluations {
 	 * @return best value for each state starting at the lowest state */
 	public double[] getBestValuesNextPeriod() {
 		if (currentOptimisationTimeIndex + 1 < numberOfTimeSteps) {
-			return bestValue[currentOptimisationTimeIndex + 1];
+			return bestValue[getValueRow(currentOptimisationTimeIndex + 1)];
 		} else {
 			return cachedWaterValuesInEUR;
 		}
@@ -109,8 +153,8 @@ public class StateEvaluations {
 	 * @param bestFinalStateIndex index of the best follow-up state with respect to the initial state
 	 * @param bestAssessmentValue assessment value of the transition to the best follow-up state */
 	public void updateBestFinalState(int initialStateIndex, int bestFinalStateIndex, double bestAssessmentValue) {
-		bestValue[currentOptimisationTimeIndex][initialStateIndex] = bestAssessmentValue;
-		bestNextState[currentOptimisationTimeIndex][initialStateIndex] = bestFinalStateIndex;
+		bestValue[getValueRow(currentOptimisationTimeIndex)][initialStateIndex] = bestAssessmentValue;
+		bestNextState.set(currentOptimisationTimeIndex, initialStateIndex, bestFinalStateIndex);
 	}
 
 	/** Returns the best {@link DispatchSchedule} of given length, starting at the provided initial energy level and shift time
@@ -122,6 +166,10 @@ public class StateEvaluations {
 	 * @throws DispatchPlanningError if no valid dispatch schedule can be created */
 	public DispatchSchedule buildDispatchSchedule(int schedulingSteps, double initialEnergyLevel,
 			long initialShiftTimeSteps) throws DispatchPlanningError {
+		if (valueStorage == ValueStorage.COMPACT && schedulingSteps >= retainedValueRows
+				&& retainedValueRows < numberOfTimeSteps) {
+			throw new RuntimeException(ERR_NOT_RETAINED + schedulingSteps);
+		}
 		double currentInternalEnergyInMWH = initialEnergyLevel;
 		int currentShiftTimeIndex = stateDiscretiser.roundToNearestShiftTimeIndex(initialShiftTimeSteps);
 
@@ -137,7 +185,7 @@ public class StateEvaluations {
 			internalEnergiesInMWH[timeIndex] = currentInternalEnergyInMWH;
 			int currentEnergyLevelIndex = stateDiscretiser.energyToNearestEnergyIndex(currentInternalEnergyInMWH);
 			int stateIndex = stateDiscretiser.getStateIndex(currentEnergyLevelIndex, currentShiftTimeIndex);
-			int nextStateIndex = bestNextState[timeIndex][stateIndex];
+			int nextStateIndex = bestNextState.get(timeIndex, stateIndex);
 			throwOnInvalidState(nextStateIndex, time);
 
 			double plannedEnergyDeltaInMWH = stateDiscretiser.calcEnergyDeltaInMWH(stateIndex, nextStateIndex);
@@ -195,7 +243,8 @@ public class StateEvaluations {
 
 	/** @return the value of storage for given time and state index */
 	private double getValueOfStorage(int timeIndex, int stateIndex) {
-		return timeIndex < numberOfTimeSteps ? bestValue[timeIndex][stateIndex] : cachedWaterValuesInEUR[stateIndex];
+		return timeIndex < numberOfTimeSteps ? bestValue[getValueRow(timeIndex)][stateIndex]
+				: cachedWaterValuesInEUR[stateIndex];
 	}
 
 	/** Returns specific value in EUR per MWh of a transition with given deltas for energy and value
@@ -5,6 +5,7 @@ package agents.flexibility.dynamicProgramming.states;
 
 import java.util.ArrayList;
 import agents.flexibility.GenericDevice;
+import agents.flexibility.GenericDeviceSnapshot;
 import agents.flexibility.dynamicProgramming.DispatchPlanningError;
 import agents.flexibility.dynamicProgramming.Optimiser;
 import de.dlr.gitlab.fame.time.TimePeriod;
@@ -46,6 +47,15 @@ public interface StateManager {
 	 * @param startingPeriod first time period of an upcoming planning */
 	void initialise(TimePeriod startingPeriod);
 
+	/** Initialises {@link StateManager} to allow for planning in current planning period; evaluations need only be retained to
+	 * build dispatch schedules of up to the given number of scheduling steps
+	 * 
+	 * @param startingPeriod first time period of an upcoming planning
+	 * @param schedulingSteps maximum number of time periods of dispatch schedules built after this planning */
+	default void initialise(TimePeriod startingPeriod, int schedulingSteps) {
+		initialise(startingPeriod);
+	}
+
 	/** Makes {@link StateManager} aware of time currently under assessment
 	 * 
 	 * @param time to be assessed */
@@ -85,6 +95,36 @@ public interface StateManager {
 	 * @return value of the transition between two states */
 	double getTransitionValueFor(int initialStateIndex, int finalStateIndex);
 
+	/** Writes values of the transitions from an initial state to each final state in the given inclusive range to the provided
+	 * array, beginning at its first element; only applicable if {@link #useStateList()} returns false
+	 * 
+	 * @param initialStateIndex index of state at the begin of all transitions
+	 * @param firstFinalStateIndex index of the first final state (inclusive)
+	 * @param lastFinalStateIndex index of the last final state (inclusive)
+	 * @param values array to write the transition values to; must be long enough to hold all values */
+	default void getTransitionValuesFor(int initialStateIndex, int firstFinalStateIndex, int lastFinalStateIndex,
+			double[] values) {
+		for (int finalStateIndex = firstFinalStateIndex; finalStateIndex <= lastFinalStateIndex; finalStateIndex++) {
+			values[finalStateIndex - firstFinalStateIndex] = getTransitionValueFor(initialStateIndex, finalStateIndex);
+		}
+	}
+
+	/** Tells whether, once prepared for a time, transitions of different initial states may be assessed and updated concurrently
+	 * 
+	 * @return true if {@link #getFinalStates(int)}, transition value getters, and {@link #updateBestFinalState(int, int, double)}
+	 *         may be called concurrently for different initial states */
+	default boolean allowsConcurrentEvaluation() {
+		return false;
+	}
+
+	/** Tells whether at the prepared time the best final state never decreases with increasing initial state, given that the range
+	 * of reachable final states does not decrease either; only applicable if {@link #useStateList()} returns false
+	 * 
+	 * @return true if transition values depend only on the state delta and are concave (maximisation) or convex (minimisation) */
+	default boolean hasMonotoneBestFinalStates() {
+		return false;
+	}
+
 	/** Gets best assessment values for all states in the next period
 	 * 
 	 * @return best assessment known for states in the next period */
@@ -131,17 +171,14 @@ public interface StateManager {
 
 	/** Analyses which minimum lower energy level and maximum upper energy level apply during planning time
 	 * 
-	 * @param device whose energy levels are to be assessed
-	 * @param numberOfTimeSteps of planning interval
-	 * @param startingPeriod first period of planning interval
+	 * @param snapshot of device properties in the planning interval
 	 * @return lowest and highest energy level */
-	static double[] analyseAvailableEnergyLevels(GenericDevice device, int numberOfTimeSteps, TimePeriod startingPeriod) {
+	static double[] analyseAvailableEnergyLevels(GenericDeviceSnapshot snapshot) {
 		double minLowerLevel = Double.MAX_VALUE;
 		double maxUpperLevel = -Double.MAX_VALUE;
-		for (int timeIndex = 0; timeIndex < numberOfTimeSteps; timeIndex++) {
-			TimeStamp time = getTimeByIndex(startingPeriod, timeIndex);
-			double lowerLevel = device.getEnergyContentLowerLimitInMWH(time);
-			double upperLevel = device.getEnergyContentUpperLimitInMWH(time);
+		for (int timeIndex = 0; timeIndex < snapshot.getNumberOfTimeSteps(); timeIndex++) {
+			double lowerLevel = snapshot.getEnergyContentLowerLimitInMWH(timeIndex);
+			double upperLevel = snapshot.getEnergyContentUpperLimitInMWH(timeIndex);
 			minLowerLevel = lowerLevel < minLowerLevel ? lowerLevel : minLowerLevel;
 			maxUpperLevel = upperLevel > maxUpperLevel ? upperLevel : maxUpperLevel;
 		}
@@ -168,13 +205,11 @@ public interface StateManager {
 
 	/** Returns true if device has self-discharge within planning interval
 	 * 
-	 * @param device whose energy levels are to be assessed
-	 * @param numberOfTimeSteps of planning interval
-	 * @param startingPeriod first period of planning interval
+	 * @param snapshot of device properties in the planning interval
 	 * @return true if device has self-discharge within planning interval */
-	static boolean hasSelfDischarge(GenericDevice device, int numberOfTimeSteps, TimePeriod startingPeriod) {
-		for (int timeIndex = 0; timeIndex < numberOfTimeSteps; timeIndex++) {
-			if (device.getSelfDischargeRate(StateManager.getTimeByIndex(startingPeriod, timeIndex)) > 0) {
+	static boolean hasSelfDischarge(GenericDeviceSnapshot snapshot) {
+		for (int timeIndex = 0; timeIndex < snapshot.getNumberOfTimeSteps(); timeIndex++) {
+			if (snapshot.getSelfDischargeRate(timeIndex) > 0) {
 				return true;
 			}
 		}
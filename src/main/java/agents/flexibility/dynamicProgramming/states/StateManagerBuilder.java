@@ -5,6 +5,7 @@ package agents.flexibility.dynamicProgramming.states;
 
 import agents.flexibility.GenericDevice;
 import agents.flexibility.dynamicProgramming.assessment.AssessmentFunction;
+import agents.flexibility.dynamicProgramming.states.StateEvaluations.ValueStorage;
 import de.dlr.gitlab.fame.agent.input.Make;
 import de.dlr.gitlab.fame.agent.input.ParameterData;
 import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
@@ -17,6 +18,7 @@ public class StateManagerBuilder {
 	static final String PARAM_TYPE = "Type";
 	static final String PARAM_HORIZON = "PlanningHorizonInHours";
 	static final String PARAM_RESOLUTION = "EnergyResolutionInMWH";
+	static final String PARAM_VALUE_STORAGE = "ValueStorage";
 
 	static final String GROUP_WATER_VALUES = "WaterValues";
 
@@ -29,7 +31,9 @@ public class StateManagerBuilder {
 	}
 
 	public static final Tree parameters = Make.newTree().add(Make.newEnum(PARAM_TYPE, Type.class),
-			Make.newDouble(PARAM_HORIZON), Make.newDouble(PARAM_RESOLUTION))
+			Make.newDouble(PARAM_HORIZON), Make.newDouble(PARAM_RESOLUTION),
+			Make.newEnum(PARAM_VALUE_STORAGE, ValueStorage.class).optional()
+					.help("Storage of state values: FULL (default) or COMPACT to save memory for long planning horizons"))
 			.addAs(GROUP_WATER_VALUES, WaterValues.parameters)
 			.buildTree();
 
@@ -41,11 +45,14 @@ public class StateManagerBuilder {
 		double planningHorizon = input.getDouble(PARAM_HORIZON);
 		double energyResolution = input.getDouble(PARAM_RESOLUTION);
 		WaterValues waterValues = new WaterValues(input.getOptionalGroupList(GROUP_WATER_VALUES));
+		ValueStorage valueStorage = input.getEnumOrDefault(PARAM_VALUE_STORAGE, ValueStorage.class, ValueStorage.FULL);
 		switch (type) {
 			case STATE_OF_CHARGE:
-				return new EnergyStateManager(device, assessment, planningHorizon, energyResolution, waterValues);
+				return new EnergyStateManager(device, assessment, planningHorizon, energyResolution, waterValues,
+						valueStorage);
 			case ENERGY_AND_TIME:
-				return new EnergyAndTimeStateManager(device, assessment, planningHorizon, energyResolution, waterValues);
+				return new EnergyAndTimeStateManager(device, assessment, planningHorizon, energyResolution, waterValues,
+						valueStorage);
 			default:
 				throw new RuntimeException(ERR_NOT_IMPLEMENTED + type);
 		}
@@ -5,10 +5,13 @@ package agents.flexibility.dynamicProgramming.states;
 
 import agents.flexibility.GenericDevice;
 import agents.flexibility.GenericDeviceCache;
+import agents.flexibility.dynamicProgramming.Optimiser.Target;
 import agents.flexibility.dynamicProgramming.assessment.AssessmentFunction;
 import de.dlr.gitlab.fame.time.TimeStamp;
 
-/** Evaluates transition - can cache results for similar transitions
+/** Evaluates transition - can cache results for similar transitions. Without self discharge, values depend only on the state
+ * delta and are cached. With self discharge, values are calculated for all final states of an initial state at once, so that the
+ * {@link AssessmentFunction} can assess their sorted energy deltas in one batch.
  * 
  * @author Christoph Schimeczek */
 public class TransitionEvaluator {
@@ -19,7 +22,11 @@ public class TransitionEvaluator {
 	private double[] transitionValuesCharging;
 	private double[] transitionValuesDischarging;
 	private double transitionValueConstantEnergy;
+	/** cached transition values ordered by state delta, starting at {@link #lowestCachedStateDelta} */
+	private double[] transitionValuesByStateDelta;
+	private int lowestCachedStateDelta;
 	private boolean cachedValuesAvailable;
+	private boolean hasRegularCurvature;
 
 	/** Instantiates a {@link TransitionEvaluator}
 	 * 
@@ -45,6 +52,8 @@ public class TransitionEvaluator {
 			cachedValuesAvailable = false;
 			transitionValuesCharging = null;
 			transitionValuesDischarging = null;
+			transitionValuesByStateDelta = null;
+			hasRegularCurvature = false;
 		} else {
 			cachedValuesAvailable = true;
 			cacheTransitionValuesNoSelfDischarge();
@@ -63,6 +72,57 @@ public class TransitionEvaluator {
 		for (int dischargingSteps = 1; dischargingSteps <= maxSteps[1]; dischargingSteps++) {
 			transitionValuesDischarging[dischargingSteps] = calcValueFor(0, -dischargingSteps);
 		}
+		cacheTransitionValuesByStateDelta(Math.max(0, maxSteps[0]), Math.max(0, maxSteps[1]));
+	}
+
+	/** Joins cached values for charging, discharging, and constant energy to one contiguous array ordered by state delta */
+	private void cacheTransitionValuesByStateDelta(int maxChargingSteps, int maxDischargingSteps) {
+		lowestCachedStateDelta = -maxDischargingSteps;
+		transitionValuesByStateDelta = new double[maxChargingSteps + maxDischargingSteps + 1];
+		for (int stateDelta = -maxDischargingSteps; stateDelta <= maxChargingSteps; stateDelta++) {
+			transitionValuesByStateDelta[stateDelta - lowestCachedStateDelta] = getCachedValueFor(0, stateDelta);
+		}
+		boolean isMaximisation = assessmentFunction.getTargetType() == Target.MAXIMISE;
+		hasRegularCurvature = isMaximisation ? isConcave(transitionValuesByStateDelta)
+				: isConcave(negate(transitionValuesByStateDelta));
+	}
+
+	/** Tests curvature in O(n) for n given values, i.e. once per period for all cached state deltas
+	 * 
+	 * @return true if all given values are finite and their differences do not increase; differences are compared exactly */
+	static boolean isConcave(double[] values) {
+		for (double value : values) {
+			if (!Double.isFinite(value)) {
+				return false;
+			}
+		}
+		for (int index = 2; index < values.length; index++) {
+			double previousDifference = values[index - 1] - values[index - 2];
+			double difference = values[index] - values[index - 1];
+			if (difference > previousDifference) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** @return new array with negated values of the given array */
+	private static double[] negate(double[] values) {
+		double[] negated = new double[values.length];
+		for (int index = 0; index < values.length; index++) {
+			negated[index] = -values[index];
+		}
+		return negated;
+	}
+
+	/** Tells whether transition values at the time prepared for depend only on the state delta and are concave, when the target
+	 * is maximised, or convex, when the target is minimised. Then, the best final state never decreases with increasing initial
+	 * state, as long as the range of reachable final states does not decrease either. Values are tested exactly, so that values
+	 * deviating from this shape only by floating-point rounding are considered irregular.
+	 * 
+	 * @return true if transition values are cached and have a concave (maximisation) or convex (minimisation) shape */
+	public boolean hasRegularCurvature() {
+		return hasRegularCurvature;
 	}
 
 	/** @return maximum steps for charging & discharging */
@@ -89,6 +149,30 @@ public class TransitionEvaluator {
 				: calcValueFor(initialStateIndex, finalStateIndex);
 	}
 
+	/** Writes values of the transitions from the given initial state to each final state in the given inclusive range to the
+	 * provided array, beginning at its first element. Uses cached values if available; otherwise, assesses all transitions in one
+	 * batch.
+	 * 
+	 * @param initialStateIndex index of state at the begin of all transitions
+	 * @param firstFinalStateIndex index of the first final state (inclusive)
+	 * @param lastFinalStateIndex index of the last final state (inclusive)
+	 * @param values array to write the transition values to; must be long enough to hold all values */
+	public void getTransitionValuesFor(int initialStateIndex, int firstFinalStateIndex, int lastFinalStateIndex,
+			double[] values) {
+		if (cachedValuesAvailable) {
+			int offset = firstFinalStateIndex - initialStateIndex - lowestCachedStateDelta;
+			System.arraycopy(transitionValuesByStateDelta, offset, values, 0, lastFinalStateIndex - firstFinalStateIndex + 1);
+		} else {
+			double initialEnergyInMWH = stateDiscretiser.energyIndexToEnergyInMWH(initialStateIndex);
+			int count = lastFinalStateIndex - firstFinalStateIndex + 1;
+			for (int offset = 0; offset < count; offset++) {
+				double finalEnergyInMWH = stateDiscretiser.energyIndexToEnergyInMWH(firstFinalStateIndex + offset);
+				values[offset] = deviceCache.simulateTransition(initialEnergyInMWH, finalEnergyInMWH);
+			}
+			assessmentFunction.assessTransitions(values, count, values);
+		}
+	}
+
 	/** Returns the value of the transition from the given initial to final state at the time prepared for. Uses cached values if
 	 * available.
 	 * 
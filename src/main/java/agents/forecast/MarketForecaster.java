@@ -3,12 +3,15 @@
 // SPDX-License-Identifier: Apache-2.0
 package agents.forecast;
 
+import static util.ActionProfiler.profile;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Random;
 import java.util.TreeMap;
+import java.util.stream.IntStream;
 import agents.markets.DayAheadMarket;
 import agents.markets.DayAheadMarketMultiZone;
 import agents.markets.MarketCoupling;
@@ -42,13 +45,16 @@ import de.dlr.gitlab.fame.service.output.Output;
 import de.dlr.gitlab.fame.time.Constants.Interval;
 import de.dlr.gitlab.fame.time.TimeSpan;
 import de.dlr.gitlab.fame.time.TimeStamp;
+import util.WorkerPools;
 
 /** Provides different kind of forecasts for {@link DayAheadMarket}; issues {@link Products#ForecastRequest}s to ask for required
  * bid forecasts; uses forecasted bids to clear market ahead of time and create own forecasts
  * 
  * @author Christoph Schimeczek */
 public class MarketForecaster extends Agent implements DamForecastProvider, MarketCouplingClient {
-	@Input private static final Tree parameters = Make.newTree().add(Make.newInt("ForecastPeriodInHours"))
+	@Input private static final Tree parameters = Make.newTree().add(Make.newInt("ForecastPeriodInHours"),
+			Make.newInt("ForecastParallelism").optional()
+					.help("Number of forecast hours to clear concurrently (default: 1, i.e. sequentially)"))
 			.addAs("Clearing", MarketClearing.parameters).buildTree();
 
 	/** Products of {@link MarketForecaster}s */
@@ -71,6 +77,8 @@ public class MarketForecaster extends Agent implements DamForecastProvider, Mark
 	protected final int forecastPeriodInHours;
 	/** The algorithm used to clear the market */
 	private final MarketClearing marketClearing;
+	/** Number of forecast hours to clear concurrently */
+	private final int forecastParallelism;
 	/** All previously calculated forecasts (that still lie in the future) with their associated time */
 	private final TreeMap<TimeStamp, MarketClearingResult> calculatedForecastContainer = new TreeMap<>();
 	/** SupplyOrderBooks for forecasts that are not yet sent to {@link MarketCoupling} */
@@ -93,23 +101,28 @@ public class MarketForecaster extends Agent implements DamForecastProvider, Mark
 		ParameterData input = parameters.join(dataProvider);
 		marketClearing = new MarketClearing(input.getGroup("Clearing"));
 		forecastPeriodInHours = input.getInteger("ForecastPeriodInHours");
+		forecastParallelism = input.getIntegerOrDefault("ForecastParallelism", 1);
 
 		/** Receive transmission capacities to other markets */
-		call(this::receiveTransmissionCapacities).onAndUse(DayAheadMarketMultiZone.Products.TransmissionCapacities);
+		call(profile(this, DayAheadMarketMultiZone.Products.TransmissionCapacities, this::receiveTransmissionCapacities))
+				.onAndUse(DayAheadMarketMultiZone.Products.TransmissionCapacities);
 		/** Send out forecast requests to make other agents prepare their bids ahead of time */
-		call(this::sendForecastRequests).on(Products.ForecastRequest).use(DayAheadMarket.Products.GateClosureInfo);
+		call(profile(this, Products.ForecastRequest, this::sendForecastRequests))
+				.on(Products.ForecastRequest).use(DayAheadMarket.Products.GateClosureInfo);
 		/** On incoming bid forecasts: prepare for market clearing */
-		call(this::digestForecastBids).onAndUse(Trader.Products.BidsForecast);
+		call(profile(this, Trader.Products.BidsForecast, this::digestForecastBids)).onAndUse(Trader.Products.BidsForecast);
 		/** Send out transmission data and bids for (multiple) market coupling events */
-		call(this::sendCouplingData).on(MarketCouplingClient.Products.TransmissionAndBidForecasts);
+		call(profile(this, MarketCouplingClient.Products.TransmissionAndBidForecasts, this::sendCouplingData))
+				.on(MarketCouplingClient.Products.TransmissionAndBidForecasts);
 		/** Digest resolved market couplings and clear market */
-		call(this::clearMarketCoupled).onAndUse((MarketCoupling.Products.MarketCouplingForecastResult));
+		call(profile(this, MarketCoupling.Products.MarketCouplingForecastResult, this::clearMarketCoupled))
+				.onAndUse(MarketCoupling.Products.MarketCouplingForecastResult);
 		/** On outgoing merit order forecasts: provide merit order results to clients */
-		call(this::sendMeritOrderForecast).on(DamForecastProvider.Products.MeritOrderForecast)
-				.use(DamForecastClient.Products.MeritOrderForecastRequest);
+		call(profile(this, DamForecastProvider.Products.MeritOrderForecast, this::sendMeritOrderForecast))
+				.on(DamForecastProvider.Products.MeritOrderForecast).use(DamForecastClient.Products.MeritOrderForecastRequest);
 		/** On outgoing price forecasts: provide merit order results to clients */
-		call(this::sendPriceForecast).on(DamForecastProvider.Products.PriceForecast)
-				.use(DamForecastClient.Products.PriceForecastRequest);
+		call(profile(this, DamForecastProvider.Products.PriceForecast, this::sendPriceForecast))
+				.on(DamForecastProvider.Products.PriceForecast).use(DamForecastClient.Products.PriceForecastRequest);
 	}
 
 	/** Receive transmission capacities to other markets from connected {@link DayAheadMarketMultiZone}
@@ -154,12 +167,14 @@ public class MarketForecaster extends Agent implements DamForecastProvider, Mark
 		}
 	}
 
-	/** Removes all out-dated market clearing results */
+	/** Removes all out-dated market clearing results and recycles their order books if these were taken from the pool of
+	 * {@link #marketClearing}; books of coupled results stem from received {@link CouplingData} and are not recycled */
 	private void removeOutdatedForecasts() {
 		Iterator<Entry<TimeStamp, MarketClearingResult>> iterator = calculatedForecastContainer.entrySet().iterator();
 		while (iterator.hasNext()) {
 			Entry<TimeStamp, MarketClearingResult> entry = iterator.next();
 			if (entry.getKey().isLessThan(now())) {
+				marketClearing.recycle(entry.getValue());
 				iterator.remove();
 			} else {
 				break;
@@ -182,15 +197,47 @@ public class MarketForecaster extends Agent implements DamForecastProvider, Mark
 	}
 
 	/** Iterates over time stamps at which the bid forecast messages are valid, clears the market for each time stamp, and saves the
-	 * clearing result to {@link #calculatedForecastContainer} */
+	 * clearing result to {@link #calculatedForecastContainer}; if {@link #forecastParallelism} is larger than one, time stamps are
+	 * cleared concurrently on a shared {@link WorkerPools worker pool}. If the clearing uses random numbers, each time stamp gets its
+	 * own seeded random number generator; results are saved in order of time, so that results do not depend on the number of
+	 * threads. */
 	private void clearMarketUsingSentBidForecasts(TreeMap<TimeStamp, ArrayList<Message>> bidMessagesByTimeStamp) {
-		for (Entry<TimeStamp, ArrayList<Message>> entry : bidMessagesByTimeStamp.entrySet()) {
-			TimeStamp requestedTime = entry.getKey();
-			ArrayList<Message> bidsAtRequestedTime = entry.getValue();
-			String clearingId = this + " " + now();
-			MarketClearingResult marketClearingResult = marketClearing.clear(bidsAtRequestedTime, clearingId);
-			calculatedForecastContainer.put(requestedTime, marketClearingResult);
+		String clearingId = this + " " + now();
+		List<ArrayList<Message>> bidsByTime = new ArrayList<>(bidMessagesByTimeStamp.values());
+		List<Random> randomByTime = new ArrayList<>();
+		boolean usesRandomNumbers = marketClearing.usesRandomNumbers();
+		for (int i = 0; i < bidsByTime.size(); i++) {
+			randomByTime.add(usesRandomNumbers ? getNextRandomNumberGenerator() : null);
+		}
+		MarketClearingResult[] results = clearEach(marketClearing, bidsByTime, clearingId, randomByTime, forecastParallelism);
+		int index = 0;
+		for (TimeStamp requestedTime : bidMessagesByTimeStamp.keySet()) {
+			calculatedForecastContainer.put(requestedTime, results[index++]);
+		}
+	}
+
+	/** Clears the market independently for each of the given sets of bid messages; sets are cleared concurrently if parallelism is
+	 * larger than one - results do not depend on the parallelism
+	 * 
+	 * @param marketClearing to clear the market with
+	 * @param bidsByTime bid messages for each time to clear
+	 * @param clearingId identifies the clearing event
+	 * @param randomByTime random number generator for each time to clear
+	 * @param parallelism max number of times to clear concurrently
+	 * @return clearing results in the order of the given bid messages */
+	static MarketClearingResult[] clearEach(MarketClearing marketClearing, List<ArrayList<Message>> bidsByTime,
+			String clearingId, List<Random> randomByTime, int parallelism) {
+		MarketClearingResult[] results = new MarketClearingResult[bidsByTime.size()];
+		if (parallelism > 1 && results.length > 1) {
+			WorkerPools.get(parallelism).submit(() -> IntStream.range(0, results.length).parallel()
+					.forEach(i -> results[i] = marketClearing.clear(bidsByTime.get(i), clearingId, randomByTime.get(i))))
+					.join();
+		} else {
+			for (int i = 0; i < results.length; i++) {
+				results[i] = marketClearing.clear(bidsByTime.get(i), clearingId, randomByTime.get(i));
+			}
 		}
+		return results;
 	}
 
 	/** Iterates over time stamps at which the bid forecast messages are valid, assigns them to an order book for demand and supply
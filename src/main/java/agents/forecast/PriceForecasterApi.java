@@ -22,6 +22,7 @@ import communications.message.AwardData;
 import communications.message.ClearingTimes;
 import communications.message.ForecastClientRegistration;
 import communications.message.PointInTime;
+import communications.portable.AwardSeries;
 import communications.portable.Sensitivity;
 import de.dlr.gitlab.fame.agent.input.DataProvider;
 import de.dlr.gitlab.fame.agent.input.Input;
@@ -37,6 +38,8 @@ import de.dlr.gitlab.fame.service.output.Output;
 import de.dlr.gitlab.fame.time.Constants.Interval;
 import de.dlr.gitlab.fame.time.TimeSpan;
 import de.dlr.gitlab.fame.time.TimeStamp;
+import util.HourlyRingBuffer;
+import util.ResponseCache;
 import util.UrlModelService;
 
 /** Provides electricity price forecasts from external model via forecastApi. In order to reduce amount of calls to the external
@@ -58,9 +61,11 @@ public class PriceForecasterApi extends MarketForecaster implements SensitivityF
 	private final int forecastWindowExtensionInHours;
 	private final double forecastErrorToleranceInEURperMWH;
 	/** Stores electricity market prices over time */
-	private final TreeMap<Long, Double> marketClearingPrices = new TreeMap<>();
-	private final TreeMap<Long, Double> residualLoadInMWh = new TreeMap<>();
+	private final HourlyRingBuffer marketClearingPrices;
+	private final HourlyRingBuffer residualLoadInMWh;
 	private final TimeSeries tsResidualLoadInMWh;
+	private long lookBackStartStep;
+	private long residualLoadStartStep;
 	private TreeMap<Long, Double> priceForecastMeans;
 	private TreeMap<Long, Double> priceForecastVariances;
 	private TimeStamp nextClearingTimeStep = now();
@@ -77,7 +82,7 @@ public class PriceForecasterApi extends MarketForecaster implements SensitivityF
 							"Max accepted deviation between forecasted and realized electricity prices; if violated price forecasts are updated; if negative, no checks are performed(default=-1)")
 							.optional(),
 					Make.newSeries("ResidualLoadInMWh").optional())
-			.buildTree();
+			.addAs("ResponseCache", ResponseCache.parameters).buildTree();
 
 	@Output
 	private static enum OutputFields {
@@ -93,10 +98,14 @@ public class PriceForecasterApi extends MarketForecaster implements SensitivityF
 		ParameterData input = parameters.join(dataProvider);
 		String serviceUrl = input.getString("ServiceURL");
 		urlService = new UrlModelService<ForecastApiRequest, ForecastApiResponse>(serviceUrl) {};
+		urlService.setResponseCache(ResponseCache.fromConfig(input.getOptionalGroup("ResponseCache")));
 		lookBackWindowInHours = input.getIntegerOrDefault("LookBackWindowInHours", forecastPeriodInHours);
 		forecastWindowExtensionInHours = input.getIntegerOrDefault("ForecastWindowExtensionInHours", 0);
 		forecastErrorToleranceInEURperMWH = input.getDoubleOrDefault("ForecastErrorToleranceInEURperMWH", -1.);
 		tsResidualLoadInMWh = input.getTimeSeriesOrDefault("ResidualLoadInMWh", null);
+		int requestWindowInHours = lookBackWindowInHours + forecastPeriodInHours + forecastWindowExtensionInHours;
+		marketClearingPrices = new HourlyRingBuffer(requestWindowInHours + 1);
+		residualLoadInMWh = new HourlyRingBuffer(Math.max(1, requestWindowInHours));
 
 		call(this::logClearingPrices).onAndUse(DayAheadMarket.Products.Awards);
 		call(this::registerClearingTime).onAndUse(DayAheadMarket.Products.GateClosureInfo);
@@ -110,11 +119,12 @@ public class PriceForecasterApi extends MarketForecaster implements SensitivityF
 
 	/** Extracts and store power prices reported from {@link DayAheadMarket}
 	 * 
-	 * @param input single power price message to read
+	 * @param input single power price message to read, covering one or several delivery intervals
 	 * @param contracts not used */
 	private void logClearingPrices(ArrayList<Message> input, List<Contract> contracts) {
-		AwardData award = CommUtils.getExactlyOneEntry(input).getDataItemOfType(AwardData.class);
-		marketClearingPrices.put(award.beginOfDeliveryInterval.getStep(), award.powerPriceInEURperMWH);
+		for (AwardData award : AwardSeries.readAwardsFrom(CommUtils.getExactlyOneEntry(input))) {
+			marketClearingPrices.put(award.beginOfDeliveryInterval.getStep(), award.powerPriceInEURperMWH);
+		}
 	}
 
 	/** Notes clearing time for later determination of price forecasting times */
@@ -144,9 +154,9 @@ public class PriceForecasterApi extends MarketForecaster implements SensitivityF
 	/** Prepare forecast updates, if required; returns true if updates were required, else false */
 	private boolean prepareForecastUpdates() {
 		if (tsResidualLoadInMWh != null) {
-			chunkResidualLoad();
+			updateResidualLoad();
 		}
-		removeDataBefore(marketClearingPrices, now().earlierBy(new TimeSpan(lookBackWindowInHours, Interval.HOURS)));
+		lookBackStartStep = now().earlierBy(new TimeSpan(lookBackWindowInHours, Interval.HOURS)).getStep();
 		boolean forecastUpdateRequired = checkForecastUpdateRequired();
 		if (forecastUpdateRequired) {
 			updateForecasts();
@@ -154,18 +164,15 @@ public class PriceForecasterApi extends MarketForecaster implements SensitivityF
 		return forecastUpdateRequired;
 	}
 
-	/** Chunks tsResidualLoadInMWh to residualLoadInMWh from lookBackWindowInHours to forecastPeriodInHours +
-	 * forecastWindowExtensionInHours */
-	private void chunkResidualLoad() {
-		residualLoadInMWh.clear();
-		TimeStamp startTime = nextClearingTimeStep.earlierBy(new TimeSpan(lookBackWindowInHours, Interval.HOURS));
-		TimeStamp stopTime = nextClearingTimeStep.laterBy(new TimeSpan(forecastPeriodInHours, Interval.HOURS))
-				.laterBy(new TimeSpan(forecastWindowExtensionInHours, Interval.HOURS));
-		TimeStamp step = startTime;
-		while (step.getStep() < stopTime.getStep()) {
-			residualLoadInMWh.put(step.getStep(), tsResidualLoadInMWh.getValueLaterEqual(step));
-			step = step.laterBy(new TimeSpan(1L, Interval.HOURS));
-		}
+	/** Appends values of tsResidualLoadInMWh to residualLoadInMWh that are missing in the window from lookBackWindowInHours before
+	 * to forecastPeriodInHours + forecastWindowExtensionInHours after the next clearing time; values are added hourly, usually one
+	 * per call */
+	private void updateResidualLoad() {
+		residualLoadStartStep = nextClearingTimeStep.earlierBy(new TimeSpan(lookBackWindowInHours, Interval.HOURS)).getStep();
+		long stopStep = nextClearingTimeStep.laterBy(new TimeSpan(forecastPeriodInHours, Interval.HOURS))
+				.laterBy(new TimeSpan(forecastWindowExtensionInHours, Interval.HOURS)).getStep();
+		residualLoadInMWh.putMissing(residualLoadStartStep, stopStep,
+				step -> tsResidualLoadInMWh.getValueLaterEqual(new TimeStamp(step)));
 	}
 
 	/** Removes all values before given TimeStamp from specified container */
@@ -195,12 +202,13 @@ public class PriceForecasterApi extends MarketForecaster implements SensitivityF
 		if (forecastErrorToleranceInEURperMWH < 0) {
 			return true;
 		}
-		if (marketClearingPrices.isEmpty()) {
+		if (marketClearingPrices.isEmpty() || marketClearingPrices.getLatestStep() < lookBackStartStep) {
 			logger.warn(WARN_PRICES_MISSING);
 			return true;
 		}
-		var entry = marketClearingPrices.lastEntry();
-		return Math.abs(entry.getValue() - priceForecastMeans.get(entry.getKey())) <= forecastErrorToleranceInEURperMWH;
+		long latestStep = marketClearingPrices.getLatestStep();
+		double deviation = Math.abs(marketClearingPrices.getLatestValue() - priceForecastMeans.get(latestStep));
+		return deviation <= forecastErrorToleranceInEURperMWH;
 	}
 
 	/** @return true if required forecast is missing */
@@ -213,8 +221,8 @@ public class PriceForecasterApi extends MarketForecaster implements SensitivityF
 	/** Updates forecasts for required forecast price window considering extension */
 	private void updateForecasts() {
 		var request = new ForecastApiRequest(nextClearingTimeStep.getStep(),
-				forecastPeriodInHours + forecastWindowExtensionInHours,
-				marketClearingPrices, residualLoadInMWh);
+				forecastPeriodInHours + forecastWindowExtensionInHours, marketClearingPrices, lookBackStartStep,
+				residualLoadInMWh, residualLoadStartStep);
 		ForecastApiResponse response = urlService.call(request);
 		priceForecastMeans = Util.averageValues(response.getForecastMeans());
 		priceForecastVariances = Util.averageValues(response.getForecastVariances());
@@ -4,29 +4,45 @@
 package agents.forecast.forecastApi;
 
 import java.util.Map;
+import org.json.JSONObject;
+import util.HourlyRingBuffer;
 import util.JSONable;
 
-/** Encapsulates a forecast request to amiris-priceforecast with the main objective to handle time series predictions
+/** Encapsulates a forecast request to amiris-priceforecast with the main objective to handle time series predictions. Past
+ * targets and residual load are serialised directly from their {@link HourlyRingBuffer}s.
  * 
  * @author Felix Nitsch */
 public class ForecastApiRequest implements JSONable {
-	private long forecastStartTime;
-	private int forecastWindow;
-	private Map<Long, Double> pastTargets;
-	private Map<Long, Double> residualLoad;
+	private final long forecastStartTime;
+	private final int forecastWindow;
+	private final HourlyRingBuffer pastTargets;
+	private final long pastTargetsFirstStep;
+	private final HourlyRingBuffer residualLoad;
+	private final long residualLoadFirstStep;
 
-	/** Constructs ForecastApiRequest given a forecastStartTime, forecastWindow, and a pastTargets
+	/** Constructs ForecastApiRequest given a forecastStartTime, forecastWindow, pastTargets, and residualLoad
 	 * 
 	 * @param forecastStartTime start time of forecast
 	 * @param forecastWindow window of forecast
 	 * @param pastTargets realized electricity prices with time steps
-	 * @param residualLoad residual load with time steps */
-	public ForecastApiRequest(long forecastStartTime, int forecastWindow, Map<Long, Double> pastTargets,
-			Map<Long, Double> residualLoad) {
+	 * @param pastTargetsFirstStep earliest time step of past targets to include
+	 * @param residualLoad residual load with time steps
+	 * @param residualLoadFirstStep earliest time step of residual load to include */
+	public ForecastApiRequest(long forecastStartTime, int forecastWindow, HourlyRingBuffer pastTargets,
+			long pastTargetsFirstStep, HourlyRingBuffer residualLoad, long residualLoadFirstStep) {
 		this.forecastStartTime = forecastStartTime;
 		this.forecastWindow = forecastWindow;
 		this.pastTargets = pastTargets;
+		this.pastTargetsFirstStep = pastTargetsFirstStep;
 		this.residualLoad = residualLoad;
+		this.residualLoadFirstStep = residualLoadFirstStep;
+	}
+
+	@Override
+	public JSONObject toJson() {
+		return new JSONObject().put("forecastStartTime", forecastStartTime).put("forecastWindow", forecastWindow)
+				.put("pastTargets", pastTargets.toJson(pastTargetsFirstStep))
+				.put("residualLoad", residualLoad.toJson(residualLoadFirstStep));
 	}
 
 	/** @return the forecastStartTime */
@@ -39,13 +55,13 @@ public class ForecastApiRequest implements JSONable {
 		return forecastWindow;
 	}
 
-	/** @return the pastTargets */
+	/** @return the pastTargets from their earliest time step to include; changes to the returned map are not reflected */
 	public Map<Long, Double> getPastTargets() {
-		return pastTargets;
+		return pastTargets.toMap(pastTargetsFirstStep);
 	}
 
-	/** @return the residualLoad */
+	/** @return the residualLoad from its earliest time step to include; changes to the returned map are not reflected */
 	public Map<Long, Double> getResidualLoad() {
-		return residualLoad;
+		return residualLoad.toMap(residualLoadFirstStep);
 	}
 }
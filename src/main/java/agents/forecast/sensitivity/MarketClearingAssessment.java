@@ -5,6 +5,8 @@ package agents.forecast.sensitivity;
 
 import agents.forecast.sensitivity.SensitivityForecastProvider.ForecastType;
 import agents.markets.meritOrder.MarketClearingResult;
+import communications.portable.Sensitivity;
+import communications.portable.SensitivityCurves;
 
 /** Can assess a market clearing result and return its sensitivity to changes in demand or supply
  * 
@@ -37,6 +39,14 @@ public interface MarketClearingAssessment {
 	 * @return values of supply change corresponding to the power step with the same index */
 	double[] getSupplySensitivityValues();
 
+	/** Materialises the assessed curves once into an immutable structure that can be shared by many {@link Sensitivity} objects
+	 * 
+	 * @return new {@link SensitivityCurves} based on the current assessment */
+	default SensitivityCurves toCurves() {
+		return new SensitivityCurves(getDemandSensitivityPowers(), getDemandSensitivityValues(), getSupplySensitivityPowers(),
+				getSupplySensitivityValues());
+	}
+
 	/** Returns the {@link MarketClearingAssessment} suited to provide the requested type of sensitivity forecast
 	 * 
 	 * @param type of forecast tied to a type of sensitivity
@@ -3,6 +3,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package agents.forecast.sensitivity;
 
+import static util.ActionProfiler.profile;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -13,6 +14,7 @@ import communications.message.AmountAtTime;
 import communications.message.ForecastClientRegistration;
 import communications.message.PointInTime;
 import communications.portable.Sensitivity;
+import communications.portable.SensitivityCurves;
 import de.dlr.gitlab.fame.agent.input.DataProvider;
 import de.dlr.gitlab.fame.agent.input.Input;
 import de.dlr.gitlab.fame.agent.input.Make;
@@ -43,7 +45,7 @@ public class SensitivityForecaster extends MarketForecaster implements Sensitivi
 
 	private final FlexibilityAssessor flexibilityAssessor;
 	private final HashMap<Long, ForecastType> typePerClient = new HashMap<>();
-	private final TimedDataMap<ForecastType, MarketClearingAssessment> assessments = new TimedDataMap<>();
+	private final TimedDataMap<ForecastType, SensitivityCurves> curves = new TimedDataMap<>();
 
 	/** Instantiate a new {@link SensitivityForecaster}
 	 * 
@@ -57,9 +59,12 @@ public class SensitivityForecaster extends MarketForecaster implements Sensitivi
 		int decayInterval = input.getIntegerOrDefault("MultiplierEstimation.DecayInterval", -1);
 		flexibilityAssessor = new FlexibilityAssessor(cutOffFactor, initialEstimateWeight, decayInterval);
 
-		call(this::registerClients).onAndUse(SensitivityForecastClient.Products.ForecastRegistration);
-		call(this::updateForecastMultipliers).onAndUse(SensitivityForecastClient.Products.NetAward);
-		call(this::sendSensitivityForecasts).on(SensitivityForecastProvider.Products.SensitivityForecast)
+		call(profile(this, SensitivityForecastClient.Products.ForecastRegistration, this::registerClients))
+				.onAndUse(SensitivityForecastClient.Products.ForecastRegistration);
+		call(profile(this, SensitivityForecastClient.Products.NetAward, this::updateForecastMultipliers))
+				.onAndUse(SensitivityForecastClient.Products.NetAward);
+		call(profile(this, SensitivityForecastProvider.Products.SensitivityForecast, this::sendSensitivityForecasts))
+				.on(SensitivityForecastProvider.Products.SensitivityForecast)
 				.use(SensitivityForecastClient.Products.SensitivityRequest);
 	}
 
@@ -92,8 +97,7 @@ public class SensitivityForecaster extends MarketForecaster implements Sensitivi
 			ArrayList<Message> requests = CommUtils.extractMessagesFrom(messages, clientId);
 			for (Message message : requests) {
 				TimeStamp time = message.getDataItemOfType(PointInTime.class).validAt;
-				MarketClearingAssessment assessment = getAssessmentFor(getForecastTypeOfClient(clientId), time);
-				Sensitivity sensitivity = new Sensitivity(assessment, multiplier);
+				Sensitivity sensitivity = new Sensitivity(getCurvesFor(getForecastTypeOfClient(clientId), time), multiplier);
 				if (!sensitivity.isValid()) {
 					logger.error(String.format(WARN_INVALID, this, time));
 				}
@@ -101,7 +105,7 @@ public class SensitivityForecaster extends MarketForecaster implements Sensitivi
 			}
 		}
 		flexibilityAssessor.clearBefore(now());
-		assessments.clearBefore(now());
+		curves.clearBefore(now());
 		saveNextForecast();
 	}
 
@@ -114,16 +118,17 @@ public class SensitivityForecaster extends MarketForecaster implements Sensitivi
 		return type;
 	}
 
-	/** @return the assessment of type associated with the given client at the specified time */
-	private MarketClearingAssessment getAssessmentFor(ForecastType type, TimeStamp time) {
-		assessments.computeIfAbsent(time, type, () -> buildAssessor(time, type));
-		return assessments.get(time, type);
+	/** @return the sensitivity curves of given type at the specified time - shared by all clients requesting this type */
+	private SensitivityCurves getCurvesFor(ForecastType type, TimeStamp time) {
+		curves.computeIfAbsent(time, type, () -> buildCurves(time, type));
+		return curves.get(time, type);
 	}
 
-	/** Create a new {@link MarketClearingAssessment} for given time and {@link ForecastType} */
-	private MarketClearingAssessment buildAssessor(TimeStamp time, ForecastType type) {
+	/** Assess the market clearing forecast for given time with the {@link MarketClearingAssessment} of given {@link ForecastType}
+	 * and materialise its curves */
+	private SensitivityCurves buildCurves(TimeStamp time, ForecastType type) {
 		MarketClearingAssessment assessor = MarketClearingAssessment.build(type);
 		assessor.assess(getResultForRequestedTime(time));
-		return assessor;
+		return assessor.toCurves();
 	}
 }
@@ -17,6 +17,7 @@ import de.dlr.gitlab.fame.agent.input.Tree;
 import de.dlr.gitlab.fame.data.TimeSeries;
 import de.dlr.gitlab.fame.time.TimePeriod;
 import endUser.EndUserTariff;
+import util.ResponseCache;
 import util.UrlModelService;
 
 /** Creates a cost-optimal HeatPumpSchedule according to real-time prices, which is endogenously calculated by a heat pump
@@ -27,7 +28,7 @@ public class StrategistExternal extends HeatPumpStrategist {
 	/** Input parameters required for connecting to an external API-based model */
 	public static final Tree apiParameters = Make.newTree().optional()
 			.add(Make.newString("ServiceUrl"), Make.newString("StaticParameterFolder"))
-			.buildTree();
+			.addAs("ResponseCache", ResponseCache.parameters).buildTree();
 	private final UrlModelService<OptimisationInputs, OptimisationOutputs> optimiserApi;
 	private final String staticParameterFolder;
 	private boolean isFirstOptimisation = true;
@@ -53,6 +54,7 @@ public class StrategistExternal extends HeatPumpStrategist {
 		ParameterData apiParameters = strategyParams.getApiParameters();
 		optimiserApi = new UrlModelService<OptimisationInputs, OptimisationOutputs>(
 				apiParameters.getString("ServiceUrl")) {};
+		optimiserApi.setResponseCache(ResponseCache.fromConfig(apiParameters.getOptionalGroup("ResponseCache")));
 		staticParameterFolder = apiParameters.getString("StaticParameterFolder");
 		this.fixedRoomTemperaturInC = fixedRoomTemperaturInC;
 	}
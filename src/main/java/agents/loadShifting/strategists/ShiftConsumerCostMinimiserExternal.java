@@ -18,6 +18,7 @@ import de.dlr.gitlab.fame.agent.input.Tree;
 import de.dlr.gitlab.fame.data.TimeSeries;
 import de.dlr.gitlab.fame.time.TimePeriod;
 import de.dlr.gitlab.fame.time.TimeStamp;
+import util.ResponseCache;
 import util.UrlModelService;
 
 /** Determines a scheduling strategy for a {@link LoadShiftingPortfolio} in order to minimise overall costs for energy
@@ -29,7 +30,7 @@ public class ShiftConsumerCostMinimiserExternal extends LoadShiftingStrategist {
 	@Input public static final Tree apiParameters = Make.newTree()
 			.add(Make.newString("ServiceUrl"), Make.newInt("UseAnnualLimit"), Make.newEnum("Solver", Solver.class),
 					Make.newSeries("PriceSensitivityEstimate"))
-			.buildTree();
+			.addAs("ResponseCache", ResponseCache.parameters).buildTree();
 
 	private final EndUserTariff tariffStrategist;
 	private final UrlModelService<OptimisationInputs, OptimisationResult> optimiserApi;
@@ -51,6 +52,7 @@ public class ShiftConsumerCostMinimiserExternal extends LoadShiftingStrategist {
 		this.tariffStrategist = endUserTariff;
 		optimiserApi = new UrlModelService<OptimisationInputs, OptimisationResult>(
 				specificInput.getString("ServiceUrl")) {};
+		optimiserApi.setResponseCache(ResponseCache.fromConfig(specificInput.getOptionalGroup("ResponseCache")));
 		activateAnnualLimits = specificInput.getInteger("UseAnnualLimit") >= 1;
 		solver = specificInput.getEnum("Solver", Solver.class);
 		priceSensitivity = specificInput.getTimeSeries("PriceSensitivityEstimate");
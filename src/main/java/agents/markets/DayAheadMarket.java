@@ -18,18 +18,24 @@ import de.dlr.gitlab.fame.communication.Contract;
 import de.dlr.gitlab.fame.communication.Product;
 import de.dlr.gitlab.fame.communication.message.Message;
 import de.dlr.gitlab.fame.service.output.Output;
+import de.dlr.gitlab.fame.time.Constants.Interval;
 import de.dlr.gitlab.fame.time.TimeSpan;
+import de.dlr.gitlab.fame.time.TimeStamp;
 
-/** Common market clearing routines for day-ahead energy markets. Unlike at actual day-ahead markets, market clearing is currently
- * implemented on an <b>hour-per-hour</b> basis.
+/** Common market clearing routines for day-ahead energy markets. By default, market clearing is implemented on an
+ * <b>hour-per-hour</b> basis; optionally, several consecutive hours can be cleared at each gate closure.
  * 
  * @author Christoph Schimeczek, A. Achraf El Ghazi, Felix Nitsch, Johannes Kochems */
 public abstract class DayAheadMarket extends Agent {
 	static final String LONE_LIST = "At most one round of market clearing is currently implemented.";
+	static final String ERR_CLEARING_TIMES_COUNT = "ClearingTimesPerGateClosure must be positive but was: ";
 
 	@Input private static final Tree parameters = Make.newTree()
 			.addAs("Clearing", MarketClearing.parameters)
-			.add(Make.newInt("GateClosureInfoOffsetInSeconds")).buildTree();
+			.add(Make.newInt("GateClosureInfoOffsetInSeconds"),
+					Make.newInt("ClearingTimesPerGateClosure").optional()
+							.help("Number of consecutive hours cleared at each gate closure (default: 1)"))
+			.buildTree();
 
 	/** Products of {@link DayAheadMarket}s */
 	@Product
@@ -52,6 +58,8 @@ public abstract class DayAheadMarket extends Agent {
 	}
 
 	private final TimeSpan gateClosureInfoOffset;
+	/** Number of consecutive hourly delivery intervals cleared at each gate closure */
+	protected final int clearingTimesPerGateClosure;
 	/** Algorithm that performs the market clearing */
 	protected final MarketClearing marketClearing;
 	/** List of times the market will be cleared at the next clearing event */
@@ -66,6 +74,10 @@ public abstract class DayAheadMarket extends Agent {
 		ParameterData input = parameters.join(dataProvider);
 		marketClearing = new MarketClearing(input.getGroup("Clearing"));
 		gateClosureInfoOffset = new TimeSpan(input.getInteger("GateClosureInfoOffsetInSeconds"));
+		clearingTimesPerGateClosure = input.getIntegerOrDefault("ClearingTimesPerGateClosure", 1);
+		if (clearingTimesPerGateClosure < 1) {
+			throw new RuntimeException(ERR_CLEARING_TIMES_COUNT + clearingTimesPerGateClosure);
+		}
 
 		/** Sends out ClearingTimes */
 		call(this::sendGateClosureInfo).on(Products.GateClosureInfo);
@@ -82,9 +94,14 @@ public abstract class DayAheadMarket extends Agent {
 		}
 	}
 
-	/** Updates the clearing times: adds a single TimeStamp for the next clearing */
+	/** Updates the clearing times: adds one TimeStamp per consecutive hour to be cleared at the next gate closure */
 	private void updateClearingTimes() {
-		clearingTimes = new ClearingTimes(now().laterBy(gateClosureInfoOffset));
+		TimeStamp firstClearingTime = now().laterBy(gateClosureInfoOffset);
+		TimeStamp[] times = new TimeStamp[clearingTimesPerGateClosure];
+		for (int hour = 0; hour < clearingTimesPerGateClosure; hour++) {
+			times[hour] = firstClearingTime.laterBy(new TimeSpan(hour, Interval.HOURS));
+		}
+		clearingTimes = new ClearingTimes(times);
 	}
 
 	/** @return String identifying the agent and time of market clearing */
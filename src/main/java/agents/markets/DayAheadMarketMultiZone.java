@@ -3,6 +3,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package agents.markets;
 
+import static util.ActionProfiler.profile;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -36,6 +37,8 @@ public class DayAheadMarketMultiZone extends DayAheadMarket implements MarketCou
 	static final String MARKET_ZONE_MISSING = "Each Transmission requires a connected market zone.";
 	static final String TIME_SERIES_MISSING = "No transmission capacity specified for market zone: ";
 	static final String ERR_CLEARING_FAILED = ": Market clearing failed due to: ";
+	static final String ERR_NO_BATCH_CLEARING = "Market coupling supports only one clearing time per gate closure, but "
+			+ "ClearingTimesPerGateClosure was: ";
 
 	/** Products of {@link DayAheadMarketMultiZone}s */
 	@Product
@@ -93,16 +96,23 @@ public class DayAheadMarketMultiZone extends DayAheadMarket implements MarketCou
 	 * @throws MissingDataException if any required data is not provided */
 	public DayAheadMarketMultiZone(DataProvider dataProvider) throws MissingDataException {
 		super(dataProvider);
+		if (clearingTimesPerGateClosure > 1) {
+			throw new RuntimeException(ERR_NO_BATCH_CLEARING + clearingTimesPerGateClosure);
+		}
 		ParameterData input = parameters.join(dataProvider);
 		ownMarketZone = input.getStringOrDefault("MarketZone", null);
 		if (ownMarketZone != null) {
 			loadTransmissionCapacities(input.getGroupList("Transmission"));
 		}
 
-		call(this::shareTransmissionCapacities).on(Products.TransmissionCapacities);
-		call(this::digestBids).onAndUse(DayAheadMarketTrader.Products.Bids);
-		call(this::provideTransmissionAndBids).on(MarketCouplingClient.Products.TransmissionAndBids);
-		call(this::clearMarket).on(DayAheadMarket.Products.Awards).use(MarketCoupling.Products.MarketCouplingResult);
+		call(profile(this, Products.TransmissionCapacities, this::shareTransmissionCapacities))
+				.on(Products.TransmissionCapacities);
+		call(profile(this, DayAheadMarketTrader.Products.Bids, this::digestBids))
+				.onAndUse(DayAheadMarketTrader.Products.Bids);
+		call(profile(this, MarketCouplingClient.Products.TransmissionAndBids, this::provideTransmissionAndBids))
+				.on(MarketCouplingClient.Products.TransmissionAndBids);
+		call(profile(this, DayAheadMarket.Products.Awards, this::clearMarket))
+				.on(DayAheadMarket.Products.Awards).use(MarketCoupling.Products.MarketCouplingResult);
 	}
 
 	/** Loads all transmission capacity timeseries and stores them with the corresponding target market zones as key
@@ -226,8 +236,8 @@ public class DayAheadMarketMultiZone extends DayAheadMarket implements MarketCou
 			long receiverId = contract.getReceiverId();
 
 			double energyFromImports = importBook.getEnergySumForTrader(receiverId);
-			double supplyPower = result.getSupplyBook().getTradersSumOfPower(receiverId);
-			double demandPower = result.getDemandBook().getTradersSumOfPower(receiverId) + energyFromImports;
+			double supplyPower = result.getAwardedSupplyPowerOf(receiverId);
+			double demandPower = result.getAwardedDemandPowerOf(receiverId) + energyFromImports;
 
 			List<TimeStamp> clearingTimeList = clearingTimes.getTimes();
 			if (clearingTimeList.size() > 1) {
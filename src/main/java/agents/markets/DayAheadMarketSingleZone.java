@@ -3,24 +3,47 @@
 // SPDX-License-Identifier: Apache-2.0
 package agents.markets;
 
+import static util.ActionProfiler.profile;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import agents.markets.meritOrder.MarketClearing;
 import agents.markets.meritOrder.MarketClearingResult;
-import agents.markets.meritOrder.books.DemandOrderBook;
-import agents.markets.meritOrder.books.SupplyOrderBook;
 import communications.message.AwardData;
+import communications.portable.AwardSeries;
+import communications.portable.BidsAtTime;
 import de.dlr.gitlab.fame.agent.input.DataProvider;
 import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
 import de.dlr.gitlab.fame.communication.Contract;
 import de.dlr.gitlab.fame.communication.message.Message;
+import de.dlr.gitlab.fame.service.output.ComplexIndex;
+import de.dlr.gitlab.fame.service.output.Output;
 import de.dlr.gitlab.fame.time.TimeStamp;
 
-/** Performs market clearing for a single day-ahead energy market zone.
+/** Performs market clearing for a single day-ahead energy market zone. If several clearing times are configured per gate closure,
+ * each delivery interval is cleared separately and each trader receives one {@link AwardSeries} covering all of them.
  * 
  * @author Christoph Schimeczek, Johannes Kochems */
 public class DayAheadMarketSingleZone extends DayAheadMarket {
-	private DemandOrderBook demandBook = new DemandOrderBook();
-	private SupplyOrderBook supplyBook = new SupplyOrderBook();
+	static final String ERR_UNEXPECTED_DELIVERY = "Bids received for delivery time not cleared at this gate closure: ";
+
+	@Output
+	private static enum BatchOutputFields {
+		/** Complex output; market clearing price per delivery interval of the last gate closure */
+		ElectricityPricePerDeliveryInEURperMWH,
+		/** Complex output; total power awarded per delivery interval of the last gate closure */
+		AwardedEnergyPerDeliveryInMWH
+	}
+
+	private static enum DeliveryKey {
+		DeliveryTime
+	}
+
+	private static final ComplexIndex<DeliveryKey> pricePerDelivery = ComplexIndex
+			.build(BatchOutputFields.ElectricityPricePerDeliveryInEURperMWH, DeliveryKey.class);
+	private static final ComplexIndex<DeliveryKey> awardedEnergyPerDelivery = ComplexIndex
+			.build(BatchOutputFields.AwardedEnergyPerDeliveryInMWH, DeliveryKey.class);
 
 	/** Creates an {@link DayAheadMarketSingleZone}
 	 * 
@@ -29,7 +52,12 @@ public class DayAheadMarketSingleZone extends DayAheadMarket {
 	public DayAheadMarketSingleZone(DataProvider dataProvider) throws MissingDataException {
 		super(dataProvider);
 		/** Clears market by using incoming bids and sending Awards */
-		call(this::clearMarket).on(Products.Awards).use(DayAheadMarketTrader.Products.Bids);
+		if (clearingTimesPerGateClosure > 1) {
+			call(profile(this, Products.Awards, this::clearMarketBatch)).on(Products.Awards)
+					.use(DayAheadMarketTrader.Products.Bids);
+		} else {
+			call(profile(this, Products.Awards, this::clearMarket)).on(Products.Awards).use(DayAheadMarketTrader.Products.Bids);
+		}
 	}
 
 	/** Clears the market based on all the bids provided; writes out some market-clearing data
@@ -38,25 +66,25 @@ public class DayAheadMarketSingleZone extends DayAheadMarket {
 	 * @param contracts with anyone who wants to receive information about the market clearing outcome */
 	protected void clearMarket(ArrayList<Message> input, List<Contract> contracts) {
 		MarketClearingResult result = marketClearing.clear(input, getClearingEventId());
-		demandBook = result.getDemandBook();
-		supplyBook = result.getSupplyBook();
 		double powerPrice = result.getMarketPriceInEURperMWH();
-		sendAwardsToTraders(contracts, powerPrice);
+		sendAwardsToTraders(contracts, result, powerPrice);
 
 		store(OutputFields.ElectricityPriceInEURperMWH, powerPrice);
 		store(OutputFields.AwardedEnergyInMWH, result.getTradedEnergyInMWH());
 		store(OutputFields.DispatchSystemCostInEUR, result.getSystemCostTotalInEUR());
+		marketClearing.recycle(result);
 	}
 
 	/** For each given Contract, account for awarded power from associated incoming bids (if any) and respond with an Award message
 	 * 
 	 * @param contracts list of partners; anyone (bidder or not) that wants to receive an Award message
+	 * @param result of the market clearing
 	 * @param powerPrice the final uniform electricity price */
-	private void sendAwardsToTraders(List<Contract> contracts, double powerPrice) {
+	private void sendAwardsToTraders(List<Contract> contracts, MarketClearingResult result, double powerPrice) {
 		for (Contract contract : contracts) {
 			long receiverId = contract.getReceiverId();
-			double awardedSupplyPower = supplyBook.getTradersSumOfPower(receiverId);
-			double awardedDemandPower = demandBook.getTradersSumOfPower(receiverId);
+			double awardedSupplyPower = result.getAwardedSupplyPowerOf(receiverId);
+			double awardedDemandPower = result.getAwardedDemandPowerOf(receiverId);
 			List<TimeStamp> clearingTimeList = clearingTimes.getTimes();
 			if (clearingTimeList.size() > 1) {
 				throw new RuntimeException(LONE_LIST + clearingTimeList);
@@ -67,4 +95,90 @@ public class DayAheadMarketSingleZone extends DayAheadMarket {
 			}
 		}
 	}
+
+	/** Clears the market separately for each delivery interval of the last gate closure; sends one {@link AwardSeries} per
+	 * contracted trader and writes out the price and awarded energy per delivery interval as well as the totals of awarded energy
+	 * and system cost over all cleared delivery intervals
+	 * 
+	 * @param input supply and demand bids for any of the clearing times
+	 * @param contracts with anyone who wants to receive information about the market clearing outcome */
+	private void clearMarketBatch(ArrayList<Message> input, List<Contract> contracts) {
+		List<TimeStamp> clearingTimeList = clearingTimes.getTimes();
+		List<MarketClearingResult> results = clearEachDeliveryTime(marketClearing, input, clearingTimeList,
+				getClearingEventId());
+		for (Contract contract : contracts) {
+			fulfilNext(contract, new AwardSeries(collectAwards(results, clearingTimeList, contract.getReceiverId())));
+		}
+		double totalAwardedEnergy = 0;
+		double totalSystemCost = 0;
+		for (int i = 0; i < results.size(); i++) {
+			MarketClearingResult result = results.get(i);
+			long deliveryStep = clearingTimeList.get(i).getStep();
+			store(pricePerDelivery.key(DeliveryKey.DeliveryTime, deliveryStep), result.getMarketPriceInEURperMWH());
+			store(awardedEnergyPerDelivery.key(DeliveryKey.DeliveryTime, deliveryStep), result.getTradedEnergyInMWH());
+			totalAwardedEnergy += result.getTradedEnergyInMWH();
+			totalSystemCost += result.getSystemCostTotalInEUR();
+			marketClearing.recycle(result);
+		}
+		store(OutputFields.AwardedEnergyInMWH, totalAwardedEnergy);
+		store(OutputFields.DispatchSystemCostInEUR, totalSystemCost);
+	}
+
+	/** Clears the market separately for each given clearing time
+	 * 
+	 * @param clearing to clear the market with
+	 * @param input supply and demand bids for any of the clearing times
+	 * @param clearingTimeList times to be cleared
+	 * @param clearingEventId string identifying the clearing event
+	 * @return one clearing result per clearing time, in order of the given clearing times */
+	static List<MarketClearingResult> clearEachDeliveryTime(MarketClearing clearing, ArrayList<Message> input,
+			List<TimeStamp> clearingTimeList, String clearingEventId) {
+		Map<TimeStamp, ArrayList<Message>> bidsByDeliveryTime = groupByDeliveryTime(input, clearingTimeList);
+		List<MarketClearingResult> results = new ArrayList<>(clearingTimeList.size());
+		for (TimeStamp clearingTime : clearingTimeList) {
+			results.add(clearing.clear(bidsByDeliveryTime.get(clearingTime), clearingEventId + " for " + clearingTime));
+		}
+		return results;
+	}
+
+	/** Collects the awards of one trader from given results
+	 * 
+	 * @param results one clearing result per clearing time
+	 * @param clearingTimeList times cleared, in the order of the given results
+	 * @param traderId ID of the trader to collect awards for
+	 * @return one award per clearing time, in order of the given clearing times */
+	static List<AwardData> collectAwards(List<MarketClearingResult> results, List<TimeStamp> clearingTimeList,
+			long traderId) {
+		List<AwardData> awards = new ArrayList<>(results.size());
+		for (int i = 0; i < results.size(); i++) {
+			MarketClearingResult result = results.get(i);
+			awards.add(new AwardData(result.getAwardedSupplyPowerOf(traderId), result.getAwardedDemandPowerOf(traderId),
+					result.getMarketPriceInEURperMWH(), clearingTimeList.get(i)));
+		}
+		return awards;
+	}
+
+	/** Sorts given bid messages by their delivery time; messages without bids are assigned to the first clearing time
+	 * 
+	 * @param input messages with bids
+	 * @param clearingTimeList times to be cleared
+	 * @return bid messages grouped by their delivery time, with one (possibly empty) entry per clearing time
+	 * @throws RuntimeException if bids refer to a delivery time that is not cleared */
+	static Map<TimeStamp, ArrayList<Message>> groupByDeliveryTime(ArrayList<Message> input,
+			List<TimeStamp> clearingTimeList) {
+		Map<TimeStamp, ArrayList<Message>> bidsByDeliveryTime = new LinkedHashMap<>();
+		for (TimeStamp clearingTime : clearingTimeList) {
+			bidsByDeliveryTime.put(clearingTime, new ArrayList<>());
+		}
+		for (Message message : input) {
+			BidsAtTime bids = message.getFirstPortableItemOfType(BidsAtTime.class);
+			TimeStamp deliveryTime = bids != null ? bids.getDeliveryTime() : clearingTimeList.get(0);
+			ArrayList<Message> messages = bidsByDeliveryTime.get(deliveryTime);
+			if (messages == null) {
+				throw new RuntimeException(ERR_UNEXPECTED_DELIVERY + deliveryTime);
+			}
+			messages.add(message);
+		}
+		return bidsByDeliveryTime;
+	}
 }
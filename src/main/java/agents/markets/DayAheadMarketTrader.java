@@ -5,7 +5,9 @@ package agents.markets;
 
 import java.util.ArrayList;
 import java.util.List;
+import communications.message.AwardData;
 import communications.message.ClearingTimes;
+import communications.portable.AwardSeries;
 import de.dlr.gitlab.fame.agent.AgentAbility;
 import de.dlr.gitlab.fame.communication.Product;
 import de.dlr.gitlab.fame.communication.message.Message;
@@ -20,6 +22,9 @@ public interface DayAheadMarketTrader extends AgentAbility {
 	static String ERR_CLEARING_TIMES_MISSING = "None of the given messages contained a ClearingTimes payload.";
 	/** Error message if {@link ClearingTimes} payload is ambiguous */
 	static String ERR_CLEARING_TIMES_AMBIGUOUS = "More than one of the given messages contained a ClearingTimes payload.";
+	/** Error message if a trader that can process only one delivery interval per gate closure receives several awards */
+	static String ERR_SEVERAL_AWARDS = " can only process one delivery interval per gate closure: "
+			+ "set ClearingTimesPerGateClosure of its DayAheadMarket to 1.";
 
 	/** Products of traders interacting with {@link DayAheadMarket} */
 	@Product
@@ -69,6 +74,29 @@ public interface DayAheadMarketTrader extends AgentAbility {
 		return message.getDataItemOfType(ClearingTimes.class).getTimes();
 	}
 
+	/** Reads all awards from a {@link DayAheadMarket.Products#Awards} message - either a single {@link AwardData} or an
+	 * {@link AwardSeries} if the market clears several delivery intervals per gate closure
+	 * 
+	 * @param message to be read
+	 * @return awards in order of their delivery interval */
+	public default List<AwardData> readAwards(Message message) {
+		return AwardSeries.readAwardsFrom(message);
+	}
+
+	/** Reads the award from a {@link DayAheadMarket.Products#Awards} message of a trader that can process only one delivery
+	 * interval per gate closure
+	 * 
+	 * @param message to be read
+	 * @return the only award contained in the message
+	 * @throws RuntimeException if the message contains awards for several delivery intervals */
+	public default AwardData readSingleAward(Message message) {
+		List<AwardData> awards = readAwards(message);
+		if (awards.size() > 1) {
+			throw new RuntimeException(this + ERR_SEVERAL_AWARDS);
+		}
+		return awards.get(0);
+	}
+
 	/** @return true if message contains a {@link ClearingTimes} payload */
 	private boolean isGateClosureInfoMessage(Message message) {
 		return message.containsType(ClearingTimes.class);
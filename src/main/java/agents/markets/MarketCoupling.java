@@ -25,6 +25,7 @@ import de.dlr.gitlab.fame.communication.message.Message;
 import de.dlr.gitlab.fame.service.output.ComplexIndex;
 import de.dlr.gitlab.fame.service.output.Output;
 import de.dlr.gitlab.fame.time.TimeStamp;
+import util.WorkerPools;
 
 /** Market coupling Agent that receives MeritOrderBooks from registered individual DayAheadMarket(s). It computes coupled
  * electricity prices aiming at minimising price differences between markets. Sends individual, coupled prices back to its client
@@ -36,6 +37,7 @@ public class MarketCoupling extends Agent {
 	static final String NO_AGENT_FOR_ZONE = "No DayAheadMarket agent found for market zone: ";
 	static final double DEFAULT_DEMAND_SHIFT_OFFSET = 1.0;
 	static final double DEFAULT_MAX_SHIFT = Double.MAX_VALUE;
+	static final int DEFAULT_PARALLELISM = 1;
 
 	/** Products of {@link MarketCoupling} */
 	@Product
@@ -48,11 +50,14 @@ public class MarketCoupling extends Agent {
 
 	static final String PARAM_MIN_OFFSET = "MinimumDemandOffsetInMWH";
 	static final String PARAM_MAX_SHIFT = "MaximumShiftedEnergyPerIterationInMWH";
+	static final String PARAM_PARALLELISM = "ForecastParallelism";
 
 	@Input private static final Tree parameters = Make.newTree()
 			.add(Make.newDouble(PARAM_MIN_OFFSET).optional()
 					.help("Offset added to the demand shift that ensures a price change at the involved markets."),
-					Make.newDouble(PARAM_MAX_SHIFT).optional())
+					Make.newDouble(PARAM_MAX_SHIFT).optional(),
+					Make.newInt(PARAM_PARALLELISM).optional()
+							.help("Number of forecast hours to couple concurrently (default: 1, i.e. sequentially)"))
 			.buildTree();
 
 	@Output
@@ -72,6 +77,9 @@ public class MarketCoupling extends Agent {
 	private static final ComplexIndex<TransferKey> usedCapacity = ComplexIndex.build(
 			OutputColumns.UsedTransferCapacityInMWH, TransferKey.class);
 
+	private final double minEffectiveDemandOffset;
+	private final double maxEnergyShift;
+	private final int forecastParallelism;
 	private final DemandBalancer demandBalancer;
 	private Map<Long, CouplingData> couplingRequests = new HashMap<>();
 	private Map<Long, TransmissionBook> initialTransmissionBookByMarket = new HashMap<>();
@@ -83,8 +91,9 @@ public class MarketCoupling extends Agent {
 	public MarketCoupling(DataProvider dataProvider) throws MissingDataException {
 		super(dataProvider);
 		ParameterData input = parameters.join(dataProvider);
-		double minEffectiveDemandOffset = input.getDoubleOrDefault(PARAM_MIN_OFFSET, DEFAULT_DEMAND_SHIFT_OFFSET);
-		double maxEnergyShift = input.getDoubleOrDefault(PARAM_MAX_SHIFT, DEFAULT_MAX_SHIFT);
+		minEffectiveDemandOffset = input.getDoubleOrDefault(PARAM_MIN_OFFSET, DEFAULT_DEMAND_SHIFT_OFFSET);
+		maxEnergyShift = input.getDoubleOrDefault(PARAM_MAX_SHIFT, DEFAULT_MAX_SHIFT);
+		forecastParallelism = input.getIntegerOrDefault(PARAM_PARALLELISM, DEFAULT_PARALLELISM);
 		demandBalancer = new DemandBalancer(minEffectiveDemandOffset, maxEnergyShift);
 
 		call(this::forecastCoupledMarkets).on(Products.MarketCouplingForecastResult)
@@ -93,13 +102,67 @@ public class MarketCoupling extends Agent {
 				.use(MarketCouplingClient.Products.TransmissionAndBids);
 	}
 
+	/** Couples markets for each forecasted clearing time; if {@link #forecastParallelism} is larger than one, clearing times are
+	 * balanced concurrently on a shared {@link WorkerPools worker pool} - results are sent in order of clearing time in any case
+	 * 
+	 * @param input received CouplingRequests of the contracted EnergyExchanges - may belong to multiple clearing times
+	 * @param contracts with said EnergyExchanges */
 	private void forecastCoupledMarkets(ArrayList<Message> input, List<Contract> contracts) {
 		TreeMap<TimeStamp, ArrayList<Message>> messagesByClearingTime = sortMessagesByClearingTimeStamp(input);
-		for (ArrayList<Message> messages : messagesByClearingTime.values()) {
-			clearCoupledMarkets(messages, contracts, false);
+		if (forecastParallelism > 1 && messagesByClearingTime.size() > 1) {
+			List<Map<Long, CouplingData>> requestsByClearingTime = new ArrayList<>();
+			for (ArrayList<Message> messages : messagesByClearingTime.values()) {
+				requestsByClearingTime.add(readCouplingRequests(messages, null));
+			}
+			balanceEach(requestsByClearingTime, minEffectiveDemandOffset, maxEnergyShift, forecastParallelism);
+			for (Map<Long, CouplingData> requests : requestsByClearingTime) {
+				sendCoupledBidsToExchanges(contracts, requests);
+			}
+		} else {
+			for (ArrayList<Message> messages : messagesByClearingTime.values()) {
+				clearCoupledMarkets(messages, contracts, false);
+			}
+		}
+	}
+
+	/** Balances each of the given independent coupling requests with its own {@link DemandBalancer}; requests are processed
+	 * concurrently if parallelism is larger than one - results do not depend on the parallelism
+	 * 
+	 * @param requestsByClearingTime coupling requests per clearing time, updated in place
+	 * @param minEffectiveDemandOffset see {@link DemandBalancer}
+	 * @param maxEnergyShift see {@link DemandBalancer}
+	 * @param parallelism max number of clearing times to balance concurrently */
+	static void balanceEach(List<Map<Long, CouplingData>> requestsByClearingTime, double minEffectiveDemandOffset,
+			double maxEnergyShift, int parallelism) {
+		if (parallelism > 1) {
+			WorkerPools.get(parallelism).submit(() -> requestsByClearingTime.parallelStream()
+					.forEach(requests -> new DemandBalancer(minEffectiveDemandOffset, maxEnergyShift).balance(requests)))
+					.join();
+		} else {
+			for (Map<Long, CouplingData> requests : requestsByClearingTime) {
+				new DemandBalancer(minEffectiveDemandOffset, maxEnergyShift).balance(requests);
+			}
 		}
 	}
 
+	/** Reads CouplingData from given messages
+	 * 
+	 * @param input messages with CouplingData from contracted EnergyExchanges
+	 * @param initialTransmissionBooks if not null: filled with original transmission book of each sender
+	 * @return a copy of the CouplingData from each sender */
+	private Map<Long, CouplingData> readCouplingRequests(ArrayList<Message> input,
+			Map<Long, TransmissionBook> initialTransmissionBooks) {
+		Map<Long, CouplingData> requests = new HashMap<>();
+		for (Message message : input) {
+			CouplingData couplingRequest = message.getFirstPortableItemOfType(CouplingData.class);
+			if (initialTransmissionBooks != null) {
+				initialTransmissionBooks.put(message.getSenderId(), couplingRequest.getTransmissionBook());
+			}
+			requests.put(message.getSenderId(), couplingRequest.clone());
+		}
+		return requests;
+	}
+
 	/** Groups given messages by their targeted time of delivery into an ordered Map
 	 * 
 	 * @param messages to group by
@@ -125,18 +188,13 @@ public class MarketCoupling extends Agent {
 	 * @param input received CouplingRequests of the contracted EnergyExchanges
 	 * @param contracts with said EnergyExchanges */
 	private void clearCoupledMarkets(ArrayList<Message> input, List<Contract> contracts, boolean writeOutput) {
-		couplingRequests.clear();
 		initialTransmissionBookByMarket.clear();
-		for (Message message : input) {
-			CouplingData couplingRequest = message.getFirstPortableItemOfType(CouplingData.class);
-			initialTransmissionBookByMarket.put(message.getSenderId(), couplingRequest.getTransmissionBook());
-			couplingRequests.put(message.getSenderId(), couplingRequest.clone());
-		}
+		couplingRequests = readCouplingRequests(input, initialTransmissionBookByMarket);
 		demandBalancer.balance(couplingRequests);
 		if (writeOutput) {
 			writeCouplingResults();
 		}
-		sendCoupledBidsToExchanges(contracts);
+		sendCoupledBidsToExchanges(contracts, couplingRequests);
 	}
 
 	private void clearCoupledAndWriteResults(ArrayList<Message> input, List<Contract> contracts) {
@@ -181,11 +239,12 @@ public class MarketCoupling extends Agent {
 
 	/** Sends the optimised demand and supply order books to the contracted EnergyExchange(s)
 	 * 
-	 * @param contracts received contracts */
-	private void sendCoupledBidsToExchanges(List<Contract> contracts) {
+	 * @param contracts received contracts
+	 * @param requests balanced CouplingData by market ID */
+	private void sendCoupledBidsToExchanges(List<Contract> contracts, Map<Long, CouplingData> requests) {
 		for (Contract contract : contracts) {
 			long id = contract.getReceiverId();
-			fulfilNext(contract, couplingRequests.get(id));
+			fulfilNext(contract, requests.get(id));
 		}
 	}
 }
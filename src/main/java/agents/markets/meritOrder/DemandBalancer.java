@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import agents.markets.DayAheadMarket;
@@ -17,6 +18,8 @@ import agents.markets.meritOrder.books.OrderBookItem;
 import agents.markets.meritOrder.books.SupplyOrderBook;
 import agents.markets.meritOrder.books.TransferOrderBook;
 import communications.portable.CouplingData;
+import util.ActionProfiler;
+import util.ActionProfiler.Counter;
 
 /** Encapsulates the actual market coupling algorithm; Dispatch the demand among energy exchanges in order to maximise the total
  * welfare. To this end, the algorithm reduces price differences of connected markets by transferring demand bids.
@@ -36,6 +39,8 @@ public class DemandBalancer {
 		public DemandOrderBook newDemandOfOrigin;
 		public DemandOrderBook newDemandOfTarget;
 		public TransferOrderBook transferBook;
+		public ClearingDetails newClearingOfOrigin;
+		public ClearingDetails newClearingOfTarget;
 
 		public DemandShiftResult(Long expensiveMarketId, Long cheapMarketId, Double shiftedDemand,
 				DemandOrderBook newDemandOfOrigin, DemandOrderBook newDemandOfTarget,
@@ -49,6 +54,39 @@ public class DemandBalancer {
 		}
 	}
 
+	/** Meaningful demand shift between two markets evaluated for their current order books; candidates are ordered by descending
+	 * price difference, ties are broken by the order of the expensive and then the cheap market in the coupling requests */
+	private class ShiftCandidate implements Comparable<ShiftCandidate> {
+		public final long expensiveMarketId;
+		public final long cheapMarketId;
+		public final double priceDifference;
+		public final DemandShiftResult shiftResult;
+
+		public ShiftCandidate(DemandShiftResult shiftResult, double priceDifference) {
+			this.expensiveMarketId = shiftResult.expensiveMarketId;
+			this.cheapMarketId = shiftResult.cheapMarketId;
+			this.priceDifference = priceDifference;
+			this.shiftResult = shiftResult;
+		}
+
+		/** @return true if given market is one of the two markets involved in this candidate */
+		public boolean involves(long marketId) {
+			return expensiveMarketId == marketId || cheapMarketId == marketId;
+		}
+
+		@Override
+		public int compareTo(ShiftCandidate other) {
+			int result = Double.compare(other.priceDifference, priceDifference);
+			if (result == 0) {
+				result = Integer.compare(marketOrder.get(expensiveMarketId), marketOrder.get(other.expensiveMarketId));
+			}
+			if (result == 0) {
+				result = Integer.compare(marketOrder.get(cheapMarketId), marketOrder.get(other.cheapMarketId));
+			}
+			return result;
+		}
+	}
+
 	/** Sets the offset, that is added to the maximal demand shift, that does not lead to price change of the involved markets. The
 	 * addition of this offset first guarantee price change */
 	private static final String CLEARING_ID = "MarketCoupling - DemandBalancer:";
@@ -56,6 +94,8 @@ public class DemandBalancer {
 	private final double maxEnergyShiftPerIterationInMWH;
 	private Map<Long, CouplingData> couplingRequests;
 	private Map<Long, ClearingDetails> clearingResults = new HashMap<>();
+	private final PriorityQueue<ShiftCandidate> shiftCandidates = new PriorityQueue<>();
+	private final Map<Long, Integer> marketOrder = new HashMap<>();
 
 	/** Creates new {@link DemandBalancer}
 	 * 
@@ -85,18 +125,25 @@ public class DemandBalancer {
 		try {
 			Map<Long, List<Long>> couplingPartners = calculateCouplingPartners();
 			initialiseClearingResults(couplingPartners);
+			initialiseShiftCandidates(couplingPartners);
 			logger.trace("Start optimization (energy cost: " + calcEnergyCost() + ")");
 
 			DemandShiftResult demandShiftResult = null;
+			int iterations = 0;
 			while (true) {
-				demandShiftResult = getNextCouplingPair(couplingPartners);
+				demandShiftResult = getNextCouplingPair();
 				if (demandShiftResult == null) {
 					break;
 				}
 				applyDemandShiftFromTo(demandShiftResult);
+				updateShiftCandidates(demandShiftResult, couplingPartners);
+				iterations++;
 			}
+			ActionProfiler.count(Counter.COUPLING_ITERATIONS, iterations);
 		} catch (MeritOrderClearingException e) {
 			throw new RuntimeException(CLEARING_ID + " " + e.getMessage());
+		} finally {
+			shiftCandidates.clear();
 		}
 	}
 
@@ -138,52 +185,75 @@ public class DemandBalancer {
 		return energyCost;
 	}
 
-	/** Finds the next best EnergyExchange(s) pair and calculates their demand redistribution
+	/** Evaluates demand shifts for all pairs of candidate market and coupling partner; assigns each market its position in the
+	 * coupling requests to break ties between shifts with equal price difference
 	 * 
 	 * @param couplingPartners all potential coupling partners for each candidate exchange
-	 * @return the next best pair of EnergyExchanges and their demand redistribution or null if no valid pair can be found
 	 * @throws MeritOrderClearingException if market clearing failed */
-	private DemandShiftResult getNextCouplingPair(Map<Long, List<Long>> couplingPartners)
-			throws MeritOrderClearingException {
-		DemandShiftResult bestDemandShift = null;
-		double largestPriceDiff = 0;
+	private void initialiseShiftCandidates(Map<Long, List<Long>> couplingPartners) throws MeritOrderClearingException {
+		shiftCandidates.clear();
+		marketOrder.clear();
+		for (Long marketId : couplingRequests.keySet()) {
+			marketOrder.put(marketId, marketOrder.size());
+		}
 		for (Long candidateId : couplingRequests.keySet()) {
-			DemandShiftResult tmpDemandShift = getBestCouplingPartner(candidateId, couplingPartners.get(candidateId));
-			if (tmpDemandShift != null) {
-				double priceDifference = calcPriceDifference(tmpDemandShift.expensiveMarketId, tmpDemandShift.cheapMarketId);
-				if (priceDifference > largestPriceDiff) {
-					bestDemandShift = tmpDemandShift;
-					largestPriceDiff = priceDifference;
-				}
+			for (Long partnerId : couplingPartners.get(candidateId)) {
+				addShiftCandidate(candidateId, partnerId);
 			}
 		}
-		return bestDemandShift;
 	}
 
-	/** Returns the best demand shift for a given candidate EnergyExchange.<br>
-	 * Ensures that the price of the selected partner exchange is smaller or equal to the price of the candidate EnergyExchange.
+	/** Evaluates the demand shift from given candidate to given partner market and queues it together with its result if it is
+	 * meaningful
 	 * 
-	 * @param candidateId ID of candidate exchange to find the best demand shifting for
-	 * @param couplingPartners list of all available coupling partners for the given candidate
-	 * @return best demand shift or null if no valid demand shifting partner is available
 	 * @throws MeritOrderClearingException if market clearing failed */
-	private DemandShiftResult getBestCouplingPartner(Long candidateId, List<Long> couplingPartners)
+	private void addShiftCandidate(Long candidateId, Long partnerId) throws MeritOrderClearingException {
+		DemandShiftResult shiftResult = calcMinDemandShiftCausingPriceChange(candidateId, partnerId);
+		if (shiftResult != null) {
+			double priceDifference = calcPriceDifference(candidateId, partnerId);
+			if (priceDifference > 0) {
+				shiftCandidates.add(new ShiftCandidate(shiftResult, priceDifference));
+			}
+		}
+	}
+
+	/** Takes the next best EnergyExchange(s) pair from the queue; its demand redistribution was evaluated for the current order
+	 * books of both markets, as candidates are removed once any of their markets changes
+	 * 
+	 * @return the next best pair of EnergyExchanges and their demand redistribution or null if no valid pair can be found */
+	private DemandShiftResult getNextCouplingPair() {
+		ShiftCandidate candidate = shiftCandidates.poll();
+		return candidate != null ? candidate.shiftResult : null;
+	}
+
+	/** Removes all candidates involving any of the two markets of the applied demand shift and re-evaluates all pairs either of
+	 * them is involved in
+	 * 
+	 * @param appliedShift demand shift that was just applied
+	 * @param couplingPartners all potential coupling partners for each candidate exchange
+	 * @throws MeritOrderClearingException if market clearing failed */
+	private void updateShiftCandidates(DemandShiftResult appliedShift, Map<Long, List<Long>> couplingPartners)
 			throws MeritOrderClearingException {
-		DemandShiftResult bestDemandShift = null;
-		double candidatePrice = getClearingResult(candidateId).marketPriceInEURperMWH;
-		double largestPriceDiff = 0;
-		for (Long partnerId : couplingPartners) {
-			double partnerPrice = getClearingResult(partnerId).marketPriceInEURperMWH;
-			DemandShiftResult tmpDemandShift = calcMinDemandShiftCausingPriceChange(candidateId, partnerId);
-			if (tmpDemandShift != null) {
-				double priceDifference = candidatePrice - partnerPrice;
-				if (priceDifference > largestPriceDiff) {
-					bestDemandShift = tmpDemandShift;
-					largestPriceDiff = priceDifference;
-				}
+		long expensiveMarketId = appliedShift.expensiveMarketId;
+		long cheapMarketId = appliedShift.cheapMarketId;
+		shiftCandidates.removeIf(candidate -> candidate.involves(expensiveMarketId) || candidate.involves(cheapMarketId));
+		addShiftCandidatesInvolving(expensiveMarketId, Long.MIN_VALUE, couplingPartners);
+		addShiftCandidatesInvolving(cheapMarketId, expensiveMarketId, couplingPartners);
+	}
+
+	/** Re-evaluates all pairs that include the given market, except for pairs with the given market to skip */
+	private void addShiftCandidatesInvolving(long marketId, long skippedMarketId, Map<Long, List<Long>> couplingPartners)
+			throws MeritOrderClearingException {
+		for (Long partnerId : couplingPartners.get(marketId)) {
+			if (partnerId != skippedMarketId) {
+				addShiftCandidate(marketId, partnerId);
+			}
+		}
+		for (Long candidateId : couplingRequests.keySet()) {
+			if (candidateId != skippedMarketId && couplingPartners.get(candidateId).contains(marketId)) {
+				addShiftCandidate(candidateId, marketId);
 			}
 		}
-		return bestDemandShift;
 	}
 
 	/** Returns the market clearing result of the specified EnergyExchange. For the actual computation of the market clearing it
@@ -260,65 +330,70 @@ public class DemandBalancer {
 		DemandShiftResult demandShiftResult = shiftDemand(expensiveMarketId, cheapMarketId, toShiftDemand,
 				priceSettingDemandBidIdx, expensiveMarketData.getDemandOrderBook(), cheapMarketData.getDemandOrderBook());
 		ClearingDetails newClearingOfExpensive = MarketClearing.internalClearing(expensiveMarketData.getSupplyOrderBook(),
-				demandShiftResult.newDemandOfOrigin);
+				demandShiftResult.newDemandOfOrigin, clearingOfExpensive);
 		ClearingDetails newClearingOfCheap = MarketClearing.internalClearing(cheapMarketData.getSupplyOrderBook(),
-				demandShiftResult.newDemandOfTarget);
+				demandShiftResult.newDemandOfTarget, clearingOfCheap);
 		if (newClearingOfExpensive.marketPriceInEURperMWH < newClearingOfCheap.marketPriceInEURperMWH) {
 			return null;
 		}
+		demandShiftResult.newClearingOfOrigin = newClearingOfExpensive;
+		demandShiftResult.newClearingOfTarget = newClearingOfCheap;
 		return demandShiftResult;
 	}
 
 	/** Shifts the given amount of demand from the expensive DemandOrderBook to the cheap one. The shift begins at the demand bid
 	 * with the given index and proceeds backwards. The shifting result does not affect the given {DemandOrderBook}s, it is rather
-	 * returned as a DemandShiftResult object.
+	 * returned as a DemandShiftResult object. Both new books are derived from the given sorted books without sorting: their
+	 * items are in the order a stable sort would create if the expensive book were rebuilt from its items in reverse order and the
+	 * shifted bids were added to the end of the cheap book.
 	 * 
 	 * @param expensiveMarketId of the expensive market
 	 * @param cheapMarketId of the cheap market
 	 * @param demandToShift amount of demand to shift
 	 * @param startingBidIndex index of the demand-setting bid
-	 * @param demandBookExpensive to shift demand from
-	 * @param demandBookCheap to shift demand to
+	 * @param demandBookExpensive sorted book to shift demand from
+	 * @param demandBookCheap sorted book to shift demand to
 	 * @return result of the demand shift */
 	private DemandShiftResult shiftDemand(Long expensiveMarketId, Long cheapMarketId, double demandToShift,
 			int startingBidIndex, DemandOrderBook demandBookExpensive, DemandOrderBook demandBookCheap) {
-		DemandOrderBook newDemandBookExpensive = new DemandOrderBook();
-		DemandOrderBook newDemandBookCheap = demandBookCheap.clone();
 		TransferOrderBook transferBook = new TransferOrderBook();
-		List<OrderBookItem> orderBookItems = demandBookExpensive.clone().getOrderBookItems();
+		List<OrderBookItem> orderBookItems = demandBookExpensive.getOrderBookItems();
+		Bid[] remainingBids = new Bid[orderBookItems.size()];
+		List<OrderBookItem> shiftedItems = new ArrayList<>();
 
-		shiftDemand_nonAwardedBids(orderBookItems, startingBidIndex, newDemandBookExpensive);
-		shiftDemand_AwardedBids(orderBookItems, startingBidIndex, demandToShift, newDemandBookExpensive,
-				newDemandBookCheap, transferBook);
+		shiftDemand_nonAwardedBids(orderBookItems, startingBidIndex, remainingBids);
+		shiftDemand_AwardedBids(orderBookItems, startingBidIndex, demandToShift, remainingBids, shiftedItems, transferBook);
 
+		DemandOrderBook newDemandBookExpensive = buildRemainingDemand(demandBookExpensive, remainingBids);
+		DemandOrderBook newDemandBookCheap = buildExtendedDemand(demandBookCheap, shiftedItems);
 		return new DemandShiftResult(expensiveMarketId, cheapMarketId, demandToShift, newDemandBookExpensive,
 				newDemandBookCheap, transferBook);
 	}
 
 	/** Handles the non-awarded demand bids, i.e., demand bids right from the cut of the demand and supply curves in the expensive
-	 * merit-order.
+	 * merit-order; these bids all remain in the expensive market.
 	 * 
 	 * @param orderBookItems list of demand bids to handle
 	 * @param startingBidIndex index of the demand-setting bid
-	 * @param newDemandBookExpensive reference to the new DemandOrderBook of the market from where the demand is shifted */
+	 * @param remainingBids to be filled with the bids that remain at the same index in the expensive market */
 	private void shiftDemand_nonAwardedBids(List<OrderBookItem> orderBookItems, int startingBidIndex,
-			DemandOrderBook newDemandBookExpensive) {
+			Bid[] remainingBids) {
 		for (int i = orderBookItems.size() - 1; i > startingBidIndex; i--) {
-			OrderBookItem item = orderBookItems.get(i);
-			newDemandBookExpensive.addBid(item.getBid(), item.getTraderUuid());
+			remainingBids[i] = orderBookItems.get(i).getBid();
 		}
 	}
 
 	/** Handles the awarded demand bids, i.e., demand bids left from the cut of the demand and supply curves in the merit-order.
+	 * Awarded bids without energy are dropped.
 	 * 
 	 * @param orderBookItems list of demand bids to handle
 	 * @param startingBidIndex index of the demand-setting bid
 	 * @param demandToShift demand amount that has to be shifted
-	 * @param newDemandBookExpensive reference to the new DemandOrderBook of the market from where the demand is shifted
-	 * @param newDemandBookCheap reference to the new DemandOrderBook of the market to where the demand is shifted
+	 * @param remainingBids to be filled with the bids that remain at the same index in the expensive market
+	 * @param shiftedItems to be filled with the items shifted to the cheap market, in order of their shift
 	 * @param transferBook reference to the new transfer book that stores the shifted bids */
 	private void shiftDemand_AwardedBids(List<OrderBookItem> orderBookItems, int startingBidIndex, double demandToShift,
-			DemandOrderBook newDemandBookExpensive, DemandOrderBook newDemandBookCheap, TransferOrderBook transferBook) {
+			Bid[] remainingBids, List<OrderBookItem> shiftedItems, TransferOrderBook transferBook) {
 		double currentShiftedDemand = 0;
 		double previousShiftedDemand = 0;
 		for (int i = startingBidIndex; i >= 0; i--) {
@@ -333,22 +408,22 @@ public class DemandBalancer {
 				currentShiftedDemand += thisDemand;
 				if (currentShiftedDemand > demandToShift) {
 					Bid[] bids = splitBid(bid, demandToShift - previousShiftedDemand);
-					newDemandBookExpensive.addBid(bids[0], item.getTraderUuid());
-					newDemandBookCheap.addBid(bids[1], item.getTraderUuid());
+					remainingBids[i] = bids[0];
+					shiftedItems.add(new OrderBookItem(bids[1], item.getTraderUuid()));
 					transferBook.addBid(bids[1], item.getTraderUuid());
 					currentShiftedDemand = demandToShift;
 				} else {
-					newDemandBookCheap.addBid(bid, item.getTraderUuid());
+					shiftedItems.add(new OrderBookItem(bid, item.getTraderUuid()));
 					transferBook.addBid(bid, item.getTraderUuid());
 				}
 			} else {
-				newDemandBookExpensive.addBid(bid, item.getTraderUuid());
+				remainingBids[i] = bid;
 			}
 		}
 	}
 
-	/** Splits a given bid into two bids based on the given parameters. The sum of the energy amounts of the resulting bids equals
-	 * the original Bid. All other parameters are copied from the original bid.
+	/** Splits a given bid into two new bids based on the given parameters. The sum of the energy amounts of the resulting bids
+	 * equals the original Bid. All other parameters are copied from the original bid, which remains unchanged.
 	 * 
 	 * @param bidToSplit bid to split
 	 * @param energyToShift total amount of energy assigned to the shifted bid
@@ -356,13 +431,105 @@ public class DemandBalancer {
 	 *         part that will be shifted to the less expensive market */
 	private Bid[] splitBid(Bid bidToSplit, double energyToShift) {
 		double bidPartToRemain = bidToSplit.getEnergyAmountInMWH() - energyToShift;
-		Bid remainingBid = bidToSplit;
+		Bid remainingBid = bidToSplit.clone();
 		Bid shiftingBid = bidToSplit.clone();
 		remainingBid.setEnergyAmountInMWH(bidPartToRemain);
 		shiftingBid.setEnergyAmountInMWH(energyToShift);
 		return new Bid[] {remainingBid, shiftingBid};
 	}
 
+	/** Builds the demand book remaining in the expensive market without sorting: within each run of equal-priced items the
+	 * remaining bids are placed in reverse order, as a stable sort of the items in reverse order would do. Leading items that
+	 * remain unchanged at their position are taken over from the previous book; only the changed tail is copied.
+	 * 
+	 * @param previousBook sorted book of the expensive market before the shift
+	 * @param remainingBids bids remaining per index of the previous book; null if no bid remains at that index
+	 * @return new sorted book of remaining demand */
+	private DemandOrderBook buildRemainingDemand(DemandOrderBook previousBook, Bid[] remainingBids) {
+		List<OrderBookItem> previousItems = previousBook.getOrderBookItems();
+		ArrayList<OrderBookItem> items = new ArrayList<>(previousItems.size());
+		int unchangedCount = -1;
+		int runStart = 0;
+		while (runStart < previousItems.size()) {
+			int runEnd = findEndOfPriceRun(previousItems, runStart);
+			for (int i = runEnd - 1; i >= runStart; i--) {
+				if (remainingBids[i] != null) {
+					OrderBookItem previousItem = previousItems.get(i);
+					if (unchangedCount < 0 && i == items.size() && remainingBids[i] == previousItem.getBid()) {
+						items.add(previousItem);
+						continue;
+					}
+					unchangedCount = unchangedCount < 0 ? items.size() : unchangedCount;
+					items.add(new OrderBookItem(remainingBids[i], previousItem.getTraderUuid()));
+				}
+			}
+			runStart = runEnd;
+		}
+		DemandOrderBook book = new DemandOrderBook();
+		book.closeWithSortedItems(items, previousBook, unchangedCount < 0 ? items.size() : unchangedCount);
+		return book;
+	}
+
+	/** @return index after the last item with the same offer price as the item at the given index */
+	private int findEndOfPriceRun(List<OrderBookItem> items, int runStart) {
+		double price = items.get(runStart).getOfferPrice();
+		int runEnd = runStart + 1;
+		while (runEnd < items.size() && Double.compare(items.get(runEnd).getOfferPrice(), price) == 0) {
+			runEnd++;
+		}
+		return runEnd;
+	}
+
+	/** Builds the demand book of the cheap market extended by the shifted items without sorting: shifted items are inserted
+	 * after all previous items with the same price, as a stable sort of the previous book followed by the shifted items would do.
+	 * Previous items before the first inserted item are taken over from the previous book; only the changed tail is copied.
+	 * 
+	 * @param previousBook sorted book of the cheap market before the shift
+	 * @param shiftedItems in order of their shift, i.e., with non-decreasing offer price
+	 * @return new sorted book of extended demand */
+	private DemandOrderBook buildExtendedDemand(DemandOrderBook previousBook, List<OrderBookItem> shiftedItems) {
+		List<OrderBookItem> sortedShiftedItems = reverseKeepingPriceRuns(shiftedItems);
+		List<OrderBookItem> previousItems = previousBook.getOrderBookItems();
+		ArrayList<OrderBookItem> items = new ArrayList<>(previousItems.size() + shiftedItems.size());
+		int unchangedCount = -1;
+		int next = 0;
+		for (OrderBookItem previousItem : previousItems) {
+			while (next < sortedShiftedItems.size()
+					&& Double.compare(sortedShiftedItems.get(next).getOfferPrice(), previousItem.getOfferPrice()) > 0) {
+				unchangedCount = unchangedCount < 0 ? items.size() : unchangedCount;
+				items.add(sortedShiftedItems.get(next++));
+			}
+			if (unchangedCount < 0) {
+				items.add(previousItem);
+			} else {
+				items.add(new OrderBookItem(previousItem.getBid(), previousItem.getTraderUuid()));
+			}
+		}
+		if (next < sortedShiftedItems.size()) {
+			unchangedCount = unchangedCount < 0 ? items.size() : unchangedCount;
+			items.addAll(sortedShiftedItems.subList(next, sortedShiftedItems.size()));
+		}
+		DemandOrderBook book = new DemandOrderBook();
+		book.closeWithSortedItems(items, previousBook, unchangedCount < 0 ? items.size() : unchangedCount);
+		return book;
+	}
+
+	/** @return given items with non-decreasing price in descending order of price, keeping the order of equal-priced items */
+	private List<OrderBookItem> reverseKeepingPriceRuns(List<OrderBookItem> items) {
+		List<OrderBookItem> reversed = new ArrayList<>(items.size());
+		int runEnd = items.size();
+		while (runEnd > 0) {
+			int runStart = runEnd - 1;
+			double price = items.get(runStart).getOfferPrice();
+			while (runStart > 0 && Double.compare(items.get(runStart - 1).getOfferPrice(), price) == 0) {
+				runStart--;
+			}
+			reversed.addAll(items.subList(runStart, runEnd));
+			runEnd = runStart;
+		}
+		return reversed;
+	}
+
 	/** @return price difference between candidate and partner markets
 	 * @throws MeritOrderClearingException if market clearing failed */
 	private double calcPriceDifference(Long candidateId, Long partnerId) throws MeritOrderClearingException {
@@ -375,13 +542,10 @@ public class DemandBalancer {
 	 * 
 	 * @param demandShiftResult demand shift result to be applied
 	 * @param expensiveExchangeId exchange to shift demand from
-	 * @param cheapExchangeId exchange to shift demand to
-	 * @throws MeritOrderClearingException if market clearing failed */
-	private void applyDemandShiftFromTo(DemandShiftResult demandShiftResult) throws MeritOrderClearingException {
+	 * @param cheapExchangeId exchange to shift demand to */
+	private void applyDemandShiftFromTo(DemandShiftResult demandShiftResult) {
 		CouplingData dataExpensive = couplingRequests.get(demandShiftResult.expensiveMarketId);
 		CouplingData dataCheap = couplingRequests.get(demandShiftResult.cheapMarketId);
-		SupplyOrderBook supplyBookExpensive = dataExpensive.getSupplyOrderBook();
-		SupplyOrderBook supplyBookCheap = dataCheap.getSupplyOrderBook();
 		double transmissionCapacity = dataCheap.getTransmissionTo(dataExpensive.getOrigin());
 
 		DemandOrderBook newDemandBookExpensive = demandShiftResult.newDemandOfOrigin;
@@ -389,8 +553,8 @@ public class DemandBalancer {
 		TransferOrderBook transferBook = demandShiftResult.transferBook;
 		double shiftedDemand = demandShiftResult.shiftedDemand;
 
-		ClearingDetails newClearingExpensive = MarketClearing.internalClearing(supplyBookExpensive, newDemandBookExpensive);
-		ClearingDetails newClearingCheap = MarketClearing.internalClearing(supplyBookCheap, newDemandBookCheap);
+		ClearingDetails newClearingExpensive = demandShiftResult.newClearingOfOrigin;
+		ClearingDetails newClearingCheap = demandShiftResult.newClearingOfTarget;
 
 		ClearingDetails clearingResultExpensive = clearingResults.get(demandShiftResult.expensiveMarketId);
 		ClearingDetails clearingResultCheap = clearingResults.get(demandShiftResult.cheapMarketId);
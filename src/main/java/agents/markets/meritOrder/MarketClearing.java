@@ -4,12 +4,19 @@
 package agents.markets.meritOrder;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import agents.markets.meritOrder.MeritOrderKernel.MeritOrderClearingException;
 import agents.markets.meritOrder.books.DemandOrderBook;
 import agents.markets.meritOrder.books.OrderBook;
 import agents.markets.meritOrder.books.OrderBook.DistributionMethod;
+import agents.markets.meritOrder.books.OrderBookItem;
+import agents.markets.meritOrder.books.OrderBookPool;
+import agents.markets.meritOrder.books.PrimitiveDemandOrderBook;
+import agents.markets.meritOrder.books.PrimitiveSupplyOrderBook;
 import agents.markets.meritOrder.books.SupplyOrderBook;
 import communications.portable.BidsAtTime;
 import de.dlr.gitlab.fame.agent.input.Make;
@@ -23,6 +30,7 @@ import de.dlr.gitlab.fame.communication.message.Message;
  * @author Farzad Sarfarazi, Christoph Schimeczek */
 public class MarketClearing {
 	static final String ERR_SHORTAGE_NOT_IMPLEMENTED = "ShortagePrice type not implemented: ";
+	static final String ERR_BACKEND_NOT_IMPLEMENTED = "OrderBookBackend not implemented: ";
 	static final String WARN_BIDS_MISSING = "MarketClearing:: No Bids contained in message from ";
 
 	/** Market clearing result if a market is empty: TradedEnergy: 0 MWh, MarketPrice = NaN */
@@ -36,16 +44,31 @@ public class MarketClearing {
 		LastSupplyPrice
 	}
 
+	/** Defines how order books store their items when clearing from bid messages */
+	enum OrderBookBackend {
+		/** One {@link agents.markets.meritOrder.books.OrderBookItem} object per bid in {@link SupplyOrderBook} and
+		 * {@link DemandOrderBook} */
+		ITEMS,
+		/** Primitive arrays per bid property in {@link PrimitiveSupplyOrderBook} and {@link PrimitiveDemandOrderBook} */
+		PRIMITIVE_ARRAYS
+	}
+
 	/** Input parameters of {@link MarketClearing} */
 	public static final Tree parameters = Make.newTree().add(Make.newEnum("DistributionMethod", DistributionMethod.class),
 			Make.newEnum("ShortagePriceMethod", ShortagePriceMethod.class).optional()
-					.help("Defines which price to use in case of shortage events (default: ScarcityPrice)"))
+					.help("Defines which price to use in case of shortage events (default: ScarcityPrice)"),
+			Make.newEnum("OrderBookBackend", OrderBookBackend.class).optional()
+					.help("Defines how order books store bids when clearing from bid messages (default: ITEMS)"))
 			.buildTree();
 
 	/** Defines how to distribute energy amounts between multiple price-setting bids */
 	private final DistributionMethod distributionMethod;
 	/** Defines which price to use in case of shortage */
 	private final ShortagePriceMethod shortagePriceMethod;
+	/** Defines how order books store their items */
+	private final OrderBookBackend orderBookBackend;
+	/** Recycles order books of results handed back via {@link #recycle(MarketClearingResult)} */
+	private final OrderBookPool orderBookPool = new OrderBookPool();
 	/** Logs errors of {@link MarketClearing} */
 	protected static Logger logger = LoggerFactory.getLogger(MarketClearing.class);
 
@@ -57,31 +80,71 @@ public class MarketClearing {
 		this.distributionMethod = input.getEnum("DistributionMethod", DistributionMethod.class);
 		this.shortagePriceMethod = input.getEnumOrDefault("ShortagePriceMethod", ShortagePriceMethod.class,
 				ShortagePriceMethod.ValueOfLostLoad);
+		this.orderBookBackend = input.getEnumOrDefault("OrderBookBackend", OrderBookBackend.class, OrderBookBackend.ITEMS);
 	}
 
-	/** Clears the market based on all the bids provided in form of messages
+	/** Clears the market based on all the bids provided in form of messages; order books are taken from this clearing's
+	 * {@link OrderBookPool} - hand back the result via {@link #recycle(MarketClearingResult)} once it is no longer needed
 	 * 
 	 * @param input unsorted messages containing demand and supply bids
 	 * @param clearingEventId string identifying the clearing event
 	 * @return {@link MarketClearingResult result} of market clearing
 	 * @throws RuntimeException if the market clearing failed */
 	public MarketClearingResult clear(ArrayList<Message> input, String clearingEventId) {
-		DemandOrderBook demandBook = new DemandOrderBook();
-		SupplyOrderBook supplyBook = new SupplyOrderBook();
-		fillOrderBooksWithTraderBids(input, supplyBook, demandBook);
-		try {
-			ClearingDetails clearingResult = internalClearing(supplyBook, demandBook);
-			MarketClearingResult marketClearingResult = new MarketClearingResult(clearingResult, demandBook, supplyBook);
-			marketClearingResult.setBooks(supplyBook, demandBook, distributionMethod);
-			if (hasScarcity(supplyBook, demandBook)) {
-				updateResultForScarcity(marketClearingResult, supplyBook);
-			}
-			return marketClearingResult;
-		} catch (MeritOrderClearingException e) {
-			throw new RuntimeException(clearingEventId + ": " + e.getMessage());
+		return clear(input, clearingEventId, null);
+	}
+
+	/** Clears the market based on all the bids provided in form of messages, see {@link #clear(ArrayList, String)}; may be called
+	 * concurrently for independent clearing events
+	 * 
+	 * @param input unsorted messages containing demand and supply bids
+	 * @param clearingEventId string identifying the clearing event
+	 * @param random used for {@link DistributionMethod#RANDOMIZE}; if null, a shared unseeded generator is used
+	 * @return {@link MarketClearingResult result} of market clearing
+	 * @throws RuntimeException if the market clearing failed */
+	public MarketClearingResult clear(ArrayList<Message> input, String clearingEventId, Random random) {
+		switch (orderBookBackend) {
+			case ITEMS:
+				DemandOrderBook demandBook = orderBookPool.acquireDemandBook();
+				SupplyOrderBook supplyBook = orderBookPool.acquireSupplyBook();
+				fillOrderBooksWithTraderBids(input, supplyBook, demandBook);
+				return markBooksFromPool(clear(supplyBook, demandBook, clearingEventId, random));
+			case PRIMITIVE_ARRAYS:
+				PrimitiveDemandOrderBook primitiveDemandBook = orderBookPool.acquirePrimitiveDemandBook();
+				PrimitiveSupplyOrderBook primitiveSupplyBook = orderBookPool.acquirePrimitiveSupplyBook();
+				fillOrderBooksWithTraderBids(input, primitiveSupplyBook, primitiveDemandBook);
+				return markBooksFromPool(clear(primitiveSupplyBook, primitiveDemandBook, clearingEventId, random));
+			default:
+				throw new RuntimeException(ERR_BACKEND_NOT_IMPLEMENTED + orderBookBackend);
 		}
 	}
 
+	/** @return given result, with its books marked as taken from this clearing's {@link OrderBookPool} */
+	private MarketClearingResult markBooksFromPool(MarketClearingResult result) {
+		result.markBooksFromPool();
+		return result;
+	}
+
+	/** Returns the order books of the given result to this clearing's {@link OrderBookPool} for reuse in later clearing events;
+	 * the result's books must not be accessed anymore afterwards. Books of results not obtained from
+	 * {@link #clear(ArrayList, String)}, e.g. cleared from books received in messages, are not released to the pool.
+	 * 
+	 * @param result no longer needed */
+	public void recycle(MarketClearingResult result) {
+		result.releaseBooksTo(orderBookPool);
+		logger.debug(orderBookPool.toString());
+	}
+
+	/** @return true if this clearing draws random numbers, i.e., if {@link DistributionMethod#RANDOMIZE} is used */
+	public boolean usesRandomNumbers() {
+		return distributionMethod == DistributionMethod.RANDOMIZE;
+	}
+
+	/** @return pool of order books used by this clearing, e.g. to inspect its allocation counters */
+	public OrderBookPool getOrderBookPool() {
+		return orderBookPool;
+	}
+
 	/** Fills received Bids into provided demand or supply OrderBook
 	 * 
 	 * @param input unsorted messages containing demand and supply bids
@@ -96,12 +159,37 @@ public class MarketClearing {
 			if (bids == null) {
 				logger.warn(WARN_BIDS_MISSING + message.getSenderId());
 			} else {
-				supplyBook.addBids(bids.getSupplyBids(), bids.getTraderUuid());
-				demandBook.addBids(bids.getDemandBids(), bids.getTraderUuid());
+				supplyBook.addBids(bidsOrEmpty(bids.getSupplyBids()), bids.getTraderUuid());
+				demandBook.addBids(bidsOrEmpty(bids.getDemandBids()), bids.getTraderUuid());
+			}
+		}
+	}
+
+	/** Fills received Bids into provided primitive demand or supply order book
+	 * 
+	 * @param input unsorted messages containing demand and supply bids
+	 * @param supplyBook to be filled with supply bids
+	 * @param demandBook to be filled with demand bids */
+	public static void fillOrderBooksWithTraderBids(ArrayList<Message> input, PrimitiveSupplyOrderBook supplyBook,
+			PrimitiveDemandOrderBook demandBook) {
+		demandBook.clear();
+		supplyBook.clear();
+		for (Message message : input) {
+			BidsAtTime bids = message.getFirstPortableItemOfType(BidsAtTime.class);
+			if (bids == null) {
+				logger.warn(WARN_BIDS_MISSING + message.getSenderId());
+			} else {
+				supplyBook.addBids(bidsOrEmpty(bids.getSupplyBids()), bids.getTraderUuid());
+				demandBook.addBids(bidsOrEmpty(bids.getDemandBids()), bids.getTraderUuid());
 			}
 		}
 	}
 
+	/** @return given bids, or an empty list if they are null */
+	private static List<Bid> bidsOrEmpty(List<Bid> bids) {
+		return bids != null ? bids : Collections.emptyList();
+	}
+
 	/** Clears the market and returns the ClearingDetails based on the specified OrderBooks for supply and demand; both OrderBooks
 	 * are sorted in the process.
 	 * 
@@ -120,6 +208,45 @@ public class MarketClearing {
 		return MeritOrderKernel.clearMarketSimple(supplyBook, demandBook);
 	}
 
+	/** Clears the market like {@link #internalClearing(SupplyOrderBook, DemandOrderBook)}, but resumes the walk along the curves
+	 * near the price-setting demand bid of a previous clearing of a similar market, e.g. after a small demand shift
+	 * 
+	 * @param supplyBook book of all supply bids
+	 * @param demandBook book of all demand bids
+	 * @param previousClearing result of a previous clearing of a similar market; its price-setting demand index is used as hint
+	 * @return the ClearingDetails of the specified SupplyOrderBook and DemandOrderBook - identical to those of a full clearing
+	 * @throws MeritOrderClearingException if the market clearing failed */
+	static ClearingDetails internalClearing(SupplyOrderBook supplyBook, DemandOrderBook demandBook,
+			ClearingDetails previousClearing) throws MeritOrderClearingException {
+		if (previousClearing.priceSettingDemandBidIdx == null) {
+			return internalClearing(supplyBook, demandBook);
+		}
+		supplyBook.sort();
+		demandBook.sort();
+		if (!supplyBook.hasValidBids() || !demandBook.hasValidBids()) {
+			return EMPTY_MARKET_RESULT;
+		}
+		return MeritOrderKernel.clearMarketFrom(supplyBook, demandBook, previousClearing.priceSettingDemandBidIdx);
+	}
+
+	/** Clears the market and returns the ClearingDetails based on the specified primitive order books for supply and demand; both
+	 * books are sorted in the process.
+	 * 
+	 * @param supplyBook book of all supply bids
+	 * @param demandBook book of all demand bids
+	 * @return the ClearingDetails of the specified books; if the market has exactly 0 demand or supply, the
+	 *         {@link #EMPTY_MARKET_RESULT} is returned
+	 * @throws MeritOrderClearingException if the market clearing failed */
+	static ClearingDetails internalClearing(PrimitiveSupplyOrderBook supplyBook, PrimitiveDemandOrderBook demandBook)
+			throws MeritOrderClearingException {
+		supplyBook.sort();
+		demandBook.sort();
+		if (!supplyBook.hasValidBids() || !demandBook.hasValidBids()) {
+			return EMPTY_MARKET_RESULT;
+		}
+		return MeritOrderKernel.clearMarketSimple(supplyBook, demandBook);
+	}
+
 	/** Clears the market based on a SupplyOrderBook and a DemandOrderBook
 	 * 
 	 * @param supplyBook book of all supply bids
@@ -128,12 +255,54 @@ public class MarketClearing {
 	 * @return {@link MarketClearingResult result} of market clearing
 	 * @throws RuntimeException if the market clearing failed */
 	public MarketClearingResult clear(SupplyOrderBook supplyBook, DemandOrderBook demandBook, String clearingEventId) {
+		return clear(supplyBook, demandBook, clearingEventId, null);
+	}
+
+	/** Clears the market based on a SupplyOrderBook and a DemandOrderBook using the given random number generator */
+	private MarketClearingResult clear(SupplyOrderBook supplyBook, DemandOrderBook demandBook, String clearingEventId,
+			Random random) {
+		try {
+			ClearingDetails clearingResult = internalClearing(supplyBook, demandBook);
+			MarketClearingResult marketClearingResult = new MarketClearingResult(clearingResult, demandBook, supplyBook);
+			marketClearingResult.setBooks(supplyBook, demandBook, distributionMethod, random);
+			OrderBookItem highestSupplyItem = supplyBook.getHighestItem();
+			if (isPricedByScarcity()) {
+				marketClearingResult.ensureAwarded();
+				if (demandBook.getAmountOfPowerShortage(highestSupplyItem) > 0) {
+					updateResultForScarcity(marketClearingResult, highestSupplyItem.getOfferPrice());
+				}
+			}
+			return marketClearingResult;
+		} catch (MeritOrderClearingException e) {
+			throw new RuntimeException(clearingEventId + ": " + e.getMessage());
+		}
+	}
+
+	/** Clears the market based on a {@link PrimitiveSupplyOrderBook} and a {@link PrimitiveDemandOrderBook}
+	 * 
+	 * @param supplyBook book of all supply bids
+	 * @param demandBook book of all demand bids
+	 * @param clearingEventId string identifying the clearing event
+	 * @return {@link MarketClearingResult result} of market clearing
+	 * @throws RuntimeException if the market clearing failed */
+	public MarketClearingResult clear(PrimitiveSupplyOrderBook supplyBook, PrimitiveDemandOrderBook demandBook,
+			String clearingEventId) {
+		return clear(supplyBook, demandBook, clearingEventId, null);
+	}
+
+	/** Clears the market based on primitive supply and demand books using the given random number generator */
+	private MarketClearingResult clear(PrimitiveSupplyOrderBook supplyBook, PrimitiveDemandOrderBook demandBook,
+			String clearingEventId, Random random) {
 		try {
 			ClearingDetails clearingResult = internalClearing(supplyBook, demandBook);
 			MarketClearingResult marketClearingResult = new MarketClearingResult(clearingResult, demandBook, supplyBook);
-			marketClearingResult.setBooks(supplyBook, demandBook, distributionMethod);
-			if (hasScarcity(supplyBook, demandBook)) {
-				updateResultForScarcity(marketClearingResult, supplyBook);
+			marketClearingResult.setBooks(supplyBook, demandBook, distributionMethod, random);
+			double highestSupplyPrice = supplyBook.getHighestPrice();
+			if (isPricedByScarcity()) {
+				marketClearingResult.ensureAwarded();
+				if (demandBook.getAmountOfPowerShortage(highestSupplyPrice) > 0) {
+					updateResultForScarcity(marketClearingResult, highestSupplyPrice);
+				}
 			}
 			return marketClearingResult;
 		} catch (MeritOrderClearingException e) {
@@ -141,17 +310,21 @@ public class MarketClearing {
 		}
 	}
 
-	/** @return true if scarcity occurred according to the cleared {@link OrderBook}s */
-	private boolean hasScarcity(SupplyOrderBook supplyBook, DemandOrderBook demandBook) {
-		return demandBook.getAmountOfPowerShortage(supplyBook.getHighestItem()) > 0;
+	/** Tells whether the market price may change in case of scarcity; scarcity can then only be detected on awarded books, so that
+	 * awards are no longer deferred. The highest supply bid is determined with any method, so that clearings without any valid
+	 * supply bid fail as before.
+	 * 
+	 * @return true if the market price may change in case of scarcity */
+	private boolean isPricedByScarcity() {
+		return shortagePriceMethod != ShortagePriceMethod.ValueOfLostLoad;
 	}
 
 	/** Update given {@link MarketClearingResult} scarcity price - depending on the parameterised {@link ShortagePriceMethod}
 	 * method */
-	private void updateResultForScarcity(MarketClearingResult result, SupplyOrderBook supplyBook) {
+	private void updateResultForScarcity(MarketClearingResult result, double highestSupplyPrice) {
 		switch (shortagePriceMethod) {
 			case LastSupplyPrice:
-				result.setMarketPriceInEURperMWH(supplyBook.getHighestItem().getOfferPrice());
+				result.setMarketPriceInEURperMWH(highestSupplyPrice);
 				break;
 			case ValueOfLostLoad:
 				break;
@@ -3,13 +3,19 @@
 // SPDX-License-Identifier: Apache-2.0
 package agents.markets.meritOrder;
 
+import java.util.Random;
 import agents.markets.meritOrder.books.DemandOrderBook;
 import agents.markets.meritOrder.books.OrderBookItem;
+import agents.markets.meritOrder.books.OrderBookPool;
 import agents.markets.meritOrder.books.SupplyOrderBook;
 import agents.markets.meritOrder.books.OrderBook.DistributionMethod;
+import agents.markets.meritOrder.books.PrimitiveDemandOrderBook;
+import agents.markets.meritOrder.books.PrimitiveOrderBook;
+import agents.markets.meritOrder.books.PrimitiveSupplyOrderBook;
 
 /** Holds market clearing results, i.e., clearing price, sold energy, and aggregated curves in @link DemandOrderBook} and
- * {@link SupplyOrderBook}
+ * {@link SupplyOrderBook}. Bids in the books are awarded lazily on first access to awards, books, or system cost; results of which
+ * only the price is consumed, e.g. in forecasting, thus never pay for the award distribution.
  *
  * @author Farzad Sarfarazi, Christoph Schimeczek, A. Achraf El Ghazi, Johannes Kochems */
 public class MarketClearingResult {
@@ -17,6 +23,15 @@ public class MarketClearingResult {
 	private double marketPriceInEURperMWH;
 	private DemandOrderBook demandBook;
 	private SupplyOrderBook supplyBook;
+	private PrimitiveDemandOrderBook primitiveDemandBook;
+	private PrimitiveSupplyOrderBook primitiveSupplyBook;
+	private boolean awardsPending = false;
+	private double awardedEnergyInMWH;
+	private double awardPriceInEURperMWH;
+	private DistributionMethod distributionMethod;
+	private Random random;
+	private double systemCostTotalInEUR = Double.NaN;
+	private boolean booksFromPool = false;
 
 	/** Instantiate with price and awarded energy; books are set separately
 	 * 
@@ -41,33 +56,181 @@ public class MarketClearingResult {
 		this.supplyBook = supplyBook;
 	}
 
+	/** Instantiate from a ClearingResult object and primitive order books; item-based books are only created on demand
+	 * 
+	 * @param clearingResult result of market clearing
+	 * @param demandBook primitive book of demand bids
+	 * @param supplyBook primitive book of supply bids */
+	public MarketClearingResult(ClearingDetails clearingResult, PrimitiveDemandOrderBook demandBook,
+			PrimitiveSupplyOrderBook supplyBook) {
+		tradedEnergyInMWH = clearingResult.tradedEnergyInMWH;
+		marketPriceInEURperMWH = clearingResult.marketPriceInEURperMWH;
+		this.primitiveDemandBook = demandBook;
+		this.primitiveSupplyBook = supplyBook;
+	}
+
 	/** Set and update books, i.e. award contained bids according to their individual results
 	 * 
 	 * @param supplyBook Supply book used to clear the market
 	 * @param demandBook Demand book used to clear the market
 	 * @param distributionMethod defines method of how to award energy when multiple price-setting bids occur */
 	public void setBooks(SupplyOrderBook supplyBook, DemandOrderBook demandBook, DistributionMethod distributionMethod) {
+		setBooks(supplyBook, demandBook, distributionMethod, null);
+	}
+
+	/** Set and update books, i.e. award contained bids according to their individual results; awarding is deferred until awards,
+	 * books, or system cost are first requested, but always uses the current traded energy and market price
+	 * 
+	 * @param supplyBook Supply book used to clear the market
+	 * @param demandBook Demand book used to clear the market
+	 * @param distributionMethod defines method of how to award energy when multiple price-setting bids occur
+	 * @param random used for {@link DistributionMethod#RANDOMIZE}; if null, a shared unseeded generator is used */
+	public void setBooks(SupplyOrderBook supplyBook, DemandOrderBook demandBook, DistributionMethod distributionMethod,
+			Random random) {
 		this.demandBook = demandBook;
 		this.supplyBook = supplyBook;
-		updateBooks(distributionMethod);
+		this.primitiveDemandBook = null;
+		this.primitiveSupplyBook = null;
+		booksFromPool = false;
+		deferAwards(distributionMethod, random);
+	}
+
+	/** Set and update primitive books, i.e. award contained bids according to their individual results
+	 * 
+	 * @param supplyBook primitive supply book used to clear the market
+	 * @param demandBook primitive demand book used to clear the market
+	 * @param distributionMethod defines method of how to award energy when multiple price-setting bids occur */
+	public void setBooks(PrimitiveSupplyOrderBook supplyBook, PrimitiveDemandOrderBook demandBook,
+			DistributionMethod distributionMethod) {
+		setBooks(supplyBook, demandBook, distributionMethod, null);
+	}
+
+	/** Set and update primitive books, i.e. award contained bids according to their individual results; awarding is deferred
+	 * until awards, books, or system cost are first requested, but always uses the current traded energy and market price
+	 * 
+	 * @param supplyBook primitive supply book used to clear the market
+	 * @param demandBook primitive demand book used to clear the market
+	 * @param distributionMethod defines method of how to award energy when multiple price-setting bids occur
+	 * @param random used for {@link DistributionMethod#RANDOMIZE}; if null, a shared unseeded generator is used */
+	public void setBooks(PrimitiveSupplyOrderBook supplyBook, PrimitiveDemandOrderBook demandBook,
+			DistributionMethod distributionMethod, Random random) {
+		this.primitiveDemandBook = demandBook;
+		this.primitiveSupplyBook = supplyBook;
+		this.demandBook = null;
+		this.supplyBook = null;
+		booksFromPool = false;
+		deferAwards(distributionMethod, random);
+	}
+
+	/** Memorises award parameters at the time the books are set, since the market price may be altered afterwards */
+	private void deferAwards(DistributionMethod distributionMethod, Random random) {
+		this.distributionMethod = distributionMethod;
+		this.random = random;
+		awardedEnergyInMWH = tradedEnergyInMWH;
+		awardPriceInEURperMWH = marketPriceInEURperMWH;
+		systemCostTotalInEUR = Double.NaN;
+		awardsPending = true;
+	}
+
+	/** Awards contained bids according to their individual results if not yet done; synchronised, since forecast results may be
+	 * accessed concurrently */
+	synchronized void ensureAwarded() {
+		if (!awardsPending) {
+			return;
+		}
+		if (primitiveSupplyBook != null) {
+			primitiveSupplyBook.updateAwardedPowerInBids(awardedEnergyInMWH, awardPriceInEURperMWH, distributionMethod, random);
+			primitiveDemandBook.updateAwardedPowerInBids(awardedEnergyInMWH, awardPriceInEURperMWH, distributionMethod, random);
+		} else {
+			supplyBook.updateAwardedPowerInBids(awardedEnergyInMWH, awardPriceInEURperMWH, distributionMethod, random);
+			demandBook.updateAwardedPowerInBids(awardedEnergyInMWH, awardPriceInEURperMWH, distributionMethod, random);
+		}
+		awardsPending = false;
+		random = null;
 	}
 
-	/** update books, i.e. award contained bids according to their individual results using the provided distribution method */
-	private void updateBooks(DistributionMethod distributionMethod) {
-		supplyBook.updateAwardedPowerInBids(tradedEnergyInMWH, marketPriceInEURperMWH, distributionMethod);
-		demandBook.updateAwardedPowerInBids(tradedEnergyInMWH, marketPriceInEURperMWH, distributionMethod);
+	/** @return true if books were set but their bids have not been awarded yet */
+	boolean hasPendingAwards() {
+		return awardsPending;
 	}
 
-	/** @return updated demand order book used to clear the market */
+	/** @return updated demand order book used to clear the market; if cleared with primitive books, an equivalent item-based book
+	 *         is created on first call */
 	public DemandOrderBook getDemandBook() {
+		ensureAwarded();
+		if (demandBook == null && primitiveDemandBook != null) {
+			demandBook = primitiveDemandBook.toDemandOrderBook();
+		}
 		return demandBook;
 	}
 
-	/** @return updated supply order book used to clear the market */
+	/** @return updated supply order book used to clear the market; if cleared with primitive books, an equivalent item-based book
+	 *         is created on first call */
 	public SupplyOrderBook getSupplyBook() {
+		ensureAwarded();
+		if (supplyBook == null && primitiveSupplyBook != null) {
+			supplyBook = primitiveSupplyBook.toSupplyOrderBook();
+		}
 		return supplyBook;
 	}
 
+	/** Returns sum of awarded supply power for given trader
+	 * 
+	 * @param traderUuid UUID of trader to sum up awarded supply power
+	 * @return awarded supply power of given trader */
+	public double getAwardedSupplyPowerOf(long traderUuid) {
+		ensureAwarded();
+		if (primitiveSupplyBook != null) {
+			return primitiveSupplyBook.getTradersSumOfPower(traderUuid);
+		}
+		return supplyBook.getTradersSumOfPower(traderUuid);
+	}
+
+	/** Returns sum of awarded demand power for given trader
+	 * 
+	 * @param traderUuid UUID of trader to sum up awarded demand power
+	 * @return awarded demand power of given trader */
+	public double getAwardedDemandPowerOf(long traderUuid) {
+		ensureAwarded();
+		if (primitiveDemandBook != null) {
+			return primitiveDemandBook.getTradersSumOfPower(traderUuid);
+		}
+		return demandBook.getTradersSumOfPower(traderUuid);
+	}
+
+	/** Marks the currently set books as acquired from an {@link OrderBookPool}, so that they may be released to it later */
+	void markBooksFromPool() {
+		booksFromPool = true;
+	}
+
+	/** Hands all books of this result over to the given pool if they were acquired from a pool; books owned by others, e.g.
+	 * received in messages, are never released. Afterwards, this result holds no books anymore and pending awards are discarded
+	 * 
+	 * @param pool to receive the books for later reuse */
+	void releaseBooksTo(OrderBookPool pool) {
+		if (booksFromPool) {
+			if (demandBook != null) {
+				pool.release(demandBook);
+			}
+			if (supplyBook != null) {
+				pool.release(supplyBook);
+			}
+			if (primitiveDemandBook != null) {
+				pool.release(primitiveDemandBook);
+			}
+			if (primitiveSupplyBook != null) {
+				pool.release(primitiveSupplyBook);
+			}
+		}
+		booksFromPool = false;
+		demandBook = null;
+		supplyBook = null;
+		primitiveDemandBook = null;
+		primitiveSupplyBook = null;
+		awardsPending = false;
+		random = null;
+	}
+
 	/** @return total awarded energy */
 	public double getTradedEnergyInMWH() {
 		return tradedEnergyInMWH;
@@ -78,10 +241,20 @@ public class MarketClearingResult {
 		return marketPriceInEURperMWH;
 	}
 
-	/** @return total system cost from generation based on awarded bids and their associated marginal cost */
+	/** @return total system cost from generation based on awarded bids and their associated marginal cost; calculated on first
+	 *         call only */
 	public double getSystemCostTotalInEUR() {
+		if (Double.isNaN(systemCostTotalInEUR)) {
+			ensureAwarded();
+			systemCostTotalInEUR = primitiveSupplyBook != null ? calcSystemCost(primitiveSupplyBook) : calcSystemCost(supplyBook);
+		}
+		return systemCostTotalInEUR;
+	}
+
+	/** @return total system cost from awarded items of given supply book and their associated marginal cost */
+	private double calcSystemCost(SupplyOrderBook book) {
 		double totalSystemCost = 0;
-		for (OrderBookItem item : supplyBook.getOrderBookItems()) {
+		for (OrderBookItem item : book.getOrderBookItems()) {
 			double awardedPower = item.getAwardedPower();
 			double marginalCost = item.getMarginalCost();
 			if (Double.isFinite(awardedPower) && Double.isFinite(marginalCost)) {
@@ -91,6 +264,19 @@ public class MarketClearingResult {
 		return totalSystemCost;
 	}
 
+	/** @return total system cost from awarded items of given primitive supply book and their associated marginal cost */
+	private double calcSystemCost(PrimitiveOrderBook book) {
+		double totalSystemCost = 0;
+		for (int i = 0; i < book.getNumberOfItems(); i++) {
+			double awardedPower = book.getAwardedPower(i);
+			double marginalCost = book.getMarginalCost(i);
+			if (Double.isFinite(awardedPower) && Double.isFinite(marginalCost)) {
+				totalSystemCost += awardedPower * marginalCost;
+			}
+		}
+		return totalSystemCost;
+	}
+
 	/** @param marketPriceInEURperMWH the marketPriceInEURperMWH to set */
 	public void setMarketPriceInEURperMWH(double marketPriceInEURperMWH) {
 		this.marketPriceInEURperMWH = marketPriceInEURperMWH;
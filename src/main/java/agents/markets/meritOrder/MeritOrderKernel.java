@@ -5,8 +5,11 @@ package agents.markets.meritOrder;
 
 import java.util.ArrayList;
 import agents.markets.meritOrder.books.DemandOrderBook;
+import agents.markets.meritOrder.books.MeritOrderCurve;
 import agents.markets.meritOrder.books.OrderBookItem;
 import agents.markets.meritOrder.books.SupplyOrderBook;
+import util.ActionProfiler;
+import util.ActionProfiler.Counter;
 
 /** Clears the energy market by matching demand and supply curves
  * 
@@ -42,34 +45,125 @@ public class MeritOrderKernel {
 	 * @throws MeritOrderClearingException in case the order books resemble no valid market */
 	public static ClearingDetails clearMarketSimple(SupplyOrderBook supply, DemandOrderBook demand)
 			throws MeritOrderClearingException {
-		ArrayList<OrderBookItem> supplyBids = supply.getOrderBookItems();
-		ArrayList<OrderBookItem> demandBids = demand.getOrderBookItems();
+		return clearMarketSimple(new ItemCurve(supply.getOrderBookItems()), new ItemCurve(demand.getOrderBookItems()));
+	}
 
-		double lastSupplyPrice = 0;
-		double lastSupplyPower = 0;
-		double lastDemandPrice = 0;
-		double lastDemandPower = 0;
+	/** Clears the market as described in {@link #clearMarketSimple(SupplyOrderBook, DemandOrderBook)}, but based on any sorted
+	 * {@link MeritOrderCurve}s for supply and demand
+	 * 
+	 * @param supplyBids sorted supply curve, ending with a virtual bid at (positive) infinity
+	 * @param demandBids sorted demand curve, ending with a virtual bid at (negative) infinity
+	 * @return market clearing data, i.e. awarded power and price
+	 * @throws MeritOrderClearingException in case the curves resemble no valid market */
+	public static ClearingDetails clearMarketSimple(MeritOrderCurve supplyBids, MeritOrderCurve demandBids)
+			throws MeritOrderClearingException {
+		ensureOrderBookPositiveEnergy(supplyBids);
+		ensureOrderBookPositiveEnergy(demandBids);
+		return walkCurves(supplyBids, demandBids, 0, 0);
+	}
+
+	/** Clears the market like {@link #clearMarketSimple(SupplyOrderBook, DemandOrderBook)}, but resumes the walk along the curves
+	 * close to the given demand index instead of starting at the lowermost elements - see
+	 * {@link #clearMarketFrom(MeritOrderCurve, MeritOrderCurve, int)}
+	 * 
+	 * @param supply sorted supply orders
+	 * @param demand sorted demand orders
+	 * @param demandIndexHint index of demand bid close to (and preferably before) the expected cut of the curves
+	 * @return market clearing data, i.e. awarded power and price - identical to those of a full clearing
+	 * @throws MeritOrderClearingException in case the order books resemble no valid market */
+	public static ClearingDetails clearMarketFrom(SupplyOrderBook supply, DemandOrderBook demand, int demandIndexHint)
+			throws MeritOrderClearingException {
+		return clearMarketFrom(new ItemCurve(supply.getOrderBookItems()), new ItemCurve(demand.getOrderBookItems()),
+				demandIndexHint);
+	}
 
+	/** Clears the market like {@link #clearMarketSimple(MeritOrderCurve, MeritOrderCurve)}, but resumes the walk along the curves
+	 * close to the given demand index, e.g. the price-setting demand bid of a previous clearing of a slightly modified market. To
+	 * this end, a state of the walk is searched at or below the hinted demand index that a full walk is guaranteed to pass: its
+	 * previous demand bid ends strictly within a supply bid, and its demand price exceeds its supply price, i.e. no cut can have
+	 * occurred before. The search steps back exponentially from the hint and falls back to the lowermost elements. Thus, the result
+	 * is always identical to that of a full clearing, while the effort depends on the distance of the hint to the actual cut.
+	 * 
+	 * @param supplyBids sorted supply curve, ending with a virtual bid at (positive) infinity
+	 * @param demandBids sorted demand curve, ending with a virtual bid at (negative) infinity
+	 * @param demandIndexHint index of demand bid close to (and preferably before) the expected cut of the curves
+	 * @return market clearing data, i.e. awarded power and price - identical to those of a full clearing
+	 * @throws MeritOrderClearingException in case the curves resemble no valid market */
+	public static ClearingDetails clearMarketFrom(MeritOrderCurve supplyBids, MeritOrderCurve demandBids,
+			int demandIndexHint) throws MeritOrderClearingException {
 		ensureOrderBookPositiveEnergy(supplyBids);
 		ensureOrderBookPositiveEnergy(demandBids);
+		int demandIndex = Math.min(demandIndexHint, demandBids.getNumberOfItems() - 1);
+		int stepSize = 1;
+		while (demandIndex > 0) {
+			int supplyIndex = findResumableSupplyIndex(supplyBids, demandBids, demandIndex);
+			if (supplyIndex >= 0) {
+				return walkCurves(supplyBids, demandBids, supplyIndex, demandIndex);
+			}
+			demandIndex -= stepSize;
+			stepSize *= 2;
+		}
+		return walkCurves(supplyBids, demandBids, 0, 0);
+	}
+
+	/** Returns index of the supply bid that a full walk along the curves is at when reaching the given demand index - if this can
+	 * be determined unambiguously and no cut is found before
+	 * 
+	 * @return index of supply bid to resume the walk with, or -1 if the walk cannot be resumed at the given demand index */
+	private static int findResumableSupplyIndex(MeritOrderCurve supplyBids, MeritOrderCurve demandBids, int demandIndex) {
+		double previousDemandPower = demandBids.getCumulatedPowerUpperValue(demandIndex - 1);
+		int low = 0;
+		int high = supplyBids.getNumberOfItems() - 1;
+		if (supplyBids.getCumulatedPowerUpperValue(high) <= previousDemandPower) {
+			return -1;
+		}
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (supplyBids.getCumulatedPowerUpperValue(middle) > previousDemandPower) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		boolean endsWithinSupplyBid = low == 0 || supplyBids.getCumulatedPowerUpperValue(low - 1) < previousDemandPower;
+		boolean noCutBefore = demandBids.getOfferPrice(demandIndex) > supplyBids.getOfferPrice(low);
+		return endsWithinSupplyBid && noCutBefore ? low : -1;
+	}
+
+	/** Walks along the given curves starting at the given indices until their cut is found; the given indices must correspond to a
+	 * state that is passed by a walk starting at the lowermost elements
+	 * 
+	 * @return market clearing data, i.e. awarded power and price */
+	private static ClearingDetails walkCurves(MeritOrderCurve supplyBids, MeritOrderCurve demandBids, int supplyIndex,
+			int demandIndex) {
+		ClearingDetails clearingDetails = walkToCut(supplyBids, demandBids, supplyIndex, demandIndex);
+		if (ActionProfiler.isEnabled()) {
+			ActionProfiler.count(Counter.MERIT_ORDER_CLEARINGS, 1);
+			int itemsWalked = clearingDetails.priceSettingSupplyBidIdx + clearingDetails.priceSettingDemandBidIdx - supplyIndex
+					- demandIndex;
+			ActionProfiler.count(Counter.MERIT_ORDER_ITEMS_WALKED, Math.max(0, itemsWalked));
+		}
+		return clearingDetails;
+	}
+
+	/** @return market clearing data found by walking along the given curves starting at the given indices */
+	private static ClearingDetails walkToCut(MeritOrderCurve supplyBids, MeritOrderCurve demandBids, int supplyIndex,
+			int demandIndex) {
+		double lastSupplyPrice = supplyIndex > 0 ? supplyBids.getOfferPrice(supplyIndex - 1) : 0;
+		double lastSupplyPower = supplyIndex > 0 ? supplyBids.getCumulatedPowerUpperValue(supplyIndex - 1) : 0;
+		double lastDemandPrice = demandIndex > 0 ? demandBids.getOfferPrice(demandIndex - 1) : 0;
+		double lastDemandPower = demandIndex > 0 ? demandBids.getCumulatedPowerUpperValue(demandIndex - 1) : 0;
 
-		int supplyIndex = 0;
-		int demandIndex = 0;
 		// Market clearing details
 		int priceSettingDemandIdx = 0;
-		OrderBookItem priceSettingDemand;
 		int priceSettingSupplyIdx = 0;
-		OrderBookItem priceSettingSupply;
 		double minPriceSettingDemand = 0;
 
 		while (true) {
-			OrderBookItem supplyEntry = supplyBids.get(supplyIndex);
-			OrderBookItem demandEntry = demandBids.get(demandIndex);
-
-			double supplyPrice = supplyEntry.getOfferPrice();
-			double demandPrice = demandEntry.getOfferPrice();
-			double supplyPower = supplyEntry.getCumulatedPowerUpperValue();
-			double demandPower = demandEntry.getCumulatedPowerUpperValue();
+			double supplyPrice = supplyBids.getOfferPrice(supplyIndex);
+			double demandPrice = demandBids.getOfferPrice(demandIndex);
+			double supplyPower = supplyBids.getCumulatedPowerUpperValue(supplyIndex);
+			double demandPower = demandBids.getCumulatedPowerUpperValue(demandIndex);
 
 			boolean cutFound = demandPrice < supplyPrice;
 			boolean cutAtSamePrice = demandPrice == supplyPrice;
@@ -80,12 +174,10 @@ public class MeritOrderKernel {
 				if (supplyBlockIsCut) {
 					// Price setting bids and price setting demand power of the price setting demand bid
 					priceSettingDemandIdx = demandIndex - 1;
-					priceSettingDemand = demandBids.get(priceSettingDemandIdx);
 					priceSettingSupplyIdx = supplyIndex;
-					priceSettingSupply = supplyEntry;
 
-					minPriceSettingDemand = priceSettingDemand.getCumulatedPowerUpperValue()
-							- priceSettingSupply.getCumulatedPowerLowerValue();
+					minPriceSettingDemand = demandBids.getCumulatedPowerUpperValue(priceSettingDemandIdx)
+							- supplyBids.getCumulatedPowerLowerValue(priceSettingSupplyIdx);
 					return new ClearingDetails(lastDemandPower, supplyPrice, priceSettingDemandIdx, priceSettingSupplyIdx,
 							minPriceSettingDemand);
 				} else if (cutAtSamePower) {
@@ -93,36 +185,30 @@ public class MeritOrderKernel {
 					// a) the maximum of the awarded supply and the non-awarded demand bids
 					// b) the minimum if the non-awarded supply and the awarded demand bids
 					priceSettingDemandIdx = demandIndex;
-					priceSettingDemand = demandEntry;
 					priceSettingSupplyIdx = supplyIndex;
-					priceSettingSupply = supplyEntry;
 
-					minPriceSettingDemand = priceSettingDemand.getCumulatedPowerUpperValue()
-							- priceSettingSupply.getCumulatedPowerLowerValue();
+					minPriceSettingDemand = demandBids.getCumulatedPowerUpperValue(priceSettingDemandIdx)
+							- supplyBids.getCumulatedPowerLowerValue(priceSettingSupplyIdx);
 					double price = (Math.max(lastSupplyPrice, demandPrice) + Math.min(lastDemandPrice, supplyPrice)) / 2.;
 					return new ClearingDetails(lastSupplyPower, price, priceSettingDemandIdx, priceSettingSupplyIdx,
 							minPriceSettingDemand);
 				} else { // demandBlockIsCut
 					// Price setting bids and price setting demand power of the price setting demand bid
 					priceSettingDemandIdx = demandIndex;
-					priceSettingDemand = demandEntry;
 					priceSettingSupplyIdx = supplyIndex;
-					priceSettingSupply = supplyEntry;
 
-					minPriceSettingDemand = priceSettingDemand.getCumulatedPowerUpperValue()
-							- priceSettingSupply.getCumulatedPowerLowerValue();
+					minPriceSettingDemand = demandBids.getCumulatedPowerUpperValue(priceSettingDemandIdx)
+							- supplyBids.getCumulatedPowerLowerValue(priceSettingSupplyIdx);
 					return new ClearingDetails(lastSupplyPower, demandPrice, priceSettingDemandIdx, priceSettingSupplyIdx,
 							minPriceSettingDemand);
 				}
 			} else if (cutAtSamePrice) {
 				// Price setting bids and price setting demand power of the price setting demand bid
 				priceSettingDemandIdx = demandIndex;
-				priceSettingDemand = demandBids.get(priceSettingDemandIdx);
 				priceSettingSupplyIdx = supplyIndex;
-				priceSettingSupply = supplyEntry;
 
-				minPriceSettingDemand = priceSettingDemand.getCumulatedPowerUpperValue()
-						- priceSettingSupply.getCumulatedPowerLowerValue();
+				minPriceSettingDemand = demandBids.getCumulatedPowerUpperValue(priceSettingDemandIdx)
+						- supplyBids.getCumulatedPowerLowerValue(priceSettingSupplyIdx);
 				return new ClearingDetails(Math.min(supplyPower, demandPower), demandPrice, priceSettingDemandIdx,
 						priceSettingSupplyIdx, minPriceSettingDemand);
 			} else { // No cut so far
@@ -144,10 +230,38 @@ public class MeritOrderKernel {
 	 * 
 	 * @param orderBook to be checked for the cumulated power of the last bid
 	 * @throws MeritOrderClearingException if order book power maximum is non-positive */
-	private static void ensureOrderBookPositiveEnergy(ArrayList<OrderBookItem> orderBook)
-			throws MeritOrderClearingException {
-		if (orderBook.get(orderBook.size() - 1).getCumulatedPowerUpperValue() <= 0) {
+	private static void ensureOrderBookPositiveEnergy(MeritOrderCurve orderBook) throws MeritOrderClearingException {
+		if (orderBook.getCumulatedPowerUpperValue(orderBook.getNumberOfItems() - 1) <= 0) {
 			throw new MeritOrderClearingException(ERR_NON_POSITIVE_ORDER_BOOK);
 		}
 	}
-}
\ No newline at end of file
+
+	/** Provides {@link MeritOrderCurve} access to a sorted list of {@link OrderBookItem}s */
+	private static class ItemCurve implements MeritOrderCurve {
+		private final ArrayList<OrderBookItem> items;
+
+		ItemCurve(ArrayList<OrderBookItem> items) {
+			this.items = items;
+		}
+
+		@Override
+		public int getNumberOfItems() {
+			return items.size();
+		}
+
+		@Override
+		public double getOfferPrice(int index) {
+			return items.get(index).getOfferPrice();
+		}
+
+		@Override
+		public double getCumulatedPowerUpperValue(int index) {
+			return items.get(index).getCumulatedPowerUpperValue();
+		}
+
+		@Override
+		public double getCumulatedPowerLowerValue(int index) {
+			return items.get(index).getCumulatedPowerLowerValue();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder.books;
+
+import java.util.Arrays;
+
+/** Sums up awarded power per trader in an open-addressing hash map of primitive trader IDs and powers; avoids boxing and allows
+ * constant-time lookup of a trader's awarded power. Allocated storage is kept when cleared, so it can be reused for later
+ * clearings. */
+final class AwardAccumulator {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private long[] traderIds = new long[INITIAL_CAPACITY];
+	private double[] powers = new double[INITIAL_CAPACITY];
+	private boolean[] isOccupied = new boolean[INITIAL_CAPACITY];
+	private int size = 0;
+
+	/** Removes all entries but keeps the allocated storage */
+	void clear() {
+		if (size > 0) {
+			Arrays.fill(isOccupied, false);
+			size = 0;
+		}
+	}
+
+	/** Adds given power to the sum of the given trader
+	 *
+	 * @param traderId ID of the trader
+	 * @param power to be added to the trader's sum */
+	void add(long traderId, double power) {
+		int slot = findSlot(traderIds, isOccupied, traderId);
+		if (isOccupied[slot]) {
+			powers[slot] += power;
+			return;
+		}
+		traderIds[slot] = traderId;
+		powers[slot] = power;
+		isOccupied[slot] = true;
+		size++;
+		if (2 * size > traderIds.length) {
+			grow();
+		}
+	}
+
+	/** @param traderId ID of the trader
+	 * @return sum of power added for the given trader, or 0 if none was added */
+	double get(long traderId) {
+		int slot = findSlot(traderIds, isOccupied, traderId);
+		return isOccupied[slot] ? powers[slot] : 0;
+	}
+
+	/** @return number of traders with an entry */
+	int size() {
+		return size;
+	}
+
+	/** @return slot holding the given trader ID or the first free slot on its probing sequence */
+	private static int findSlot(long[] ids, boolean[] occupied, long traderId) {
+		int mask = ids.length - 1;
+		int slot = hash(traderId) & mask;
+		while (occupied[slot] && ids[slot] != traderId) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/** @return well-distributed hash of given trader ID */
+	private static int hash(long traderId) {
+		long mixed = traderId * 0x9E3779B97F4A7C15L;
+		return (int) (mixed ^ (mixed >>> 32));
+	}
+
+	/** Doubles the capacity and re-inserts all entries */
+	private void grow() {
+		int capacity = traderIds.length * 2;
+		long[] newIds = new long[capacity];
+		double[] newPowers = new double[capacity];
+		boolean[] newOccupied = new boolean[capacity];
+		for (int i = 0; i < traderIds.length; i++) {
+			if (isOccupied[i]) {
+				int slot = findSlot(newIds, newOccupied, traderIds[i]);
+				newIds[slot] = traderIds[i];
+				newPowers[slot] = powers[i];
+				newOccupied[slot] = true;
+			}
+		}
+		traderIds = newIds;
+		powers = newPowers;
+		isOccupied = newOccupied;
+	}
+}
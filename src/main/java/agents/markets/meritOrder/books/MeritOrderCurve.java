@@ -0,0 +1,24 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder.books;
+
+import agents.markets.meritOrder.MeritOrderKernel;
+
+/** Index-based read access to a sorted bid curve with cumulated power values, as required by the {@link MeritOrderKernel} */
+public interface MeritOrderCurve {
+	/** @return number of items on this curve, including the virtual last bid */
+	int getNumberOfItems();
+
+	/** @param index of the item in the sorted curve
+	 * @return offered price of the item at the given index */
+	double getOfferPrice(int index);
+
+	/** @param index of the item in the sorted curve
+	 * @return sum of all previous items' power <b>plus</b> the power of the item at the given index */
+	double getCumulatedPowerUpperValue(int index);
+
+	/** @param index of the item in the sorted curve
+	 * @return sum of all previous items' power <b>without</b> the power of the item at the given index */
+	double getCumulatedPowerLowerValue(int index);
+}
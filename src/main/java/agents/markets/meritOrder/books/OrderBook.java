@@ -4,23 +4,29 @@
 package agents.markets.meritOrder.books;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.stream.Collectors;
 import agents.markets.DayAheadMarket;
 import agents.markets.meritOrder.Bid;
 import de.dlr.gitlab.fame.communication.transfer.ComponentCollector;
 import de.dlr.gitlab.fame.communication.transfer.ComponentProvider;
 import de.dlr.gitlab.fame.communication.transfer.Portable;
+import util.ActionProfiler;
+import util.ActionProfiler.Counter;
 
 /** Handles a list of bids or asks at an energy {@link DayAheadMarket} for a single time frame of trading
  * 
  * @author Martin Klein, Christoph Schimeczek, A. Achraf El Ghazi */
 public abstract class OrderBook implements Portable {
 	static final String ERR_BID_NEGATIVE_POWER = "Negative bid power is forbidded. Bid: ";
+	static final String ERR_NOT_EMPTY = "OrderBook must be empty to be closed with sorted items.";
+	private static final int INITIAL_RUN_CAPACITY = 16;
 
 	/** required for {@link Portable}s */
 	public OrderBook() {}
@@ -43,6 +49,20 @@ public abstract class OrderBook implements Portable {
 	protected ArrayList<OrderBookItem> orderBookItems = new ArrayList<OrderBookItem>();
 	/** tells if this {@link OrderBook} has been yet finalised and sorted */
 	protected boolean isSorted = false;
+	/** pool that provides and takes back {@link OrderBookItem}s; null if items are not recycled */
+	private OrderBookPool pool = null;
+	/** awarded power per trader; only valid if {@link #hasAccumulatedAwards} */
+	private final AwardAccumulator awardsByTrader = new AwardAccumulator();
+	/** tells if {@link #awardsByTrader} reflects the current awarded powers of all items */
+	private boolean hasAccumulatedAwards = false;
+	/** index of the first item of each run of items added at once; only the first {@link #runCount} entries are valid */
+	private int[] runStarts = new int[INITIAL_RUN_CAPACITY];
+	/** number of runs of items added at once */
+	private int runCount = 0;
+	/** determines the sort order of runs of items */
+	private final PriceLevelSorter priceLevelSorter = new PriceLevelSorter();
+	/** reused to hold items while rearranging them into sort order */
+	private ArrayList<OrderBookItem> sortBuffer = new ArrayList<>();
 
 	/** Adds given {@link Bid} to this {@link OrderBook}; the OrderBook must not be sorted yet
 	 * 
@@ -50,7 +70,20 @@ public abstract class OrderBook implements Portable {
 	 * @param traderUuid id of the trader associated with the bids */
 	public void addBid(Bid bid, long traderUuid) {
 		ensureNotYetSortedOrThrow("OrderBook is already sorted - cannot add further items.");
-		orderBookItems.add(new OrderBookItem(bid, traderUuid));
+		startRun();
+		orderBookItems.add(createItem(bid, traderUuid));
+	}
+
+	/** @return new or recycled {@link OrderBookItem} for the given bid and trader */
+	private OrderBookItem createItem(Bid bid, long traderUuid) {
+		return pool == null ? new OrderBookItem(bid, traderUuid) : pool.acquireItem(bid, traderUuid);
+	}
+
+	/** Assigns the pool from which to obtain {@link OrderBookItem}s and to return them to on {@link #clear()}
+	 * 
+	 * @param pool to recycle items with */
+	void setPool(OrderBookPool pool) {
+		this.pool = pool;
 	}
 
 	/** Ensures the {@link OrderBook} items are not yet {@link #isSorted sorted}
@@ -73,24 +106,51 @@ public abstract class OrderBook implements Portable {
 		}
 	}
 
-	/** Adds multiple {@link Bid}s to this {@link OrderBook}; the OrderBook must not be sorted yet
+	/** Adds multiple {@link Bid}s to this {@link OrderBook}; the OrderBook must not be sorted yet. The bids form one run of items:
+	 * {@link #sort()} sorts the price levels of each run only if it is not yet in sort order and then merges all runs.
 	 * 
 	 * @param bids to add to this unsorted OrderBook
 	 * @param traderUuid id of the trader associated with the bids */
 	public void addBids(List<Bid> bids, long traderUuid) {
 		ensureNotYetSortedOrThrow("OrderBook is already sorted - cannot add further items.");
-		for (Bid bid : bids) {
-			orderBookItems.add(new OrderBookItem(bid, traderUuid));
+		if (bids.isEmpty()) {
+			return;
+		}
+		startRun();
+		if (pool == null) {
+			for (Bid bid : bids) {
+				orderBookItems.add(new OrderBookItem(bid, traderUuid));
+			}
+		} else {
+			pool.acquireItems(bids, traderUuid, orderBookItems);
 		}
 	}
 
-	/** Removes all stored {@link OrderBookItem OrderBookItems} -- sets status to "unsorted" -- sets {@link OrderBook#awardedPrice}
-	 * and {@link OrderBook#awardedCumulativePower} to {@link Double#NaN} */
+	/** Registers a new run of items starting at the current end of this book
+	 * 
+	 * @return index of the first item of the new run */
+	private int startRun() {
+		if (runCount == runStarts.length) {
+			runStarts = Arrays.copyOf(runStarts, runCount * 2);
+		}
+		int runStart = orderBookItems.size();
+		runStarts[runCount++] = runStart;
+		return runStart;
+	}
+
+	/** Removes all stored {@link OrderBookItem OrderBookItems} and returns them to the associated {@link OrderBookPool} (if any) --
+	 * sets status to "unsorted" -- sets {@link OrderBook#awardedPrice} and {@link OrderBook#awardedCumulativePower} to
+	 * {@link Double#NaN} */
 	public void clear() {
+		if (pool != null) {
+			pool.releaseItems(orderBookItems);
+		}
 		orderBookItems.clear();
 		isSorted = false;
 		awardedPrice = Double.NaN;
 		awardedCumulativePower = Double.NaN;
+		hasAccumulatedAwards = false;
+		runCount = 0;
 	}
 
 	/** @return a list of items, which are sorted and have assigned cumulated power values */
@@ -100,15 +160,63 @@ public abstract class OrderBook implements Portable {
 	}
 
 	/** If {@link OrderBook} is not yet sorted, sorts its items and adds virtual bid at its end; this closes the {@link OrderBook} -
-	 * no further calls to {@link #addBid(Bid, long)} or {@link #addBids(List, long)} are allowed afterwards */
+	 * no further calls to {@link #addBid(Bid, long)} or {@link #addBids(List, long)} are allowed afterwards. Each run of added
+	 * items is split into price levels of adjacent items with equal price; only levels are sorted, skipping runs already in sort
+	 * order, and merged. This yields the same order and cumulated powers as a stable sort of all items. */
 	public void sort() {
 		if (!isSorted) {
 			ensurePositiveBidPower();
 			addVirtualLastBid();
-			orderBookItems.sort(getSortComparator());
-			cumulatePowerOfItems();
+			if (runCount > 0 && runStarts[0] == 0) {
+				sortByPriceLevels();
+			} else {
+				orderBookItems.sort(getSortComparator());
+			}
+			cumulatePowerOfItems(0);
 			isSorted = true;
+			ActionProfiler.count(Counter.ORDER_BOOK_SORTS, 1);
+		}
+	}
+
+	/** Closes this empty {@link OrderBook} with the given items, which must already be in the sort order of this book, without
+	 * sorting them; adds the virtual bid at its end if missing. Leading items taken over from the given previous book keep their
+	 * cumulated power values - these are only updated from the first changed item on. This yields the same book as adding the
+	 * items' bids and calling {@link #sort()}, but without comparing any items.
+	 * 
+	 * @param sortedItems in sort order of this book; not to be modified afterwards
+	 * @param previousBook sorted book the given items were derived from
+	 * @param unchangedCount number of leading items that are the items of the previous book at the same positions; these are
+	 *          shared with the previous book, which must thus not be awarded if this book is
+	 * @throws RuntimeException if this book is not empty or already sorted, or if the previous book is not sorted */
+	public void closeWithSortedItems(ArrayList<OrderBookItem> sortedItems, OrderBook previousBook, int unchangedCount) {
+		ensureNotYetSortedOrThrow("OrderBook is already sorted - cannot add further items.");
+		previousBook.ensureSortedOrThrow("Previous OrderBook needs to be sorted to take over its cumulated power.");
+		if (!orderBookItems.isEmpty()) {
+			throw new RuntimeException(ERR_NOT_EMPTY);
 		}
+		orderBookItems = sortedItems;
+		ensurePositiveBidPower();
+		addVirtualLastBid();
+		cumulatePowerOfItems(unchangedCount);
+		isSorted = true;
+	}
+
+	/** Rearranges all items into the stable sort order determined per price level by the {@link PriceLevelSorter} */
+	private void sortByPriceLevels() {
+		Comparator<OrderBookItem> comparator = getSortComparator();
+		ArrayList<OrderBookItem> items = orderBookItems;
+		int itemCount = items.size();
+		int[] permutation = priceLevelSorter.sort(runStarts, runCount, itemCount,
+				(first, second) -> comparator.compare(items.get(first), items.get(second)));
+		ArrayList<OrderBookItem> sortedItems = sortBuffer;
+		sortedItems.ensureCapacity(itemCount);
+		for (int i = 0; i < itemCount; i++) {
+			sortedItems.add(items.get(permutation[i]));
+		}
+		items.clear();
+		sortBuffer = items;
+		orderBookItems = sortedItems;
+		runCount = 0;
 	}
 
 	/** Ensures the {@link OrderBook}'s items have non-negative block power.
@@ -139,10 +247,12 @@ public abstract class OrderBook implements Portable {
 	/** @return {@link Comparator} to sort {@link #orderBookItems} with */
 	protected abstract Comparator<OrderBookItem> getSortComparator();
 
-	/** Calculates and sets cumulated power value of ordered {@link #orderBookItems} */
-	private void cumulatePowerOfItems() {
-		double cumulatedPower = 0;
-		for (OrderBookItem entry : orderBookItems) {
+	/** Calculates and sets cumulated power value of ordered {@link #orderBookItems}, starting at the given index; items before it
+	 * must already have their cumulated power set */
+	private void cumulatePowerOfItems(int fromIndex) {
+		double cumulatedPower = fromIndex > 0 ? orderBookItems.get(fromIndex - 1).getCumulatedPowerUpperValue() : 0;
+		for (int i = fromIndex; i < orderBookItems.size(); i++) {
+			OrderBookItem entry = orderBookItems.get(i);
 			cumulatedPower += entry.getBlockPower();
 			entry.setCumulatedPowerUpperValue(cumulatedPower);
 		}
@@ -154,6 +264,18 @@ public abstract class OrderBook implements Portable {
 	 * @param awardedPrice uniform market clearing price
 	 * @param method determines, how power is distributed among multiple price-setting bids */
 	public void updateAwardedPowerInBids(double totalAwardedPower, double awardedPrice, DistributionMethod method) {
+		updateAwardedPowerInBids(totalAwardedPower, awardedPrice, method, null);
+	}
+
+	/** Updates awarded powers of all contained {@link OrderBookItem}s, based on the given parameters
+	 * 
+	 * @param totalAwardedPower obtained at market clearing - after this call: equals to sum of all OrderBookItem's awarded power
+	 * @param awardedPrice uniform market clearing price
+	 * @param method determines, how power is distributed among multiple price-setting bids
+	 * @param random used to shuffle price-setting bids for {@link DistributionMethod#RANDOMIZE}; if null, a shared unseeded
+	 *          generator is used */
+	public void updateAwardedPowerInBids(double totalAwardedPower, double awardedPrice, DistributionMethod method,
+			Random random) {
 		ensureSortedOrThrow("OrderBook needs to be sorted before this operation can be executed!");
 		this.awardedPrice = awardedPrice;
 		this.awardedCumulativePower = totalAwardedPower;
@@ -165,8 +287,18 @@ public abstract class OrderBook implements Portable {
 		priceSettingBids.removeIf(item -> item.getBlockPower() <= 0);
 
 		if (!priceSettingBids.isEmpty()) {
-			awardPriceSettingBids(priceSettingBids, method);
+			awardPriceSettingBids(priceSettingBids, method, random);
+		}
+		accumulateAwardsByTrader();
+	}
+
+	/** Sums up the awarded power of all items per trader, allowing constant-time lookup in {@link #getTradersSumOfPower(long)} */
+	void accumulateAwardsByTrader() {
+		awardsByTrader.clear();
+		for (OrderBookItem item : orderBookItems) {
+			awardsByTrader.add(item.getTraderUuid(), item.getAwardedPower());
 		}
+		hasAccumulatedAwards = true;
 	}
 
 	/** Awards powers for bids that are not price setting and therefore are either fully awarded or not at all */
@@ -181,8 +313,9 @@ public abstract class OrderBook implements Portable {
 	/** Distribute remaining power to award among all price-setting bids according to the given method
 	 * 
 	 * @param priceSettingBids list of all Items that are price setting
-	 * @param method determines, how power is distributed among multiple price-setting bids */
-	private void awardPriceSettingBids(List<OrderBookItem> priceSettingBids, DistributionMethod method) {
+	 * @param method determines, how power is distributed among multiple price-setting bids
+	 * @param random to shuffle price-setting bids with, or null */
+	private void awardPriceSettingBids(List<OrderBookItem> priceSettingBids, DistributionMethod method, Random random) {
 		double availablePower = calcRemaingPowerToDistribute(priceSettingBids);
 		switch (method) {
 			case FIRST_COME_FIRST_SERVE:
@@ -195,7 +328,11 @@ public abstract class OrderBook implements Portable {
 				awardSameShares(awardShare, priceSettingBids);
 				break;
 			case RANDOMIZE:
-				Collections.shuffle(priceSettingBids);
+				if (random == null) {
+					Collections.shuffle(priceSettingBids);
+				} else {
+					Collections.shuffle(priceSettingBids, random);
+				}
 				awardFirstComeFirstServe(availablePower, priceSettingBids);
 				break;
 			default:
@@ -267,13 +404,19 @@ public abstract class OrderBook implements Portable {
 		awardedCumulativePower = provider.nextDouble();
 		orderBookItems = provider.nextComponentList(OrderBookItem.class);
 		isSorted = provider.nextBoolean();
+		hasAccumulatedAwards = false;
+		runCount = 0;
 	}
 
-	/** Return sum of power across all bids in this OrderBook for given trader
+	/** Return sum of power across all bids in this OrderBook for given trader; takes constant time after
+	 * {@link #updateAwardedPowerInBids(double, double, DistributionMethod, Random)}, otherwise all items are scanned
 	 * 
 	 * @param traderUuid UUID of trader to sum up awarded power
 	 * @return awarded power of given trader */
 	public double getTradersSumOfPower(long traderUuid) {
+		if (hasAccumulatedAwards) {
+			return awardsByTrader.get(traderUuid);
+		}
 		double totalAwardedPower = 0;
 		for (OrderBookItem item : orderBookItems) {
 			totalAwardedPower += item.getTraderUuid() == traderUuid ? item.getAwardedPower() : 0;
@@ -29,8 +29,18 @@ public class OrderBookItem implements Portable {
 	 * @param bid associated with this order book item
 	 * @param traderUuid id of the trader associated with the bids */
 	public OrderBookItem(Bid bid, long traderUuid) {
+		reset(bid, traderUuid);
+	}
+
+	/** Re-initialises this {@link OrderBookItem} to represent the given Bid; cumulated and awarded power are reset
+	 * 
+	 * @param bid associated with this order book item
+	 * @param traderUuid id of the trader associated with the bids */
+	void reset(Bid bid, long traderUuid) {
 		this.bid = bid;
 		this.traderUuid = traderUuid;
+		this.cumulatedPowerUpperValue = Double.NaN;
+		this.awardedPower = Double.NaN;
 		if (bid.getEnergyAmountInMWH() < 0.) {
 			throw new RuntimeException(ERR_NEGATIVE_POWER + traderUuid);
 		}
@@ -0,0 +1,149 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder.books;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import agents.markets.meritOrder.Bid;
+
+/** Recycles order books and their {@link OrderBookItem}s across multiple market clearing events of one agent. Books obtained from
+ * this pool must be {@link #release(OrderBook) released} once they are no longer used - afterwards, they must not be accessed
+ * anymore. Counts created and reused objects to allow assessing the allocations saved. All methods are thread-safe. */
+public class OrderBookPool {
+	private final ArrayDeque<SupplyOrderBook> supplyBooks = new ArrayDeque<>();
+	private final ArrayDeque<DemandOrderBook> demandBooks = new ArrayDeque<>();
+	private final ArrayDeque<PrimitiveSupplyOrderBook> primitiveSupplyBooks = new ArrayDeque<>();
+	private final ArrayDeque<PrimitiveDemandOrderBook> primitiveDemandBooks = new ArrayDeque<>();
+	private final ArrayList<OrderBookItem> items = new ArrayList<>();
+
+	private long createdBooks = 0;
+	private long reusedBooks = 0;
+	private long createdItems = 0;
+	private long reusedItems = 0;
+
+	/** @return an empty {@link SupplyOrderBook} that recycles its items via this pool */
+	public synchronized SupplyOrderBook acquireSupplyBook() {
+		SupplyOrderBook book = acquire(supplyBooks, SupplyOrderBook::new);
+		book.setPool(this);
+		return book;
+	}
+
+	/** @return an empty {@link DemandOrderBook} that recycles its items via this pool */
+	public synchronized DemandOrderBook acquireDemandBook() {
+		DemandOrderBook book = acquire(demandBooks, DemandOrderBook::new);
+		book.setPool(this);
+		return book;
+	}
+
+	/** @return an empty {@link PrimitiveSupplyOrderBook} that keeps its previously allocated storage */
+	public synchronized PrimitiveSupplyOrderBook acquirePrimitiveSupplyBook() {
+		return acquire(primitiveSupplyBooks, PrimitiveSupplyOrderBook::new);
+	}
+
+	/** @return an empty {@link PrimitiveDemandOrderBook} that keeps its previously allocated storage */
+	public synchronized PrimitiveDemandOrderBook acquirePrimitiveDemandBook() {
+		return acquire(primitiveDemandBooks, PrimitiveDemandOrderBook::new);
+	}
+
+	/** @return next book from given stack of released books, or a new one if none is left */
+	private <T> T acquire(ArrayDeque<T> releasedBooks, Supplier<T> factory) {
+		T book = releasedBooks.poll();
+		if (book == null) {
+			createdBooks++;
+			return factory.get();
+		}
+		reusedBooks++;
+		return book;
+	}
+
+	/** Clears given book, takes back its items and stores it for later reuse
+	 *
+	 * @param book to be recycled; must not be accessed after this call */
+	public synchronized void release(SupplyOrderBook book) {
+		book.setPool(this);
+		book.clear();
+		supplyBooks.push(book);
+	}
+
+	/** Clears given book, takes back its items and stores it for later reuse
+	 *
+	 * @param book to be recycled; must not be accessed after this call */
+	public synchronized void release(DemandOrderBook book) {
+		book.setPool(this);
+		book.clear();
+		demandBooks.push(book);
+	}
+
+	/** Clears given book and stores it for later reuse
+	 *
+	 * @param book to be recycled; must not be accessed after this call */
+	public synchronized void release(PrimitiveSupplyOrderBook book) {
+		book.clear();
+		primitiveSupplyBooks.push(book);
+	}
+
+	/** Clears given book and stores it for later reuse
+	 *
+	 * @param book to be recycled; must not be accessed after this call */
+	public synchronized void release(PrimitiveDemandOrderBook book) {
+		book.clear();
+		primitiveDemandBooks.push(book);
+	}
+
+	/** @return a new or recycled {@link OrderBookItem} associated with given bid and trader */
+	synchronized OrderBookItem acquireItem(Bid bid, long traderUuid) {
+		if (items.isEmpty()) {
+			createdItems++;
+			return new OrderBookItem(bid, traderUuid);
+		}
+		reusedItems++;
+		OrderBookItem item = items.remove(items.size() - 1);
+		item.reset(bid, traderUuid);
+		return item;
+	}
+
+	/** Appends a new or recycled {@link OrderBookItem} for each of the given bids to the given list
+	 * 
+	 * @param bids to create items for
+	 * @param traderUuid id of the trader associated with the bids
+	 * @param target list to append the items to */
+	synchronized void acquireItems(List<Bid> bids, long traderUuid, List<OrderBookItem> target) {
+		for (Bid bid : bids) {
+			target.add(acquireItem(bid, traderUuid));
+		}
+	}
+
+	/** Takes back given items for later reuse */
+	synchronized void releaseItems(List<OrderBookItem> releasedItems) {
+		items.addAll(releasedItems);
+	}
+
+	/** @return number of order books created by this pool */
+	public synchronized long getCreatedBookCount() {
+		return createdBooks;
+	}
+
+	/** @return number of order books handed out again after being released */
+	public synchronized long getReusedBookCount() {
+		return reusedBooks;
+	}
+
+	/** @return number of {@link OrderBookItem}s created by this pool */
+	public synchronized long getCreatedItemCount() {
+		return createdItems;
+	}
+
+	/** @return number of {@link OrderBookItem}s handed out again after being released */
+	public synchronized long getReusedItemCount() {
+		return reusedItems;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "OrderBookPool [books created: " + createdBooks + ", reused: " + reusedBooks + "; items created: "
+				+ createdItems + ", reused: " + reusedItems + "]";
+	}
+}
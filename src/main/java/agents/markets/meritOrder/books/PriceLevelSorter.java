@@ -0,0 +1,140 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder.books;
+
+import java.util.Arrays;
+
+/** Determines the stable sort order of the items of an order book that were added in runs, e.g. one run per trader's bids. Each
+ * run is split into price levels, i.e. maximal sequences of adjacent items that compare as equal. Only levels are sorted - runs
+ * already in sort order are only checked - and merged pairwise; finally, levels are expanded to their items again. Since items of
+ * a level keep their original sequence, the resulting order equals that of a stable sort of all items. Items themselves are not
+ * changed, so that cumulated powers and awards match those of sorting all items. Allocated storage is kept for later sorts. */
+final class PriceLevelSorter {
+	private static final int INITIAL_CAPACITY = 64;
+
+	/** Compares two items of an order book, given by their index, with respect to the sort order of the book */
+	@FunctionalInterface
+	interface IndexComparator {
+		/** @return negative value, zero, or positive value if the first item is to be sorted before, equal, or after the second */
+		int compare(int firstIndex, int secondIndex);
+	}
+
+	/** index of the first item of each level, followed by the item count */
+	private int[] levelStarts = new int[INITIAL_CAPACITY];
+	/** indices of levels in their current order */
+	private int[] levelOrder = new int[INITIAL_CAPACITY];
+	private int[] levelBuffer = new int[INITIAL_CAPACITY];
+	/** index in {@link #levelOrder} of the first level of each run, followed by the level count */
+	private int[] runLevelStarts = new int[INITIAL_CAPACITY];
+	/** index of the item to place at each position of the sorted book */
+	private int[] permutation = new int[INITIAL_CAPACITY];
+
+	/** Returns the permutation that sorts the given items stably
+	 *
+	 * @param runStarts index of the first item of each run in ascending order, beginning with 0
+	 * @param runCount number of valid entries in runStarts
+	 * @param itemCount number of items to sort
+	 * @param comparator compares items by their index
+	 * @return permutation whose entry i is the index of the item to place at position i; valid until the next call */
+	int[] sort(int[] runStarts, int runCount, int itemCount, IndexComparator comparator) {
+		ensureCapacity(itemCount, runCount);
+		int levelCount = 0;
+		for (int run = 0; run < runCount; run++) {
+			int from = runStarts[run];
+			int to = run + 1 < runCount ? runStarts[run + 1] : itemCount;
+			int firstLevel = levelCount;
+			runLevelStarts[run] = firstLevel;
+			boolean isInSortOrder = true;
+			for (int i = from; i < to; i++) {
+				int comparison = i > from ? comparator.compare(i - 1, i) : -1;
+				if (comparison != 0) {
+					levelStarts[levelCount] = i;
+					levelOrder[levelCount] = levelCount;
+					levelCount++;
+				}
+				if (comparison > 0) {
+					isInSortOrder = false;
+				}
+			}
+			if (!isInSortOrder) {
+				mergeSort(firstLevel, levelCount, comparator);
+			}
+		}
+		runLevelStarts[runCount] = levelCount;
+		levelStarts[levelCount] = itemCount;
+		mergeSortedRuns(runCount, comparator);
+		int position = 0;
+		for (int level = 0; level < levelCount; level++) {
+			int levelIndex = levelOrder[level];
+			for (int i = levelStarts[levelIndex]; i < levelStarts[levelIndex + 1]; i++) {
+				permutation[position++] = i;
+			}
+		}
+		return permutation;
+	}
+
+	/** Grows storage arrays if required for the given number of items and runs */
+	private void ensureCapacity(int itemCount, int runCount) {
+		if (levelStarts.length <= itemCount) {
+			int capacity = Math.max(levelStarts.length * 2, itemCount + 1);
+			levelStarts = new int[capacity];
+			levelOrder = new int[capacity];
+			levelBuffer = new int[capacity];
+			permutation = new int[capacity];
+		}
+		if (runLevelStarts.length <= runCount) {
+			runLevelStarts = Arrays.copyOf(runLevelStarts, Math.max(runLevelStarts.length * 2, runCount + 1));
+		}
+	}
+
+	/** Merges all sorted runs of levels pairwise; ties are resolved in favour of earlier runs */
+	private void mergeSortedRuns(int runCount, IndexComparator comparator) {
+		int levelCount = runLevelStarts[runCount];
+		while (runCount > 1) {
+			int mergedRunCount = 0;
+			for (int run = 0; run < runCount; run += 2) {
+				int from = runLevelStarts[run];
+				if (run + 1 < runCount) {
+					int to = run + 2 < runCount ? runLevelStarts[run + 2] : levelCount;
+					merge(from, runLevelStarts[run + 1], to, comparator);
+				}
+				runLevelStarts[mergedRunCount++] = from;
+			}
+			runCount = mergedRunCount;
+		}
+	}
+
+	/** Stable, recursive merge sort of the given range of {@link #levelOrder} */
+	private void mergeSort(int from, int to, IndexComparator comparator) {
+		if (to - from < 2) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(from, middle, comparator);
+		mergeSort(middle, to, comparator);
+		merge(from, middle, to, comparator);
+	}
+
+	/** Stable merge of the two adjacent sorted ranges [from, middle) and [middle, to) of {@link #levelOrder} */
+	private void merge(int from, int middle, int to, IndexComparator comparator) {
+		if (compareLevels(levelOrder[middle - 1], levelOrder[middle], comparator) <= 0) {
+			return;
+		}
+		System.arraycopy(levelOrder, from, levelBuffer, from, to - from);
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if (right >= to || (left < middle && compareLevels(levelBuffer[left], levelBuffer[right], comparator) <= 0)) {
+				levelOrder[i] = levelBuffer[left++];
+			} else {
+				levelOrder[i] = levelBuffer[right++];
+			}
+		}
+	}
+
+	/** @return comparison of the first items of the two given levels */
+	private int compareLevels(int firstLevel, int secondLevel, IndexComparator comparator) {
+		return comparator.compare(levelStarts[firstLevel], levelStarts[secondLevel]);
+	}
+}
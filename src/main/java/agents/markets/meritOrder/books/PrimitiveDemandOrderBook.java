@@ -0,0 +1,45 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder.books;
+
+import agents.markets.meritOrder.Bid;
+
+/** {@link PrimitiveOrderBook} that manages all items from demand-{@link Bid}s; equivalent to {@link DemandOrderBook} */
+public class PrimitiveDemandOrderBook extends PrimitiveOrderBook {
+	@Override
+	protected double getLastBidValue() {
+		return -Double.MAX_VALUE;
+	}
+
+	/** sorts in descending order */
+	@Override
+	protected int comparePrices(double first, double second) {
+		return Double.compare(second, first);
+	}
+
+	/** Returns amount of power that the supply is short; can only be called once the book is updated after market clearing
+	 *
+	 * @param highestSupplyPrice price of the most expensive supply item with non-zero power
+	 * @return amount of power that the supply is short, i.e. the sum of all demand power not awarded with a higher price than the
+	 *         last supply offer */
+	public double getAmountOfPowerShortage(double highestSupplyPrice) {
+		ensureSortedOrThrow();
+		double shortage = 0;
+		for (int i = 0; i < size; i++) {
+			double notAwardedPower = powers[i] - awardedPowers[i];
+			if (prices[i] > highestSupplyPrice && notAwardedPower > 0) {
+				shortage += notAwardedPower;
+			}
+		}
+		return shortage;
+	}
+
+	/** @return a new {@link DemandOrderBook} with one {@link OrderBookItem} per item of this book; may only be called after
+	 *         sorting */
+	public DemandOrderBook toDemandOrderBook() {
+		DemandOrderBook book = new DemandOrderBook();
+		copyTo(book);
+		return book;
+	}
+}
@@ -0,0 +1,425 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder.books;
+
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Random;
+import agents.markets.meritOrder.Bid;
+import agents.markets.meritOrder.books.OrderBook.DistributionMethod;
+
+/** Alternative to {@link OrderBook} that stores its items column-wise in growable primitive arrays instead of one
+ * {@link OrderBookItem} object per bid. Sorting is done via an index permutation that is applied to all columns at once; awarding
+ * requires a single pass over the sorted items. Results match those of {@link SupplyOrderBook} and {@link DemandOrderBook}. */
+public abstract class PrimitiveOrderBook implements MeritOrderCurve {
+	static final String ERR_NOT_SORTED = "PrimitiveOrderBook needs to be sorted before this operation can be executed!";
+	static final String ERR_ALREADY_SORTED = "PrimitiveOrderBook is already sorted - cannot add further items.";
+	private static final int INITIAL_CAPACITY = 64;
+	private static final Random sharedRandom = new Random();
+
+	/** market clearing price */
+	protected double awardedPrice = Double.NaN;
+	/** total power awarded to both supply and demand */
+	protected double awardedCumulativePower = Double.NaN;
+	/** tells if this {@link PrimitiveOrderBook} has been yet finalised and sorted */
+	protected boolean isSorted = false;
+	/** number of items stored in this {@link PrimitiveOrderBook} */
+	protected int size = 0;
+	/** offer prices of the items */
+	protected double[] prices = new double[INITIAL_CAPACITY];
+	/** block powers of the items */
+	protected double[] powers = new double[INITIAL_CAPACITY];
+	/** marginal costs of the items */
+	protected double[] marginalCosts = new double[INITIAL_CAPACITY];
+	/** IDs of the traders associated with the items */
+	protected long[] traderIds = new long[INITIAL_CAPACITY];
+	/** cumulated power upper values of the items; only valid after sorting */
+	protected double[] cumulatedPowers = new double[INITIAL_CAPACITY];
+	/** awarded powers of the items; only valid after awarding */
+	protected double[] awardedPowers = new double[INITIAL_CAPACITY];
+
+	private final PriceLevelSorter priceLevelSorter = new PriceLevelSorter();
+	private int[] permutationBuffer = new int[INITIAL_CAPACITY];
+	private double[] doubleBuffer = new double[INITIAL_CAPACITY];
+	private long[] longBuffer = new long[INITIAL_CAPACITY];
+	private final AwardAccumulator awardsByTrader = new AwardAccumulator();
+	private boolean hasAccumulatedAwards = false;
+	private int[] runStarts = new int[INITIAL_CAPACITY];
+	private int runCount = 0;
+
+	/** Adds given {@link Bid} to this {@link PrimitiveOrderBook}; the book must not be sorted yet
+	 *
+	 * @param bid to be added to the unsorted book
+	 * @param traderUuid id of the trader associated with the bid */
+	public void addBid(Bid bid, long traderUuid) {
+		ensureNotYetSortedOrThrow();
+		startRun();
+		addItem(bid.getEnergyAmountInMWH(), bid.getOfferPriceInEURperMWH(), bid.getMarginalCost(), traderUuid);
+	}
+
+	/** Adds multiple {@link Bid}s to this {@link PrimitiveOrderBook}; the book must not be sorted yet. The bids form one run of
+	 * items: {@link #sort()} sorts the price levels of each run only if it is not yet in sort order and then merges all runs.
+	 *
+	 * @param bids to add to this unsorted book
+	 * @param traderUuid id of the trader associated with the bids */
+	public void addBids(List<Bid> bids, long traderUuid) {
+		ensureNotYetSortedOrThrow();
+		if (bids.isEmpty()) {
+			return;
+		}
+		startRun();
+		for (Bid bid : bids) {
+			addItem(bid.getEnergyAmountInMWH(), bid.getOfferPriceInEURperMWH(), bid.getMarginalCost(), traderUuid);
+		}
+	}
+
+	/** Registers a new run of items starting at the current end of this book */
+	private void startRun() {
+		if (runCount == runStarts.length) {
+			runStarts = Arrays.copyOf(runStarts, runCount * 2);
+		}
+		runStarts[runCount++] = size;
+	}
+
+	/** Appends an item with given properties and grows the storage arrays if required */
+	private void addItem(double power, double price, double marginalCost, long traderUuid) {
+		if (power < 0.) {
+			throw new RuntimeException(OrderBookItem.ERR_NEGATIVE_POWER + traderUuid);
+		}
+		if (size == prices.length) {
+			grow();
+		}
+		prices[size] = price;
+		powers[size] = power;
+		marginalCosts[size] = marginalCost;
+		traderIds[size] = traderUuid;
+		size++;
+	}
+
+	/** Doubles the capacity of all storage arrays */
+	private void grow() {
+		int capacity = prices.length * 2;
+		prices = Arrays.copyOf(prices, capacity);
+		powers = Arrays.copyOf(powers, capacity);
+		marginalCosts = Arrays.copyOf(marginalCosts, capacity);
+		traderIds = Arrays.copyOf(traderIds, capacity);
+		cumulatedPowers = new double[capacity];
+		awardedPowers = new double[capacity];
+		permutationBuffer = new int[capacity];
+		doubleBuffer = new double[capacity];
+		longBuffer = new long[capacity];
+	}
+
+	/** @throws RuntimeException if items are already sorted */
+	private void ensureNotYetSortedOrThrow() {
+		if (isSorted) {
+			throw new RuntimeException(ERR_ALREADY_SORTED);
+		}
+	}
+
+	/** @throws RuntimeException if items are not yet sorted */
+	protected void ensureSortedOrThrow() {
+		if (!isSorted) {
+			throw new RuntimeException(ERR_NOT_SORTED);
+		}
+	}
+
+	/** Removes all stored items but keeps allocated storage -- sets status to "unsorted" -- sets {@link #awardedPrice} and
+	 * {@link #awardedCumulativePower} to {@link Double#NaN} */
+	public void clear() {
+		size = 0;
+		isSorted = false;
+		awardedPrice = Double.NaN;
+		awardedCumulativePower = Double.NaN;
+		hasAccumulatedAwards = false;
+		runCount = 0;
+	}
+
+	/** If not yet sorted, adds the virtual last bid, sorts all items by price and cumulates their power; this closes the book - no
+	 * further calls to {@link #addBid(Bid, long)} or {@link #addBids(List, long)} are allowed afterwards */
+	public void sort() {
+		if (!isSorted) {
+			addVirtualLastBid();
+			sortByPermutation();
+			cumulatePowerOfItems();
+			isSorted = true;
+		}
+	}
+
+	/** Adds item with 0 power and very high or low price, ensuring the crossing of supply and demand curves */
+	private void addVirtualLastBid() {
+		double lastBidValue = getLastBidValue();
+		for (int i = 0; i < size; i++) {
+			if (prices[i] == lastBidValue && powers[i] == 0 && marginalCosts[i] == 0) {
+				return;
+			}
+		}
+		startRun();
+		addItem(0, lastBidValue, 0, Long.MIN_VALUE);
+	}
+
+	/** Sorts an index permutation (stable, like {@link List#sort}) and rearranges all columns accordingly; the permutation is
+	 * determined per price level of each run of added items by the {@link PriceLevelSorter} */
+	private void sortByPermutation() {
+		int[] permutation = priceLevelSorter.sort(runStarts, runCount, size,
+				(first, second) -> comparePrices(prices[first], prices[second]));
+		applyPermutation(prices, permutation);
+		applyPermutation(powers, permutation);
+		applyPermutation(marginalCosts, permutation);
+		for (int i = 0; i < size; i++) {
+			longBuffer[i] = traderIds[permutation[i]];
+		}
+		System.arraycopy(longBuffer, 0, traderIds, 0, size);
+		runCount = 0;
+	}
+
+	/** Rearranges given column according to the given permutation */
+	private void applyPermutation(double[] column, int[] permutation) {
+		for (int i = 0; i < size; i++) {
+			doubleBuffer[i] = column[permutation[i]];
+		}
+		System.arraycopy(doubleBuffer, 0, column, 0, size);
+	}
+
+	/** Calculates and sets cumulated power value of sorted items */
+	private void cumulatePowerOfItems() {
+		double cumulatedPower = 0;
+		for (int i = 0; i < size; i++) {
+			cumulatedPower += powers[i];
+			cumulatedPowers[i] = cumulatedPower;
+		}
+	}
+
+	/** @return the value of the last virtual {@link Bid} depending on the type of order book */
+	protected abstract double getLastBidValue();
+
+	/** Compares two prices with respect to the sort order of this book
+	 *
+	 * @param first price to compare
+	 * @param second price to compare
+	 * @return negative value, zero, or positive value if the first price is to be sorted before, equal, or after the second */
+	protected abstract int comparePrices(double first, double second);
+
+	/** Updates awarded powers of all contained items, based on the given parameters
+	 *
+	 * @param totalAwardedPower obtained at market clearing - after this call: equals to sum of all items' awarded power
+	 * @param awardedPrice uniform market clearing price
+	 * @param method determines, how power is distributed among multiple price-setting bids */
+	public void updateAwardedPowerInBids(double totalAwardedPower, double awardedPrice, DistributionMethod method) {
+		updateAwardedPowerInBids(totalAwardedPower, awardedPrice, method, null);
+	}
+
+	/** Updates awarded powers of all contained items, based on the given parameters
+	 *
+	 * @param totalAwardedPower obtained at market clearing - after this call: equals to sum of all items' awarded power
+	 * @param awardedPrice uniform market clearing price
+	 * @param method determines, how power is distributed among multiple price-setting bids
+	 * @param random used to shuffle price-setting bids for {@link DistributionMethod#RANDOMIZE}; if null, a shared unseeded
+	 *          generator is used */
+	public void updateAwardedPowerInBids(double totalAwardedPower, double awardedPrice, DistributionMethod method,
+			Random random) {
+		ensureSortedOrThrow();
+		this.awardedPrice = awardedPrice;
+		this.awardedCumulativePower = totalAwardedPower;
+
+		int firstPriceSetting = -1;
+		int lastPriceSetting = -1;
+		double minPriceSettingLowerValue = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			if (prices[i] != awardedPrice) {
+				awardedPowers[i] = cumulatedPowers[i] <= awardedCumulativePower ? powers[i] : 0;
+			} else if (powers[i] <= 0) {
+				awardedPowers[i] = 0;
+			} else {
+				if (firstPriceSetting < 0) {
+					firstPriceSetting = i;
+				}
+				lastPriceSetting = i;
+				minPriceSettingLowerValue = Math.min(minPriceSettingLowerValue, getCumulatedPowerLowerValue(i));
+			}
+		}
+		if (firstPriceSetting >= 0) {
+			double availablePower = awardedCumulativePower - minPriceSettingLowerValue;
+			awardPriceSettingBids(availablePower, firstPriceSetting, lastPriceSetting, method,
+					random == null ? sharedRandom : random);
+		}
+		accumulateAwardsByTrader();
+	}
+
+	/** Sums up the awarded power of all items per trader, allowing constant-time lookup in {@link #getTradersSumOfPower(long)} */
+	private void accumulateAwardsByTrader() {
+		awardsByTrader.clear();
+		for (int i = 0; i < size; i++) {
+			awardsByTrader.add(traderIds[i], awardedPowers[i]);
+		}
+		hasAccumulatedAwards = true;
+	}
+
+	/** Distribute remaining power to award among all price-setting bids in the given index range */
+	private void awardPriceSettingBids(double availablePower, int first, int last, DistributionMethod method,
+			Random random) {
+		switch (method) {
+			case FIRST_COME_FIRST_SERVE:
+				for (int i = first; i <= last; i++) {
+					if (isPriceSetting(i)) {
+						availablePower = awardFirstComeFirstServe(i, availablePower);
+					}
+				}
+				break;
+			case SAME_SHARES:
+				DoubleSummaryStatistics offeredPower = new DoubleSummaryStatistics();
+				for (int i = first; i <= last; i++) {
+					if (isPriceSetting(i)) {
+						offeredPower.accept(powers[i]);
+					}
+				}
+				double awardShare = availablePower / offeredPower.getSum();
+				for (int i = first; i <= last; i++) {
+					if (isPriceSetting(i)) {
+						awardedPowers[i] = powers[i] * awardShare;
+					}
+				}
+				break;
+			case RANDOMIZE:
+				int count = 0;
+				for (int i = first; i <= last; i++) {
+					if (isPriceSetting(i)) {
+						permutationBuffer[count++] = i;
+					}
+				}
+				for (int i = count; i > 1; i--) {
+					int swapIndex = random.nextInt(i);
+					int temp = permutationBuffer[i - 1];
+					permutationBuffer[i - 1] = permutationBuffer[swapIndex];
+					permutationBuffer[swapIndex] = temp;
+				}
+				for (int i = 0; i < count; i++) {
+					availablePower = awardFirstComeFirstServe(permutationBuffer[i], availablePower);
+				}
+				break;
+			default:
+				throw new RuntimeException("Power awarding method " + method + " not implemented!");
+		}
+	}
+
+	/** @return true if item at given index is price-setting and has positive power */
+	private boolean isPriceSetting(int index) {
+		return prices[index] == awardedPrice && powers[index] > 0;
+	}
+
+	/** Awards item at given index as much of the given available power as possible and returns the remaining power */
+	private double awardFirstComeFirstServe(int index, double availablePower) {
+		double awardedPower = Math.min(powers[index], availablePower);
+		awardedPowers[index] = awardedPower;
+		return availablePower - awardedPower;
+	}
+
+	/** Return sum of awarded power across all items in this book for given trader; takes constant time after
+	 * {@link #updateAwardedPowerInBids(double, double, DistributionMethod, Random)}, otherwise all items are scanned
+	 *
+	 * @param traderUuid UUID of trader to sum up awarded power
+	 * @return awarded power of given trader */
+	public double getTradersSumOfPower(long traderUuid) {
+		if (hasAccumulatedAwards) {
+			return awardsByTrader.get(traderUuid);
+		}
+		double totalAwardedPower = 0;
+		for (int i = 0; i < size; i++) {
+			totalAwardedPower += traderIds[i] == traderUuid ? awardedPowers[i] : 0;
+		}
+		return totalAwardedPower;
+	}
+
+	/** @return sum of power of all items */
+	public double getCumulatePowerOfItems() {
+		double summedPower = 0;
+		for (int i = 0; i < size; i++) {
+			summedPower += powers[i];
+		}
+		return summedPower;
+	}
+
+	/** Checks if this book contains bids with actual power
+	 *
+	 * @return true if any bid with positive power is contained */
+	public boolean hasValidBids() {
+		for (int i = 0; i < size; i++) {
+			if (powers[i] > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Fills given {@link OrderBook} with one {@link OrderBookItem} per item of this book, preserving sort order, cumulated and
+	 * awarded powers; the target book is marked as sorted
+	 *
+	 * @param book to be filled; is cleared beforehand */
+	protected void copyTo(OrderBook book) {
+		ensureSortedOrThrow();
+		book.clear();
+		for (int i = 0; i < size; i++) {
+			OrderBookItem item = new OrderBookItem(new Bid(powers[i], prices[i], marginalCosts[i]), traderIds[i]);
+			item.setCumulatedPowerUpperValue(cumulatedPowers[i]);
+			item.setAwardedPower(isAwarded() ? awardedPowers[i] : Double.NaN);
+			book.orderBookItems.add(item);
+		}
+		book.awardedPrice = awardedPrice;
+		book.awardedCumulativePower = awardedCumulativePower;
+		book.isSorted = true;
+		if (isAwarded()) {
+			book.accumulateAwardsByTrader();
+		}
+	}
+
+	/** @return true if awarded powers have been assigned since the last {@link #clear()} */
+	private boolean isAwarded() {
+		return !Double.isNaN(awardedCumulativePower);
+	}
+
+	@Override
+	public int getNumberOfItems() {
+		return size;
+	}
+
+	@Override
+	public double getOfferPrice(int index) {
+		return prices[index];
+	}
+
+	@Override
+	public double getCumulatedPowerUpperValue(int index) {
+		return cumulatedPowers[index];
+	}
+
+	@Override
+	public double getCumulatedPowerLowerValue(int index) {
+		return cumulatedPowers[index] - powers[index];
+	}
+
+	/** @param index of item in sorted book
+	 * @return block power of item at given index */
+	public double getBlockPower(int index) {
+		return powers[index];
+	}
+
+	/** @param index of item in sorted book
+	 * @return awarded power of item at given index; call only after market clearing */
+	public double getAwardedPower(int index) {
+		return awardedPowers[index];
+	}
+
+	/** @param index of item in sorted book
+	 * @return marginal cost of item at given index */
+	public double getMarginalCost(int index) {
+		return marginalCosts[index];
+	}
+
+	/** @param index of item in sorted book
+	 * @return ID of trader associated with item at given index */
+	public long getTraderUuid(int index) {
+		return traderIds[index];
+	}
+}
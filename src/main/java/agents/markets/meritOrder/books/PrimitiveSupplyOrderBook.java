@@ -0,0 +1,39 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder.books;
+
+import agents.markets.meritOrder.Bid;
+
+/** {@link PrimitiveOrderBook} that manages all items from supply-{@link Bid}s; equivalent to {@link SupplyOrderBook} */
+public class PrimitiveSupplyOrderBook extends PrimitiveOrderBook {
+	@Override
+	protected double getLastBidValue() {
+		return Double.MAX_VALUE;
+	}
+
+	/** sorts in ascending order */
+	@Override
+	protected int comparePrices(double first, double second) {
+		return Double.compare(first, second);
+	}
+
+	/** @return offer price of most expensive (real) item, i.e. with block power larger than 0; may only be called after sorting */
+	public double getHighestPrice() {
+		ensureSortedOrThrow();
+		for (int i = size - 1; i >= 0; i--) {
+			if (powers[i] > 0) {
+				return prices[i];
+			}
+		}
+		throw new RuntimeException("Could not find valid bid with blockPower > 0!");
+	}
+
+	/** @return a new {@link SupplyOrderBook} with one {@link OrderBookItem} per item of this book; may only be called after
+	 *         sorting */
+	public SupplyOrderBook toSupplyOrderBook() {
+		SupplyOrderBook book = new SupplyOrderBook();
+		copyTo(book);
+		return book;
+	}
+}
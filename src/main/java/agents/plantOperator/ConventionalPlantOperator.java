@@ -6,9 +6,11 @@ package agents.plantOperator;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 import agents.conventionals.PlantBuildingManager;
 import agents.conventionals.Portfolio;
 import agents.conventionals.PowerPlant;
@@ -70,7 +72,14 @@ public class ConventionalPlantOperator extends PowerPlantOperator implements Fue
 
 	private HashMap<TimeStamp, Double> fuelPrice = new HashMap<>();
 	private HashMap<TimeStamp, Double> co2Price = new HashMap<>();
-	private double lastDispatchedTotalInMW = 0;
+	private TreeMap<TimeStamp, HashMap<PowerPlant, Double>> dispatchedPowerPerPlant = new TreeMap<>();
+	private TreeMap<TimeStamp, Double> dispatchedTotalInMW = new TreeMap<>();
+
+	/** Totals and per-plant values of all delivery times processed by the current dispatch or payment */
+	private DispatchResult dispatchResultTotal = null;
+	private LinkedHashMap<String, Double> dispatchedEnergyInMWHperPlant = new LinkedHashMap<>();
+	private LinkedHashMap<String, Double> variableCostsInEURperPlant = new LinkedHashMap<>();
+	private LinkedHashMap<String, Double> receivedMoneyInEURperPlant = new LinkedHashMap<>();
 
 	private enum PlantsKey {
 		ID
@@ -213,8 +222,10 @@ public class ConventionalPlantOperator extends PowerPlantOperator implements Fue
 		DispatchResult dispatchResult = updatePowerPlantStatus(getMustRunEnergyInMWH(time), awardedEnergy, time);
 		this.fuelConsumption.add(new AmountAtTime(time, dispatchResult.getFuelConsumptionInThermalMWH()));
 		this.co2Emissions.add(new AmountAtTime(time, dispatchResult.getCo2EmissionsInTons()));
-		store(OutputFields.Co2EmissionsInT, dispatchResult.getCo2EmissionsInTons());
-		store(OutputFields.FuelConsumptionInThermalMWH, dispatchResult.getFuelConsumptionInThermalMWH());
+		if (dispatchResultTotal == null) {
+			dispatchResultTotal = new DispatchResult();
+		}
+		dispatchResultTotal.add(dispatchResult);
 		return dispatchResult.getVariableCostsInEUR();
 	}
 
@@ -230,7 +241,7 @@ public class ConventionalPlantOperator extends PowerPlantOperator implements Fue
 	/** Sets load level of plants in {@link #portfolio} to generated awarded energy at the given TimeStamp; Awarded energy is first
 	 * distributed to must-run capacities, then to the remaining capacities of the power plant. In both cases, power plants with low
 	 * marginal cost are served first. The load level of power plants' that are not assigned to produced is set to Zero. Accounts
-	 * for all emissions, fuel consumption and variable costs of dispatch.
+	 * for all emissions, fuel consumption and variable costs of dispatch and remembers the dispatch of each plant for its payment.
 	 *
 	 * @param remainingMustRunEnergyInMWH total required energy to fulfil must-run constraints
 	 * @param totalAwardedEnergyInMWH total electric energy that is to be produced
@@ -240,7 +251,11 @@ public class ConventionalPlantOperator extends PowerPlantOperator implements Fue
 			TimeStamp time) {
 		remainingMustRunEnergyInMWH = Math.min(totalAwardedEnergyInMWH, remainingMustRunEnergyInMWH);
 
-		lastDispatchedTotalInMW = totalAwardedEnergyInMWH;
+		dispatchedPowerPerPlant.headMap(now()).clear();
+		HashMap<PowerPlant, Double> powerPerPlant = new HashMap<>();
+		dispatchedPowerPerPlant.put(time, powerPerPlant);
+		dispatchedTotalInMW.headMap(now()).clear();
+		dispatchedTotalInMW.put(time, totalAwardedEnergyInMWH);
 		double currentFuelPrice = fuelPrice.remove(time);
 		double currentCo2Price = co2Price.remove(time);
 		DispatchResult dispatchTotal = new DispatchResult();
@@ -265,12 +280,13 @@ public class ConventionalPlantOperator extends PowerPlantOperator implements Fue
 			}
 			double totalPowerPlantPower = dispatchedMustRunPower + dispatchedAdditionalPower;
 			if (totalPowerPlantPower > 0) {
-				store(dispatch.key(PlantsKey.ID, powerPlant.getId()), totalPowerPlantPower);
+				dispatchedEnergyInMWHperPlant.merge(powerPlant.getId(), totalPowerPlantPower, Double::sum);
 			}
 			DispatchResult plantDispatch = powerPlant.updateGeneration(time, totalPowerPlantPower, currentFuelPrice,
 					currentCo2Price);
+			powerPerPlant.put(powerPlant, powerPlant.getCurrentPowerOutputInMW());
 			if (plantDispatch.getVariableCostsInEUR() > 0) {
-				store(variableCosts.key(PlantsKey.ID, powerPlant.getId()), plantDispatch.getVariableCostsInEUR());
+				variableCostsInEURperPlant.merge(powerPlant.getId(), plantDispatch.getVariableCostsInEUR(), Double::sum);
 			}
 			dispatchTotal.add(plantDispatch);
 		}
@@ -308,13 +324,16 @@ public class ConventionalPlantOperator extends PowerPlantOperator implements Fue
 
 	@Override
 	protected void digestPaymentPerPlant(TimeStamp dispatchTime, double totalPaymentInEUR) {
+		HashMap<PowerPlant, Double> powerPerPlant = dispatchedPowerPerPlant.remove(dispatchTime);
+		Double dispatchedTotal = dispatchedTotalInMW.remove(dispatchTime);
 		double actualPaymentTotalInEUR = 0;
 		for (PowerPlant plant : portfolio.getPowerPlantList()) {
-			double shareOfLastDispatch = plant.getCurrentPowerOutputInMW() / lastDispatchedTotalInMW;
-			double plantPaymentInEUR = totalPaymentInEUR * shareOfLastDispatch;
+			double dispatchedPower = powerPerPlant != null ? powerPerPlant.getOrDefault(plant, 0.) : 0;
+			double shareOfDispatch = dispatchedTotal != null ? dispatchedPower / dispatchedTotal : 0;
+			double plantPaymentInEUR = totalPaymentInEUR * shareOfDispatch;
 			if (Math.abs(plantPaymentInEUR) > 1E-10) {
 				actualPaymentTotalInEUR += plantPaymentInEUR;
-				store(money.key(PlantsKey.ID, plant.getId()), plantPaymentInEUR);
+				receivedMoneyInEURperPlant.merge(plant.getId(), plantPaymentInEUR, Double::sum);
 			}
 		}
 		if (Math.abs(actualPaymentTotalInEUR - totalPaymentInEUR) > 1) {
@@ -322,6 +341,26 @@ public class ConventionalPlantOperator extends PowerPlantOperator implements Fue
 		}
 	}
 
+	@Override
+	protected void storePlantOutputs() {
+		if (dispatchResultTotal != null) {
+			store(OutputFields.Co2EmissionsInT, dispatchResultTotal.getCo2EmissionsInTons());
+			store(OutputFields.FuelConsumptionInThermalMWH, dispatchResultTotal.getFuelConsumptionInThermalMWH());
+			dispatchResultTotal = null;
+		}
+		storeAndClear(dispatch, dispatchedEnergyInMWHperPlant);
+		storeAndClear(variableCosts, variableCostsInEURperPlant);
+		storeAndClear(money, receivedMoneyInEURperPlant);
+	}
+
+	/** Writes given values per plant to the given complex output and clears them */
+	private void storeAndClear(ComplexIndex<PlantsKey> output, LinkedHashMap<String, Double> valuePerPlant) {
+		for (Entry<String, Double> entry : valuePerPlant.entrySet()) {
+			store(output.key(PlantsKey.ID, entry.getKey()), entry.getValue());
+		}
+		valuePerPlant.clear();
+	}
+
 	@Override
 	protected double getInstalledCapacityInMW() {
 		return portfolio.getInstalledCapacityInMW(now());
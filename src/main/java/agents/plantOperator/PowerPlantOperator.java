@@ -4,6 +4,7 @@
 package agents.plantOperator;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import accounting.AnnualCostCalculator;
 import agents.trader.Trader;
@@ -14,7 +15,6 @@ import de.dlr.gitlab.fame.agent.input.Input;
 import de.dlr.gitlab.fame.agent.input.Make;
 import de.dlr.gitlab.fame.agent.input.ParameterData;
 import de.dlr.gitlab.fame.agent.input.Tree;
-import de.dlr.gitlab.fame.communication.CommUtils;
 import de.dlr.gitlab.fame.communication.Contract;
 import de.dlr.gitlab.fame.communication.Product;
 import de.dlr.gitlab.fame.communication.message.Message;
@@ -71,15 +71,30 @@ public abstract class PowerPlantOperator extends Agent {
 		call(this::reportCosts).on(Products.AnnualCostReport);
 	}
 
-	/** Runs power plant(s) according to received dispatch instructions
+	/** Runs power plant(s) according to received dispatch instructions, in order of their delivery time
 	 * 
-	 * @param input single message declaring the power to dispatch
+	 * @param input one message per delivery time declaring the power to dispatch
 	 * @param contracts not used */
 	public void executeDispatch(ArrayList<Message> input, List<Contract> contracts) {
-		AmountAtTime award = CommUtils.getExactlyOneEntry(input).getDataItemOfType(AmountAtTime.class);
-		store(OutputFields.AwardedEnergyInMWH, award.amount);
-		double variableCosts = dispatchPlants(award.amount, award.validAt);
-		store(OutputFields.VariableCostsInEUR, variableCosts);
+		double awardedEnergyInMWH = 0;
+		double variableCostsInEUR = 0;
+		for (AmountAtTime award : readAmountsInOrderOfTime(input)) {
+			awardedEnergyInMWH += award.amount;
+			variableCostsInEUR += dispatchPlants(award.amount, award.validAt);
+		}
+		store(OutputFields.AwardedEnergyInMWH, awardedEnergyInMWH);
+		store(OutputFields.VariableCostsInEUR, variableCostsInEUR);
+		storePlantOutputs();
+	}
+
+	/** @return {@link AmountAtTime}s of given messages sorted by the time they are valid at */
+	private List<AmountAtTime> readAmountsInOrderOfTime(ArrayList<Message> input) {
+		List<AmountAtTime> amounts = new ArrayList<>(input.size());
+		for (Message message : input) {
+			amounts.add(message.getDataItemOfType(AmountAtTime.class));
+		}
+		amounts.sort(Comparator.comparing(amount -> amount.validAt));
+		return amounts;
 	}
 
 	/** Dispatches associated power plants to generate the specified awarded power
@@ -91,13 +106,16 @@ public abstract class PowerPlantOperator extends Agent {
 
 	/** Writes the income received from an associated trader to output
 	 * 
-	 * @param input single message payment from an associated trader
+	 * @param input one payment message per delivery time from an associated trader
 	 * @param contracts not used */
 	protected void digestPayment(ArrayList<Message> input, List<Contract> contracts) {
-		Message message = CommUtils.getExactlyOneEntry(input);
-		AmountAtTime payout = message.getDataItemOfType(AmountAtTime.class);
-		store(OutputFields.ReceivedMoneyInEUR, payout.amount);
-		digestPaymentPerPlant(payout.validAt, payout.amount);
+		double receivedMoneyInEUR = 0;
+		for (AmountAtTime payout : readAmountsInOrderOfTime(input)) {
+			receivedMoneyInEUR += payout.amount;
+			digestPaymentPerPlant(payout.validAt, payout.amount);
+		}
+		store(OutputFields.ReceivedMoneyInEUR, receivedMoneyInEUR);
+		storePlantOutputs();
 	}
 
 	/** Optional function to digest payments for individual plants of plant operator
@@ -106,6 +124,9 @@ public abstract class PowerPlantOperator extends Agent {
 	 * @param totalPaymentInEUR total money to be paid out to plant operator */
 	protected void digestPaymentPerPlant(TimeStamp dispatchTime, double totalPaymentInEUR) {}
 
+	/** Optional function to write outputs of individual plants once all delivery times of a dispatch or payment were processed */
+	protected void storePlantOutputs() {}
+
 	/** Write annual costs to output
 	 * 
 	 * @param input not used
@@ -14,6 +14,7 @@ import communications.message.SupportRequestData;
 import communications.message.SupportResponseData;
 import communications.message.TechnologySet;
 import communications.message.YieldPotential;
+import communications.portable.AwardSeries;
 import de.dlr.gitlab.fame.agent.Agent;
 import de.dlr.gitlab.fame.agent.input.DataProvider;
 import de.dlr.gitlab.fame.agent.input.Input;
@@ -140,11 +141,12 @@ public class SupportPolicy extends Agent {
 
 	/** Extract and store power prices and volumes reported from {@link DayAheadMarket}
 	 * 
-	 * @param input single power price message to read
+	 * @param input single power price message to read, covering one or several delivery intervals
 	 * @param contracts not used */
 	private void logPowerPrice(ArrayList<Message> input, List<Contract> contracts) {
-		AwardData award = CommUtils.getExactlyOneEntry(input).getDataItemOfType(AwardData.class);
-		marketData.addElectricityPrice(award.beginOfDeliveryInterval, award.powerPriceInEURperMWH);
+		for (AwardData award : AwardSeries.readAwardsFrom(CommUtils.getExactlyOneEntry(input))) {
+			marketData.addElectricityPrice(award.beginOfDeliveryInterval, award.powerPriceInEURperMWH);
+		}
 	}
 
 	/** Calculate the support pay-out and distribute it to {@link AggregatorTrader}s; Add market premium information for MPVAR,
@@ -18,6 +18,7 @@ import de.dlr.gitlab.fame.agent.input.Tree;
 import de.dlr.gitlab.fame.data.TimeSeries;
 import de.dlr.gitlab.fame.time.TimePeriod;
 import de.dlr.gitlab.fame.time.TimeStamp;
+import util.ResponseCache;
 import util.SeriesManipulation;
 import util.UrlModelService;
 
@@ -58,11 +59,13 @@ public class EvBiddingStrategist {
 	 * @param availableChargingPowerInMW available charging power
 	 * @param electricityConsumptionInMWH planed energy consumption
 	 * @param predictionWindows group of prediction window parameters
+	 * @param responseCache cache for responses of the ML prediction service, or null to disable caching
 	 * @throws MissingDataException if any required data is missing */
 	public EvBiddingStrategist(String serviceURL, String modelId, int forecastPeriodInHours,
-			TimeSeries availableChargingPowerInMW, TimeSeries electricityConsumptionInMWH, ParameterData predictionWindows)
-			throws MissingDataException {
+			TimeSeries availableChargingPowerInMW, TimeSeries electricityConsumptionInMWH, ParameterData predictionWindows,
+			ResponseCache responseCache) throws MissingDataException {
 		urlService = new UrlModelService<PredictionRequest, PredictionResponse>(serviceURL) {};
+		urlService.setResponseCache(responseCache);
 		this.modelId = modelId;
 		this.forecastPeriodInHours = forecastPeriodInHours;
 		this.availableChargingPowerInMW = availableChargingPowerInMW;
@@ -76,11 +79,27 @@ public class EvBiddingStrategist {
 		loadPredictionBackwardWindow = predictionWindows.getInteger("LoadPredictionBackwardWindow");
 	}
 
+	/** Issues requests for net load predictions at the given times to the ML model without waiting for the responses; these are
+	 * collected by {@link #getNetLoadPredictionInMWH(TimeStamp)}
+	 * 
+	 * @param requestedTimes times for which net load predictions will be required */
+	public void requestNetLoadPredictions(List<TimeStamp> requestedTimes) {
+		for (TimeStamp requestedTime : requestedTimes) {
+			urlService.prefetch(requestedTime, createRequest(requestedTime));
+		}
+	}
+
 	/** Returns the predicted net load for the requested time via the ML model behind the UrlModelService
 	 * 
 	 * @param requestedTime requested time
 	 * @return predicted net load for the requested time via the ML model behind the UrlModelService */
 	public double getNetLoadPredictionInMWH(TimeStamp requestedTime) {
+		PredictionResponse response = urlService.callPrefetched(requestedTime, createRequest(requestedTime));
+		return response.getNetLoadPrediction();
+	}
+
+	/** @return request for a net load prediction at the given time based on the current state */
+	private PredictionRequest createRequest(TimeStamp requestedTime) {
 		List<InputVariable> inputVars = new ArrayList<InputVariable>();
 
 		Map<Long, Double> priceWindow = SeriesManipulation.sliceWithPadding(priceForecastsInEURperMWH, requestedTime,
@@ -99,9 +118,7 @@ public class EvBiddingStrategist {
 				loadPredictionBackwardWindow, 0, TIME_STEPS_PER_SLICE);
 		inputVars.add(new InputVariable("aggregated_optimised_load_MW", optimisedLoadWindow));
 
-		PredictionRequest request = new PredictionRequest(modelId, requestedTime.getStep(), inputVars);
-		PredictionResponse response = urlService.call(request);
-		return response.getNetLoadPrediction();
+		return new PredictionRequest(modelId, requestedTime.getStep(), inputVars);
 	}
 
 	/** Updates the history of actual net load based on awarded demand and supply values.
@@ -19,6 +19,7 @@ import de.dlr.gitlab.fame.agent.input.Tree;
 import de.dlr.gitlab.fame.data.TimeSeries;
 import de.dlr.gitlab.fame.time.TimePeriod;
 import de.dlr.gitlab.fame.time.TimeStamp;
+import util.ResponseCache;
 import util.SeriesManipulation;
 import util.UrlModelService;
 
@@ -65,11 +66,13 @@ public class PvBiddingStrategist {
 	 * @param storage installed battery capacity
 	 * @param forecastPeriodInHours requested forecast period
 	 * @param predictionWindows group of prediction window parameters
+	 * @param responseCache cache for responses of the ML prediction service, or null to disable caching
 	 * @throws MissingDataException if any required data is missing */
 	public PvBiddingStrategist(String serviceURL, String modelId, double installedGenerationInMW,
 			TimeSeries tsLoadInMW, TimeSeries tsGenerationProfile, Device storage, int forecastPeriodInHours,
-			ParameterData predictionWindows) throws MissingDataException {
+			ParameterData predictionWindows, ResponseCache responseCache) throws MissingDataException {
 		urlService = new UrlModelService<PredictionRequest, PredictionResponse>(serviceURL) {};
+		urlService.setResponseCache(responseCache);
 		this.modelId = modelId;
 		this.installedGenerationPowerInMW = installedGenerationInMW;
 		this.tsLoadInMW = tsLoadInMW;
@@ -88,11 +91,27 @@ public class PvBiddingStrategist {
 		gridInteractionBackwardWindow = predictionWindows.getInteger("GridInteractionBackwardWindow");
 	}
 
+	/** Issues requests for net load predictions at the given times to the ML model without waiting for the responses; these are
+	 * collected by {@link #getNetLoadPredictionInMWH(TimeStamp)}
+	 * 
+	 * @param requestedTimes times for which net load predictions will be required */
+	public void requestNetLoadPredictions(List<TimeStamp> requestedTimes) {
+		for (TimeStamp requestedTime : requestedTimes) {
+			urlService.prefetch(requestedTime, createRequest(requestedTime));
+		}
+	}
+
 	/** Returns the predicted net load for the requested time via the ML model behind the UrlModelService
 	 * 
 	 * @param requestedTime requested time
 	 * @return predicted net load for the requested time via the ML model behind the UrlModelService */
 	public double getNetLoadPredictionInMWH(TimeStamp requestedTime) {
+		PredictionResponse response = urlService.callPrefetched(requestedTime, createRequest(requestedTime));
+		return correctStorageOperation(response.getNetLoadPrediction(), requestedTime);
+	}
+
+	/** @return request for a net load prediction at the given time based on the current state */
+	private PredictionRequest createRequest(TimeStamp requestedTime) {
 		List<InputVariable> inputVars = new ArrayList<InputVariable>();
 
 		Map<Long, Double> EnergyGenerationPerMW = SeriesManipulation.sliceWithPadding(tsGenerationProfile,
@@ -116,11 +135,7 @@ public class PvBiddingStrategist {
 				gridInteractionBackwardWindow, gridInteractionBackwardWindow, TIME_STEPS_PER_SLICE);
 		inputVars.add(new InputVariable("prosumersGridInteraction", ProsumersGridInteraction));
 
-		PredictionRequest request = new PredictionRequest(modelId, requestedTime.getStep(), inputVars);
-		PredictionResponse response = urlService.call(request);
-		double correctedNetLoadPredictionInMWH = correctStorageOperation(response.getNetLoadPrediction(), requestedTime);
-
-		return correctedNetLoadPredictionInMWH;
+		return new PredictionRequest(modelId, requestedTime.getStep(), inputVars);
 	}
 
 	/** Corrects the predicted net load based on the current battery charge level, load, and generation. That is: predictedNetLoad =
@@ -109,44 +109,49 @@ public class ConventionalTrader extends TraderWithClients implements PowerPlantS
 		return bids;
 	}
 
-	/** Sends supply {@link Bid}s to {@link DayAheadMarket} and stores offered power
+	/** Sends supply {@link Bid}s to {@link DayAheadMarket} for each delivery time and stores total offered power
 	 * 
-	 * @param messages marginal cost data from client
+	 * @param messages marginal cost data from client, for one or several delivery times
 	 * @param contracts single {@link DayAheadMarket} to send bids to */
 	private void sendBids(ArrayList<Message> messages, List<Contract> contracts) {
 		Contract contractToFulfil = CommUtils.getExactlyOneEntry(contracts);
-		ArrayList<MarginalsAtTime> marginals = extractMarginalsAtTime(messages);
-		if (marginals.size() > 0) {
-			List<Bid> supplyBids = prepareBids(marginals);
-			TimeStamp deliveryTime = marginals.get(0).getDeliveryTime();
-			fulfilNext(contractToFulfil, new BidsAtTime(deliveryTime, getId(), supplyBids, null));
-			double totalOfferedPowerInMW = supplyBids.stream().mapToDouble(bid -> bid.getEnergyAmountInMWH()).sum();
+		TreeMap<TimeStamp, ArrayList<MarginalsAtTime>> marginalsByTimeStamp = sortMarginalsByTimeStamp(messages);
+		if (marginalsByTimeStamp.size() > 0) {
+			double totalOfferedPowerInMW = 0;
+			for (Entry<TimeStamp, ArrayList<MarginalsAtTime>> entry : marginalsByTimeStamp.entrySet()) {
+				List<Bid> supplyBids = prepareBids(entry.getValue());
+				fulfilNext(contractToFulfil, new BidsAtTime(entry.getKey(), getId(), supplyBids, null));
+				totalOfferedPowerInMW += supplyBids.stream().mapToDouble(bid -> bid.getEnergyAmountInMWH()).sum();
+			}
 			store(OutputColumns.OfferedEnergyInMWH, totalOfferedPowerInMW);
 		}
 	}
 
 	/** Assigns dispatch from {@link DayAheadMarket} to power plant operators and writes information to output
 	 * 
-	 * @param messages one single message containing award information (price, awarded power)
+	 * @param messages one single message containing award information (price, awarded power) for one or several delivery times
 	 * @param contracts single contract with associated PowerPlantOperator to order the energy to deliver */
 	private void assignDispatch(ArrayList<Message> messages, List<Contract> contracts) {
 		Message message = CommUtils.getExactlyOneEntry(messages);
 		Contract contract = CommUtils.getExactlyOneEntry(contracts);
-
-		AwardData award = message.getDataItemOfType(AwardData.class);
-		fulfilNext(contract, new AmountAtTime(award.beginOfDeliveryInterval, award.supplyEnergyInMWH));
-		store(OutputColumns.AwardedEnergyInMWH, award.supplyEnergyInMWH);
+		double totalAwardedEnergyInMWH = 0;
+		for (AwardData award : readAwards(message)) {
+			fulfilNext(contract, new AmountAtTime(award.beginOfDeliveryInterval, award.supplyEnergyInMWH));
+			totalAwardedEnergyInMWH += award.supplyEnergyInMWH;
+		}
+		store(OutputColumns.AwardedEnergyInMWH, totalAwardedEnergyInMWH);
 	}
 
-	/** Sends pay-out to {@link ConventionalPlantOperator}
+	/** Sends pay-out to {@link ConventionalPlantOperator}, one per awarded delivery time
 	 * 
-	 * @param messages one single message containing award information (price, awarded power)
+	 * @param messages one single message containing award information (price, awarded power) for one or several delivery times
 	 * @param contracts single contract with associated PowerPlantOperator to send its pay-out */
 	private void payout(ArrayList<Message> messages, List<Contract> contracts) {
 		Message message = CommUtils.getExactlyOneEntry(messages);
 		Contract contract = CommUtils.getExactlyOneEntry(contracts);
-		AwardData award = message.getDataItemOfType(AwardData.class);
-		double payoutInEUR = award.supplyEnergyInMWH * award.powerPriceInEURperMWH;
-		fulfilNext(contract, new AmountAtTime(award.beginOfDeliveryInterval, payoutInEUR));
+		for (AwardData award : readAwards(message)) {
+			double payoutInEUR = award.supplyEnergyInMWH * award.powerPriceInEURperMWH;
+			fulfilNext(contract, new AmountAtTime(award.beginOfDeliveryInterval, payoutInEUR));
+		}
 	}
 }
\ No newline at end of file
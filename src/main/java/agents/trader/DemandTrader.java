@@ -108,7 +108,10 @@ public class DemandTrader extends Trader {
 	/** Writes out the total awarded demand */
 	private void evaluateAwardedDemandBids(ArrayList<Message> input, List<Contract> contracts) {
 		Message message = CommUtils.getExactlyOneEntry(input);
-		double awardedPower = message.getDataItemOfType(AwardData.class).demandEnergyInMWH;
+		double awardedPower = 0;
+		for (AwardData award : readAwards(message)) {
+			awardedPower += award.demandEnergyInMWH;
+		}
 		store(OutputColumns.AwardedEnergyInMWH, awardedPower);
 	}
 }
\ No newline at end of file
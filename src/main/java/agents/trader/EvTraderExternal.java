@@ -33,6 +33,7 @@ import de.dlr.gitlab.fame.data.TimeSeries;
 import de.dlr.gitlab.fame.service.output.Output;
 import de.dlr.gitlab.fame.time.TimePeriod;
 import de.dlr.gitlab.fame.time.TimeStamp;
+import util.ResponseCache;
 
 /** Sells and buys energy utilising a fleet of electric vehicles at the EnergyExchange. It has no own business logic, expect
  * predicting the optimised load via connected machine-learning model.
@@ -47,6 +48,7 @@ public class EvTraderExternal extends FlexibilityTrader {
 					Make.newSeries("AggregatedAvailableChargingPowerInMW"),
 					Make.newSeries("AggregatedElectricConsumptionInMWH"))
 			.addAs("PredictionWindows", EvBiddingStrategist.parameters)
+			.addAs("ResponseCache", ResponseCache.parameters)
 			.buildTree();
 
 	@Output
@@ -64,6 +66,7 @@ public class EvTraderExternal extends FlexibilityTrader {
 	}
 
 	private final EvBiddingStrategist biddingStrategist;
+	private List<TimeStamp> upcomingClearingTimes = Collections.emptyList();
 
 	/** Creates a {@link EvTraderExternal}
 	 * 
@@ -78,7 +81,8 @@ public class EvTraderExternal extends FlexibilityTrader {
 		TimeSeries availableChargingPowerInMW = input.getTimeSeries("AggregatedAvailableChargingPowerInMW");
 		TimeSeries elecConsumptionInMWH = input.getTimeSeries("AggregatedElectricConsumptionInMWH");
 		biddingStrategist = new EvBiddingStrategist(urlService, modelId, forecastPeriodInHours,
-				availableChargingPowerInMW, elecConsumptionInMWH, input.getGroup("PredictionWindows"));
+				availableChargingPowerInMW, elecConsumptionInMWH, input.getGroup("PredictionWindows"),
+				ResponseCache.fromConfig(input.getOptionalGroup("ResponseCache")));
 
 		call(this::requestPriceForecast).on(DamForecastClient.Products.PriceForecastRequest)
 				.use(DayAheadMarket.Products.GateClosureInfo);
@@ -94,6 +98,7 @@ public class EvTraderExternal extends FlexibilityTrader {
 	private void requestPriceForecast(ArrayList<Message> input, List<Contract> contracts) {
 		Contract contract = CommUtils.getExactlyOneEntry(contracts);
 		ClearingTimes clearingTimes = CommUtils.getExactlyOneEntry(input).getDataItemOfType(ClearingTimes.class);
+		upcomingClearingTimes = clearingTimes.getTimes();
 		TimePeriod nextTime = new TimePeriod(clearingTimes.getTimes().get(0), Strategist.OPERATION_PERIOD);
 		ArrayList<TimeStamp> missingForecastTimes = biddingStrategist.getTimesMissingForecasts(nextTime);
 		for (TimeStamp missingForecastTime : missingForecastTimes) {
@@ -102,7 +107,7 @@ public class EvTraderExternal extends FlexibilityTrader {
 		}
 	}
 
-	/** Digests incoming price forecasts
+	/** Digests incoming price forecasts and issues requests for net load predictions at the upcoming clearing times
 	 * 
 	 * @param input one or multiple price forecast message(s)
 	 * @param contracts not used */
@@ -111,6 +116,7 @@ public class EvTraderExternal extends FlexibilityTrader {
 			AmountAtTime forecast = inputMessage.getDataItemOfType(AmountAtTime.class);
 			biddingStrategist.storeElectricityPriceForecast(forecast.validAt, forecast.amount);
 		}
+		biddingStrategist.requestNetLoadPredictions(upcomingClearingTimes);
 	}
 
 	/** Prepares and sends Bids to the contracted partner
@@ -154,11 +160,11 @@ public class EvTraderExternal extends FlexibilityTrader {
 	 * @param input award information received from {@link EnergyExchange}
 	 * @param contracts not used */
 	private void digestAwards(ArrayList<Message> input, List<Contract> contracts) {
-		Message awards = CommUtils.getExactlyOneEntry(input);
-		double awardedChargePower = awards.getDataItemOfType(AwardData.class).demandEnergyInMWH;
-		double awardedDischargePower = awards.getDataItemOfType(AwardData.class).supplyEnergyInMWH;
+		AwardData award = readSingleAward(CommUtils.getExactlyOneEntry(input));
+		double awardedChargePower = award.demandEnergyInMWH;
+		double awardedDischargePower = award.supplyEnergyInMWH;
 		double externalPowerDelta = awardedChargePower - awardedDischargePower;
-		double powerPrice = awards.getDataItemOfType(AwardData.class).powerPriceInEURperMWH;
+		double powerPrice = award.powerPriceInEURperMWH;
 		double revenues = powerPrice * awardedDischargePower;
 		double costs = powerPrice * awardedChargePower;
 
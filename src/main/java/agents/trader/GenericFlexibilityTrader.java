@@ -3,6 +3,7 @@
 // SPDX-License-Identifier: Apache-2.0
 package agents.trader;
 
+import static util.ActionProfiler.profile;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -53,12 +54,16 @@ public class GenericFlexibilityTrader extends Trader implements SensitivityForec
 	static final String GROUP_ASSESSMENT = "Assessment";
 	static final String GROUP_STATES = "StateDiscretisation";
 	static final String GROUP_BIDS = "Bidding";
+	static final String PARAM_PARALLELISM = "PlanningParallelism";
+	static final int DEFAULT_PARALLELISM = 1;
 
 	@Input private static final Tree parameters = Make.newTree()
 			.addAs(GROUP_DEVICE, GenericDevice.parameters)
 			.addAs(GROUP_ASSESSMENT, AssessmentFunctionBuilder.parameters)
 			.addAs(GROUP_STATES, StateManagerBuilder.parameters)
 			.addAs(GROUP_BIDS, BidSchedulerBuilder.parameters)
+			.add(Make.newInt(PARAM_PARALLELISM).optional()
+					.help("Number of threads used to assess the states of a planning period (default: 1, i.e. sequentially)"))
 			.buildTree();
 
 	/** Output columns of {@link GenericFlexibilityTrader}s */
@@ -92,15 +97,20 @@ public class GenericFlexibilityTrader extends Trader implements SensitivityForec
 		assessmentFunction = AssessmentFunctionBuilder.build(input.getGroup(GROUP_ASSESSMENT), device);
 		stateManager = StateManagerBuilder.build(device, assessmentFunction, input.getGroup(GROUP_STATES));
 		var bidScheduler = BidSchedulerBuilder.build(input.getGroup(GROUP_BIDS));
-		strategist = new Optimiser(stateManager, bidScheduler, assessmentFunction.getTargetType());
-
-		call(this::registerAtForecaster).on(SensitivityForecastClient.Products.ForecastRegistration);
-		call(this::requestElectricityForecast).on(SensitivityForecastClient.Products.SensitivityRequest)
-				.use(DayAheadMarket.Products.GateClosureInfo);
-		call(this::updateForecast).onAndUse(SensitivityForecastProvider.Products.SensitivityForecast);
-		call(this::prepareBids).on(DayAheadMarketTrader.Products.Bids).use(DayAheadMarket.Products.GateClosureInfo);
-		call(this::digestAwards).onAndUse(DayAheadMarket.Products.Awards);
-		call(this::sendAward).on(SensitivityForecastClient.Products.NetAward).use(DayAheadMarket.Products.Awards);
+		int parallelism = input.getIntegerOrDefault(PARAM_PARALLELISM, DEFAULT_PARALLELISM);
+		strategist = new Optimiser(stateManager, bidScheduler, assessmentFunction.getTargetType(), parallelism);
+
+		call(profile(this, SensitivityForecastClient.Products.ForecastRegistration, this::registerAtForecaster))
+				.on(SensitivityForecastClient.Products.ForecastRegistration);
+		call(profile(this, SensitivityForecastClient.Products.SensitivityRequest, this::requestElectricityForecast))
+				.on(SensitivityForecastClient.Products.SensitivityRequest).use(DayAheadMarket.Products.GateClosureInfo);
+		call(profile(this, SensitivityForecastProvider.Products.SensitivityForecast, this::updateForecast))
+				.onAndUse(SensitivityForecastProvider.Products.SensitivityForecast);
+		call(profile(this, DayAheadMarketTrader.Products.Bids, this::prepareBids))
+				.on(DayAheadMarketTrader.Products.Bids).use(DayAheadMarket.Products.GateClosureInfo);
+		call(profile(this, DayAheadMarket.Products.Awards, this::digestAwards)).onAndUse(DayAheadMarket.Products.Awards);
+		call(profile(this, SensitivityForecastClient.Products.NetAward, this::sendAward))
+				.on(SensitivityForecastClient.Products.NetAward).use(DayAheadMarket.Products.Awards);
 	}
 
 	/** Send registration information to {@link SensitivityForecastProvider}
@@ -208,7 +218,7 @@ public class GenericFlexibilityTrader extends Trader implements SensitivityForec
 	 * @param input award information received from {@link DayAheadMarket}
 	 * @param contracts not used */
 	private void digestAwards(ArrayList<Message> input, List<Contract> contracts) {
-		AwardData awards = CommUtils.getExactlyOneEntry(input).getDataItemOfType(AwardData.class);
+		AwardData awards = readSingleAward(CommUtils.getExactlyOneEntry(input));
 		double awardedChargeEnergyInMWH = awards.demandEnergyInMWH;
 		double awardedDischargeEnergyInMWH = awards.supplyEnergyInMWH;
 		double externalEnergyDeltaInMWH = awardedChargeEnergyInMWH - awardedDischargeEnergyInMWH;
@@ -234,7 +244,7 @@ public class GenericFlexibilityTrader extends Trader implements SensitivityForec
 	 * @param input award information received from {@link DayAheadMarket}
 	 * @param contracts single contract with {@link SensitivityForecastProvider} */
 	private void sendAward(ArrayList<Message> input, List<Contract> contracts) {
-		AwardData awards = CommUtils.getExactlyOneEntry(input).getDataItemOfType(AwardData.class);
+		AwardData awards = readSingleAward(CommUtils.getExactlyOneEntry(input));
 		Contract contract = CommUtils.getExactlyOneEntry(contracts);
 		double effectiveSupplyPower = awards.supplyEnergyInMWH - awards.demandEnergyInMWH;
 		fulfilNext(contract, new AmountAtTime(awards.beginOfDeliveryInterval, effectiveSupplyPower));
@@ -203,9 +203,9 @@ public class HeatPumpTrader extends FlexibilityTrader {
 	 * @param input award information received from {@link DayAheadMarket}
 	 * @param contracts not used */
 	private void digestAwards(ArrayList<Message> input, List<Contract> contracts) {
-		Message awards = CommUtils.getExactlyOneEntry(input);
-		double awardedPower = awards.getDataItemOfType(AwardData.class).demandEnergyInMWH;
-		double powerPrice = awards.getDataItemOfType(AwardData.class).powerPriceInEURperMWH;
+		AwardData award = readSingleAward(CommUtils.getExactlyOneEntry(input));
+		double awardedPower = award.demandEnergyInMWH;
+		double powerPrice = award.powerPriceInEURperMWH;
 		TimePeriod currentTimeSegment = new TimePeriod(now().earlierByOne(), operationPeriod);
 		updateBuilding(awardedPower, currentTimeSegment);
 		double costs = powerPrice * awardedPower;
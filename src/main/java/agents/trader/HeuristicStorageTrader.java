@@ -188,7 +188,7 @@ public class HeuristicStorageTrader extends Trader implements SensitivityForecas
 	 * @param input award information received from {@link DayAheadMarket}
 	 * @param contracts not used */
 	private void digestAwards(ArrayList<Message> input, List<Contract> contracts) {
-		AwardData awards = CommUtils.getExactlyOneEntry(input).getDataItemOfType(AwardData.class);
+		AwardData awards = readSingleAward(CommUtils.getExactlyOneEntry(input));
 		double awardedChargeEnergyInMWH = awards.demandEnergyInMWH;
 		double awardedDischargeEnergyInMWH = awards.supplyEnergyInMWH;
 		double externalEnergyDeltaInMWH = awardedChargeEnergyInMWH - awardedDischargeEnergyInMWH;
@@ -211,7 +211,7 @@ public class HeuristicStorageTrader extends Trader implements SensitivityForecas
 	 * @param input award information received from {@link DayAheadMarket}
 	 * @param contracts single contract with {@link SensitivityForecastProvider} */
 	private void sendAward(ArrayList<Message> input, List<Contract> contracts) {
-		AwardData awards = CommUtils.getExactlyOneEntry(input).getDataItemOfType(AwardData.class);
+		AwardData awards = readSingleAward(CommUtils.getExactlyOneEntry(input));
 		Contract contract = CommUtils.getExactlyOneEntry(contracts);
 		double effectiveSupplyPower = awards.supplyEnergyInMWH - awards.demandEnergyInMWH;
 		fulfilNext(contract, new AmountAtTime(awards.beginOfDeliveryInterval, effectiveSupplyPower));
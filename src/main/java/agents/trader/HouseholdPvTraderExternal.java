@@ -35,6 +35,7 @@ import de.dlr.gitlab.fame.service.output.Output;
 import de.dlr.gitlab.fame.time.TimePeriod;
 import de.dlr.gitlab.fame.time.TimeStamp;
 import endUser.EndUserTariff;
+import util.ResponseCache;
 
 /** This agent sells and buys electricity at the EnergyExchange. It models the aggregated behaviours of a cluster of households
  * with PV and battery storage. The actual agent behaviour is not calculated but rather predicted via requesting a pre-trained ML
@@ -53,6 +54,7 @@ public class HouseholdPvTraderExternal extends FlexibilityTrader {
 			.addAs("Device", Device.parameters.buildTree())
 			.addAs("Policy", EndUserTariff.policyParameters.buildTree())
 			.addAs("BusinessModel", EndUserTariff.businessModelParameters)
+			.addAs("ResponseCache", ResponseCache.parameters)
 			.buildTree();
 
 	@Output
@@ -64,6 +66,7 @@ public class HouseholdPvTraderExternal extends FlexibilityTrader {
 	}
 
 	private PvBiddingStrategist biddingStrategist;
+	private List<TimeStamp> upcomingClearingTimes = Collections.emptyList();
 	private EndUserTariff tariffStrategist;
 
 	/** Creates a {@link HouseholdPvTraderExternal} based on given input parameters
@@ -81,7 +84,8 @@ public class HouseholdPvTraderExternal extends FlexibilityTrader {
 		int forecastPeriodInHours = input.getInteger("ForecastPeriodInHours");
 		Device storage = new Device(input.getGroup("Device"));
 		biddingStrategist = new PvBiddingStrategist(serviceURL, modelId, installedGenerationPowerInMW, tsLoadInMW,
-				tsGenerationProfile, storage, forecastPeriodInHours, input.getGroup("PredictionWindows"));
+				tsGenerationProfile, storage, forecastPeriodInHours, input.getGroup("PredictionWindows"),
+				ResponseCache.fromConfig(input.getOptionalGroup("ResponseCache")));
 		tariffStrategist = new EndUserTariff(input.getGroup("Policy"), input.getGroup("BusinessModel"));
 
 		call(this::requestPriceForecast).on(DamForecastClient.Products.PriceForecastRequest)
@@ -98,6 +102,7 @@ public class HouseholdPvTraderExternal extends FlexibilityTrader {
 	private void requestPriceForecast(ArrayList<Message> input, List<Contract> contracts) {
 		Contract contract = CommUtils.getExactlyOneEntry(contracts);
 		ClearingTimes clearingTimes = CommUtils.getExactlyOneEntry(input).getDataItemOfType(ClearingTimes.class);
+		upcomingClearingTimes = clearingTimes.getTimes();
 		TimePeriod nextTime = new TimePeriod(clearingTimes.getTimes().get(0), Strategist.OPERATION_PERIOD);
 		ArrayList<TimeStamp> missingForecastTimes = biddingStrategist.getTimesMissingForecasts(nextTime);
 		for (TimeStamp missingForecastTime : missingForecastTimes) {
@@ -106,7 +111,7 @@ public class HouseholdPvTraderExternal extends FlexibilityTrader {
 		}
 	}
 
-	/** Digests incoming price forecasts
+	/** Digests incoming price forecasts and issues requests for net load predictions at the upcoming clearing times
 	 * 
 	 * @param input one or multiple price forecast message(s)
 	 * @param contracts not used */
@@ -116,6 +121,7 @@ public class HouseholdPvTraderExternal extends FlexibilityTrader {
 			biddingStrategist.storeElectricityPriceForecast(forecast.validAt,
 					tariffStrategist.calcSalePriceInEURperMWH(forecast.amount, forecast.validAt));
 		}
+		biddingStrategist.requestNetLoadPredictions(upcomingClearingTimes);
 	}
 
 	/** Prepares and sends Bids to the contracted partner
@@ -158,7 +164,7 @@ public class HouseholdPvTraderExternal extends FlexibilityTrader {
 	 * @param contracts not used */
 	private void digestAwards(ArrayList<Message> input, List<Contract> contracts) {
 		Message awards = CommUtils.getExactlyOneEntry(input);
-		AwardData awardData = awards.getDataItemOfType(AwardData.class);
+		AwardData awardData = readSingleAward(awards);
 		biddingStrategist.updateStorage(awardData);
 		biddingStrategist.updateLoadHistory(awardData);
 
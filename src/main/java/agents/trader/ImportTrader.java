@@ -106,7 +106,10 @@ public class ImportTrader extends Trader {
 	/** Writes out the total awarded supply */
 	private void evaluateAwardedSupplyBids(ArrayList<Message> input, List<Contract> contracts) {
 		Message message = CommUtils.getExactlyOneEntry(input);
-		double awardedPower = message.getDataItemOfType(AwardData.class).supplyEnergyInMWH;
+		double awardedPower = 0;
+		for (AwardData award : readAwards(message)) {
+			awardedPower += award.supplyEnergyInMWH;
+		}
 		store(OutputColumns.AwardedEnergyInMWH, awardedPower);
 	}
 }
@@ -124,7 +124,7 @@ public class LoadShiftingTrader extends FlexibilityTrader {
 	}
 
 	private void digestAwards(ArrayList<Message> input, List<Contract> contracts) {
-		AwardData award = CommUtils.getExactlyOneEntry(input).getDataItemOfType(AwardData.class);
+		AwardData award = readSingleAward(CommUtils.getExactlyOneEntry(input));
 		double awardedChargePower = award.demandEnergyInMWH;
 		double awardedDischargePower = award.supplyEnergyInMWH;
 		double powerDelta = awardedChargePower - awardedDischargePower;
@@ -41,6 +41,9 @@ public class StorageTrader extends FlexibilityTrader {
 	@Input private static final Tree parameters = Make.newTree().addAs("Device", Device.parameters.buildTree())
 			.addAs("Strategy", ArbitrageStrategist.parameters).buildTree();
 
+	static final String ERR_SCHEDULE_TOO_SHORT = ": created schedule does not reach the last clearing time of its gate closure "
+			+ "- increase ScheduleDurationInHours or reduce ClearingTimesPerGateClosure: ";
+
 	@Output
 	private static enum OutputFields {
 		OfferedChargePriceInEURperMWH, OfferedDischargePriceInEURperMWH, AwardedChargeEnergyInMWH,
@@ -95,7 +98,8 @@ public class StorageTrader extends FlexibilityTrader {
 		}
 	}
 
-	/** Prepares and sends Bids to the contracted partner
+	/** Prepares and sends Bids to the contracted partner for each clearing time; offered prices are written to output only if a
+	 * single clearing time is given
 	 * 
 	 * @param input one ClearingTimes message
 	 * @param contracts one partner */
@@ -103,24 +107,38 @@ public class StorageTrader extends FlexibilityTrader {
 		Contract contractToFulfil = CommUtils.getExactlyOneEntry(contracts);
 		ClearingTimes clearingTimes = CommUtils.getExactlyOneEntry(input).getDataItemOfType(ClearingTimes.class);
 		List<TimeStamp> targetTimes = clearingTimes.getTimes();
+		excuteBeforeBidPreparation(targetTimes.get(0), targetTimes.get(targetTimes.size() - 1));
+		double offeredEnergyInMWH = 0;
 		for (TimeStamp targetTime : targetTimes) {
-			excuteBeforeBidPreparation(targetTime);
 			Bid demandBid = prepareHourlyDemandBids(targetTime);
 			Bid supplyBid = prepareHourlySupplyBids(targetTime);
-			store(OutputColumns.OfferedEnergyInMWH, supplyBid.getEnergyAmountInMWH() - demandBid.getEnergyAmountInMWH());
+			offeredEnergyInMWH += supplyBid.getEnergyAmountInMWH() - demandBid.getEnergyAmountInMWH();
 			fulfilNext(contractToFulfil,
 					new BidsAtTime(targetTime, getId(), Arrays.asList(supplyBid), Arrays.asList(demandBid)));
 		}
+		store(OutputColumns.OfferedEnergyInMWH, offeredEnergyInMWH);
+		if (targetTimes.size() == 1) {
+			double price = schedule.getScheduledBidInHourInEURperMWH(targetTimes.get(0));
+			store(OutputFields.OfferedChargePriceInEURperMWH, price);
+			store(OutputFields.OfferedDischargePriceInEURperMWH, price);
+		}
 	}
 
-	/** Clears past sensitivities and creates new schedule based on current energy storage level
+	/** Clears past sensitivities and creates new schedule based on current energy storage level, unless the current schedule
+	 * matches the current energy storage level at the first target time and also covers the last target time
 	 * 
-	 * @param targetTime TimeStamp of bid to prepare */
-	private void excuteBeforeBidPreparation(TimeStamp targetTime) {
-		if (schedule == null || !schedule.isApplicable(targetTime, storage.getCurrentEnergyInStorageInMWH())) {
+	 * @param firstTargetTime TimeStamp of first bid to prepare
+	 * @param lastTargetTime TimeStamp of last bid to prepare
+	 * @throws RuntimeException if the created schedule does not cover the last target time */
+	private void excuteBeforeBidPreparation(TimeStamp firstTargetTime, TimeStamp lastTargetTime) {
+		if (schedule == null || !schedule.isApplicable(firstTargetTime, storage.getCurrentEnergyInStorageInMWH())
+				|| !schedule.coversTime(lastTargetTime)) {
 			strategist.clearSensitivitiesBefore(now());
-			TimePeriod targetTimeSegment = new TimePeriod(targetTime, Strategist.OPERATION_PERIOD);
+			TimePeriod targetTimeSegment = new TimePeriod(firstTargetTime, Strategist.OPERATION_PERIOD);
 			schedule = strategist.createSchedule(targetTimeSegment);
+			if (!schedule.coversTime(lastTargetTime)) {
+				throw new RuntimeException(this + ERR_SCHEDULE_TOO_SHORT + lastTargetTime);
+			}
 		}
 	}
 
@@ -131,9 +149,7 @@ public class StorageTrader extends FlexibilityTrader {
 	private Bid prepareHourlyDemandBids(TimeStamp requestedTime) {
 		double demandPower = schedule.getScheduledEnergyPurchaseInMWH(requestedTime);
 		double price = schedule.getScheduledBidInHourInEURperMWH(requestedTime);
-		Bid demandBid = new Bid(demandPower, price, Double.NaN);
-		store(OutputFields.OfferedChargePriceInEURperMWH, price);
-		return demandBid;
+		return new Bid(demandPower, price, Double.NaN);
 	}
 
 	/** Prepares hourly supply bid
@@ -143,24 +159,29 @@ public class StorageTrader extends FlexibilityTrader {
 	private Bid prepareHourlySupplyBids(TimeStamp requestedTime) {
 		double supplyPower = schedule.getScheduledEnergySalesInMWH(requestedTime);
 		double price = schedule.getScheduledBidInHourInEURperMWH(requestedTime);
-		Bid supplyBid = new Bid(supplyPower, price, Double.NaN);
-		store(OutputFields.OfferedDischargePriceInEURperMWH, price);
-		return supplyBid;
+		return new Bid(supplyPower, price, Double.NaN);
 	}
 
-	/** Digests award information from {@link DayAheadMarket} and writes out award data
+	/** Digests award information from {@link DayAheadMarket} in order of delivery and writes out award data summed over all
+	 * awarded delivery times, and the energy stored after the last of them
 	 * 
 	 * @param input award information received from {@link DayAheadMarket}
 	 * @param contracts not used */
 	private void digestAwards(ArrayList<Message> input, List<Contract> contracts) {
-		Message awards = CommUtils.getExactlyOneEntry(input);
-		double awardedChargePower = awards.getDataItemOfType(AwardData.class).demandEnergyInMWH;
-		double awardedDischargePower = awards.getDataItemOfType(AwardData.class).supplyEnergyInMWH;
-		double externalPowerDelta = awardedChargePower - awardedDischargePower;
-		double powerPrice = awards.getDataItemOfType(AwardData.class).powerPriceInEURperMWH;
-		double revenues = powerPrice * awardedDischargePower;
-		double costs = powerPrice * awardedChargePower;
-		storage.chargeInMW(externalPowerDelta);
+		double awardedChargePower = 0;
+		double awardedDischargePower = 0;
+		double externalPowerDelta = 0;
+		double revenues = 0;
+		double costs = 0;
+		for (AwardData award : readAwards(CommUtils.getExactlyOneEntry(input))) {
+			double powerDelta = award.demandEnergyInMWH - award.supplyEnergyInMWH;
+			storage.chargeInMW(powerDelta);
+			awardedChargePower += award.demandEnergyInMWH;
+			awardedDischargePower += award.supplyEnergyInMWH;
+			externalPowerDelta += powerDelta;
+			revenues += award.powerPriceInEURperMWH * award.supplyEnergyInMWH;
+			costs += award.powerPriceInEURperMWH * award.demandEnergyInMWH;
+		}
 
 		store(OutputFields.AwardedDischargeEnergyInMWH, awardedDischargePower);
 		store(OutputFields.AwardedChargeEnergyInMWH, awardedChargePower);
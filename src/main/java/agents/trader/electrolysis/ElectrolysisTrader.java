@@ -192,7 +192,7 @@ public class ElectrolysisTrader extends FlexibilityTrader
 	 * @param contracts none */
 	protected void digestAwards(ArrayList<Message> messages, List<Contract> contracts) {
 		Message awardMessage = CommUtils.getExactlyOneEntry(messages);
-		AwardData award = awardMessage.getDataItemOfType(AwardData.class);
+		AwardData award = readSingleAward(awardMessage);
 
 		double awardedEnergyInMWH = award.demandEnergyInMWH;
 		double costs = award.powerPriceInEURperMWH * awardedEnergyInMWH;
@@ -229,7 +229,7 @@ public class GreenHydrogenTrader extends Trader
 	 * @param contracts one contract with one renewable power plant operator */
 	private void digestAwards(ArrayList<Message> messages, List<Contract> contracts) {
 		Contract contract = CommUtils.getExactlyOneEntry(contracts);
-		AwardData award = CommUtils.getExactlyOneEntry(messages).getDataItemOfType(AwardData.class);
+		AwardData award = readSingleAward(CommUtils.getExactlyOneEntry(messages));
 		lastClearingTime = award.beginOfDeliveryInterval;
 
 		double unsoldElectricityInMWH = lastYieldPotentialInMWH - award.supplyEnergyInMWH;
@@ -132,7 +132,7 @@ public class GreenHydrogenTraderMonthly extends ElectrolysisTrader implements Gr
 	@Override
 	protected void digestAwards(ArrayList<Message> messages, List<Contract> contracts) {
 		Message awardMessage = CommUtils.getExactlyOneEntry(messages);
-		AwardData award = awardMessage.getDataItemOfType(AwardData.class);
+		AwardData award = readSingleAward(awardMessage);
 		lastClearingTime = award.beginOfDeliveryInterval;
 
 		double netAwardedEnergyInMWH = award.demandEnergyInMWH - award.supplyEnergyInMWH;
@@ -264,17 +264,21 @@ public abstract class AggregatorTrader extends TraderWithClients implements Powe
 	 * @return created bid */
 	protected abstract Bid calcBids(Marginal marginal, TimeStamp targetTime, long producerUuid);
 
-	/** Sends supply {@link Bid}s to {@link DayAheadMarket}
+	/** Sends supply {@link Bid}s to {@link DayAheadMarket} for each delivery time
 	 * 
 	 * @param messages marginal cost to process - typically from {@link RenewablePlantOperator}
 	 * @param contracts one {@link DayAheadMarket} to send bids to */
 	private void prepareBids(ArrayList<Message> messages, List<Contract> contracts) {
 		Contract contract = CommUtils.getExactlyOneEntry(contracts);
-		ArrayList<MarginalsAtTime> marginals = extractMarginalsAtTime(messages);
-		if (marginals.size() > 0) {
-			submitHourlyBids(contract, marginals);
-			storeYieldPotentials(marginals);
-			storeOfferedEnergy(preparedBidsByTime.get(marginals.get(0).getDeliveryTime()));
+		TreeMap<TimeStamp, ArrayList<MarginalsAtTime>> marginalsByTimeStamp = sortMarginalsByTimeStamp(messages);
+		if (marginalsByTimeStamp.size() > 0) {
+			double offeredEnergy = 0;
+			for (Entry<TimeStamp, ArrayList<MarginalsAtTime>> entry : marginalsByTimeStamp.entrySet()) {
+				submitHourlyBids(contract, entry.getValue());
+				storeYieldPotentials(entry.getValue());
+				offeredEnergy += calcOfferedEnergy(preparedBidsByTime.get(entry.getKey()));
+			}
+			store(DayAheadMarketTrader.OutputColumns.OfferedEnergyInMWH, offeredEnergy);
 		}
 	}
 
@@ -296,10 +300,9 @@ public abstract class AggregatorTrader extends TraderWithClients implements Powe
 		}
 	}
 
-	/** Store the amount of energy offered */
-	private void storeOfferedEnergy(List<ProducerBid> submittedBids) {
-		double offeredEnergy = submittedBids.stream().mapToDouble(i -> i.bid.getEnergyAmountInMWH()).sum();
-		store(DayAheadMarketTrader.OutputColumns.OfferedEnergyInMWH, offeredEnergy);
+	/** @return the amount of energy offered with given bids */
+	private double calcOfferedEnergy(List<ProducerBid> submittedBids) {
+		return submittedBids.stream().mapToDouble(i -> i.bid.getEnergyAmountInMWH()).sum();
 	}
 
 	/** Forward yield potential information from clients
@@ -321,12 +324,26 @@ public abstract class AggregatorTrader extends TraderWithClients implements Powe
 	/** Determine capacity to be dispatched based on {@link AwardData} from {@link DayAheadMarket}; dispatch is assigned in
 	 * ascending order of bid prices, thus accounting for marginal cost + expected policy payments
 	 * 
-	 * @param messages single award message from {@link DayAheadMarket}
+	 * @param messages single award message from {@link DayAheadMarket} for one or several delivery times
 	 * @param contracts clients (typically {@link RenewablePlantOperator}s) to receive their dispatch assignment */
 	private void assignDispatch(ArrayList<Message> messages, List<Contract> contracts) {
 		Message message = CommUtils.getExactlyOneEntry(messages);
-		AwardData award = message.getDataItemOfType(AwardData.class);
-		store(DayAheadMarketTrader.OutputColumns.AwardedEnergyInMWH, award.supplyEnergyInMWH);
+		double awardedEnergyInMWH = 0;
+		double actualProductionPotentialInMWH = 0;
+		for (AwardData award : readAwards(message)) {
+			awardedEnergyInMWH += award.supplyEnergyInMWH;
+			actualProductionPotentialInMWH += assignDispatchAtTime(award, contracts);
+		}
+		store(DayAheadMarketTrader.OutputColumns.AwardedEnergyInMWH, awardedEnergyInMWH);
+		store(OutputColumns.TrueGenerationPotentialInMWH, actualProductionPotentialInMWH);
+	}
+
+	/** Assigns dispatch of a single award to clients
+	 * 
+	 * @param award for a single delivery time
+	 * @param contracts clients to receive their dispatch assignment
+	 * @return actual production potential of all clients at the award's delivery time */
+	private double assignDispatchAtTime(AwardData award, List<Contract> contracts) {
 		double energyToDispatch = award.supplyEnergyInMWH;
 		List<ProducerBid> submittedBids = preparedBidsByTime.remove(award.beginOfDeliveryInterval);
 		submittedBids.sort(Comparator.comparingDouble(ProducerBid::getOfferPrice));
@@ -347,7 +364,7 @@ public abstract class AggregatorTrader extends TraderWithClients implements Powe
 			}
 		}
 		powerPrices.put(award.beginOfDeliveryInterval, award.powerPriceInEURperMWH);
-		store(OutputColumns.TrueGenerationPotentialInMWH, actualProductionPotentialInMWH);
+		return actualProductionPotentialInMWH;
 	}
 
 	/** Return given bids in offer-price bins - bids with similar offer price are mapped to the same bin
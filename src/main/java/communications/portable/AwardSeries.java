@@ -0,0 +1,73 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package communications.portable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import communications.message.AwardData;
+import de.dlr.gitlab.fame.communication.message.Message;
+import de.dlr.gitlab.fame.communication.transfer.ComponentCollector;
+import de.dlr.gitlab.fame.communication.transfer.ComponentProvider;
+import de.dlr.gitlab.fame.communication.transfer.Portable;
+import de.dlr.gitlab.fame.time.TimeStamp;
+
+/** Award information of several delivery intervals cleared at the same gate closure, returned as one message */
+public class AwardSeries implements Portable {
+	static final String ERR_NO_AWARDS = "AwardSeries must contain at least one award but is empty!";
+	private List<AwardData> awards;
+
+	/** required for {@link Portable}s */
+	public AwardSeries() {}
+
+	/** Creates new instance
+	 *
+	 * @param awards one {@link AwardData} per cleared delivery interval, in order of their delivery
+	 * @throws RuntimeException if no award is provided */
+	public AwardSeries(List<AwardData> awards) {
+		if (awards.isEmpty()) {
+			throw new RuntimeException(ERR_NO_AWARDS);
+		}
+		this.awards = new ArrayList<>(awards);
+	}
+
+	@Override
+	public void addComponentsTo(ComponentCollector collector) {
+		collector.storeInts(awards.size());
+		for (AwardData award : awards) {
+			collector.storeDoubles(award.demandEnergyInMWH, award.supplyEnergyInMWH, award.powerPriceInEURperMWH);
+			collector.storeComponents(award.beginOfDeliveryInterval);
+		}
+	}
+
+	@Override
+	public void populate(ComponentProvider provider) {
+		int awardCount = provider.nextInt();
+		awards = new ArrayList<>(awardCount);
+		for (int i = 0; i < awardCount; i++) {
+			double demandEnergyInMWH = provider.nextDouble();
+			double supplyEnergyInMWH = provider.nextDouble();
+			double powerPriceInEURperMWH = provider.nextDouble();
+			TimeStamp beginOfDeliveryInterval = provider.nextComponent(TimeStamp.class);
+			awards.add(new AwardData(supplyEnergyInMWH, demandEnergyInMWH, powerPriceInEURperMWH, beginOfDeliveryInterval));
+		}
+	}
+
+	/** Reads all awards from given message - either a single {@link AwardData} or all awards of an {@link AwardSeries}
+	 *
+	 * @param message to be read
+	 * @return awards in order of their delivery interval */
+	public static List<AwardData> readAwardsFrom(Message message) {
+		AwardSeries awardSeries = message.getFirstPortableItemOfType(AwardSeries.class);
+		if (awardSeries != null) {
+			return awardSeries.getAwards();
+		}
+		return List.of(message.getDataItemOfType(AwardData.class));
+	}
+
+	/** @return unmodifiable list of awards, one per cleared delivery interval */
+	public List<AwardData> getAwards() {
+		return Collections.unmodifiableList(awards);
+	}
+}
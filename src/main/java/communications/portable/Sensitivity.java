@@ -4,12 +4,14 @@
 package communications.portable;
 
 import agents.forecast.sensitivity.MarketClearingAssessment;
+import communications.portable.SensitivityCurves.SegmentCursor;
 import de.dlr.gitlab.fame.communication.transfer.ComponentCollector;
 import de.dlr.gitlab.fame.communication.transfer.ComponentProvider;
 import de.dlr.gitlab.fame.communication.transfer.Portable;
 
 /** A Message that contains the sensitivity of a merit order forecast depending on additional demand or supply. The type of
- * sensitivity is unspecified here and should be known to the client.
+ * sensitivity is unspecified here and should be known to the client. The curves are held in immutable {@link SensitivityCurves}
+ * that may be shared among many {@link Sensitivity} objects, each only adding a client-specific multiplier.
  * 
  * @author Johannes Kochems, Christoph Schimeczek */
 public class Sensitivity implements Portable {
@@ -27,16 +29,7 @@ public class Sensitivity implements Portable {
 	}
 
 	private double multiplier;
-	private double[] demandPowers;
-	private double[] demandValues;
-	private double[] supplyPowers;
-	private double[] supplyValues;
-
-	private int lastDemandIndex = 1;
-	private int lastSupplyIndex = 1;
-	private double lastDemandEnergy = 0.;
-	private double lastSupplyEnergy = 0.;
-
+	private SensitivityCurves curves;
 	private InterpolationType interpolationType;
 
 	/** required for {@link Portable}s */
@@ -47,10 +40,15 @@ public class Sensitivity implements Portable {
 	 * @param assessment to extract demand and supply change sensitivities from
 	 * @param multiplier associated with the client to received this {@link Sensitivity} */
 	public Sensitivity(MarketClearingAssessment assessment, double multiplier) {
-		this.demandPowers = assessment.getDemandSensitivityPowers();
-		this.demandValues = assessment.getDemandSensitivityValues();
-		this.supplyPowers = assessment.getSupplySensitivityPowers();
-		this.supplyValues = assessment.getSupplySensitivityValues();
+		this(assessment.toCurves(), multiplier);
+	}
+
+	/** Instantiates a new Sensitivity as view on shared curves
+	 * 
+	 * @param curves shared demand and supply change sensitivities - not copied
+	 * @param multiplier associated with the client to received this {@link Sensitivity} */
+	public Sensitivity(SensitivityCurves curves, double multiplier) {
+		this.curves = curves;
 		this.multiplier = multiplier;
 	}
 
@@ -66,10 +64,6 @@ public class Sensitivity implements Portable {
 	 * @param multiplier to be applied in future calls to {@link #getValue(double)} */
 	public void updateMultiplier(double multiplier) {
 		this.multiplier = multiplier;
-		lastDemandIndex = 1;
-		lastSupplyIndex = 1;
-		lastDemandEnergy = 0;
-		lastSupplyEnergy = 0;
 	}
 
 	/** Set the type of interpolation to be used during value calculations
@@ -93,81 +87,42 @@ public class Sensitivity implements Portable {
 		return 0;
 	}
 
-	/** @return value associated with the additional demand energy */
-	private double getValueAddedDemand(double additionalDemandInMWH) {
-		int firstIndex = additionalDemandInMWH >= lastDemandEnergy ? lastDemandIndex : 1;
-		for (int index = firstIndex; index < demandPowers.length; index++) {
-			if (demandPowers[index] >= additionalDemandInMWH) {
-				lastDemandEnergy = additionalDemandInMWH;
-				lastDemandIndex = index;
-				return interpolateValue(demandPowers[index - 1], demandValues[index - 1], demandPowers[index],
-						demandValues[index], additionalDemandInMWH);
-			}
+	/** Returns the same sensitivity value as {@link #getValue(double)}, but faster for a sequence of requested energy deltas in
+	 * ascending or descending order
+	 * 
+	 * @param requestedEnergyInMWH demand &gt; 0; supply &lt; 0
+	 * @param cursor remembers the curve segments of previous requests - updated here; must not be shared between threads
+	 * @return sensitivity value */
+	public double getValue(double requestedEnergyInMWH, SegmentCursor cursor) {
+		double modifiedEnergy = multiplier * requestedEnergyInMWH;
+		if (modifiedEnergy > 0) {
+			return curves.getValueAddedDemand(modifiedEnergy, interpolationType, cursor) / Math.abs(multiplier);
+		} else if (modifiedEnergy < 0) {
+			return curves.getValueAddedSupply(-modifiedEnergy, interpolationType, cursor) / Math.abs(multiplier);
 		}
-		return Double.NaN;
+		return 0;
 	}
 
-	/** @return y-value interpolated for given position x on a line determined by (x1,y1) and (x2,y2) */
-	private double interpolateValue(double x1, double y1, double x2, double y2, double x) {
-		if (interpolationType == null) {
-			throw new RuntimeException(ERR_INTERPOLATION_TYPE_MISSING + interpolationType);
-		}
-		switch (interpolationType) {
-			case CUMULATIVE:
-				return y1 + (y2 - y1) / (x2 - x1) * (x - x1);
-			case DIRECT:
-				return (y2 - y1) / (x2 - x1) * x;
-			default:
-				throw new RuntimeException(ERR_INTERPOLATION_TYPE + interpolationType);
-		}
+	/** @return value associated with the additional demand energy */
+	private double getValueAddedDemand(double additionalDemandInMWH) {
+		return curves.getValueAddedDemand(additionalDemandInMWH, interpolationType);
 	}
 
 	/** @return value associated with the additional supply energy */
 	private double getValueAddedSupply(double additionalSupplyInMWH) {
-		int firstIndex = additionalSupplyInMWH >= lastSupplyEnergy ? lastSupplyIndex : 1;
-		for (int index = firstIndex; index < supplyPowers.length; index++) {
-			if (supplyPowers[index] >= additionalSupplyInMWH) {
-				lastSupplyEnergy = additionalSupplyInMWH;
-				lastSupplyIndex = index;
-				return interpolateValue(supplyPowers[index - 1], supplyValues[index - 1], supplyPowers[index],
-						supplyValues[index], additionalSupplyInMWH);
-			}
-		}
-		return Double.NaN;
+		return curves.getValueAddedSupply(additionalSupplyInMWH, interpolationType);
 	}
 
 	@Override
 	public void addComponentsTo(ComponentCollector collector) {
 		collector.storeDoubles(multiplier);
-		storeDoubleArray(collector, demandPowers);
-		storeDoubleArray(collector, demandValues);
-		storeDoubleArray(collector, supplyPowers);
-		storeDoubleArray(collector, supplyValues);
-	}
-
-	/** Stores length of given array and array values to provided collector */
-	private final void storeDoubleArray(ComponentCollector collector, double[] data) {
-		collector.storeInts(data.length);
-		collector.storeDoubles(data);
+		curves.storeTo(collector);
 	}
 
 	@Override
 	public void populate(ComponentProvider provider) {
 		multiplier = provider.nextDouble();
-		demandPowers = readArray(provider);
-		demandValues = readArray(provider);
-		supplyPowers = readArray(provider);
-		supplyValues = readArray(provider);
-	}
-
-	/** @return array from given provider assuming it was stored using {@link #storeDoubleArray(ComponentCollector, double[])} */
-	private final double[] readArray(ComponentProvider provider) {
-		int length = provider.nextInt();
-		double[] array = new double[length];
-		for (int i = 0; i < length; i++) {
-			array[i] = provider.nextDouble();
-		}
-		return array;
+		curves = SensitivityCurves.readFrom(provider);
 	}
 
 	/** Returns price in EUR/MWh for given merit order segment at the requested energy delta
@@ -177,37 +132,17 @@ public class Sensitivity implements Portable {
 	public double getPriceInEURperMWH(double requestedEnergyInMWH) {
 		double modifiedEnergy = multiplier * requestedEnergyInMWH;
 		if (modifiedEnergy > 0) {
-			return getPriceAddedDemand(modifiedEnergy);
+			return curves.getPriceAddedDemand(modifiedEnergy);
 		} else if (modifiedEnergy < 0) {
-			return getPriceAddedSupply(-modifiedEnergy);
-		}
-		return getPriceAddedSupply(EPS);
-	}
-
-	/** @return price in EUR/MWh for given additional demand */
-	private double getPriceAddedDemand(double additionalDemandInMWH) {
-		for (int index = 1; index < demandPowers.length; index++) {
-			if (demandPowers[index] >= additionalDemandInMWH) {
-				return (demandValues[index] - demandValues[index - 1]) / (demandPowers[index] - demandPowers[index - 1]);
-			}
-		}
-		return Double.NaN;
-	}
-
-	/** @return price in EUR/MWh for given additional supply */
-	private double getPriceAddedSupply(double additionalSupplyInMWH) {
-		for (int index = 1; index < supplyPowers.length; index++) {
-			if (supplyPowers[index] >= additionalSupplyInMWH) {
-				return (supplyValues[index] - supplyValues[index - 1]) / (supplyPowers[index] - supplyPowers[index - 1]);
-			}
+			return curves.getPriceAddedSupply(-modifiedEnergy);
 		}
-		return Double.NaN;
+		return curves.getPriceAddedSupply(EPS);
 	}
 
 	/** Returns true if this {@link Sensitivity} is valid for assessment of additional demand and supply, false otherwise
 	 * 
 	 * @return false if either added demand or added supply cannot be assessed */
 	public boolean isValid() {
-		return supplyPowers.length > 1 && demandPowers.length > 1;
+		return curves.isValid();
 	}
 }
@@ -0,0 +1,207 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package communications.portable;
+
+import communications.portable.Sensitivity.InterpolationType;
+import de.dlr.gitlab.fame.communication.transfer.ComponentCollector;
+import de.dlr.gitlab.fame.communication.transfer.ComponentProvider;
+
+/** Immutable demand and supply curves of a merit order sensitivity; a single instance can be shared by all {@link Sensitivity}
+ * objects created from the same forecast, each of which only adds its client-specific multiplier */
+public final class SensitivityCurves {
+	private final double[] demandPowers;
+	private final double[] demandValues;
+	private final double[] supplyPowers;
+	private final double[] supplyValues;
+	/** slope of each demand segment ending at the same index, i.e. its price */
+	private final double[] demandSlopes;
+	/** slope of each supply segment ending at the same index, i.e. its price */
+	private final double[] supplySlopes;
+
+	/** Creates new {@link SensitivityCurves}; given arrays must not be modified afterwards
+	 *
+	 * @param demandPowers ascending power steps for additional demand, starting at zero
+	 * @param demandValues values of additional demand at the power step with the same index
+	 * @param supplyPowers ascending power steps for additional supply, starting at zero
+	 * @param supplyValues values of additional supply at the power step with the same index */
+	public SensitivityCurves(double[] demandPowers, double[] demandValues, double[] supplyPowers, double[] supplyValues) {
+		this.demandPowers = demandPowers;
+		this.demandValues = demandValues;
+		this.supplyPowers = supplyPowers;
+		this.supplyValues = supplyValues;
+		demandSlopes = calcSlopes(demandPowers, demandValues);
+		supplySlopes = calcSlopes(supplyPowers, supplyValues);
+	}
+
+	/** @return slope of each segment between given point and its predecessor; the first entry is unused */
+	private static double[] calcSlopes(double[] powers, double[] values) {
+		double[] slopes = new double[powers.length];
+		for (int index = 1; index < powers.length; index++) {
+			slopes[index] = (values[index] - values[index - 1]) / (powers[index] - powers[index - 1]);
+		}
+		return slopes;
+	}
+
+	/** @return value associated with the additional demand energy; NaN if the energy exceeds the demand curve */
+	double getValueAddedDemand(double additionalDemandInMWH, InterpolationType interpolationType) {
+		return interpolateValue(demandPowers, demandValues, demandSlopes, additionalDemandInMWH, interpolationType);
+	}
+
+	/** @return value associated with the additional supply energy; NaN if the energy exceeds the supply curve */
+	double getValueAddedSupply(double additionalSupplyInMWH, InterpolationType interpolationType) {
+		return interpolateValue(supplyPowers, supplyValues, supplySlopes, additionalSupplyInMWH, interpolationType);
+	}
+
+	/** Same as {@link #getValueAddedDemand(double, InterpolationType)}, but searches the curve segment starting from the one found
+	 * previously with the given cursor, which is updated */
+	double getValueAddedDemand(double additionalDemandInMWH, InterpolationType interpolationType, SegmentCursor cursor) {
+		int index = findSegmentEnd(demandPowers, additionalDemandInMWH, cursor.demandIndex);
+		if (index > 0) {
+			cursor.demandIndex = index;
+		}
+		return interpolateOnSegment(demandPowers, demandValues, demandSlopes, index, additionalDemandInMWH,
+				interpolationType);
+	}
+
+	/** Same as {@link #getValueAddedSupply(double, InterpolationType)}, but searches the curve segment starting from the one found
+	 * previously with the given cursor, which is updated */
+	double getValueAddedSupply(double additionalSupplyInMWH, InterpolationType interpolationType, SegmentCursor cursor) {
+		int index = findSegmentEnd(supplyPowers, additionalSupplyInMWH, cursor.supplyIndex);
+		if (index > 0) {
+			cursor.supplyIndex = index;
+		}
+		return interpolateOnSegment(supplyPowers, supplyValues, supplySlopes, index, additionalSupplyInMWH,
+				interpolationType);
+	}
+
+	/** @return value interpolated at given energy on the segment of the given curve that covers this energy; NaN if the energy
+	 *         exceeds the curve */
+	private static double interpolateValue(double[] powers, double[] values, double[] slopes, double energy,
+			InterpolationType interpolationType) {
+		return interpolateOnSegment(powers, values, slopes, findSegmentEnd(powers, energy), energy, interpolationType);
+	}
+
+	/** @return value interpolated at given energy on the segment of the given curve ending at the given index; NaN if the index is
+	 *         negative */
+	private static double interpolateOnSegment(double[] powers, double[] values, double[] slopes, int index,
+			double energy, InterpolationType interpolationType) {
+		if (index < 0) {
+			return Double.NaN;
+		}
+		if (interpolationType == null) {
+			throw new RuntimeException(Sensitivity.ERR_INTERPOLATION_TYPE_MISSING + interpolationType);
+		}
+		switch (interpolationType) {
+			case CUMULATIVE:
+				return values[index - 1] + slopes[index] * (energy - powers[index - 1]);
+			case DIRECT:
+				return slopes[index] * energy;
+			default:
+				throw new RuntimeException(Sensitivity.ERR_INTERPOLATION_TYPE + interpolationType);
+		}
+	}
+
+	/** @return price in EUR/MWh for given additional demand; NaN if the energy exceeds the demand curve */
+	double getPriceAddedDemand(double additionalDemandInMWH) {
+		int index = findSegmentEnd(demandPowers, additionalDemandInMWH);
+		return index < 0 ? Double.NaN : demandSlopes[index];
+	}
+
+	/** @return price in EUR/MWh for given additional supply; NaN if the energy exceeds the supply curve */
+	double getPriceAddedSupply(double additionalSupplyInMWH) {
+		int index = findSegmentEnd(supplyPowers, additionalSupplyInMWH);
+		return index < 0 ? Double.NaN : supplySlopes[index];
+	}
+
+	/** Finds the segment of a curve covering the given energy via binary search
+	 *
+	 * @param powers ascending cumulated powers of the curve
+	 * @param energy to search for
+	 * @return first index (starting at 1) with a cumulated power not below the given energy, or -1 if no such index exists */
+	private static int findSegmentEnd(double[] powers, double energy) {
+		int last = powers.length - 1;
+		if (last < 1 || powers[last] < energy) {
+			return -1;
+		}
+		int low = 1;
+		int high = last;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (powers[middle] >= energy) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	/** Finds the segment of a curve covering the given energy by stepping from a hinted segment; in O(1) per call for energies
+	 * requested in ascending or descending order with small steps compared to the segment lengths
+	 *
+	 * @param powers ascending cumulated powers of the curve
+	 * @param energy to search for
+	 * @param hint index of a segment end found previously; if below 1, a binary search is used
+	 * @return same as {@link #findSegmentEnd(double[], double)} */
+	private static int findSegmentEnd(double[] powers, double energy, int hint) {
+		int last = powers.length - 1;
+		if (hint < 1 || last < 1 || powers[last] < energy) {
+			return findSegmentEnd(powers, energy);
+		}
+		int index = Math.min(hint, last);
+		while (index < last && powers[index] < energy) {
+			index++;
+		}
+		while (index > 1 && powers[index - 1] >= energy) {
+			index--;
+		}
+		return index;
+	}
+
+	/** @return false if either added demand or added supply cannot be assessed */
+	boolean isValid() {
+		return supplyPowers.length > 1 && demandPowers.length > 1;
+	}
+
+	/** Stores all curve data to given collector; slopes are not stored but derived again on reading */
+	void storeTo(ComponentCollector collector) {
+		storeDoubleArray(collector, demandPowers);
+		storeDoubleArray(collector, demandValues);
+		storeDoubleArray(collector, supplyPowers);
+		storeDoubleArray(collector, supplyValues);
+	}
+
+	/** Stores length of given array and array values to provided collector */
+	private static void storeDoubleArray(ComponentCollector collector, double[] data) {
+		collector.storeInts(data.length);
+		collector.storeDoubles(data);
+	}
+
+	/** @return new {@link SensitivityCurves} read from given provider assuming they were stored using
+	 *         {@link #storeTo(ComponentCollector)} */
+	static SensitivityCurves readFrom(ComponentProvider provider) {
+		double[] demandPowers = readArray(provider);
+		double[] demandValues = readArray(provider);
+		double[] supplyPowers = readArray(provider);
+		double[] supplyValues = readArray(provider);
+		return new SensitivityCurves(demandPowers, demandValues, supplyPowers, supplyValues);
+	}
+
+	/** @return array from given provider assuming it was stored using {@link #storeDoubleArray(ComponentCollector, double[])} */
+	private static double[] readArray(ComponentProvider provider) {
+		int length = provider.nextInt();
+		double[] array = new double[length];
+		for (int i = 0; i < length; i++) {
+			array[i] = provider.nextDouble();
+		}
+		return array;
+	}
+
+	/** Remembers the curve segments found at the previous value request, so that a sequence of requests with ascending or
+	 * descending energies avoids repeated binary searches; not thread-safe, thus each thread requires its own cursor */
+	public static final class SegmentCursor {
+		private int demandIndex = -1;
+		private int supplyIndex = -1;
+	}
+}
@@ -0,0 +1,329 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import de.dlr.gitlab.fame.agent.Agent;
+import de.dlr.gitlab.fame.communication.Contract;
+import de.dlr.gitlab.fame.communication.message.Message;
+
+/** Opt-in profiler that records wall time, allocated bytes and received messages of agent actions, as well as counters of hot
+ * computational kernels. Profiling is enabled by setting the system property {@value #PROPERTY_OUTPUT} to an output file prefix,
+ * e.g. <code>-Damiris.profiling=result/profile</code>. Agents with costly actions wrap them via
+ * {@link #profile(Agent, Enum, BiConsumer)} when registering them. When the process ends after the run, a summary table is logged
+ * and results are written to files with the given prefix and extensions ".csv" and ".json". To keep file names of multiple
+ * processes apart, each process appends the rank given by system property {@value #PROPERTY_RANK} or, if that is not set, its
+ * process id to the prefix. Allocated bytes comprise allocations of the executing thread and of the {@link WorkerPools} threads
+ * during an action. If profiling is disabled, actions are not wrapped and counters are ignored. */
+public final class ActionProfiler {
+	/** Name of the system property that enables profiling and specifies the prefix of its output files */
+	public static final String PROPERTY_OUTPUT = "amiris.profiling";
+	/** Name of the optional system property that specifies the rank of the process to be appended to output file names */
+	public static final String PROPERTY_RANK = "amiris.profiling.rank";
+	static final String ERR_WRITE_FAILED = "Could not write profiling results to: ";
+	static final String CSV_HEADER = "AgentType;AgentId;Product;Calls;WallTimeInMS;MaxWallTimeInMS;AllocatedMB;"
+			+ "ReceivedMessages";
+	private static final double NANOS_PER_MILLI = 1E6;
+	private static final double BYTES_PER_MB = 1024. * 1024.;
+	private static final String RANK_SEPARATOR = "_rank";
+	private static final String PID_SEPARATOR = "_pid";
+	private static final Logger logger = LoggerFactory.getLogger(ActionProfiler.class);
+
+	/** Counters of hot computational kernels */
+	public enum Counter {
+		/** Number of merit-order market clearings */
+		MERIT_ORDER_CLEARINGS,
+		/** Number of merit-order items passed while searching the cut of supply and demand */
+		MERIT_ORDER_ITEMS_WALKED,
+		/** Number of order books sorted before clearing */
+		ORDER_BOOK_SORTS,
+		/** Number of initial states assessed by dynamic programming */
+		DISPATCH_STATE_EVALUATIONS,
+		/** Number of demand shifts between markets during market coupling */
+		COUPLING_ITERATIONS,
+		/** Number of external model requests answered from a {@link ResponseCache} */
+		RESPONSE_CACHE_HITS,
+		/** Number of external model requests not found in a {@link ResponseCache} */
+		RESPONSE_CACHE_MISSES
+	}
+
+	/** Statistics of all executions of one action of one agent */
+	static final class ActionStatistics {
+		final String agentType;
+		final long agentId;
+		final String product;
+		long calls;
+		long wallTimeInNS;
+		long maxWallTimeInNS;
+		long allocatedBytes;
+		long receivedMessages;
+
+		ActionStatistics(String agentType, long agentId, String product) {
+			this.agentType = agentType;
+			this.agentId = agentId;
+			this.product = product;
+		}
+
+		/** Adds results of one execution of the action */
+		synchronized void add(long wallTimeInNS, long allocatedBytes, int receivedMessages) {
+			calls++;
+			this.wallTimeInNS += wallTimeInNS;
+			maxWallTimeInNS = Math.max(maxWallTimeInNS, wallTimeInNS);
+			this.allocatedBytes += allocatedBytes;
+			this.receivedMessages += receivedMessages;
+		}
+	}
+
+	/** Bytes allocated so far by the executing thread and all worker threads at a certain point in time */
+	private static final class AllocationSnapshot {
+		final long[] threadIds;
+		final long[] allocatedBytes;
+
+		AllocationSnapshot(long[] threadIds, long[] allocatedBytes) {
+			this.threadIds = threadIds;
+			this.allocatedBytes = allocatedBytes;
+		}
+	}
+
+	private static volatile ActionProfiler active = createFromSystemProperty();
+
+	/** prefix of output files, or null if results are not written */
+	private final String outputPrefix;
+	private final Map<String, ActionStatistics> statistics = new LinkedHashMap<>();
+	private final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+	private final com.sun.management.ThreadMXBean allocationTracker = getAllocationTracker();
+
+	/** @return new profiler writing its results when the process ends, if the system property is set, null otherwise */
+	private static ActionProfiler createFromSystemProperty() {
+		String outputPrefix = System.getProperty(PROPERTY_OUTPUT);
+		if (outputPrefix == null || outputPrefix.isBlank()) {
+			return null;
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(ActionProfiler::reportAtEndOfRun));
+		return new ActionProfiler(outputPrefix);
+	}
+
+	/** @return bean to measure allocated bytes per thread, or null if not supported by the JVM */
+	private static com.sun.management.ThreadMXBean getAllocationTracker() {
+		java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean tracker = (com.sun.management.ThreadMXBean) threadBean;
+			if (tracker.isThreadAllocatedMemorySupported() && tracker.isThreadAllocatedMemoryEnabled()) {
+				return tracker;
+			}
+		}
+		return null;
+	}
+
+	ActionProfiler() {
+		this(null);
+	}
+
+	private ActionProfiler(String outputPrefix) {
+		this.outputPrefix = outputPrefix;
+	}
+
+	/** Enables profiling without writing results at the end of the run, e.g., in tests; replaces any previously active profiler
+	 *
+	 * @return the new active profiler */
+	public static ActionProfiler enable() {
+		active = new ActionProfiler();
+		return active;
+	}
+
+	/** Disables profiling */
+	public static void disable() {
+		active = null;
+	}
+
+	/** @return true if profiling is enabled */
+	public static boolean isEnabled() {
+		return active != null;
+	}
+
+	/** Returns given action wrapped such that its executions are profiled if profiling is enabled; otherwise returns the given
+	 * action unchanged
+	 *
+	 * @param agent that executes the action
+	 * @param product that triggers the action
+	 * @param action to be profiled
+	 * @return profiled action if profiling is enabled, else the given action */
+	public static BiConsumer<ArrayList<Message>, List<Contract>> profile(Agent agent, Enum<?> product,
+			BiConsumer<ArrayList<Message>, List<Contract>> action) {
+		ActionProfiler profiler = active;
+		if (profiler == null) {
+			return action;
+		}
+		ActionStatistics actionStatistics = profiler.getStatistics(agent.getClass().getSimpleName(), agent.getId(),
+				product.name());
+		return (messages, contracts) -> profiler.execute(actionStatistics, action, messages, contracts);
+	}
+
+	/** Adds given amount to the specified counter if profiling is enabled
+	 *
+	 * @param counter to increase
+	 * @param amount to add to the counter */
+	public static void count(Counter counter, long amount) {
+		ActionProfiler profiler = active;
+		if (profiler != null) {
+			profiler.counters.addAndGet(counter.ordinal(), amount);
+		}
+	}
+
+	/** @return existing or newly created statistics for the given action */
+	synchronized ActionStatistics getStatistics(String agentType, long agentId, String product) {
+		return statistics.computeIfAbsent(agentType + "#" + agentId + "#" + product,
+				__ -> new ActionStatistics(agentType, agentId, product));
+	}
+
+	/** Executes the given action and records its wall time, allocated bytes and received messages */
+	private void execute(ActionStatistics actionStatistics, BiConsumer<ArrayList<Message>, List<Contract>> action,
+			ArrayList<Message> messages, List<Contract> contracts) {
+		AllocationSnapshot allocationsBefore = takeAllocationSnapshot();
+		long start = System.nanoTime();
+		try {
+			action.accept(messages, contracts);
+		} finally {
+			long wallTime = System.nanoTime() - start;
+			long allocated = getBytesAllocatedSince(allocationsBefore);
+			actionStatistics.add(wallTime, allocated, messages != null ? messages.size() : 0);
+		}
+	}
+
+	/** @return bytes allocated so far by the executing thread and all worker threads, or null if allocations cannot be tracked */
+	private AllocationSnapshot takeAllocationSnapshot() {
+		if (allocationTracker == null) {
+			return null;
+		}
+		long[] workerThreadIds = WorkerPools.getWorkerThreadIds();
+		long[] threadIds = Arrays.copyOf(workerThreadIds, workerThreadIds.length + 1);
+		threadIds[workerThreadIds.length] = Thread.currentThread().getId();
+		Arrays.sort(threadIds);
+		return new AllocationSnapshot(threadIds, allocationTracker.getThreadAllocatedBytes(threadIds));
+	}
+
+	/** @return bytes allocated by the executing thread and all worker threads since the given snapshot, or 0 if allocations cannot
+	 *         be tracked; allocations of threads that terminated in the meantime are not included */
+	private long getBytesAllocatedSince(AllocationSnapshot before) {
+		AllocationSnapshot after = takeAllocationSnapshot();
+		if (before == null || after == null) {
+			return 0;
+		}
+		long totalBytes = 0;
+		for (int i = 0; i < after.threadIds.length; i++) {
+			if (after.allocatedBytes[i] < 0) {
+				continue;
+			}
+			int index = Arrays.binarySearch(before.threadIds, after.threadIds[i]);
+			long bytesBefore = index >= 0 ? Math.max(0, before.allocatedBytes[index]) : 0;
+			totalBytes += after.allocatedBytes[i] - bytesBefore;
+		}
+		return totalBytes;
+	}
+
+	/** @param counter to read
+	 * @return current value of the given counter */
+	public long getCount(Counter counter) {
+		return counters.get(counter.ordinal());
+	}
+
+	/** @return copy of all action statistics sorted by descending total wall time */
+	synchronized List<ActionStatistics> getSortedStatistics() {
+		List<ActionStatistics> sorted = new ArrayList<>(statistics.values());
+		sorted.sort((a, b) -> Long.compare(b.wallTimeInNS, a.wallTimeInNS));
+		return sorted;
+	}
+
+	/** Logs summary table and writes results to files if profiling was enabled via system property; called once when the process
+	 * ends, i.e. after FAME's runner has completed the simulation and exits */
+	static void reportAtEndOfRun() {
+		ActionProfiler profiler = active;
+		if (profiler != null && profiler.outputPrefix != null) {
+			profiler.report(profiler.outputPrefix);
+		}
+	}
+
+	/** Logs summary table and writes results to CSV and JSON files with given prefix, extended by process rank or id */
+	private void report(String outputPrefix) {
+		String processPrefix = getProcessPrefix(outputPrefix, System.getProperty(PROPERTY_RANK),
+				ProcessHandle.current().pid());
+		logger.info("Profiling results for " + processPrefix + ":\n" + getSummaryTable());
+		try {
+			writeCsv(Paths.get(processPrefix + ".csv"));
+			writeJson(Paths.get(processPrefix + ".json"));
+		} catch (IOException e) {
+			logger.error(ERR_WRITE_FAILED + processPrefix, e);
+		}
+	}
+
+	/** @return given output prefix with the given rank appended, or with the given process id if no rank is given */
+	static String getProcessPrefix(String outputPrefix, String rank, long processId) {
+		return rank != null && !rank.isBlank() ? outputPrefix + RANK_SEPARATOR + rank.trim()
+				: outputPrefix + PID_SEPARATOR + processId;
+	}
+
+	/** @return human-readable table of all action statistics and kernel counters */
+	String getSummaryTable() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format(Locale.ROOT, "%-32s %-40s %10s %12s %10s %12s %10s%n", "Agent", "Product", "Calls",
+				"Total ms", "Max ms", "Alloc MB", "Messages"));
+		for (ActionStatistics entry : getSortedStatistics()) {
+			builder.append(String.format(Locale.ROOT, "%-32s %-40s %10d %12.1f %10.1f %12.1f %10d%n",
+					entry.agentType + "(" + entry.agentId + ")", entry.product, entry.calls, entry.wallTimeInNS / NANOS_PER_MILLI,
+					entry.maxWallTimeInNS / NANOS_PER_MILLI, entry.allocatedBytes / BYTES_PER_MB, entry.receivedMessages));
+		}
+		for (Counter counter : Counter.values()) {
+			builder.append(String.format(Locale.ROOT, "%-32s %d%n", counter.name(), getCount(counter)));
+		}
+		return builder.toString();
+	}
+
+	/** Writes all action statistics to a CSV file at given path */
+	void writeCsv(Path path) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			writer.write(CSV_HEADER + "\n");
+			for (ActionStatistics entry : getSortedStatistics()) {
+				writer.write(String.format(Locale.ROOT, "%s;%d;%s;%d;%.3f;%.3f;%.3f;%d%n", entry.agentType, entry.agentId,
+						entry.product, entry.calls, entry.wallTimeInNS / NANOS_PER_MILLI, entry.maxWallTimeInNS / NANOS_PER_MILLI,
+						entry.allocatedBytes / BYTES_PER_MB, entry.receivedMessages));
+			}
+		}
+	}
+
+	/** Writes all action statistics and kernel counters to a JSON file at given path */
+	void writeJson(Path path) throws IOException {
+		JSONArray actions = new JSONArray();
+		for (ActionStatistics entry : getSortedStatistics()) {
+			actions.put(new JSONObject().put("AgentType", entry.agentType).put("AgentId", entry.agentId)
+					.put("Product", entry.product).put("Calls", entry.calls)
+					.put("WallTimeInMS", entry.wallTimeInNS / NANOS_PER_MILLI)
+					.put("MaxWallTimeInMS", entry.maxWallTimeInNS / NANOS_PER_MILLI)
+					.put("AllocatedMB", entry.allocatedBytes / BYTES_PER_MB).put("ReceivedMessages", entry.receivedMessages));
+		}
+		JSONObject kernelCounters = new JSONObject();
+		for (Counter counter : Counter.values()) {
+			kernelCounters.put(counter.name(), getCount(counter));
+		}
+		JSONObject result = new JSONObject().put("Actions", actions).put("Counters", kernelCounters);
+		Files.writeString(path, result.toString(2), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,125 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package util;
+
+import static de.dlr.gitlab.fame.time.Constants.STEPS_PER_HOUR;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongToDoubleFunction;
+import org.json.JSONObject;
+
+/** Fixed-capacity ring buffer of values at hourly time steps, backed by primitive arrays. Each hour is mapped to one slot;
+ * storing a value overwrites the value stored one capacity earlier. Thus, memory is bounded and storing a value takes constant
+ * time. Values must be stored at time steps that are whole hours apart. */
+public class HourlyRingBuffer {
+	static final String ERR_CAPACITY = "Capacity of ring buffer must be positive but was: ";
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	private final long[] steps;
+	private final double[] values;
+	private long latestStep = EMPTY;
+
+	/** Creates a new, empty {@link HourlyRingBuffer}
+	 *
+	 * @param capacityInHours number of hours that can be held at the same time
+	 * @throws IllegalArgumentException if capacity is not positive */
+	public HourlyRingBuffer(int capacityInHours) {
+		if (capacityInHours <= 0) {
+			throw new IllegalArgumentException(ERR_CAPACITY + capacityInHours);
+		}
+		steps = new long[capacityInHours];
+		values = new double[capacityInHours];
+		Arrays.fill(steps, EMPTY);
+	}
+
+	/** @return index of the slot associated with given time step */
+	private int slotOf(long step) {
+		return (int) Math.floorMod(Math.floorDiv(step, STEPS_PER_HOUR), (long) steps.length);
+	}
+
+	/** Stores given value at given time step; replaces any value stored at the same hour slot
+	 *
+	 * @param step time step the value is associated with
+	 * @param value to be stored */
+	public void put(long step, double value) {
+		int slot = slotOf(step);
+		steps[slot] = step;
+		values[slot] = value;
+		if (latestStep == EMPTY || step > latestStep) {
+			latestStep = step;
+		}
+	}
+
+	/** Stores values for all hours from given first step (inclusive) to given stop step (exclusive). If the latest stored step lies
+	 * within this range on the same hourly grid, only the hours after it are stored; thus, extending a window by one hour usually
+	 * stores a single value.
+	 *
+	 * @param firstStep earliest time step to store a value at
+	 * @param stopStep time step up to which (exclusively) values are stored
+	 * @param valueAt provides the value to store at a given time step */
+	public void putMissing(long firstStep, long stopStep, LongToDoubleFunction valueAt) {
+		long step = firstStep;
+		if (!isEmpty() && latestStep >= firstStep && (latestStep - firstStep) % STEPS_PER_HOUR == 0) {
+			step = latestStep + STEPS_PER_HOUR;
+		}
+		for (; step < stopStep; step += STEPS_PER_HOUR) {
+			put(step, valueAt.applyAsDouble(step));
+		}
+	}
+
+	/** @param step time step to search for
+	 * @return true if a value is stored for the given time step */
+	public boolean contains(long step) {
+		return step != EMPTY && steps[slotOf(step)] == step;
+	}
+
+	/** @param step time step to search for
+	 * @return value stored at given time step, or {@link Double#NaN} if none is stored */
+	public double get(long step) {
+		return contains(step) ? values[slotOf(step)] : Double.NaN;
+	}
+
+	/** @return true if no value was stored yet */
+	public boolean isEmpty() {
+		return latestStep == EMPTY;
+	}
+
+	/** @return latest time step for which a value was stored; {@link Long#MIN_VALUE} if empty */
+	public long getLatestStep() {
+		return latestStep;
+	}
+
+	/** @return value stored at the latest time step, or {@link Double#NaN} if empty */
+	public double getLatestValue() {
+		return get(latestStep);
+	}
+
+	/** Returns all stored values from given time step up to the latest time step in ascending order of time
+	 *
+	 * @param firstStep earliest time step to include
+	 * @return new map of time steps to values; changes to it do not affect this buffer */
+	public Map<Long, Double> toMap(long firstStep) {
+		Map<Long, Double> valuesByStep = new LinkedHashMap<>();
+		if (!isEmpty()) {
+			for (int hoursBeforeLatest = steps.length - 1; hoursBeforeLatest >= 0; hoursBeforeLatest--) {
+				long step = latestStep - hoursBeforeLatest * STEPS_PER_HOUR;
+				if (step >= firstStep && contains(step)) {
+					valuesByStep.put(step, values[slotOf(step)]);
+				}
+			}
+		}
+		return valuesByStep;
+	}
+
+	/** Returns all stored values from given time step up to the latest time step as JSON object with time steps as keys. The JSON
+	 * object is created from {@link #toMap(long)}, so that its serialisation, including the order of keys, equals that of a JSON
+	 * object created from a sorted map with the same entries.
+	 *
+	 * @param firstStep earliest time step to include
+	 * @return JSON object mapping time steps to values */
+	public JSONObject toJson(long firstStep) {
+		return new JSONObject(toMap(firstStep));
+	}
+}
@@ -0,0 +1,325 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import de.dlr.gitlab.fame.agent.input.Make;
+import de.dlr.gitlab.fame.agent.input.ParameterData;
+import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
+import de.dlr.gitlab.fame.agent.input.Tree;
+import util.ActionProfiler.Counter;
+
+/** Caches responses of a {@link UrlModelService} for canonicalised requests. Requests are canonicalised by sorting their fields
+ * by name and rounding their numeric values to a configurable tolerance; requests that match after canonicalisation share the
+ * same cached response. The least recently used response is evicted once the capacity is exceeded. Optionally, new responses
+ * are appended to a file from which they are restored when a cache using that file is created again. Caches configured via
+ * {@link #fromConfig(ParameterData)} are shared per persistence file, so that only one instance writes to each file; the file
+ * is compacted to the cached responses when restored and whenever it holds more than twice the capacity in lines. */
+public class ResponseCache {
+	static final String ERR_CAPACITY = "Capacity of response cache must be positive but was: ";
+	static final String ERR_TOLERANCE = "Numeric tolerance of response cache must not be negative but was: ";
+	static final String ERR_READ = "Could not read persisted responses from: ";
+	static final String ERR_WRITE = "Could not persist response to: ";
+	static final String ERR_CONFLICT = "Response caches sharing a persistence file must use the same settings: ";
+
+	/** Default maximum number of cached responses */
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	/** Input parameters of a {@link ResponseCache} */
+	public static final Tree parameters = Make.newTree().optional().add(
+			Make.newInt("Capacity").optional().help("Max number of cached responses (default: " + DEFAULT_CAPACITY + ")"),
+			Make.newDouble("NumericTolerance").optional()
+					.help("Numeric values in requests are rounded to multiples of this tolerance before matching "
+							+ "(default: 0 = exact)"),
+			Make.newString("PersistenceFile").optional()
+					.help("File to restore cached responses from and to append new responses to (default: none)"),
+			Make.newGroup("FieldTolerances").list().optional().add(
+					Make.newString("FieldName").help("Name of request field; also applies to values nested in this field"),
+					Make.newDouble("Tolerance").help("Numeric values of this field are rounded to multiples of this tolerance")))
+			.buildTree();
+
+	private final int capacity;
+	private final double defaultTolerance;
+	private final Map<String, Double> fieldTolerances = new HashMap<>();
+	private final Path persistenceFile;
+	private final LinkedHashMap<String, String> responses;
+	private int persistedLineCount;
+	private long hits;
+	private long misses;
+
+	/** caches created via {@link #fromConfig(ParameterData)} with a persistence file, by their normalised file path */
+	private static final Map<Path, ResponseCache> cachesByFile = new HashMap<>();
+
+	/** Creates a new {@link ResponseCache}
+	 *
+	 * @param capacity maximum number of cached responses
+	 * @param defaultTolerance numeric values in requests are rounded to multiples of this tolerance; 0: exact matching
+	 * @param persistenceFile to restore responses from and to append new responses to; may be null to disable persistence; must
+	 *          not be written to by any other instance - use {@link #fromConfig(ParameterData)} to share caches per file
+	 * @throws IllegalArgumentException if capacity is not positive or tolerance is negative
+	 * @throws RuntimeException if the persistence file exists but cannot be read or compacted */
+	public ResponseCache(int capacity, double defaultTolerance, Path persistenceFile) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException(ERR_CAPACITY + capacity);
+		}
+		ensureValidTolerance(defaultTolerance);
+		this.capacity = capacity;
+		this.defaultTolerance = defaultTolerance;
+		this.persistenceFile = persistenceFile;
+		responses = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > ResponseCache.this.capacity;
+			}
+		};
+		if (persistenceFile != null && Files.exists(persistenceFile)) {
+			restore();
+		}
+	}
+
+	/** Creates a {@link ResponseCache} from given configuration, if any; if a cache with the same persistence file was created
+	 * before, that cache is returned instead, so that only one instance writes to each file
+	 *
+	 * @param input configuration matching {@link #parameters}; may be null
+	 * @return new or shared {@link ResponseCache}, or null if no configuration is given
+	 * @throws MissingDataException if an element of the field tolerances misses its field name or tolerance
+	 * @throws IllegalArgumentException if a cache with the same persistence file but other settings was created before */
+	public static ResponseCache fromConfig(ParameterData input) throws MissingDataException {
+		if (input == null) {
+			return null;
+		}
+		int capacity = input.getIntegerOrDefault("Capacity", DEFAULT_CAPACITY);
+		double defaultTolerance = input.getDoubleOrDefault("NumericTolerance", 0.);
+		Map<String, Double> fieldTolerances = new HashMap<>();
+		List<ParameterData> fieldToleranceGroups = input.getOptionalGroupList("FieldTolerances");
+		if (fieldToleranceGroups != null) {
+			for (ParameterData fieldTolerance : fieldToleranceGroups) {
+				fieldTolerances.put(fieldTolerance.getString("FieldName"), fieldTolerance.getDouble("Tolerance"));
+			}
+		}
+		String fileName = input.getStringOrDefault("PersistenceFile", null);
+		if (fileName == null) {
+			return createCache(capacity, defaultTolerance, null, fieldTolerances);
+		}
+		Path file = Paths.get(fileName).toAbsolutePath().normalize();
+		synchronized (cachesByFile) {
+			ResponseCache cache = cachesByFile.get(file);
+			if (cache == null) {
+				cache = createCache(capacity, defaultTolerance, file, fieldTolerances);
+				cachesByFile.put(file, cache);
+			} else if (!cache.hasSettings(capacity, defaultTolerance, fieldTolerances)) {
+				throw new IllegalArgumentException(ERR_CONFLICT + file);
+			}
+			return cache;
+		}
+	}
+
+	/** @return new {@link ResponseCache} with given settings */
+	private static ResponseCache createCache(int capacity, double defaultTolerance, Path persistenceFile,
+			Map<String, Double> fieldTolerances) {
+		ResponseCache cache = new ResponseCache(capacity, defaultTolerance, persistenceFile);
+		fieldTolerances.forEach(cache::setFieldTolerance);
+		return cache;
+	}
+
+	/** @return true if this cache uses the given settings */
+	private boolean hasSettings(int capacity, double defaultTolerance, Map<String, Double> fieldTolerances) {
+		return this.capacity == capacity && this.defaultTolerance == defaultTolerance
+				&& this.fieldTolerances.equals(fieldTolerances);
+	}
+
+	/** @throws IllegalArgumentException if given tolerance is negative */
+	private static void ensureValidTolerance(double tolerance) {
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException(ERR_TOLERANCE + tolerance);
+		}
+	}
+
+	/** Sets a tolerance for numeric values of fields with the given name, including all values nested in such fields; overrides the
+	 * default tolerance
+	 *
+	 * @param fieldName name of the request field
+	 * @param tolerance numeric values of this field are rounded to multiples of this tolerance; 0: exact matching
+	 * @return this {@link ResponseCache} */
+	public ResponseCache setFieldTolerance(String fieldName, double tolerance) {
+		ensureValidTolerance(tolerance);
+		fieldTolerances.put(fieldName, tolerance);
+		return this;
+	}
+
+	/** Returns canonical representation of given request: fields are sorted by name and numbers are rounded to their tolerance
+	 *
+	 * @param request to canonicalise
+	 * @return canonical String representation of the request */
+	public String canonicalise(JSONObject request) {
+		StringBuilder builder = new StringBuilder();
+		appendCanonical(builder, request, defaultTolerance);
+		return builder.toString();
+	}
+
+	/** Appends canonical representation of given JSON value using the given tolerance for its numbers */
+	private void appendCanonical(StringBuilder builder, Object value, double tolerance) {
+		if (value instanceof JSONObject) {
+			JSONObject object = (JSONObject) value;
+			List<String> keys = new ArrayList<>(object.keySet());
+			Collections.sort(keys);
+			builder.append('{');
+			for (String key : keys) {
+				builder.append(JSONObject.quote(key)).append(':');
+				appendCanonical(builder, object.get(key), fieldTolerances.getOrDefault(key, tolerance));
+				builder.append(',');
+			}
+			builder.append('}');
+		} else if (value instanceof JSONArray) {
+			builder.append('[');
+			for (Object element : (JSONArray) value) {
+				appendCanonical(builder, element, tolerance);
+				builder.append(',');
+			}
+			builder.append(']');
+		} else if (value instanceof Number) {
+			builder.append(canonicaliseNumber(((Number) value).doubleValue(), tolerance));
+		} else if (value instanceof String) {
+			builder.append(JSONObject.quote((String) value));
+		} else {
+			builder.append(value);
+		}
+	}
+
+	/** @return given number as String, rounded to the nearest multiple of given tolerance if it is positive; non-finite numbers
+	 *         and numbers too large to be rounded are never rounded, so that they cannot match any rounded number */
+	private String canonicaliseNumber(double number, double tolerance) {
+		if (tolerance > 0) {
+			double multiple = number / tolerance;
+			if (Math.abs(multiple) < Long.MAX_VALUE) {
+				return "~" + Math.round(multiple);
+			}
+		}
+		return Double.toString(number);
+	}
+
+	/** Returns cached response for the given key and counts a hit; counts a miss if no response is cached
+	 *
+	 * @param key canonicalised request
+	 * @return cached response body, or null if none is cached for the given key */
+	public synchronized String get(String key) {
+		String response = responses.get(key);
+		if (response != null) {
+			hits++;
+			ActionProfiler.count(Counter.RESPONSE_CACHE_HITS, 1);
+		} else {
+			misses++;
+			ActionProfiler.count(Counter.RESPONSE_CACHE_MISSES, 1);
+		}
+		return response;
+	}
+
+	/** Caches given response for the given key and appends it to the persistence file, if any; the file is compacted once it holds
+	 * more than twice the capacity in lines
+	 *
+	 * @param key canonicalised request
+	 * @param response body to be cached
+	 * @throws RuntimeException if the response cannot be persisted */
+	public synchronized void put(String key, String response) {
+		String previous = responses.put(key, response);
+		if (persistenceFile != null && !response.equals(previous)) {
+			persist(key, response);
+			if (persistedLineCount > 2 * capacity) {
+				compact();
+			}
+		}
+	}
+
+	/** Appends given entry as one line to the persistence file */
+	private void persist(String key, String response) {
+		try {
+			Files.writeString(persistenceFile, toLine(key, response), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+					StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			throw new RuntimeException(ERR_WRITE + persistenceFile, e);
+		}
+		persistedLineCount++;
+	}
+
+	/** @return given entry as one line of JSON */
+	private static String toLine(String key, String response) {
+		return new JSONObject().put("Key", key).put("Response", response).toString() + System.lineSeparator();
+	}
+
+	/** Restores cached responses from the persistence file; later entries replace earlier ones. Compacts the file if it holds
+	 * outdated or evicted entries. */
+	private void restore() {
+		int lineCount = 0;
+		try (BufferedReader reader = Files.newBufferedReader(persistenceFile, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isBlank()) {
+					JSONObject entry = new JSONObject(line);
+					responses.put(entry.getString("Key"), entry.getString("Response"));
+					lineCount++;
+				}
+			}
+		} catch (IOException | JSONException e) {
+			throw new RuntimeException(ERR_READ + persistenceFile, e);
+		}
+		persistedLineCount = lineCount;
+		if (persistedLineCount > responses.size()) {
+			compact();
+		}
+	}
+
+	/** Replaces the persistence file by one holding only the cached responses, from least to most recently used, so that restoring
+	 * them keeps their order of use */
+	private void compact() {
+		StringBuilder content = new StringBuilder();
+		responses.forEach((key, response) -> content.append(toLine(key, response)));
+		Path temporaryFile = persistenceFile.resolveSibling(persistenceFile.getFileName() + ".tmp");
+		try {
+			Files.writeString(temporaryFile, content, StandardCharsets.UTF_8);
+			Files.move(temporaryFile, persistenceFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new RuntimeException(ERR_WRITE + persistenceFile, e);
+		}
+		persistedLineCount = responses.size();
+	}
+
+	/** @return number of requests answered from this cache */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/** @return number of requests not found in this cache */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/** @return share of requests answered from this cache, or 0 if no request was made */
+	public synchronized double getHitRate() {
+		long total = hits + misses;
+		return total > 0 ? (double) hits / total : 0;
+	}
+
+	/** @return number of currently cached responses */
+	public synchronized int size() {
+		return responses.size();
+	}
+}
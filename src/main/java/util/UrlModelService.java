@@ -3,37 +3,51 @@
 // SPDX-License-Identifier: Apache-2.0
 package util;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.net.ConnectException;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
-import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.stream.Collectors;
+import java.net.http.HttpClient;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.InvalidJsonException;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.ReadContext;
-import com.jayway.jsonpath.TypeRef;
-import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
-import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
-import com.jayway.jsonpath.spi.mapper.MappingException;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.dlr.gitlab.fame.agent.input.Make;
 import de.dlr.gitlab.fame.agent.input.ParameterData;
 import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
 import de.dlr.gitlab.fame.agent.input.Tree;
+import de.dlr.gitlab.fame.time.TimeStamp;
 
 /** Caller for external model that is executed via post requests to a URL; <br>
  * usage; Create an anonymous (child) class with<br>
  * <code>UrlModelService&lt;RequestModel,ResponseModel&gt; myService = new UrlModelService&lt;RequestModel,ResponseModel&gt;(urlString) {}</code><br>
+ * All instances using the same HTTP version share one HTTP client that keeps connections alive; HTTP/1.1 is used unless
+ * configured otherwise. Requests can be issued ahead of time via {@link #prefetch(TimeStamp, JSONable)} and collected later
+ * via {@link #callPrefetched(TimeStamp, JSONable)}.
+ * If a {@link ResponseCache} is set, responses to matching requests are taken from the cache instead of calling the service.
  * 
  * @param <T> POJO model of the <b>request</b> to be sent to external API
  * @param <U> POJO model of the <b>response</b> to be received from the external API
@@ -45,24 +59,47 @@ public abstract class UrlModelService<T extends JSONable, U> {
 	static final String ERR_RESPONSE = " : Request to service failed with code: ";
 	static final String ERR_TIMEOUT = "Request timed out for service at: ";
 	static final String ERR_GENERAL_IO = "Could not complete request to service at: ";
+	static final String ERR_INTERRUPTED = "Interrupted while waiting for response of service at: ";
 	static final String ERR_NO_JSON = " did not respond with a valid JSON String.";
 	static final String ERR_MAPPING = " response not matching. Ensure response POJO model is a normal or >static inner< class, setter types match with service response, and all returned data from service are addressed.";
 
 	/** Default timeout: indefinite */
 	public static final int DEFAULT_TIMEOUT = 0;
+	/** Default HTTP version: HTTP/1.1, since HTTP/2 over plain "http://" URLs requires an upgrade handshake */
+	public static final Version DEFAULT_HTTP_VERSION = Version.HTTP_1_1;
 	/** Inputs specific for {@link UrlModelService}s */
 	public static final Tree parameters = Make.newTree().add(
 			Make.newString("ServiceUrl").help("URL to which POST requests are sent; must begin with 'http://' or 'https://'"),
-			Make.newInt("TimeoutInMilliseconds").optional().help("Max delay for service to respond (default: indefinite)"))
-			.buildTree();
+			Make.newInt("TimeoutInMilliseconds").optional().help("Max delay for service to respond (default: indefinite)"),
+			Make.newEnum("HttpVersion", Version.class).optional()
+					.help("HTTP version used to contact the service; HTTP_2 is recommended for 'https://' URLs only "
+							+ "(default: HTTP_1_1)"))
+			.addAs("ResponseCache", ResponseCache.parameters).buildTree();
 
 	private static Logger logger = LoggerFactory.getLogger(UrlModelService.class);
-	private final Configuration configuration = Configuration.builder().mappingProvider(new JacksonMappingProvider())
-			.jsonProvider(new JacksonJsonProvider()).build();
+	private static final ObjectMapper mapper = new ObjectMapper();
 
-	private final URL serviceUrl;
-	private final TypeRef<U> resultTypeRef;
+	/** HTTP clients shared by all services using the same HTTP version - created on first use */
+	private static final Map<Version, HttpClient> sharedClients = new ConcurrentHashMap<>();
+
+	/** A request that was issued ahead of time and whose response may still be pending */
+	private static final class PendingCall<U> {
+		final String requestBody;
+		final CompletableFuture<U> response;
+
+		PendingCall(String requestBody, CompletableFuture<U> response) {
+			this.requestBody = requestBody;
+			this.response = response;
+		}
+	}
+
+	/** prefetched requests by the simulation time their response is required at */
+	private final ConcurrentNavigableMap<TimeStamp, PendingCall<U>> pendingCalls = new ConcurrentSkipListMap<>();
+	private final URI serviceUri;
+	private final JavaType resultType;
 	private int timeoutInMillis;
+	private Version httpVersion = DEFAULT_HTTP_VERSION;
+	private ResponseCache responseCache;
 
 	/** Create a new {@link UrlModelService} as an anonymous (child) class, see also <a
 	 * href=https://docs.oracle.com/javase/tutorial/java/javaOO/anonymousclasses.html>OracleDocs</a>
@@ -71,34 +108,25 @@ public abstract class UrlModelService<T extends JSONable, U> {
 	 * @param timeout max delay in milliseconds for the service to respond
 	 * @throws IllegalArgumentException if URL is malformed */
 	public UrlModelService(String url, int timeout) {
-		serviceUrl = getUrl(url);
-		resultTypeRef = getAnonymousResultTypeRef();
+		serviceUri = getUri(url);
+		resultType = mapper.getTypeFactory().constructType(getResultType());
 		this.timeoutInMillis = timeout;
 	}
 
-	/** @return given string converted to {@link URL} object */
-	private URL getUrl(String url) {
+	/** @return given string converted to {@link URI} object */
+	private URI getUri(String url) {
 		try {
-			return new URL(url);
-		} catch (MalformedURLException e) {
+			return new URL(url).toURI();
+		} catch (MalformedURLException | URISyntaxException e) {
 			throw new IllegalArgumentException(ERR_URL + url, e);
 		}
 	}
 
-	/** Creates an anonymous child class instance of {@link TypeRef} overriding its getType() function to return the result type of
-	 * this UrlModelService.
-	 * 
-	 * @return special TypeRef instance bound to the second generic parameter of this UrlModelService */
-	private TypeRef<U> getAnonymousResultTypeRef() {
+	/** @return result type of this UrlModelService, i.e. its second generic parameter as bound by the anonymous child class */
+	private Type getResultType() {
 		Type superClass = getClass().getGenericSuperclass();
 		try {
-			Type resultType = ((ParameterizedType) superClass).getActualTypeArguments()[1];
-			return new TypeRef<U>() {
-				@Override
-				public Type getType() {
-					return resultType;
-				}
-			};
+			return ((ParameterizedType) superClass).getActualTypeArguments()[1];
 		} catch (ClassCastException e) {
 			throw new RuntimeException(ERR_RESULT_TYPE_MISSING, e);
 		}
@@ -115,10 +143,24 @@ public abstract class UrlModelService<T extends JSONable, U> {
 	/** Create a new {@link UrlModelService} as an anonymous (child) class, see also <a
 	 * href=https://docs.oracle.com/javase/tutorial/java/javaOO/anonymousclasses.html>OracleDocs</a>
 	 * 
-	 * @param input covering at least the remote service URL
+	 * @param input covering at least the remote service URL; a response cache and HTTP version are set if configured
 	 * @throws MissingDataException if service URL is missing */
 	public UrlModelService(ParameterData input) throws MissingDataException {
-		this(input.getString("ServiceUrl"), input.getIntegerOrDefault("ReadTimeoutInMilliseconds", DEFAULT_TIMEOUT));
+		this(input.getString("ServiceUrl"), input.getIntegerOrDefault("TimeoutInMilliseconds", DEFAULT_TIMEOUT));
+		httpVersion = input.getEnumOrDefault("HttpVersion", Version.class, DEFAULT_HTTP_VERSION);
+		responseCache = ResponseCache.fromConfig(input.getOptionalGroup("ResponseCache"));
+	}
+
+	/** Sets a cache for responses of this service; cached responses are returned without calling the service
+	 * 
+	 * @param responseCache to be used, or null to disable caching */
+	public void setResponseCache(ResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
+	/** @return cache for responses of this service, or null if caching is disabled */
+	public ResponseCache getResponseCache() {
+		return responseCache;
 	}
 
 	/** Marshalls given input to JSON, issues request to configured service and unmarshalls response to output format. See
@@ -127,81 +169,220 @@ public abstract class UrlModelService<T extends JSONable, U> {
 	 * @param input POJO to be sent to service
 	 * @return response from service as POJO */
 	public U call(T input) {
-		return unmarshall(call(marshall(input)));
+		return request(input.toJson());
 	}
 
-	/** @return given input translated to JSON String */
-	private String marshall(T input) {
-		return input.toJson().toString();
+	/** Marshalls given input to JSON and issues request to configured service without waiting for its response
+	 * 
+	 * @param input POJO to be sent to service
+	 * @return future response from service as POJO; use {@link #await(CompletableFuture)} to obtain it */
+	public CompletableFuture<U> callAsync(T input) {
+		return requestAsync(input.toJson());
 	}
 
-	/** @return given response String translated to the result type */
-	U unmarshall(String response) {
-		try {
-			ReadContext responseContext = JsonPath.using(configuration).parse(response);
-			return responseContext.read("$", resultTypeRef);
-		} catch (InvalidJsonException e) {
-			throw new RuntimeException(serviceUrl + ERR_NO_JSON, e);
-		} catch (MappingException e) {
-			throw new RuntimeException(serviceUrl + ERR_MAPPING, e);
+	/** Waits for given future response of this service
+	 * 
+	 * @param response future as returned by {@link #callAsync(JSONable)}
+	 * @return response from service as POJO
+	 * @throws RuntimeException if the request failed */
+	public U await(CompletableFuture<U> response) {
+		return join(serviceUri, response);
+	}
+
+	/** Issues request for given input without waiting for its response; the response is stored under the given delivery time until
+	 * collected by {@link #callPrefetched(TimeStamp, JSONable)}. Replaces any uncollected request stored for the same delivery
+	 * time. Failed requests, e.g. due to a timeout, are discarded.
+	 * 
+	 * @param deliveryTime simulation time at which the response will be required
+	 * @param input POJO to be sent to service */
+	public void prefetch(TimeStamp deliveryTime, T input) {
+		JSONObject request = input.toJson();
+		PendingCall<U> pendingCall = new PendingCall<>(request.toString(), requestAsync(request));
+		pendingCalls.put(deliveryTime, pendingCall);
+		pendingCall.response.whenComplete((result, failure) -> {
+			if (failure != null) {
+				pendingCalls.remove(deliveryTime, pendingCall);
+			}
+		});
+	}
+
+	/** Removes prefetched requests with a delivery time before the given time, since these can no longer be collected */
+	private void removeExpiredCalls(TimeStamp currentTime) {
+		pendingCalls.headMap(currentTime).clear();
+	}
+
+	/** @return number of prefetched requests not yet collected or discarded */
+	int getNumberOfPendingCalls() {
+		return pendingCalls.size();
+	}
+
+	/** Returns response for given input: if a request with identical JSON body was prefetched for the given delivery time, its
+	 * response is collected; otherwise, a new request is sent. Thus, results do not depend on whether or when requests were
+	 * prefetched. Uncollected requests prefetched for earlier delivery times are discarded.
+	 * 
+	 * @param deliveryTime simulation time at which the response is required
+	 * @param input POJO to be sent to service
+	 * @return response from service as POJO */
+	public U callPrefetched(TimeStamp deliveryTime, T input) {
+		removeExpiredCalls(deliveryTime);
+		JSONObject request = input.toJson();
+		PendingCall<U> pendingCall = pendingCalls.remove(deliveryTime);
+		if (pendingCall != null && pendingCall.requestBody.equals(request.toString())) {
+			return join(serviceUri, pendingCall.response);
 		}
+		return request(request);
+	}
+
+	/** @return result for given request - taken from cache if available, otherwise received from the service */
+	private U request(JSONObject request) {
+		String cacheKey = getCacheKey(request);
+		U cachedResult = getCachedResult(cacheKey);
+		if (cachedResult != null) {
+			return cachedResult;
+		}
+		return toResult(serviceUri, send(serviceUri, request.toString()), cacheKey);
+	}
+
+	/** @return future result for given request - taken from cache if available, otherwise requested from the service */
+	private CompletableFuture<U> requestAsync(JSONObject request) {
+		String cacheKey = getCacheKey(request);
+		U cachedResult = getCachedResult(cacheKey);
+		if (cachedResult != null) {
+			return CompletableFuture.completedFuture(cachedResult);
+		}
+		return sendAsync(serviceUri, request.toString()).thenApply(response -> toResult(serviceUri, response, cacheKey));
+	}
+
+	/** @return key of given request in the response cache, or null if caching is disabled */
+	private String getCacheKey(JSONObject request) {
+		return responseCache != null ? serviceUri + " " + responseCache.canonicalise(request) : null;
 	}
 
-	/** Calls external model, submits given body and returns response
+	/** @return result cached for given key, or null if none is cached or caching is disabled */
+	private U getCachedResult(String cacheKey) {
+		if (cacheKey == null) {
+			return null;
+		}
+		String response = responseCache.get(cacheKey);
+		return response != null ? unmarshall(serviceUri, response.getBytes(StandardCharsets.UTF_8)) : null;
+	}
+
+	/** @return given response translated to the result type; stores the response in the cache if a cache key is given */
+	private U toResult(URI uri, byte[] response, String cacheKey) {
+		U result = unmarshall(uri, response);
+		if (cacheKey != null) {
+			responseCache.put(cacheKey, new String(response, StandardCharsets.UTF_8));
+		}
+		return result;
+	}
+
+	/** Sends given body to given URI and waits for the response
 	 * 
-	 * @param requestBody to be submitted to the external model
-	 * @return response string from external model */
-	private String call(String requestBody) {
+	 * @return body of the response */
+	private byte[] send(URI uri, String requestBody) {
+		logRequest(uri, requestBody);
 		try {
-			HttpURLConnection connection = connectToService();
-			logger.info("Sending request to service at: " + serviceUrl);
-			logger.debug(requestBody);
-			sendBody(connection, requestBody);
-			String response = readResponse(connection);
-			connection.disconnect();
-			logger.debug(response);
-			logger.info("Response received from service at: " + serviceUrl);
-			return response;
+			HttpResponse<byte[]> response = getClient().send(buildRequest(uri, requestBody), BodyHandlers.ofByteArray());
+			return readResponse(uri, response);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(ERR_INTERRUPTED + uri, e);
 		} catch (IOException e) {
-			throw new RuntimeException(ERR_GENERAL_IO + serviceUrl, e);
+			throw translate(uri, e);
 		}
 	}
 
-	/** @return new connection to the {@link #serviceUrl} */
-	private HttpURLConnection connectToService() throws IOException {
-		HttpURLConnection serviceConnection = (HttpURLConnection) serviceUrl.openConnection();
-		serviceConnection.setRequestMethod("POST");
-		serviceConnection.setRequestProperty("Content-Type", "application/json; charset=utf8");
-		serviceConnection.setDoInput(true);
-		serviceConnection.setDoOutput(true);
-		serviceConnection.setReadTimeout(timeoutInMillis);
-		return serviceConnection;
+	/** Sends given body to given URI without waiting for the response
+	 * 
+	 * @return future body of the response */
+	private CompletableFuture<byte[]> sendAsync(URI uri, String requestBody) {
+		logRequest(uri, requestBody);
+		return getClient().sendAsync(buildRequest(uri, requestBody), BodyHandlers.ofByteArray())
+				.thenApply(response -> readResponse(uri, response));
 	}
 
-	/** writes given request body to given connection */
-	private void sendBody(HttpURLConnection connection, String requestBody) throws IOException {
+	/** @return HTTP client shared by all services using the HTTP version of this service */
+	private HttpClient getClient() {
+		return sharedClients.computeIfAbsent(httpVersion,
+				version -> HttpClient.newBuilder().version(version).followRedirects(Redirect.NORMAL).build());
+	}
+
+	/** @return result of given future; any failure is translated to a {@link RuntimeException} */
+	private <R> R join(URI uri, CompletableFuture<R> future) {
 		try {
-			OutputStreamWriter wr = new OutputStreamWriter(connection.getOutputStream());
-			wr.write(requestBody);
-			wr.close();
-		} catch (ConnectException e) {
-			throw new RuntimeException(ERR_CONNECTION + serviceUrl, e);
+			return future.join();
+		} catch (CompletionException e) {
+			throw translate(uri, e.getCause());
 		}
 	}
 
-	/** @return response from querying the service */
-	private String readResponse(HttpURLConnection connection) throws IOException {
-		String response;
+	/** @return given failure of a request to the given URI as {@link RuntimeException} */
+	private static RuntimeException translate(URI uri, Throwable failure) {
+		if (failure instanceof RuntimeException) {
+			return (RuntimeException) failure;
+		} else if (failure instanceof HttpTimeoutException) {
+			return new RuntimeException(ERR_TIMEOUT + uri, failure);
+		} else if (failure instanceof ConnectException) {
+			return new RuntimeException(ERR_CONNECTION + uri, failure);
+		}
+		return new RuntimeException(ERR_GENERAL_IO + uri, failure);
+	}
+
+	/** Logs that the given request body is sent to the given URI */
+	private void logRequest(URI uri, String requestBody) {
+		logger.info("Sending request to service at: " + uri);
+		logger.debug(requestBody);
+	}
+
+	/** @return new POST request of given body to given URI */
+	private HttpRequest buildRequest(URI uri, String requestBody) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+				.header("Content-Type", "application/json; charset=utf-8")
+				.POST(BodyPublishers.ofString(requestBody, StandardCharsets.UTF_8));
+		if (timeoutInMillis > 0) {
+			builder.timeout(Duration.ofMillis(timeoutInMillis));
+		}
+		return builder.build();
+	}
+
+	/** @return body of given response if the request succeeded */
+	private byte[] readResponse(URI uri, HttpResponse<byte[]> response) {
+		if (response.statusCode() != 200) {
+			throw new RuntimeException(uri + ERR_RESPONSE + response.statusCode());
+		}
+		logger.info("Response received from service at: " + uri);
+		if (logger.isDebugEnabled()) {
+			logger.debug(new String(response.body(), StandardCharsets.UTF_8));
+		}
+		return response.body();
+	}
+
+	/** @return given response String translated to the result type */
+	U unmarshall(String response) {
+		return unmarshall(serviceUri, response.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/** @return given response bytes translated directly to the result type */
+	private U unmarshall(URI uri, byte[] response) {
 		try {
-			BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-			response = reader.lines().collect(Collectors.joining(System.lineSeparator()));
-			if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
-				throw new RuntimeException(connection.getResponseMessage() + ERR_RESPONSE + connection.getResponseCode());
-			}
-		} catch (SocketTimeoutException e) {
-			throw new RuntimeException(ERR_TIMEOUT, e);
+			return mapper.readValue(response, resultType);
+		} catch (JsonParseException e) {
+			throw new RuntimeException(uri + ERR_NO_JSON, e);
+		} catch (JsonMappingException e) {
+			throw new RuntimeException(uri + (isJson(response) ? ERR_MAPPING : ERR_NO_JSON), e);
+		} catch (IOException e) {
+			throw new RuntimeException(uri + ERR_NO_JSON, e);
+		}
+	}
+
+	/** @return true if given bytes represent a valid JSON document */
+	private static boolean isJson(byte[] content) {
+		try {
+			JsonNode node = mapper.readTree(content);
+			return node != null && !node.isMissingNode();
+		} catch (IOException e) {
+			return false;
 		}
-		return response;
 	}
 
 	/** @return max delay for service to respond in milliseconds */
@@ -215,4 +396,17 @@ public abstract class UrlModelService<T extends JSONable, U> {
 	public void setTimeout(int timeout) {
 		this.timeoutInMillis = timeout;
 	}
+
+	/** @return HTTP version used to contact the service */
+	public Version getHttpVersion() {
+		return httpVersion;
+	}
+
+	/** Set HTTP version used to contact the service; HTTP/2 should only be used with "https://" URLs, since for plain "http://"
+	 * URLs each new connection attempts an upgrade handshake that not all servers support
+	 * 
+	 * @param httpVersion to be used for subsequent requests */
+	public void setHttpVersion(Version httpVersion) {
+		this.httpVersion = httpVersion;
+	}
 }
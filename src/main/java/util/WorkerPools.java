@@ -0,0 +1,75 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package util;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/** Provides pools of worker threads shared by all agents of a process; agents requesting the same parallelism share one pool,
+ * and no pool exceeds the number of available processors. All pools are shut down at the end of the simulation, i.e. when the
+ * JVM exits. Ids of all live worker threads are known, e.g. to measure their allocations. */
+public final class WorkerPools {
+	static final String NO_INSTANCE = "Do not instantiate class: ";
+
+	private static final int MAX_PARALLELISM = Runtime.getRuntime().availableProcessors();
+	private static final Map<Integer, ForkJoinPool> pools = new ConcurrentHashMap<>();
+	private static final Set<Long> workerThreadIds = ConcurrentHashMap.newKeySet();
+
+	/** Worker thread that registers its id while alive */
+	private static final class RegisteredWorker extends ForkJoinWorkerThread {
+		RegisteredWorker(ForkJoinPool pool) {
+			super(pool);
+		}
+
+		@Override
+		protected void onStart() {
+			super.onStart();
+			workerThreadIds.add(getId());
+		}
+
+		@Override
+		protected void onTermination(Throwable exception) {
+			workerThreadIds.remove(getId());
+			super.onTermination(exception);
+		}
+	}
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(WorkerPools::shutdown));
+	}
+
+	WorkerPools() {
+		throw new IllegalStateException(NO_INSTANCE + getClass().getCanonicalName());
+	}
+
+	/** Returns the shared pool for the given parallelism - created on first request
+	 *
+	 * @param parallelism requested number of worker threads; capped at the number of available processors
+	 * @return shared pool with the requested, but bounded, number of worker threads */
+	public static ForkJoinPool get(int parallelism) {
+		return pools.computeIfAbsent(getBoundedParallelism(parallelism),
+				bounded -> new ForkJoinPool(bounded, RegisteredWorker::new, null, false));
+	}
+
+	/** @return ids of all live worker threads of all pools */
+	public static long[] getWorkerThreadIds() {
+		return workerThreadIds.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	/** @return given parallelism bounded to the range [1, number of available processors] */
+	static int getBoundedParallelism(int parallelism) {
+		return Math.max(1, Math.min(parallelism, MAX_PARALLELISM));
+	}
+
+	/** Shuts down all pools; pools requested afterwards are created anew */
+	public static void shutdown() {
+		for (ForkJoinPool pool : pools.values()) {
+			pool.shutdown();
+		}
+		pools.clear();
+	}
+}
@@ -0,0 +1,64 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.flexibility;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import agents.flexibility.GenericDevice.StateViolation;
+import de.dlr.gitlab.fame.agent.input.ParameterData;
+import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
+import de.dlr.gitlab.fame.data.TimeSeries;
+import de.dlr.gitlab.fame.protobuf.Input.InputData.TimeSeriesDao;
+import de.dlr.gitlab.fame.time.Constants.Interval;
+import de.dlr.gitlab.fame.time.TimeSpan;
+
+/** Builds {@link GenericDevice}s with constant parameters for tests and benchmarks */
+public final class ConstantDevices {
+	/** created time series range from minus to plus this many steps, far beyond any tested planning horizon */
+	private static final long SERIES_RANGE_IN_STEPS = new TimeSpan(100 * 8760, Interval.HOURS).getSteps();
+
+	private ConstantDevices() {}
+
+	/** Builds a storage-like {@link GenericDevice} without inflows, shift time limits or penalties; the device starts half-full
+	 * and cuts energy overflows and underflows
+	 *
+	 * @param powerInMW gross charging and net discharging power
+	 * @param efficiency of both charging and discharging
+	 * @param energyContentUpperLimitInMWH upper energy content limit; the lower limit is zero
+	 * @param selfDischargeRatePerHour relative loss of energy content per hour
+	 * @param variableCostInEURperMWH variable cost of (dis-)charging
+	 * @return new {@link GenericDevice} with given constant parameters */
+	public static GenericDevice build(double powerInMW, double efficiency, double energyContentUpperLimitInMWH,
+			double selfDischargeRatePerHour, double variableCostInEURperMWH) {
+		ParameterData input = mock(ParameterData.class);
+		try {
+			when(input.getTimeSeries(GenericDevice.PARAM_CHARGING_POWER)).thenReturn(createSeries(powerInMW));
+			when(input.getTimeSeries(GenericDevice.PARAM_DISCHARGING_POWER)).thenReturn(createSeries(powerInMW));
+			when(input.getTimeSeries(GenericDevice.PARAM_CHARGING_EFFICIENCY)).thenReturn(createSeries(efficiency));
+			when(input.getTimeSeries(GenericDevice.PARAM_DISCHARGING_EFFICIENCY)).thenReturn(createSeries(efficiency));
+			when(input.getTimeSeries(GenericDevice.PARAM_UPPER_LIMIT)).thenReturn(createSeries(energyContentUpperLimitInMWH));
+			when(input.getTimeSeries(GenericDevice.PARAM_LOWER_LIMIT)).thenReturn(createSeries(0));
+			when(input.getTimeSeries(GenericDevice.PARAM_SELF_DISCHARGE)).thenReturn(createSeries(selfDischargeRatePerHour));
+			when(input.getTimeSeries(GenericDevice.PARAM_INFLOW)).thenReturn(createSeries(0));
+			when(input.getDouble(GenericDevice.PARAM_INITIAL_ENERGY)).thenReturn(energyContentUpperLimitInMWH / 2);
+			when(input.getTimeSeries(GenericDevice.PARAM_VARIABLE_COST)).thenReturn(createSeries(variableCostInEURperMWH));
+			when(input.getDouble(GenericDevice.PARAM_SHIFT_TIME)).thenReturn(0.);
+			when(input.getInteger(GenericDevice.PARAM_ENABLE_PROLONGING)).thenReturn(0);
+			when(input.getTimeSeries(GenericDevice.PARAM_PENALTY_COST)).thenReturn(createSeries(0));
+			when(input.getEnum(GenericDevice.PARAM_OVERFLOW, StateViolation.class)).thenReturn(StateViolation.CUT);
+			when(input.getEnum(GenericDevice.PARAM_UNDERFLOW, StateViolation.class)).thenReturn(StateViolation.CUT);
+			return new GenericDevice(input);
+		} catch (MissingDataException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/** @return time series with the given constant value, defined at its first and last time step to avoid extrapolation */
+	private static TimeSeries createSeries(double value) {
+		TimeSeriesDao.Builder builder = TimeSeriesDao.newBuilder();
+		builder.addTimeSteps(-SERIES_RANGE_IN_STEPS).addValues(value);
+		builder.addTimeSteps(SERIES_RANGE_IN_STEPS).addValues(value);
+		return new TimeSeries(builder.setSeriesId(1).build());
+	}
+}
@@ -305,4 +305,21 @@ public class GenericDeviceCacheTest {
 		cacheFor(QUARTER_HOUR);
 		assertEquals(-44, deviceCache.getMaxNetDischargingEnergyInMWH(), 1E-12);
 	}
+
+	@Test
+	public void prepareFor_withHorizon_matchesDirectReading() {
+		setupGenericDeviceCache(200, 100, 0.9, 0.8, 500, 10, 0.1, 20);
+		TimePeriod startingPeriod = new TimePeriod(new TimeStamp(0), TWO_HOURS);
+		GenericDeviceCache directCache = new GenericDeviceCache(mockDevice);
+		directCache.setPeriod(startingPeriod);
+		deviceCache.setHorizon(startingPeriod, 3);
+		for (int timeIndex = 0; timeIndex < 3; timeIndex++) {
+			TimeStamp time = startingPeriod.shiftByDuration(timeIndex).getStartTime();
+			directCache.prepareFor(time);
+			deviceCache.prepareFor(time);
+			assertEquals(directCache.getMaxTargetEnergyContentInMWH(100), deviceCache.getMaxTargetEnergyContentInMWH(100), 0);
+			assertEquals(directCache.getMinTargetEnergyContentInMWH(100), deviceCache.getMinTargetEnergyContentInMWH(100), 0);
+			assertEquals(directCache.simulateTransition(100, 50), deviceCache.simulateTransition(100, 50), 0);
+		}
+	}
 }
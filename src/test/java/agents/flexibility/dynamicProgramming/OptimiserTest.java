@@ -0,0 +1,246 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.flexibility.dynamicProgramming;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import agents.flexibility.dynamicProgramming.Optimiser.Target;
+import agents.flexibility.dynamicProgramming.bidding.BidScheduler;
+import agents.flexibility.dynamicProgramming.states.StateManager;
+import de.dlr.gitlab.fame.time.TimePeriod;
+import de.dlr.gitlab.fame.time.TimeSpan;
+import de.dlr.gitlab.fame.time.TimeStamp;
+
+/** Tests for {@link Optimiser} */
+public class OptimiserTest {
+	private static final int STATE_COUNT = 700;
+	private static final int TIME_STEPS = 6;
+	private static final int MAX_STEP = 40;
+
+	/** {@link StateManager} with random transition values that records all best final states and values */
+	private static class RandomStateManager implements StateManager {
+		private final double[][] transitionValues = new double[STATE_COUNT][2 * MAX_STEP + 1];
+		private final int[][] bestFinalStates = new int[TIME_STEPS][STATE_COUNT];
+		private final double[][] bestValues = new double[TIME_STEPS + 1][STATE_COUNT];
+		private final boolean allowsConcurrency;
+		private final boolean isMonotone;
+		private int currentTimeIndex;
+
+		RandomStateManager(long seed, boolean allowsConcurrency) {
+			this.allowsConcurrency = allowsConcurrency;
+			this.isMonotone = false;
+			Random random = new Random(seed);
+			for (double[] row : transitionValues) {
+				for (int i = 0; i < row.length; i++) {
+					row[i] = Math.round(random.nextGaussian() * 20) / 4.;
+				}
+			}
+		}
+
+		/** Transition values depend on state delta only and are concave (maximisation) or convex (minimisation) */
+		RandomStateManager(long seed, Target target, boolean isMonotone) {
+			this.allowsConcurrency = false;
+			this.isMonotone = isMonotone;
+			Random random = new Random(seed);
+			double[] valuesByDelta = new double[2 * MAX_STEP + 1];
+			double slope = 50;
+			for (int i = 1; i < valuesByDelta.length; i++) {
+				slope -= random.nextInt(5) / 4.;
+				valuesByDelta[i] = valuesByDelta[i - 1] + slope;
+			}
+			double sign = target == Target.MAXIMISE ? 1 : -1;
+			for (double[] row : transitionValues) {
+				for (int i = 0; i < row.length; i++) {
+					row[i] = sign * valuesByDelta[i];
+				}
+			}
+			for (int i = 0; i < STATE_COUNT; i++) {
+				bestValues[TIME_STEPS][i] = random.nextInt(400) / 4.;
+			}
+		}
+
+		@Override
+		public void initialise(TimePeriod startingPeriod) {}
+
+		@Override
+		public void prepareFor(TimeStamp time) {
+			currentTimeIndex = (int) time.getStep();
+		}
+
+		@Override
+		public boolean useStateList() {
+			return false;
+		}
+
+		@Override
+		public int[] getInitialStates() {
+			return new int[] {0, STATE_COUNT - 1};
+		}
+
+		@Override
+		public int[] getFinalStates(int initialStateIndex) {
+			if (initialStateIndex % 97 == 13) {
+				return new int[] {STATE_OVERFLOW};
+			}
+			return new int[] {Math.max(0, initialStateIndex - MAX_STEP), Math.min(STATE_COUNT - 1, initialStateIndex + MAX_STEP)};
+		}
+
+		@Override
+		public double getTransitionValueFor(int initialStateIndex, int finalStateIndex) {
+			return transitionValues[initialStateIndex][finalStateIndex - initialStateIndex + MAX_STEP];
+		}
+
+		@Override
+		public boolean allowsConcurrentEvaluation() {
+			return allowsConcurrency;
+		}
+
+		@Override
+		public boolean hasMonotoneBestFinalStates() {
+			return isMonotone;
+		}
+
+		@Override
+		public double[] getBestValuesNextPeriod() {
+			return bestValues[currentTimeIndex + 1];
+		}
+
+		@Override
+		public void updateBestFinalState(int initialStateIndex, int bestFinalStateIndex, double bestAssessmentValue) {
+			bestFinalStates[currentTimeIndex][initialStateIndex] = bestFinalStateIndex;
+			bestValues[currentTimeIndex][initialStateIndex] = bestAssessmentValue;
+		}
+
+		@Override
+		public int getNumberOfForecastTimeSteps() {
+			return TIME_STEPS;
+		}
+
+		@Override
+		public DispatchSchedule getBestDispatchSchedule(int schedulingSteps) {
+			return null;
+		}
+
+		@Override
+		public ArrayList<TimeStamp> getPlanningTimes(TimePeriod startingPeriod) {
+			return null;
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(Target.class)
+	public void createSchedule_concurrent_matchesSequentialResults(Target target) throws DispatchPlanningError {
+		BidScheduler bidScheduler = mock(BidScheduler.class);
+		when(bidScheduler.getScheduleHorizonInHours()).thenReturn(0.);
+		TimePeriod startingPeriod = new TimePeriod(new TimeStamp(0), new TimeSpan(1));
+		for (long seed = 0; seed < 5; seed++) {
+			RandomStateManager sequential = new RandomStateManager(seed, false);
+			new Optimiser(sequential, bidScheduler, target, 4).createSchedule(startingPeriod);
+			RandomStateManager concurrent = new RandomStateManager(seed, true);
+			new Optimiser(concurrent, bidScheduler, target, 4).createSchedule(startingPeriod);
+			for (int timeIndex = 0; timeIndex < TIME_STEPS; timeIndex++) {
+				assertArrayEquals(sequential.bestFinalStates[timeIndex], concurrent.bestFinalStates[timeIndex]);
+				assertArrayEquals(sequential.bestValues[timeIndex], concurrent.bestValues[timeIndex], 0);
+			}
+		}
+	}
+
+	/** Backward induction as implemented before concurrent assessment and contiguous transition rows were introduced: scans each
+	 * initial state's final states in ascending order using single transition values */
+	private static void optimiseWithBaseline(RandomStateManager stateManager, Target target) {
+		boolean isMaximisation = target == Target.MAXIMISE;
+		double initialAssessmentValue = isMaximisation ? -Double.MAX_VALUE : Double.MAX_VALUE;
+		for (int step = TIME_STEPS - 1; step >= 0; step--) {
+			stateManager.prepareFor(new TimeStamp(step));
+			double[] bestValuesNextPeriod = stateManager.getBestValuesNextPeriod();
+			int[] initialBoundaries = stateManager.getInitialStates();
+			for (int initialStateIndex = initialBoundaries[0]; initialStateIndex <= initialBoundaries[1]; initialStateIndex++) {
+				double bestAssessmentValue = initialAssessmentValue;
+				int bestFinalStateIndex = StateManager.STATE_INFEASIBLE;
+				int[] finalBoundaries = stateManager.getFinalStates(initialStateIndex);
+				if (finalBoundaries.length == 1) {
+					bestFinalStateIndex = finalBoundaries[0];
+				} else {
+					for (int finalStateIndex = finalBoundaries[0]; finalStateIndex <= finalBoundaries[1]; finalStateIndex++) {
+						double value = stateManager.getTransitionValueFor(initialStateIndex, finalStateIndex)
+								+ bestValuesNextPeriod[finalStateIndex];
+						if (isMaximisation ? value > bestAssessmentValue : value < bestAssessmentValue) {
+							bestAssessmentValue = value;
+							bestFinalStateIndex = finalStateIndex;
+						}
+					}
+				}
+				stateManager.updateBestFinalState(initialStateIndex, bestFinalStateIndex, bestAssessmentValue);
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(Target.class)
+	public void createSchedule_concurrent_bitIdenticalToBaseline(Target target) throws DispatchPlanningError {
+		BidScheduler bidScheduler = mock(BidScheduler.class);
+		when(bidScheduler.getScheduleHorizonInHours()).thenReturn(0.);
+		TimePeriod startingPeriod = new TimePeriod(new TimeStamp(0), new TimeSpan(1));
+		for (long seed = 0; seed < 5; seed++) {
+			RandomStateManager baseline = new RandomStateManager(seed, false);
+			optimiseWithBaseline(baseline, target);
+			for (int parallelism : new int[] {1, 4}) {
+				RandomStateManager optimised = new RandomStateManager(seed, true);
+				new Optimiser(optimised, bidScheduler, target, parallelism).createSchedule(startingPeriod);
+				assertSameResults(baseline, optimised);
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(Target.class)
+	public void createSchedule_monotoneBestFinalStates_bitIdenticalToBaseline(Target target) throws DispatchPlanningError {
+		BidScheduler bidScheduler = mock(BidScheduler.class);
+		when(bidScheduler.getScheduleHorizonInHours()).thenReturn(0.);
+		TimePeriod startingPeriod = new TimePeriod(new TimeStamp(0), new TimeSpan(1));
+		for (long seed = 0; seed < 5; seed++) {
+			RandomStateManager baseline = new RandomStateManager(seed, target, false);
+			optimiseWithBaseline(baseline, target);
+			RandomStateManager monotone = new RandomStateManager(seed, target, true);
+			new Optimiser(monotone, bidScheduler, target).createSchedule(startingPeriod);
+			assertSameResults(baseline, monotone);
+		}
+	}
+
+	/** Asserts that best final states and best values are identical in all time steps; values are compared bitwise */
+	private static void assertSameResults(RandomStateManager expected, RandomStateManager actual) {
+		for (int timeIndex = 0; timeIndex < TIME_STEPS; timeIndex++) {
+			assertArrayEquals(expected.bestFinalStates[timeIndex], actual.bestFinalStates[timeIndex]);
+			for (int state = 0; state < STATE_COUNT; state++) {
+				assertEquals(Double.doubleToRawLongBits(expected.bestValues[timeIndex][state]),
+						Double.doubleToRawLongBits(actual.bestValues[timeIndex][state]));
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(Target.class)
+	public void createSchedule_monotoneBestFinalStates_matchesGenericResults(Target target) throws DispatchPlanningError {
+		BidScheduler bidScheduler = mock(BidScheduler.class);
+		when(bidScheduler.getScheduleHorizonInHours()).thenReturn(0.);
+		TimePeriod startingPeriod = new TimePeriod(new TimeStamp(0), new TimeSpan(1));
+		for (long seed = 0; seed < 5; seed++) {
+			RandomStateManager generic = new RandomStateManager(seed, target, false);
+			new Optimiser(generic, bidScheduler, target).createSchedule(startingPeriod);
+			RandomStateManager monotone = new RandomStateManager(seed, target, true);
+			new Optimiser(monotone, bidScheduler, target).createSchedule(startingPeriod);
+			for (int timeIndex = 0; timeIndex < TIME_STEPS; timeIndex++) {
+				assertArrayEquals(generic.bestFinalStates[timeIndex], monotone.bestFinalStates[timeIndex]);
+				assertArrayEquals(generic.bestValues[timeIndex], monotone.bestValues[timeIndex], 0);
+			}
+		}
+	}
+
+}
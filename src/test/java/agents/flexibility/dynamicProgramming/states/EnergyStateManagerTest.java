@@ -0,0 +1,132 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.flexibility.dynamicProgramming.states;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import agents.flexibility.BidSchedule;
+import agents.flexibility.ConstantDevices;
+import agents.flexibility.GenericDevice;
+import agents.flexibility.dynamicProgramming.DispatchPlanningError;
+import agents.flexibility.dynamicProgramming.Optimiser;
+import agents.flexibility.dynamicProgramming.assessment.AssessmentFunction;
+import agents.flexibility.dynamicProgramming.assessment.MaxProfit;
+import agents.flexibility.dynamicProgramming.assessment.MinSystemCost;
+import agents.flexibility.dynamicProgramming.bidding.BidScheduler;
+import agents.flexibility.dynamicProgramming.states.StateEvaluations.ValueStorage;
+import agents.flexibility.dynamicProgramming.states.StateManager.DispatchSchedule;
+import communications.message.PointInTime;
+import communications.portable.Sensitivity;
+import communications.portable.SensitivityCurves;
+import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
+import de.dlr.gitlab.fame.communication.message.Message;
+import de.dlr.gitlab.fame.time.Constants.Interval;
+import de.dlr.gitlab.fame.time.TimePeriod;
+import de.dlr.gitlab.fame.time.TimeSpan;
+import de.dlr.gitlab.fame.time.TimeStamp;
+
+/** Tests for {@link EnergyStateManager} */
+public class EnergyStateManagerTest {
+	private static final double PLANNING_HORIZON_IN_HOURS = 24;
+	private static final double MAX_POWER_IN_MW = 1000;
+	private final TimePeriod startingPeriod = new TimePeriod(new TimeStamp(0), new TimeSpan(1, Interval.HOURS));
+
+	/** {@link BidScheduler} that stores the dispatch schedule it receives */
+	private static class RecordingBidScheduler implements BidScheduler {
+		DispatchSchedule schedule;
+
+		@Override
+		public BidSchedule createBidSchedule(TimePeriod startingTime, DispatchSchedule schedule) {
+			this.schedule = schedule;
+			return null;
+		}
+
+		@Override
+		public double getScheduleHorizonInHours() {
+			return PLANNING_HORIZON_IN_HOURS;
+		}
+	}
+
+	@ParameterizedTest
+	@CsvSource(value = {"10:0.9:100:0.01:0", "7:0.85:200:0.002:1", "25:0.95:60:0.05:2.5", "3:1:40:0.001:0"},
+			delimiter = ':')
+	public void createSchedule_selfDischarge_batchAssessmentMatchesSingleAssessments(double powerInMW, double efficiency,
+			double upperLimitInMWH, double selfDischargeRate, double variableCostInEURperMWH)
+			throws MissingDataException, DispatchPlanningError {
+		GenericDevice device = ConstantDevices.build(powerInMW, efficiency, upperLimitInMWH, selfDischargeRate,
+				variableCostInEURperMWH);
+		assertSameSchedules(device, new MaxProfit(device), new MaxProfit(device) {
+			@Override
+			public void assessTransitions(double[] externalEnergyDeltasInMWH, int count, double[] values) {
+				assessOneByOne(this, externalEnergyDeltasInMWH, count, values);
+			}
+		});
+		assertSameSchedules(device, new MinSystemCost(device), new MinSystemCost(device) {
+			@Override
+			public void assessTransitions(double[] externalEnergyDeltasInMWH, int count, double[] values) {
+				assessOneByOne(this, externalEnergyDeltasInMWH, count, values);
+			}
+		});
+	}
+
+	/** Assesses each given transition separately */
+	private static void assessOneByOne(AssessmentFunction assessment, double[] externalEnergyDeltasInMWH, int count,
+			double[] values) {
+		for (int index = 0; index < count; index++) {
+			values[index] = assessment.assessTransition(externalEnergyDeltasInMWH[index]);
+		}
+	}
+
+	/** Asserts that both assessments yield the exact same dispatch schedule for the given device */
+	private void assertSameSchedules(GenericDevice device, AssessmentFunction batch, AssessmentFunction single)
+			throws MissingDataException, DispatchPlanningError {
+		DispatchSchedule expected = planSchedule(device, single);
+		DispatchSchedule actual = planSchedule(device, batch);
+		assertArrayEquals(expected.externalEnergyDeltasInMWH, actual.externalEnergyDeltasInMWH, 0);
+		assertArrayEquals(expected.initialInternalEnergiesInMWH, actual.initialInternalEnergiesInMWH, 0);
+	}
+
+	/** @return dispatch schedule planned for the given device and assessment with stepped forecasts */
+	private DispatchSchedule planSchedule(GenericDevice device, AssessmentFunction assessment)
+			throws MissingDataException, DispatchPlanningError {
+		StateManager stateManager = new EnergyStateManager(device, assessment, PLANNING_HORIZON_IN_HOURS, 1,
+				new WaterValues(null), ValueStorage.FULL);
+		assessment.storeForecast(createSteppedForecasts(stateManager.getPlanningTimes(startingPeriod)));
+		RecordingBidScheduler bidScheduler = new RecordingBidScheduler();
+		new Optimiser(stateManager, bidScheduler, assessment.getTargetType()).createSchedule(startingPeriod);
+		return bidScheduler.schedule;
+	}
+
+	/** @return one forecast message per planning time, each with prices stepping up for added demand and down for added supply */
+	private ArrayList<Message> createSteppedForecasts(List<TimeStamp> planningTimes) {
+		ArrayList<Message> messages = new ArrayList<>();
+		for (int timeIndex = 0; timeIndex < planningTimes.size(); timeIndex++) {
+			double basePrice = 40 + 20 * Math.sin(timeIndex);
+			double[] powers = new double[] {0, 2.5, 6, 15, MAX_POWER_IN_MW};
+			double[] demandValues = cumulate(powers, basePrice, 5);
+			double[] supplyValues = cumulate(powers, basePrice, -4);
+			Sensitivity sensitivity = new Sensitivity(new SensitivityCurves(powers, demandValues, powers, supplyValues), 1);
+			Message message = mock(Message.class);
+			when(message.getAllPortableItemsOfType(Sensitivity.class)).thenReturn(new ArrayList<>(List.of(sensitivity)));
+			when(message.getDataItemOfType(PointInTime.class)).thenReturn(new PointInTime(planningTimes.get(timeIndex)));
+			messages.add(message);
+		}
+		return messages;
+	}
+
+	/** @return cumulated values of given powers at a price that starts at the base price and changes by given step per segment */
+	private double[] cumulate(double[] powers, double basePrice, double priceStep) {
+		double[] values = new double[powers.length];
+		for (int index = 1; index < powers.length; index++) {
+			double price = basePrice + priceStep * index;
+			values[index] = values[index - 1] + price * (powers[index] - powers[index - 1]);
+		}
+		return values;
+	}
+}
@@ -0,0 +1,29 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.flexibility.dynamicProgramming.states;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class NextStateTableTest {
+	@ParameterizedTest
+	@ValueSource(ints = {2, NextStateTable.MAX_BYTE_OFFSET + 1, NextStateTable.MAX_BYTE_OFFSET + 2,
+			NextStateTable.MAX_SHORT_OFFSET + 1, NextStateTable.MAX_SHORT_OFFSET + 2})
+	public void get_afterSet_returnsStoredState(int stateCount) {
+		NextStateTable table = new NextStateTable(2, stateCount);
+		int last = stateCount - 1;
+		assertEquals(StateManager.STATE_INFEASIBLE, table.get(1, last));
+		table.set(0, 0, last);
+		table.set(0, last, 0);
+		table.set(1, 0, StateManager.STATE_OVERFLOW);
+		table.set(1, last, StateManager.STATE_UNDERFLOW);
+		assertEquals(last, table.get(0, 0));
+		assertEquals(0, table.get(0, last));
+		assertEquals(StateManager.STATE_OVERFLOW, table.get(1, 0));
+		assertEquals(StateManager.STATE_UNDERFLOW, table.get(1, last));
+		table.clearRow(0);
+		assertEquals(StateManager.STATE_INFEASIBLE, table.get(0, 0));
+	}
+}
@@ -3,13 +3,20 @@
 // SPDX-License-Identifier: Apache-2.0
 package agents.flexibility.dynamicProgramming.states;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import agents.flexibility.GenericDeviceCache;
+import agents.flexibility.dynamicProgramming.assessment.AssessmentFunction;
+import agents.flexibility.dynamicProgramming.states.StateEvaluations.ValueStorage;
+import de.dlr.gitlab.fame.time.TimePeriod;
+import de.dlr.gitlab.fame.time.TimeSpan;
+import de.dlr.gitlab.fame.time.TimeStamp;
 
 public class StateEvaluationsTest {
 	@ParameterizedTest
@@ -60,4 +67,25 @@ public class StateEvaluationsTest {
 		GenericDeviceCache device = mockDeviceCacheLimits(lowerLimit, upperLimit);
 		assertEquals(expected, StateEvaluations.calcNextEnergyInMWH(device, currentEnergy, delta), 1E-10);
 	}
+
+	@Test
+	public void getBestValuesNextPeriod_compactStorage_matchesFullStorage() {
+		StateEvaluations full = new StateEvaluations(mock(StateDiscretiser.class), mock(GenericDeviceCache.class),
+				mock(AssessmentFunction.class), null, ValueStorage.FULL);
+		StateEvaluations compact = new StateEvaluations(mock(StateDiscretiser.class), mock(GenericDeviceCache.class),
+				mock(AssessmentFunction.class), null, ValueStorage.COMPACT);
+		TimePeriod startingPeriod = new TimePeriod(new TimeStamp(0), new TimeSpan(1));
+		full.initialise(startingPeriod, 8, 4, 2);
+		compact.initialise(startingPeriod, 8, 4, 2);
+		for (int timeIndex = 7; timeIndex >= 0; timeIndex--) {
+			TimeStamp time = startingPeriod.shiftByDuration(timeIndex).getStartTime();
+			full.prepareFor(time);
+			compact.prepareFor(time);
+			assertArrayEquals(full.getBestValuesNextPeriod(), compact.getBestValuesNextPeriod(), 0);
+			for (int state = 0; state < 4; state++) {
+				full.updateBestFinalState(state, state, timeIndex * 10 + state);
+				compact.updateBestFinalState(state, state, timeIndex * 10 + state);
+			}
+		}
+	}
 }
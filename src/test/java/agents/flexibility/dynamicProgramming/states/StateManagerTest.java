@@ -16,6 +16,7 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import agents.flexibility.GenericDevice;
+import agents.flexibility.GenericDeviceSnapshot;
 import de.dlr.gitlab.fame.time.TimePeriod;
 import de.dlr.gitlab.fame.time.TimeSpan;
 import de.dlr.gitlab.fame.time.TimeStamp;
@@ -42,26 +43,37 @@ public class StateManagerTest {
 	@Test
 	public void hasSelfDischarge_noSelfDischarge_returnsFalse() {
 		GenericDevice device = mockDeviceSelfDischarge(0, 0, 0, 0, 0, 1);
-		assertFalse(StateManager.hasSelfDischarge(device, 5, samplePeriod));
+		assertFalse(StateManager.hasSelfDischarge(createSnapshot(device, 5)));
 	}
 
 	/** @returns mocked {@link GenericDevice} that returns given self-discharge rates on request */
 	private GenericDevice mockDeviceSelfDischarge(double... selfDischargeRates) {
 		GenericDevice mockDevice = mock(GenericDevice.class);
-		when(mockDevice.getSelfDischargeRate(any(TimeStamp.class))).thenAnswer(new Answer<Double>() {
-			private int count = -1;
+		when(mockDevice.getSelfDischargeRate(any(TimeStamp.class))).thenAnswer(byPeriodOf(selfDischargeRates));
+		return mockDevice;
+	}
 
+	/** @return answer that returns the value of the period of the requested time in {@link #samplePeriod}, zero before it */
+	private Answer<Double> byPeriodOf(double[] values) {
+		return new Answer<Double>() {
 			public Double answer(InvocationOnMock invocation) {
-				return selfDischargeRates[++count];
+				int timeIndex = StateManager.getCurrentOptimisationTimeIndex(invocation.getArgument(0), samplePeriod);
+				return timeIndex < 0 ? 0 : values[timeIndex];
 			}
-		});
-		return mockDevice;
+		};
+	}
+
+	/** @return snapshot of given device for given number of periods starting at {@link #samplePeriod} */
+	private GenericDeviceSnapshot createSnapshot(GenericDevice device, int numberOfTimeSteps) {
+		GenericDeviceSnapshot snapshot = new GenericDeviceSnapshot(device);
+		snapshot.update(samplePeriod, numberOfTimeSteps);
+		return snapshot;
 	}
 
 	@Test
 	public void hasSelfDischarge_withSelfDischarge_returnsTrue() {
 		GenericDevice device = mockDeviceSelfDischarge(0, 0, 0.1, 0, 0, 0);
-		assertTrue(StateManager.hasSelfDischarge(device, 5, samplePeriod));
+		assertTrue(StateManager.hasSelfDischarge(createSnapshot(device, 5)));
 	}
 
 	@ParameterizedTest
@@ -69,7 +81,7 @@ public class StateManagerTest {
 	public void analyseAvailableEnergyLevels_returnsExpected(int periodCount, double expectedLower,
 			double expectedUpper) {
 		GenericDevice device = mockDeviceLimits(new double[] {10, 0, -10, -10, -20}, new double[] {15, 10, 0, 20, -10});
-		double[] result = StateManager.analyseAvailableEnergyLevels(device, periodCount, samplePeriod);
+		double[] result = StateManager.analyseAvailableEnergyLevels(createSnapshot(device, periodCount));
 		assertArrayEquals(new double[] {expectedLower, expectedUpper}, result);
 	}
 
@@ -77,21 +89,8 @@ public class StateManagerTest {
 	private GenericDevice mockDeviceLimits(double[] lowerLimits, double[] upperLimits) {
 		GenericDevice mockDevice = mock(GenericDevice.class);
 
-		when(mockDevice.getEnergyContentLowerLimitInMWH(any(TimeStamp.class))).thenAnswer(new Answer<Double>() {
-			private int count = -1;
-
-			public Double answer(InvocationOnMock invocation) {
-				return lowerLimits[++count];
-			}
-		});
-
-		when(mockDevice.getEnergyContentUpperLimitInMWH(any(TimeStamp.class))).thenAnswer(new Answer<Double>() {
-			private int count = -1;
-
-			public Double answer(InvocationOnMock invocation) {
-				return upperLimits[++count];
-			}
-		});
+		when(mockDevice.getEnergyContentLowerLimitInMWH(any(TimeStamp.class))).thenAnswer(byPeriodOf(lowerLimits));
+		when(mockDevice.getEnergyContentUpperLimitInMWH(any(TimeStamp.class))).thenAnswer(byPeriodOf(upperLimits));
 		return mockDevice;
 	}
 
@@ -4,9 +4,11 @@
 package agents.flexibility.dynamicProgramming.states;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -33,6 +35,7 @@ public class TransitionEvaluatorTest {
 		this.discretiser = mock(StateDiscretiser.class);
 		this.deviceCache = mock(GenericDeviceCache.class);
 		this.assessmentFunction = mock(AssessmentFunction.class);
+		doCallRealMethod().when(assessmentFunction).assessTransitions(any(), anyInt(), any());
 		this.evaluator = new TransitionEvaluator(discretiser, deviceCache, assessmentFunction);
 	}
 
@@ -121,4 +124,65 @@ public class TransitionEvaluatorTest {
 		double result = evaluator.getTransitionValueFor(initialIndex, finalIndex);
 		assertEquals(expectedValue, result, 1E-12);
 	}
+
+	@ParameterizedTest
+	@CsvSource(value = {"true:10:-10", "false:10:-10", "false:-2:-12", "false:12:2"}, delimiter = ':')
+	public void getTransitionValues_range_matchesSingleValues(boolean hasSelfDischarge, double maxChargingInMWH,
+			double maxDischargingInMWH) {
+		mockDiscretisation(1);
+		mockTransition();
+		mockAssessment(3);
+		when(deviceCache.getMaxNetChargingEnergyInMWH()).thenReturn(maxChargingInMWH);
+		when(deviceCache.getMaxNetDischargingEnergyInMWH()).thenReturn(maxDischargingInMWH);
+		evaluator.prepareFor(THE_TIME, hasSelfDischarge);
+		int initialIndex = 12;
+		int firstFinalIndex = initialIndex - (maxDischargingInMWH < 0 ? (int) -maxDischargingInMWH : 0);
+		int lastFinalIndex = initialIndex + (maxChargingInMWH > 0 ? (int) maxChargingInMWH : 0);
+		double[] values = new double[lastFinalIndex - firstFinalIndex + 1];
+		evaluator.getTransitionValuesFor(initialIndex, firstFinalIndex, lastFinalIndex, values);
+		for (int finalIndex = firstFinalIndex; finalIndex <= lastFinalIndex; finalIndex++) {
+			assertEquals(evaluator.getTransitionValueFor(initialIndex, finalIndex), values[finalIndex - firstFinalIndex], 0);
+		}
+	}
+
+	@ParameterizedTest
+	@CsvSource(value = {"0:1:2:3:true", "0:2:3:3:true", "0:2:3:4.5:false", "-3:0:1:1:true", "0:1:NaN:1:false",
+			"0:1:2:3.0000000001:false"}, delimiter = ':')
+	public void isConcave_returnsCorrectResult(double a, double b, double c, double d, boolean expected) {
+		assertEquals(expected, TransitionEvaluator.isConcave(new double[] {a, b, c, d}));
+	}
+
+	@Test
+	public void getTransitionValues_selfDischargeSteppedAssessment_matchesSingleValues() {
+		mockSelfDischargingDevice();
+		when(assessmentFunction.assessTransition(anyDouble())).thenAnswer(input -> steppedPriceValue(input.getArgument(0)));
+		evaluator.prepareFor(THE_TIME, true);
+		double[] values = new double[21];
+		for (int initialIndex = 11; initialIndex <= 31; initialIndex += 4) {
+			evaluator.getTransitionValuesFor(initialIndex, initialIndex - 10, initialIndex + 10, values);
+			for (int finalIndex = initialIndex - 10; finalIndex <= initialIndex + 10; finalIndex++) {
+				double expected = steppedPriceValue(toExternal(finalIndex - 0.9 * initialIndex));
+				assertEquals(expected, values[finalIndex - initialIndex + 10], 0);
+				assertEquals(expected, evaluator.getTransitionValueFor(initialIndex, finalIndex), 0);
+			}
+		}
+	}
+
+	/** Mocks a device with 1 MWh resolution, 10% self discharge and efficiencies as in {@link #toExternal(double)} */
+	private void mockSelfDischargingDevice() {
+		mockDiscretisation(1);
+		when(deviceCache.simulateTransition(anyDouble(), anyDouble()))
+				.thenAnswer(input -> toExternal((double) input.getArgument(1) - 0.9 * (double) input.getArgument(0)));
+	}
+
+	/** @return value of energy traded at a price that steps from 30 to 80 EUR/MWh beyond 2.6 MWh, like a merit-order sensitivity */
+	private double steppedPriceValue(double externalEnergyInMWH) {
+		double price = Math.abs(externalEnergyInMWH) > 2.6 ? 80 : 30;
+		return -externalEnergyInMWH * price;
+	}
+
+	/** @return external energy for given internal energy with a charging efficiency of 0.8 and discharging efficiency of 0.5 */
+	private double toExternal(double internalEnergyInMWH) {
+		return internalEnergyInMWH > 0 ? internalEnergyInMWH / 0.8 : internalEnergyInMWH * 0.5;
+	}
 }
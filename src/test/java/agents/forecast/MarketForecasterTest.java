@@ -0,0 +1,86 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.forecast;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import agents.markets.meritOrder.Bid;
+import agents.markets.meritOrder.MarketClearing;
+import agents.markets.meritOrder.MarketClearingResult;
+import agents.markets.meritOrder.books.OrderBook.DistributionMethod;
+import communications.portable.BidsAtTime;
+import de.dlr.gitlab.fame.agent.input.ParameterData;
+import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
+import de.dlr.gitlab.fame.communication.message.Message;
+import de.dlr.gitlab.fame.time.TimeStamp;
+
+public class MarketForecasterTest {
+	private static final long SUPPLIER_A = 1L;
+	private static final long SUPPLIER_B = 2L;
+	private static final long CONSUMER = 3L;
+	private static final int HOURS = 24;
+
+	@Test
+	public void clearEach_parallel_matchesSequential() throws MissingDataException {
+		List<ArrayList<Message>> bidsByTime = buildBids();
+		MarketClearingResult[] sequential = MarketForecaster.clearEach(buildClearing(), bidsByTime, "test", buildRandoms(), 1);
+		MarketClearingResult[] parallel = MarketForecaster.clearEach(buildClearing(), bidsByTime, "test", buildRandoms(), 4);
+		assertEquals(HOURS, parallel.length);
+		for (int hour = 0; hour < HOURS; hour++) {
+			assertEquals(sequential[hour].getMarketPriceInEURperMWH(), parallel[hour].getMarketPriceInEURperMWH());
+			assertEquals(sequential[hour].getTradedEnergyInMWH(), parallel[hour].getTradedEnergyInMWH());
+			for (long trader : List.of(SUPPLIER_A, SUPPLIER_B)) {
+				assertEquals(sequential[hour].getAwardedSupplyPowerOf(trader), parallel[hour].getAwardedSupplyPowerOf(trader));
+			}
+		}
+	}
+
+	/** @return bids for each hour with two price-setting suppliers at equal price, so that awards depend on random numbers */
+	private List<ArrayList<Message>> buildBids() {
+		List<ArrayList<Message>> bidsByTime = new ArrayList<>();
+		for (int hour = 0; hour < HOURS; hour++) {
+			TimeStamp time = new TimeStamp(hour * 3600L);
+			double price = 20 + hour;
+			ArrayList<Message> messages = new ArrayList<>();
+			messages.add(mockBidMessage(time, SUPPLIER_A, List.of(new Bid(50, price), new Bid(30, price + 10)), null));
+			messages.add(mockBidMessage(time, SUPPLIER_B, List.of(new Bid(40, price), new Bid(20, price + 10)), null));
+			messages.add(mockBidMessage(time, CONSUMER, null, List.of(new Bid(60 + hour, 3000))));
+			bidsByTime.add(messages);
+		}
+		return bidsByTime;
+	}
+
+	private Message mockBidMessage(TimeStamp deliveryTime, long traderId, List<Bid> supplyBids, List<Bid> demandBids) {
+		Message message = mock(Message.class);
+		BidsAtTime bids = new BidsAtTime(deliveryTime, traderId, supplyBids, demandBids);
+		when(message.getFirstPortableItemOfType(BidsAtTime.class)).thenReturn(bids);
+		return message;
+	}
+
+	/** @return one seeded random number generator per hour */
+	private List<Random> buildRandoms() {
+		List<Random> randoms = new ArrayList<>();
+		for (int hour = 0; hour < HOURS; hour++) {
+			randoms.add(new Random(hour));
+		}
+		return randoms;
+	}
+
+	/** @return {@link MarketClearing} that randomly distributes awards among price-setting bids */
+	private MarketClearing buildClearing() throws MissingDataException {
+		ParameterData input = mock(ParameterData.class);
+		when(input.getEnum("DistributionMethod", DistributionMethod.class)).thenReturn(DistributionMethod.RANDOMIZE);
+		doAnswer(invocation -> invocation.getArgument(2)).when(input).<DistributionMethod>getEnumOrDefault(anyString(), any(),
+				any());
+		return new MarketClearing(input);
+	}
+}
@@ -0,0 +1,100 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.forecast.forecastApi;
+
+import static de.dlr.gitlab.fame.time.Constants.STEPS_PER_HOUR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongToDoubleFunction;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import util.HourlyRingBuffer;
+import util.JSONable;
+
+public class ForecastApiRequestTest {
+	private static final long HOUR = STEPS_PER_HOUR;
+	private static final int LOOK_BACK_IN_HOURS = 24;
+	private static final int FORECAST_PERIOD_IN_HOURS = 12;
+	private static final int EXTENSION_IN_HOURS = 3;
+	private static final int REQUEST_WINDOW_IN_HOURS = LOOK_BACK_IN_HOURS + FORECAST_PERIOD_IN_HOURS + EXTENSION_IN_HOURS;
+
+	/** Request as serialised before look-back data was kept in {@link HourlyRingBuffer}s, i.e. from maps via bean getters */
+	public static class BaselineRequest implements JSONable {
+		private final long forecastStartTime;
+		private final int forecastWindow;
+		private final Map<Long, Double> pastTargets;
+		private final Map<Long, Double> residualLoad;
+
+		BaselineRequest(long forecastStartTime, int forecastWindow, Map<Long, Double> pastTargets,
+				Map<Long, Double> residualLoad) {
+			this.forecastStartTime = forecastStartTime;
+			this.forecastWindow = forecastWindow;
+			this.pastTargets = pastTargets;
+			this.residualLoad = residualLoad;
+		}
+
+		public long getForecastStartTime() {
+			return forecastStartTime;
+		}
+
+		public int getForecastWindow() {
+			return forecastWindow;
+		}
+
+		public Map<Long, Double> getPastTargets() {
+			return pastTargets;
+		}
+
+		public Map<Long, Double> getResidualLoad() {
+			return residualLoad;
+		}
+	}
+
+	/** Rolls the forecast window forward hour by hour, with clearings every given number of hours and gaps in the awarded prices,
+	 * and updates look-back data as done before, using maps, and now, using ring buffers */
+	@ParameterizedTest
+	@ValueSource(ints = {1, 4, 24})
+	public void toJson_rollingWindow_identicalToBaseline(int hoursPerClearing) {
+		TreeMap<Long, Double> baselinePrices = new TreeMap<>();
+		TreeMap<Long, Double> baselineResidualLoad = new TreeMap<>();
+		HourlyRingBuffer prices = new HourlyRingBuffer(REQUEST_WINDOW_IN_HOURS + 1);
+		HourlyRingBuffer residualLoad = new HourlyRingBuffer(REQUEST_WINDOW_IN_HOURS);
+		LongToDoubleFunction residualLoadAt = step -> 1000. + (step / HOUR % 17) * 12.345 - (step / HOUR % 5) * 301.7;
+
+		for (long hour = 0; hour < 200; hour++) {
+			long now = hour * HOUR;
+			if (hour % 7 != 3) {
+				double price = hour % 11 == 0 ? -15.25 : 40. + Math.sin(hour) * 33.3;
+				baselinePrices.put(now, price);
+				prices.put(now, price);
+			}
+			if (hour % hoursPerClearing != 0) {
+				continue;
+			}
+			long nextClearing = now + hoursPerClearing * HOUR;
+			long lookBackStartStep = now - LOOK_BACK_IN_HOURS * HOUR;
+			long residualLoadStartStep = nextClearing - LOOK_BACK_IN_HOURS * HOUR;
+			long stopStep = nextClearing + (FORECAST_PERIOD_IN_HOURS + EXTENSION_IN_HOURS) * HOUR;
+
+			baselineResidualLoad.clear();
+			for (long step = residualLoadStartStep; step < stopStep; step += HOUR) {
+				baselineResidualLoad.put(step, residualLoadAt.applyAsDouble(step));
+			}
+			baselinePrices.headMap(lookBackStartStep).clear();
+			residualLoad.putMissing(residualLoadStartStep, stopStep, residualLoadAt);
+
+			int forecastWindow = FORECAST_PERIOD_IN_HOURS + EXTENSION_IN_HOURS;
+			String expected = new BaselineRequest(nextClearing, forecastWindow, baselinePrices, baselineResidualLoad).toJson()
+					.toString();
+			ForecastApiRequest request = new ForecastApiRequest(nextClearing, forecastWindow, prices, lookBackStartStep,
+					residualLoad, residualLoadStartStep);
+			assertFalse(baselinePrices.isEmpty());
+			assertEquals(expected, request.toJson().toString());
+			assertEquals(baselinePrices, request.getPastTargets());
+			assertEquals(baselineResidualLoad, request.getResidualLoad());
+		}
+	}
+}
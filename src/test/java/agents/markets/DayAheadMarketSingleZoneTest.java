@@ -0,0 +1,140 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static testUtils.Exceptions.assertThrowsMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import agents.markets.meritOrder.Bid;
+import agents.markets.meritOrder.MarketClearing;
+import agents.markets.meritOrder.MarketClearingResult;
+import agents.markets.meritOrder.books.OrderBook.DistributionMethod;
+import communications.message.AwardData;
+import communications.portable.BidsAtTime;
+import de.dlr.gitlab.fame.agent.input.ParameterData;
+import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
+import de.dlr.gitlab.fame.communication.message.Message;
+import de.dlr.gitlab.fame.time.TimeStamp;
+
+public class DayAheadMarketSingleZoneTest {
+	private final TimeStamp first = new TimeStamp(0L);
+	private final TimeStamp second = new TimeStamp(3600L);
+	private static final long SUPPLIER = 1L;
+	private static final long CONSUMER = 2L;
+	private static final long OTHER_SUPPLIER = 3L;
+
+	private Message mockBidMessage(TimeStamp deliveryTime) {
+		Message message = mock(Message.class);
+		BidsAtTime bids = deliveryTime != null ? new BidsAtTime(deliveryTime, 1L, null, null) : null;
+		when(message.getFirstPortableItemOfType(BidsAtTime.class)).thenReturn(bids);
+		return message;
+	}
+
+	@Test
+	public void groupByDeliveryTime_bidsForDifferentTimes_groupedPerClearingTime() {
+		Message atFirst = mockBidMessage(first);
+		Message atSecond = mockBidMessage(second);
+		Message alsoAtFirst = mockBidMessage(first);
+		ArrayList<Message> input = new ArrayList<>(List.of(atSecond, atFirst, alsoAtFirst));
+		Map<TimeStamp, ArrayList<Message>> groups = DayAheadMarketSingleZone.groupByDeliveryTime(input,
+				List.of(first, second));
+		assertEquals(List.of(atFirst, alsoAtFirst), groups.get(first));
+		assertEquals(List.of(atSecond), groups.get(second));
+	}
+
+	@Test
+	public void groupByDeliveryTime_noBidsForTime_emptyGroup() {
+		Map<TimeStamp, ArrayList<Message>> groups = DayAheadMarketSingleZone.groupByDeliveryTime(
+				new ArrayList<>(List.of(mockBidMessage(first))), List.of(first, second));
+		assertTrue(groups.get(second).isEmpty());
+	}
+
+	@Test
+	public void groupByDeliveryTime_messageWithoutBids_assignedToFirstTime() {
+		Message withoutBids = mockBidMessage(null);
+		Map<TimeStamp, ArrayList<Message>> groups = DayAheadMarketSingleZone.groupByDeliveryTime(
+				new ArrayList<>(List.of(withoutBids)), List.of(first, second));
+		assertSame(withoutBids, groups.get(first).get(0));
+	}
+
+	@Test
+	public void groupByDeliveryTime_unexpectedDeliveryTime_throws() {
+		ArrayList<Message> input = new ArrayList<>(List.of(mockBidMessage(new TimeStamp(7200L))));
+		assertThrowsMessage(RuntimeException.class, DayAheadMarketSingleZone.ERR_UNEXPECTED_DELIVERY,
+				() -> DayAheadMarketSingleZone.groupByDeliveryTime(input, List.of(first, second)));
+	}
+
+	@Test
+	public void clearEachDeliveryTime_twoHours_clearedAndAwardedPerHour() throws MissingDataException {
+		ArrayList<Message> input = new ArrayList<>(List.of(
+				mockBidMessage(second, SUPPLIER, List.of(new Bid(100, 50)), null),
+				mockBidMessage(first, SUPPLIER, List.of(new Bid(100, 10)), null),
+				mockBidMessage(first, CONSUMER, null, List.of(new Bid(60, 3000))),
+				mockBidMessage(second, CONSUMER, null, List.of(new Bid(80, 3000)))));
+		List<TimeStamp> times = List.of(first, second);
+		List<MarketClearingResult> results = DayAheadMarketSingleZone.clearEachDeliveryTime(buildClearing(), input, times,
+				"test");
+		assertEquals(2, results.size());
+
+		List<AwardData> supplierAwards = DayAheadMarketSingleZone.collectAwards(results, times, SUPPLIER);
+		assertAward(supplierAwards.get(0), first, 60, 0, 10);
+		assertAward(supplierAwards.get(1), second, 80, 0, 50);
+		List<AwardData> consumerAwards = DayAheadMarketSingleZone.collectAwards(results, times, CONSUMER);
+		assertAward(consumerAwards.get(0), first, 0, 60, 10);
+		assertAward(consumerAwards.get(1), second, 0, 80, 50);
+	}
+
+	@Test
+	public void clearEachDeliveryTime_traderMissesTime_awardedNothingAtThatTime() throws MissingDataException {
+		ArrayList<Message> input = new ArrayList<>(List.of(
+				mockBidMessage(first, SUPPLIER, List.of(new Bid(100, 10)), null),
+				mockBidMessage(first, OTHER_SUPPLIER, List.of(new Bid(100, 20)), null),
+				mockBidMessage(second, OTHER_SUPPLIER, List.of(new Bid(100, 20)), null),
+				mockBidMessage(first, CONSUMER, null, List.of(new Bid(60, 3000))),
+				mockBidMessage(second, CONSUMER, null, List.of(new Bid(80, 3000)))));
+		List<TimeStamp> times = List.of(first, second);
+		List<MarketClearingResult> results = DayAheadMarketSingleZone.clearEachDeliveryTime(buildClearing(), input, times,
+				"test");
+
+		List<AwardData> supplierAwards = DayAheadMarketSingleZone.collectAwards(results, times, SUPPLIER);
+		assertAward(supplierAwards.get(0), first, 60, 0, 10);
+		assertAward(supplierAwards.get(1), second, 0, 0, 20);
+		List<AwardData> otherSupplierAwards = DayAheadMarketSingleZone.collectAwards(results, times, OTHER_SUPPLIER);
+		assertAward(otherSupplierAwards.get(0), first, 0, 0, 10);
+		assertAward(otherSupplierAwards.get(1), second, 80, 0, 20);
+	}
+
+	private Message mockBidMessage(TimeStamp deliveryTime, long traderId, List<Bid> supplyBids, List<Bid> demandBids) {
+		Message message = mock(Message.class);
+		BidsAtTime bids = new BidsAtTime(deliveryTime, traderId, supplyBids, demandBids);
+		when(message.getFirstPortableItemOfType(BidsAtTime.class)).thenReturn(bids);
+		return message;
+	}
+
+	/** @return {@link MarketClearing} with default parameters */
+	private MarketClearing buildClearing() throws MissingDataException {
+		ParameterData input = mock(ParameterData.class);
+		when(input.getEnum("DistributionMethod", DistributionMethod.class)).thenReturn(DistributionMethod.SAME_SHARES);
+		doAnswer(invocation -> invocation.getArgument(2)).when(input).<DistributionMethod>getEnumOrDefault(anyString(), any(),
+				any());
+		return new MarketClearing(input);
+	}
+
+	private void assertAward(AwardData award, TimeStamp time, double supply, double demand, double price) {
+		assertEquals(time, award.beginOfDeliveryInterval);
+		assertEquals(supply, award.supplyEnergyInMWH, 1E-10);
+		assertEquals(demand, award.demandEnergyInMWH, 1E-10);
+		assertEquals(price, award.powerPriceInEURperMWH, 1E-10);
+	}
+}
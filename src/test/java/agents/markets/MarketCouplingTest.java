@@ -0,0 +1,57 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static testUtils.CouplingFixture.buildMarket;
+import static testUtils.CouplingFixture.describe;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import communications.portable.CouplingData;
+
+public class MarketCouplingTest {
+	private static final double OFFSET = MarketCoupling.DEFAULT_DEMAND_SHIFT_OFFSET;
+	private static final double MAX_SHIFT = MarketCoupling.DEFAULT_MAX_SHIFT;
+	private static final long MARKET_A = 1L;
+	private static final long MARKET_B = 2L;
+	private static final long MARKET_C = 3L;
+	private static final int HOURS = 12;
+
+	@Test
+	public void balanceEach_parallel_matchesSequential() {
+		List<Map<Long, CouplingData>> sequential = buildRequests();
+		List<Map<Long, CouplingData>> parallel = buildRequests();
+		MarketCoupling.balanceEach(sequential, OFFSET, MAX_SHIFT, 1);
+		MarketCoupling.balanceEach(parallel, OFFSET, MAX_SHIFT, 4);
+		for (int hour = 0; hour < HOURS; hour++) {
+			assertEquals(describe(sequential.get(hour)), describe(parallel.get(hour)));
+		}
+	}
+
+	@Test
+	public void balanceEach_sequential_shiftsDemand() {
+		List<Map<Long, CouplingData>> requests = buildRequests();
+		String before = describe(requests.get(0));
+		MarketCoupling.balanceEach(requests, OFFSET, MAX_SHIFT, 1);
+		assertNotEquals(before, describe(requests.get(0)));
+	}
+
+	/** @return coupling requests of three connected markets for several hours with hour-dependent prices and capacities */
+	private List<Map<Long, CouplingData>> buildRequests() {
+		List<Map<Long, CouplingData>> requestsByHour = new ArrayList<>();
+		for (int hour = 0; hour < HOURS; hour++) {
+			Map<Long, CouplingData> requests = new LinkedHashMap<>();
+			double capacity = 50 + 5 * hour;
+			requests.put(MARKET_A, buildMarket(hour, "A", 20 + hour, 500, capacity, "B", "C"));
+			requests.put(MARKET_B, buildMarket(hour, "B", 60 - 2 * hour, 400, capacity, "A", "C"));
+			requests.put(MARKET_C, buildMarket(hour, "C", 40, 300 + 10 * hour, capacity, "A", "B"));
+			requestsByHour.add(requests);
+		}
+		return requestsByHour;
+	}
+}
@@ -0,0 +1,201 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static testUtils.CouplingFixture.buildMarket;
+import static testUtils.CouplingFixture.describe;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import agents.markets.meritOrder.books.DemandOrderBook;
+import agents.markets.meritOrder.books.SupplyOrderBook;
+import agents.markets.meritOrder.books.TransmissionBook;
+import communications.message.TransmissionCapacity;
+import communications.portable.CouplingData;
+import de.dlr.gitlab.fame.time.TimeStamp;
+import util.ActionProfiler;
+import util.ActionProfiler.Counter;
+
+/** Expected outcomes were captured from the pairwise scan of all markets that preceded the priority queue of shift candidates */
+public class DemandBalancerTest {
+	private static final double OFFSET = 1.0;
+	private static final double UNLIMITED = Double.MAX_VALUE;
+	private static final String[] ZONES = new String[] {"Z1", "Z2", "Z3", "Z4"};
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"37 | 1:60.0@3000.0#99,51.0@3000.0#99,9.0@3000.0#99,10.0@70.0#98,Z1=0.0,0.0/60.0;2:140.0@3000.0#99,Z0=90.0," +
+				"60.0/0.0;",
+			"6 | 1:150.0@3000.0#99,Z1=80.0,Z2=30.0,70.0/0.0;2:240.0@3000.0#99,40.0@3000.0#99,Z0=0.0,Z2=20.0,0.0/40.0;" +
+				"3:60.0@3000.0#99,30.0@3000.0#99,Z0=0.0,Z1=80.0,0.0/30.0;",
+			"22 | 1:80.0@3000.0#99,20.0@5.0#98,Z1=80.0,Z2=90.0,Z3=80.0,40.0/0.0;2:161.0@3000.0#99,9.0@3000.0#99," +
+				"20.0@40.0#98,Z0=-10.0,Z2=-20.0,Z3=0.0,70.0/30.0;3:100.0@3000.0#99,40.0@3000.0#99,20.0@3000.0#99," +
+				"21.0@3000.0#99,49.0@3000.0#99,Z0=0.0,Z1=0.0,Z3=0.0,0.0/130.0;4:180.0@3000.0#99,20.0@95.0#98,Z0=90.0,Z1=50.0," +
+				"Z2=60.0,50.0/0.0;",
+			"33 | 1:170.0@3000.0#99,10.0@30.0#98,Z1=10.0,Z2=0.0,Z3=0.0,Z4=30.0,140.0/40.0;2:20.0@3000.0#99,80.0@3000.0#99," +
+				"Z0=0.0,Z2=90.0,Z3=0.0,Z4=70.0,30.0/50.0;3:120.0@3000.0#99,10.0@3000.0#99,40.0@3000.0#99,21.0@3000.0#99," +
+				"29.0@3000.0#99,1.0@3000.0#99,30.0@3000.0#99,10.0@40.0#98,20.0@5.0#98,Z0=0.0,Z1=0.0,Z3=0.0,Z4=39.0,0.0/141.0;" +
+				"4:230.0@3000.0#99,Z0=0.0,Z1=90.0,Z2=-20.0,Z4=70.0,50.0/0.0;5:99.0@3000.0#99,Z0=-20.0,Z1=80.0,Z2=80.0," +
+				"Z3=-20.0,11.0/0.0;",
+			"8 | 1:230.0@3000.0#99,0.0@45.0#98,Z1=10.0,Z2=10.0,Z3=40.0,Z4=-10.0,Z5=60.0,100.0/0.0;2:290.0@3000.0#99," +
+				"Z0=30.0,Z2=-20.0,Z3=20.0,Z4=50.0,Z5=60.0,60.0/0.0;3:50.0@3000.0#99,70.0@3000.0#99,30.0@3000.0#99," +
+				"1.0@3000.0#99,10.0@40.0#98,Z0=0.0,Z1=0.0,Z3=80.0,Z4=-20.0,Z5=59.0,0.0/101.0;4:180.0@3000.0#99,1.0@3000.0#99," +
+				"19.0@3000.0#99,60.0@3000.0#99,10.0@60.0#98,20.0@0.0#98,Z0=70.0,Z1=0.0,Z2=40.0,Z4=80.0,Z5=10.0,0.0/90.0;" +
+				"5:150.0@3000.0#99,30.0@3000.0#99,Z0=0.0,Z1=-20.0,Z2=20.0,Z3=0.0,Z5=60.0,0.0/30.0;6:189.0@3000.0#99," +
+				"10.0@65.0#98,Z0=60.0,Z1=0.0,Z2=-20.0,Z3=40.0,Z4=70.0,91.0/30.0;"
+	})
+	public void balance_randomMarkets_matchesExpected(long seed, String expected) {
+		Map<Long, CouplingData> requests = buildRandomMarkets(seed);
+		new DemandBalancer(OFFSET, UNLIMITED).balance(requests);
+		assertEquals(expected, describe(requests));
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|', value = {
+			"37 | 1:60.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99,6.0@3000.0#99,9.0@3000.0#99,10.0@70.0#98," +
+				"Z1=0.0,0.0/60.0;2:140.0@3000.0#99,Z0=90.0,60.0/0.0;",
+			"6 | 1:150.0@3000.0#99,Z1=80.0,Z2=30.0,70.0/0.0;2:10.0@3000.0#99,225.0@3000.0#99,Z0=0.0,Z2=20.0,45.0/40.0;" +
+				"3:60.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99,10.0@3000.0#99,5.0@3000.0#99,15.0@3000.0#99,10.0@3000.0#99," +
+				"5.0@3000.0#99,Z0=0.0,Z1=35.0,0.0/75.0;",
+			"22 | 1:80.0@3000.0#99,20.0@5.0#98,Z1=80.0,Z2=90.0,Z3=80.0,40.0/0.0;2:170.0@3000.0#99,20.0@40.0#98,Z0=-10.0," +
+				"Z2=-20.0,Z3=0.0,70.0/30.0;3:100.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99,10.0@3000.0#99,15.0@3000.0#99," +
+				"5.0@3000.0#99,15.0@3000.0#99,6.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99,4.0@3000.0#99," +
+				"Z0=0.0,Z1=0.0,Z3=0.0,0.0/130.0;4:180.0@3000.0#99,20.0@95.0#98,Z0=90.0,Z1=50.0,Z2=60.0,50.0/0.0;",
+			"33 | 1:180.0@3000.0#99,Z1=10.0,Z2=0.0,Z3=0.0,Z4=30.0,140.0/40.0;2:65.0@3000.0#99,15.0@3000.0#99,5.0@3000.0#99," +
+				"10.0@3000.0#99,5.0@3000.0#99,Z0=0.0,Z2=90.0,Z3=0.0,Z4=70.0,30.0/50.0;3:120.0@3000.0#99,10.0@3000.0#99," +
+				"10.0@3000.0#99,5.0@3000.0#99,15.0@3000.0#99,10.0@3000.0#99,5.0@3000.0#99,15.0@3000.0#99,1.0@3000.0#99," +
+				"15.0@3000.0#99,4.0@3000.0#99,1.0@3000.0#99,15.0@3000.0#99,5.0@3000.0#99,10.0@3000.0#99,15.0@3000.0#99," +
+				"10.0@40.0#98,10.0@30.0#98,20.0@5.0#98,Z0=0.0,Z1=0.0,Z3=0.0,Z4=24.0,0.0/156.0;4:230.0@3000.0#99,Z0=0.0," +
+				"Z1=90.0,Z2=-20.0,Z4=70.0,50.0/0.0;5:84.0@3000.0#99,Z0=-20.0,Z1=80.0,Z2=80.0,Z3=-20.0,26.0/0.0;",
+			"8 | 1:170.0@3000.0#99,10.0@3000.0#99,0.0@45.0#98,Z1=0.0,Z2=10.0,Z3=40.0,Z4=-10.0,Z5=60.0,160.0/10.0;" +
+				"2:280.0@3000.0#99,Z0=30.0,Z2=-20.0,Z3=20.0,Z4=50.0,Z5=60.0,70.0/0.0;3:50.0@3000.0#99,15.0@3000.0#99," +
+				"15.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99,10.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99," +
+				"15.0@3000.0#99,10.0@3000.0#99,10.0@40.0#98,Z0=0.0,Z1=0.0,Z3=80.0,Z4=-20.0,Z5=20.0,0.0/140.0;" +
+				"4:180.0@3000.0#99,11.0@3000.0#99,1.0@3000.0#99,15.0@3000.0#99,4.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99," +
+				"15.0@3000.0#99,4.0@3000.0#99,10.0@60.0#98,20.0@0.0#98,Z0=10.0,Z1=0.0,Z2=40.0,Z4=80.0,Z5=70.0,0.0/90.0;" +
+				"5:150.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99,15.0@3000.0#99,Z0=0.0,Z1=-20.0,Z2=20.0,Z3=0.0,Z5=45.0," +
+				"0.0/45.0;6:190.0@3000.0#99,5.0@3000.0#99,10.0@65.0#98,Z0=60.0,Z1=0.0,Z2=-20.0,Z3=40.0,Z4=70.0,85.0/30.0;"
+	})
+	public void balance_randomMarketsLimitedShift_matchesExpected(long seed, String expected) {
+		Map<Long, CouplingData> requests = buildRandomMarkets(seed);
+		new DemandBalancer(OFFSET, 15).balance(requests);
+		assertEquals(expected, describe(requests));
+	}
+
+	@Test
+	public void balance_identicalMarketPairs_tiesResolvedByMarketOrder() {
+		Map<Long, CouplingData> requests = buildIdenticalMarketPairs();
+		new DemandBalancer(OFFSET, UNLIMITED).balance(requests);
+		String expected =
+		"1:220.0@3000.0#99,Z2=40.0,Z3=40.0,Z4=40.0,80.0/0.0;2:300.0@3000.0#99,40.0@3000.0#99,40.0@3000.0#99,Z1=0.0," +
+			"Z3=0.0,Z4=40.0,0.0/80.0;3:220.0@3000.0#99,Z1=40.0,Z2=40.0,Z4=40.0,80.0/0.0;4:300.0@3000.0#99,40.0@3000.0#99," +
+			"40.0@3000.0#99,Z1=0.0,Z2=40.0,Z3=0.0,0.0/80.0;";
+		assertEquals(expected, describe(requests));
+	}
+
+	@Test
+	public void balance_identicalMarketPairsLimitedShift_tiesResolvedByMarketOrder() {
+		Map<Long, CouplingData> requests = buildIdenticalMarketPairs();
+		new DemandBalancer(OFFSET, 10).balance(requests);
+		String expected =
+		"1:220.0@3000.0#99,Z2=40.0,Z3=40.0,Z4=40.0,80.0/0.0;2:300.0@3000.0#99,10.0@3000.0#99,10.0@3000.0#99," +
+			"10.0@3000.0#99,10.0@3000.0#99,10.0@3000.0#99,10.0@3000.0#99,10.0@3000.0#99,10.0@3000.0#99,Z1=0.0,Z3=0.0," +
+			"Z4=40.0,0.0/80.0;3:220.0@3000.0#99,Z1=40.0,Z2=40.0,Z4=40.0,80.0/0.0;4:300.0@3000.0#99,10.0@3000.0#99," +
+			"10.0@3000.0#99,10.0@3000.0#99,10.0@3000.0#99,10.0@3000.0#99,10.0@3000.0#99,10.0@3000.0#99,10.0@3000.0#99," +
+			"Z1=0.0,Z2=40.0,Z3=0.0,0.0/80.0;";
+		assertEquals(expected, describe(requests));
+	}
+
+	@Test
+	public void balance_zeroAndNegativeCapacities_noTransfer() {
+		Map<Long, CouplingData> requests = new LinkedHashMap<>();
+		requests.put(1L, buildMarket(0, "A", 80, 300, 0, "B"));
+		requests.put(2L, buildMarket(0, "B", 10, 300, -50, "A"));
+		new DemandBalancer(OFFSET, UNLIMITED).balance(requests);
+		String expected =
+		"1:300.0@3000.0#99,B=0.0,0.0/0.0;2:300.0@3000.0#99,A=-50.0,0.0/0.0;";
+		assertEquals(expected, describe(requests));
+	}
+
+	@Test
+	public void balance_negativePricesAndZeroDemandBids_matchesExpected() {
+		Map<Long, CouplingData> requests = new LinkedHashMap<>();
+		CouplingData negative = buildMarket(0, "A", -40, 200, 100, "B");
+		negative.getDemandOrderBook().addBid(new Bid(0, 500), 98L);
+		requests.put(1L, negative);
+		CouplingData positive = buildMarket(0, "B", 30, 350, 100, "A");
+		positive.getDemandOrderBook().addBid(new Bid(0, 2000), 98L);
+		requests.put(2L, positive);
+		new DemandBalancer(OFFSET, UNLIMITED).balance(requests);
+		String expected =
+		"1:200.0@3000.0#99,21.0@3000.0#99,79.0@3000.0#99,0.0@500.0#98,B=0.0,0.0/100.0;2:250.0@3000.0#99,A=100.0," +
+			"100.0/0.0;";
+		assertEquals(expected, describe(requests));
+	}
+
+	@Test
+	public void balance_sortedBooks_noOrderBookSortedPerShiftCandidate() {
+		Map<Long, CouplingData> requests = buildIdenticalMarketPairs();
+		for (CouplingData market : requests.values()) {
+			market.getDemandOrderBook().addBid(new Bid(50, 500), 98L);
+			market.getSupplyOrderBook().sort();
+			market.getDemandOrderBook().sort();
+		}
+		ActionProfiler profiler = ActionProfiler.enable();
+		try {
+			new DemandBalancer(OFFSET, 10).balance(requests);
+			assertTrue(profiler.getCount(Counter.COUPLING_ITERATIONS) > 1);
+			assertEquals(0, profiler.getCount(Counter.ORDER_BOOK_SORTS));
+		} finally {
+			ActionProfiler.disable();
+		}
+	}
+
+	/** @return four connected markets, alternately expensive and cheap, with identical pairs */
+	private Map<Long, CouplingData> buildIdenticalMarketPairs() {
+		Map<Long, CouplingData> requests = new LinkedHashMap<>();
+		for (long id = 1; id <= 4; id++) {
+			boolean isExpensive = id % 2 == 1;
+			requests.put(id, buildMarket(0, "Z" + id, isExpensive ? 60 : 20, 300, 40, ZONES));
+		}
+		return requests;
+	}
+
+	/** @return two to six markets with random supply curves, partly tied prices, and random, partly zero or negative capacities */
+	private Map<Long, CouplingData> buildRandomMarkets(long seed) {
+		Map<Long, CouplingData> requests = new LinkedHashMap<>();
+		Random random = new Random(seed);
+		int numberOfMarkets = 2 + random.nextInt(5);
+		String[] zones = new String[numberOfMarkets];
+		for (int i = 0; i < numberOfMarkets; i++) {
+			zones[i] = "Z" + i;
+		}
+		for (int i = 0; i < numberOfMarkets; i++) {
+			SupplyOrderBook supply = new SupplyOrderBook();
+			int numberOfBids = 2 + random.nextInt(6);
+			for (int bid = 0; bid < numberOfBids; bid++) {
+				double price = -20 + 5 * random.nextInt(25);
+				supply.addBid(new Bid(10 + 10 * random.nextInt(10), price, price), 10L + bid);
+			}
+			DemandOrderBook demand = new DemandOrderBook();
+			demand.addBid(new Bid(50 + 10 * random.nextInt(30), 3000), 99L);
+			if (random.nextBoolean()) {
+				demand.addBid(new Bid(10 * random.nextInt(3), 5 * random.nextInt(20)), 98L);
+			}
+			TransmissionBook transmission = new TransmissionBook(zones[i]);
+			for (String target : zones) {
+				if (!target.equals(zones[i])) {
+					transmission.add(new TransmissionCapacity(target, -20 + 10 * random.nextInt(12)));
+				}
+			}
+			requests.put((long) i + 1, new CouplingData(new TimeStamp(0), demand, supply, transmission));
+		}
+		return requests;
+	}
+}
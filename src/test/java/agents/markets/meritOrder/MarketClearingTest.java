@@ -0,0 +1,241 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import agents.markets.meritOrder.MarketClearing.OrderBookBackend;
+import agents.markets.meritOrder.MarketClearing.ShortagePriceMethod;
+import agents.markets.meritOrder.MeritOrderKernel.MeritOrderClearingException;
+import agents.markets.meritOrder.books.DemandOrderBook;
+import agents.markets.meritOrder.books.OrderBook.DistributionMethod;
+import agents.markets.meritOrder.books.PrimitiveDemandOrderBook;
+import agents.markets.meritOrder.books.PrimitiveSupplyOrderBook;
+import agents.markets.meritOrder.books.SupplyOrderBook;
+import de.dlr.gitlab.fame.agent.input.ParameterData;
+import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
+
+public class MarketClearingTest {
+	private static final long TRADER_A = 1L;
+	private static final long TRADER_B = 2L;
+	private static final long SEED = 42L;
+
+	private final List<Bid> supplyBidsA = List.of(new Bid(10, 20, 15), new Bid(5, 30, 30), new Bid(10, 20, 15),
+			new Bid(5, 20, 18), new Bid(5, 20, 18));
+	private final List<Bid> supplyBidsB = List.of(new Bid(8, 20, 12), new Bid(8, 20, 12), new Bid(20, 50, 40));
+	private final List<Bid> demandBids = List.of(new Bid(34, 100), new Bid(20, 10));
+
+	@ParameterizedTest
+	@EnumSource(DistributionMethod.class)
+	public void clear_priceLevelsWithRoundedPowers_sameResultsAsSingleBids(DistributionMethod method)
+			throws MeritOrderClearingException {
+		List<Bid> supplyBidsOfA = List.of(new Bid(0.1, 20, 15), new Bid(0.2, 20, 15), new Bid(0.3, 20, 15),
+				new Bid(1, 50, 40));
+		List<Bid> supplyBidsOfB = List.of(new Bid(0.1, 10, 5));
+		List<Bid> demandBidsOfB = List.of(new Bid(0.7, 100), new Bid(1, 15));
+
+		SupplyOrderBook supply = new SupplyOrderBook();
+		DemandOrderBook demand = new DemandOrderBook();
+		supply.addBids(supplyBidsOfB, TRADER_B);
+		supply.addBids(supplyBidsOfA, TRADER_A);
+		demand.addBids(demandBidsOfB, TRADER_B);
+		SupplyOrderBook singleSupply = new SupplyOrderBook();
+		DemandOrderBook singleDemand = new DemandOrderBook();
+		supplyBidsOfB.forEach(bid -> singleSupply.addBid(bid, TRADER_B));
+		supplyBidsOfA.forEach(bid -> singleSupply.addBid(bid, TRADER_A));
+		demandBidsOfB.forEach(bid -> singleDemand.addBid(bid, TRADER_B));
+		assertSameResults(clear(supply, demand, method), clear(singleSupply, singleDemand, method));
+
+		PrimitiveSupplyOrderBook primitiveSupply = new PrimitiveSupplyOrderBook();
+		PrimitiveDemandOrderBook primitiveDemand = new PrimitiveDemandOrderBook();
+		primitiveSupply.addBids(supplyBidsOfB, TRADER_B);
+		primitiveSupply.addBids(supplyBidsOfA, TRADER_A);
+		primitiveDemand.addBids(demandBidsOfB, TRADER_B);
+		PrimitiveSupplyOrderBook singlePrimitiveSupply = new PrimitiveSupplyOrderBook();
+		PrimitiveDemandOrderBook singlePrimitiveDemand = new PrimitiveDemandOrderBook();
+		supplyBidsOfB.forEach(bid -> singlePrimitiveSupply.addBid(bid, TRADER_B));
+		supplyBidsOfA.forEach(bid -> singlePrimitiveSupply.addBid(bid, TRADER_A));
+		demandBidsOfB.forEach(bid -> singlePrimitiveDemand.addBid(bid, TRADER_B));
+		assertSameResults(clear(primitiveSupply, primitiveDemand, method),
+				clear(singlePrimitiveSupply, singlePrimitiveDemand, method));
+	}
+
+	/** @return awarded result of clearing given books, using a seeded random number generator */
+	private MarketClearingResult clear(SupplyOrderBook supply, DemandOrderBook demand, DistributionMethod method)
+			throws MeritOrderClearingException {
+		ClearingDetails details = MarketClearing.internalClearing(supply, demand);
+		MarketClearingResult result = new MarketClearingResult(details, demand, supply);
+		result.setBooks(supply, demand, method, new Random(SEED));
+		return result;
+	}
+
+	/** @return awarded result of clearing given primitive books, using a seeded random number generator */
+	private MarketClearingResult clear(PrimitiveSupplyOrderBook supply, PrimitiveDemandOrderBook demand,
+			DistributionMethod method) throws MeritOrderClearingException {
+		ClearingDetails details = MarketClearing.internalClearing(supply, demand);
+		MarketClearingResult result = new MarketClearingResult(details, demand, supply);
+		result.setBooks(supply, demand, method, new Random(SEED));
+		return result;
+	}
+
+	/** Asserts that price, traded energy and awards per trader of both results are exactly equal */
+	private void assertSameResults(MarketClearingResult expected, MarketClearingResult actual) {
+		assertEquals(expected.getMarketPriceInEURperMWH(), actual.getMarketPriceInEURperMWH());
+		assertEquals(expected.getTradedEnergyInMWH(), actual.getTradedEnergyInMWH());
+		for (long trader : List.of(TRADER_A, TRADER_B)) {
+			assertEquals(expected.getAwardedSupplyPowerOf(trader), actual.getAwardedSupplyPowerOf(trader));
+			assertEquals(expected.getAwardedDemandPowerOf(trader), actual.getAwardedDemandPowerOf(trader));
+		}
+		assertEquals(expected.getSystemCostTotalInEUR(), actual.getSystemCostTotalInEUR());
+	}
+
+	@Test
+	public void setBooks_awardsDeferredUntilFirstAccess() throws MeritOrderClearingException {
+		MarketClearingResult result = clearBooks(DistributionMethod.SAME_SHARES);
+		assertTrue(result.hasPendingAwards());
+		assertEquals(result.getTradedEnergyInMWH(),
+				result.getAwardedSupplyPowerOf(TRADER_A) + result.getAwardedSupplyPowerOf(TRADER_B), 1E-10);
+		assertFalse(result.hasPendingAwards());
+	}
+
+	@Test
+	public void setMarketPrice_afterSetBooks_awardsUnchanged() throws MeritOrderClearingException {
+		MarketClearingResult result = clearBooks(DistributionMethod.FIRST_COME_FIRST_SERVE);
+		double expectedSupplyA = result.getAwardedSupplyPowerOf(TRADER_A);
+		double expectedSystemCost = result.getSystemCostTotalInEUR();
+		MarketClearingResult alteredResult = clearBooks(DistributionMethod.FIRST_COME_FIRST_SERVE);
+		alteredResult.setMarketPriceInEURperMWH(1000);
+		assertEquals(expectedSupplyA, alteredResult.getAwardedSupplyPowerOf(TRADER_A), 1E-10);
+		assertEquals(expectedSystemCost, alteredResult.getSystemCostTotalInEUR(), 1E-10);
+	}
+
+	/** @return result of clearing books with the default bids, with books set but not yet awarded */
+	private MarketClearingResult clearBooks(DistributionMethod method) throws MeritOrderClearingException {
+		SupplyOrderBook supply = new SupplyOrderBook();
+		DemandOrderBook demand = new DemandOrderBook();
+		supply.addBids(supplyBidsA, TRADER_A);
+		supply.addBids(supplyBidsB, TRADER_B);
+		demand.addBids(demandBids, TRADER_A);
+		ClearingDetails details = MarketClearing.internalClearing(supply, demand);
+		MarketClearingResult result = new MarketClearingResult(details, demand, supply);
+		result.setBooks(supply, demand, method);
+		return result;
+	}
+
+	@Test
+	public void clear_lastSupplyPriceWithShortage_priceSetBySupply() throws MissingDataException {
+		MarketClearing clearing = buildClearing(ShortagePriceMethod.LastSupplyPrice);
+		SupplyOrderBook supply = new SupplyOrderBook();
+		DemandOrderBook demand = new DemandOrderBook();
+		supply.addBid(new Bid(50, 40), TRADER_A);
+		demand.addBid(new Bid(100, 3000), TRADER_B);
+		assertEquals(40, clearing.clear(supply, demand, "").getMarketPriceInEURperMWH(), 1E-12);
+
+		PrimitiveSupplyOrderBook primitiveSupply = new PrimitiveSupplyOrderBook();
+		PrimitiveDemandOrderBook primitiveDemand = new PrimitiveDemandOrderBook();
+		primitiveSupply.addBid(new Bid(50, 40), TRADER_A);
+		primitiveDemand.addBid(new Bid(100, 3000), TRADER_B);
+		assertEquals(40, clearing.clear(primitiveSupply, primitiveDemand, "").getMarketPriceInEURperMWH(), 1E-12);
+	}
+
+	@Test
+	public void clear_lastSupplyPriceWithoutShortage_priceUnchanged() throws MissingDataException {
+		MarketClearing clearing = buildClearing(ShortagePriceMethod.LastSupplyPrice);
+		SupplyOrderBook supply = new SupplyOrderBook();
+		DemandOrderBook demand = new DemandOrderBook();
+		supply.addBid(new Bid(50, 40), TRADER_A);
+		supply.addBid(new Bid(50, 60), TRADER_A);
+		demand.addBid(new Bid(70, 3000), TRADER_B);
+		assertEquals(60, clearing.clear(supply, demand, "").getMarketPriceInEURperMWH(), 1E-12);
+
+		PrimitiveSupplyOrderBook primitiveSupply = new PrimitiveSupplyOrderBook();
+		PrimitiveDemandOrderBook primitiveDemand = new PrimitiveDemandOrderBook();
+		primitiveSupply.addBid(new Bid(50, 40), TRADER_A);
+		primitiveSupply.addBid(new Bid(50, 60), TRADER_A);
+		primitiveDemand.addBid(new Bid(70, 3000), TRADER_B);
+		assertEquals(60, clearing.clear(primitiveSupply, primitiveDemand, "").getMarketPriceInEURperMWH(), 1E-12);
+	}
+
+	@Test
+	public void clear_valueOfLostLoadWithoutValidSupply_throws() throws MissingDataException {
+		MarketClearing clearing = buildClearing(ShortagePriceMethod.ValueOfLostLoad);
+		SupplyOrderBook supply = new SupplyOrderBook();
+		DemandOrderBook demand = new DemandOrderBook();
+		supply.addBid(new Bid(0, 40), TRADER_A);
+		demand.addBid(new Bid(100, 3000), TRADER_B);
+		assertThrows(RuntimeException.class, () -> clearing.clear(supply, demand, ""));
+
+		PrimitiveSupplyOrderBook primitiveSupply = new PrimitiveSupplyOrderBook();
+		PrimitiveDemandOrderBook primitiveDemand = new PrimitiveDemandOrderBook();
+		primitiveSupply.addBid(new Bid(0, 40), TRADER_A);
+		primitiveDemand.addBid(new Bid(100, 3000), TRADER_B);
+		assertThrows(RuntimeException.class, () -> clearing.clear(primitiveSupply, primitiveDemand, ""));
+	}
+
+	@Test
+	public void clear_valueOfLostLoadWithShortage_priceUnchanged() throws MissingDataException {
+		MarketClearing clearing = buildClearing(ShortagePriceMethod.ValueOfLostLoad);
+		SupplyOrderBook supply = new SupplyOrderBook();
+		DemandOrderBook demand = new DemandOrderBook();
+		supply.addBid(new Bid(50, 40), TRADER_A);
+		demand.addBid(new Bid(100, 3000), TRADER_B);
+		assertEquals(3000, clearing.clear(supply, demand, "").getMarketPriceInEURperMWH(), 1E-12);
+
+		PrimitiveSupplyOrderBook primitiveSupply = new PrimitiveSupplyOrderBook();
+		PrimitiveDemandOrderBook primitiveDemand = new PrimitiveDemandOrderBook();
+		primitiveSupply.addBid(new Bid(50, 40), TRADER_A);
+		primitiveDemand.addBid(new Bid(100, 3000), TRADER_B);
+		assertEquals(3000, clearing.clear(primitiveSupply, primitiveDemand, "").getMarketPriceInEURperMWH(), 1E-12);
+	}
+
+	@Test
+	public void recycle_resultOfForeignBooks_booksNotReleased() throws MissingDataException {
+		MarketClearing clearing = buildClearing(ShortagePriceMethod.ValueOfLostLoad);
+		SupplyOrderBook supply = new SupplyOrderBook();
+		DemandOrderBook demand = new DemandOrderBook();
+		supply.addBids(supplyBidsA, TRADER_A);
+		demand.addBids(demandBids, TRADER_B);
+		int supplyItemCount = supply.getOrderBookItems().size();
+		clearing.recycle(clearing.clear(supply, demand, ""));
+		assertEquals(supplyItemCount, supply.getOrderBookItems().size());
+		assertTrue(clearing.getOrderBookPool().acquireSupplyBook() != supply);
+		assertEquals(0, clearing.getOrderBookPool().getReusedBookCount());
+	}
+
+	@Test
+	public void usesRandomNumbers_onlyForRandomize() throws MissingDataException {
+		for (DistributionMethod method : DistributionMethod.values()) {
+			MarketClearing clearing = buildClearing(method, ShortagePriceMethod.ValueOfLostLoad);
+			assertEquals(method == DistributionMethod.RANDOMIZE, clearing.usesRandomNumbers());
+		}
+	}
+
+	/** @return {@link MarketClearing} with given shortage price method and defaults otherwise */
+	private MarketClearing buildClearing(ShortagePriceMethod shortagePriceMethod) throws MissingDataException {
+		return buildClearing(DistributionMethod.SAME_SHARES, shortagePriceMethod);
+	}
+
+	/** @return {@link MarketClearing} with given distribution and shortage price method and defaults otherwise */
+	private MarketClearing buildClearing(DistributionMethod distributionMethod, ShortagePriceMethod shortagePriceMethod)
+			throws MissingDataException {
+		ParameterData input = mock(ParameterData.class);
+		when(input.getEnum("DistributionMethod", DistributionMethod.class)).thenReturn(distributionMethod);
+		when(input.getEnumOrDefault(eq("ShortagePriceMethod"), eq(ShortagePriceMethod.class), any()))
+				.thenReturn(shortagePriceMethod);
+		when(input.getEnumOrDefault(eq("OrderBookBackend"), eq(OrderBookBackend.class), any()))
+				.thenReturn(OrderBookBackend.ITEMS);
+		return new MarketClearing(input);
+	}
+}
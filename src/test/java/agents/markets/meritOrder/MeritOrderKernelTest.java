@@ -10,12 +10,15 @@ import static testUtils.Exceptions.assertThrowsMessage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import org.apache.commons.lang3.ArrayUtils;
 import org.junit.jupiter.api.Test;
 import agents.markets.meritOrder.MeritOrderKernel.MeritOrderClearingException;
 import agents.markets.meritOrder.books.DemandOrderBook;
 import agents.markets.meritOrder.books.OrderBook;
 import agents.markets.meritOrder.books.OrderBookItem;
+import agents.markets.meritOrder.books.PrimitiveDemandOrderBook;
+import agents.markets.meritOrder.books.PrimitiveSupplyOrderBook;
 import agents.markets.meritOrder.books.SupplyOrderBook;
 
 public class MeritOrderKernelTest {
@@ -161,4 +164,30 @@ public class MeritOrderKernelTest {
 		ClearingDetails result = MeritOrderKernel.clearMarketSimple(supplyBook, demandBook);
 		assertExpectedResult(result, 100, 130);
 	}
+
+	@Test
+	public void clearMarketFrom_anyHint_matchesClearMarketSimple() throws MeritOrderClearingException {
+		double[] priceLevels = {-100, 0, 10, 10, 25, 40, 40, 70, 300};
+		for (long seed = 0; seed < 50; seed++) {
+			Random random = new Random(seed);
+			PrimitiveSupplyOrderBook supplyBook = new PrimitiveSupplyOrderBook();
+			PrimitiveDemandOrderBook demandBook = new PrimitiveDemandOrderBook();
+			for (int i = 0; i < 60; i++) {
+				double power = random.nextInt(4) == 0 ? 0 : random.nextInt(20);
+				supplyBook.addBid(new Bid(power, priceLevels[random.nextInt(priceLevels.length)]), i);
+				demandBook.addBid(new Bid(random.nextInt(20) + 1, priceLevels[random.nextInt(priceLevels.length)]), i);
+			}
+			supplyBook.sort();
+			demandBook.sort();
+			ClearingDetails expected = MeritOrderKernel.clearMarketSimple(supplyBook, demandBook);
+			for (int hint = 0; hint < demandBook.getNumberOfItems() + 2; hint++) {
+				ClearingDetails actual = MeritOrderKernel.clearMarketFrom(supplyBook, demandBook, hint);
+				assertEquals(expected.tradedEnergyInMWH, actual.tradedEnergyInMWH, 0);
+				assertEquals(expected.marketPriceInEURperMWH, actual.marketPriceInEURperMWH, 0);
+				assertEquals(expected.priceSettingDemandBidIdx, actual.priceSettingDemandBidIdx);
+				assertEquals(expected.priceSettingSupplyBidIdx, actual.priceSettingSupplyBidIdx);
+				assertEquals(expected.minPriceSettingDemand, actual.minPriceSettingDemand, 0);
+			}
+		}
+	}
 }
@@ -0,0 +1,48 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder.books;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+public class AwardAccumulatorTest {
+	@Test
+	public void get_unknownTrader_returnsZero() {
+		assertEquals(0, new AwardAccumulator().get(42L), 0);
+	}
+
+	@Test
+	public void add_sameTrader_sumsPowers() {
+		AwardAccumulator accumulator = new AwardAccumulator();
+		accumulator.add(7L, 10.);
+		accumulator.add(Long.MIN_VALUE, 1.);
+		accumulator.add(7L, 2.5);
+		assertEquals(12.5, accumulator.get(7L), 1E-12);
+		assertEquals(1., accumulator.get(Long.MIN_VALUE), 1E-12);
+		assertEquals(2, accumulator.size());
+	}
+
+	@Test
+	public void add_manyTraders_allRetrievableAfterGrowth() {
+		AwardAccumulator accumulator = new AwardAccumulator();
+		for (long id = -500; id < 500; id++) {
+			accumulator.add(id * 1024, id);
+		}
+		assertEquals(1000, accumulator.size());
+		for (long id = -500; id < 500; id++) {
+			assertEquals(id, accumulator.get(id * 1024), 0);
+		}
+	}
+
+	@Test
+	public void clear_removesAllEntries() {
+		AwardAccumulator accumulator = new AwardAccumulator();
+		accumulator.add(1L, 5.);
+		accumulator.clear();
+		assertEquals(0, accumulator.size());
+		assertEquals(0, accumulator.get(1L), 0);
+		accumulator.add(1L, 3.);
+		assertEquals(3., accumulator.get(1L), 0);
+	}
+}
@@ -0,0 +1,78 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder.books;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import agents.markets.meritOrder.Bid;
+import agents.markets.meritOrder.books.OrderBook.DistributionMethod;
+
+public class OrderBookPoolTest {
+	@Test
+	public void acquireSupplyBook_afterRelease_reusesBook() {
+		OrderBookPool pool = new OrderBookPool();
+		SupplyOrderBook book = pool.acquireSupplyBook();
+		pool.release(book);
+		assertSame(book, pool.acquireSupplyBook());
+		assertEquals(1, pool.getCreatedBookCount());
+		assertEquals(1, pool.getReusedBookCount());
+	}
+
+	@Test
+	public void acquireDemandBook_afterRelease_isEmptyAndUnsorted() {
+		OrderBookPool pool = new OrderBookPool();
+		DemandOrderBook book = pool.acquireDemandBook();
+		book.addBid(new Bid(10, 100), 1L);
+		book.sort();
+		pool.release(book);
+		DemandOrderBook reused = pool.acquireDemandBook();
+		reused.addBid(new Bid(5, 50), 2L);
+		List<OrderBookItem> items = reused.getOrderBookItems();
+		assertEquals(2, items.size());
+		assertEquals(2L, items.get(0).getTraderUuid());
+		assertTrue(Double.isNaN(items.get(0).getAwardedPower()));
+	}
+
+	@Test
+	public void addBids_afterRelease_reusesItems() {
+		OrderBookPool pool = new OrderBookPool();
+		SupplyOrderBook book = pool.acquireSupplyBook();
+		book.addBids(List.of(new Bid(10, 20), new Bid(5, 30)), 1L);
+		pool.release(book);
+		book = pool.acquireSupplyBook();
+		book.addBids(List.of(new Bid(10, 20), new Bid(5, 30), new Bid(1, 40)), 1L);
+		assertEquals(3, pool.getCreatedItemCount());
+		assertEquals(2, pool.getReusedItemCount());
+	}
+
+	@Test
+	public void updateAwardedPowerInBids_reusedItems_sameResultAsNewBook() {
+		OrderBookPool pool = new OrderBookPool();
+		SupplyOrderBook pooledBook = pool.acquireSupplyBook();
+		pooledBook.addBids(List.of(new Bid(100, 5), new Bid(50, 80)), 1L);
+		pooledBook.sort();
+		pooledBook.updateAwardedPowerInBids(120, 80, DistributionMethod.SAME_SHARES);
+		pool.release(pooledBook);
+
+		pooledBook = pool.acquireSupplyBook();
+		SupplyOrderBook newBook = new SupplyOrderBook();
+		for (SupplyOrderBook book : List.of(pooledBook, newBook)) {
+			book.addBids(List.of(new Bid(30, 10), new Bid(40, 10)), 2L);
+			book.sort();
+			book.updateAwardedPowerInBids(35, 10, DistributionMethod.SAME_SHARES);
+		}
+		for (int i = 0; i < newBook.getOrderBookItems().size(); i++) {
+			OrderBookItem expected = newBook.getOrderBookItems().get(i);
+			OrderBookItem actual = pooledBook.getOrderBookItems().get(i);
+			assertEquals(expected.getBlockPower(), actual.getBlockPower(), 0);
+			assertEquals(expected.getCumulatedPowerUpperValue(), actual.getCumulatedPowerUpperValue(), 0);
+			assertEquals(expected.getAwardedPower(), actual.getAwardedPower(), 0);
+		}
+		assertEquals(0, pooledBook.getTradersSumOfPower(1L), 0);
+		assertEquals(35, pooledBook.getTradersSumOfPower(2L), 1E-10);
+	}
+}
@@ -0,0 +1,239 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package agents.markets.meritOrder.books;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static testUtils.Exceptions.assertThrowsMessage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import agents.markets.meritOrder.Bid;
+import agents.markets.meritOrder.ClearingDetails;
+import agents.markets.meritOrder.MeritOrderKernel;
+import agents.markets.meritOrder.MeritOrderKernel.MeritOrderClearingException;
+import agents.markets.meritOrder.books.OrderBook.DistributionMethod;
+
+public class PrimitiveOrderBookTest {
+	private static final double[] PRICE_LEVELS = {-500, 0, 12.5, 30, 30, 55, 80, 120, 4000};
+
+	@Test
+	public void addBid_negativePower_throws() {
+		PrimitiveSupplyOrderBook book = new PrimitiveSupplyOrderBook();
+		assertThrowsMessage(RuntimeException.class, OrderBookItem.ERR_NEGATIVE_POWER, () -> book.addBid(new Bid(-1, 5), 0L));
+	}
+
+	@Test
+	public void addBid_afterSort_throws() {
+		PrimitiveDemandOrderBook book = new PrimitiveDemandOrderBook();
+		book.sort();
+		assertThrowsMessage(RuntimeException.class, PrimitiveOrderBook.ERR_ALREADY_SORTED,
+				() -> book.addBid(new Bid(1, 5), 0L));
+	}
+
+	@Test
+	public void updateAwardedPowerInBids_notSorted_throws() {
+		PrimitiveSupplyOrderBook book = new PrimitiveSupplyOrderBook();
+		assertThrowsMessage(RuntimeException.class, PrimitiveOrderBook.ERR_NOT_SORTED,
+				() -> book.updateAwardedPowerInBids(0, 0, DistributionMethod.SAME_SHARES));
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = {1L, 7L, 42L, 1234L})
+	public void sort_randomBids_matchesItemBooks(long seed) {
+		Random random = new Random(seed);
+		SupplyOrderBook supplyBook = new SupplyOrderBook();
+		PrimitiveSupplyOrderBook primitiveSupplyBook = new PrimitiveSupplyOrderBook();
+		fillRandomly(random, 300, supplyBook, primitiveSupplyBook);
+		supplyBook.sort();
+		primitiveSupplyBook.sort();
+		assertCurvesMatch(supplyBook, primitiveSupplyBook);
+
+		DemandOrderBook demandBook = new DemandOrderBook();
+		PrimitiveDemandOrderBook primitiveDemandBook = new PrimitiveDemandOrderBook();
+		fillRandomly(random, 300, demandBook, primitiveDemandBook);
+		demandBook.sort();
+		primitiveDemandBook.sort();
+		assertCurvesMatch(demandBook, primitiveDemandBook);
+	}
+
+	/** Adds the same random bids to both given books */
+	private void fillRandomly(Random random, int count, OrderBook book, PrimitiveOrderBook primitiveBook) {
+		for (int i = 0; i < count; i++) {
+			double price = PRICE_LEVELS[random.nextInt(PRICE_LEVELS.length)];
+			double power = random.nextInt(5) == 0 ? 0 : random.nextDouble() * 100;
+			long traderId = random.nextInt(20);
+			book.addBid(new Bid(power, price, price * 0.9), traderId);
+			primitiveBook.addBid(new Bid(power, price, price * 0.9), traderId);
+		}
+	}
+
+	/** Asserts that all items of both books are in the same order with identical values */
+	private void assertCurvesMatch(OrderBook book, PrimitiveOrderBook primitiveBook) {
+		List<OrderBookItem> items = book.getOrderBookItems();
+		assertEquals(items.size(), primitiveBook.getNumberOfItems());
+		for (int i = 0; i < items.size(); i++) {
+			OrderBookItem item = items.get(i);
+			assertEquals(item.getOfferPrice(), primitiveBook.getOfferPrice(i), 0);
+			assertEquals(item.getBlockPower(), primitiveBook.getBlockPower(i), 0);
+			assertEquals(item.getTraderUuid(), primitiveBook.getTraderUuid(i));
+			assertEquals(item.getCumulatedPowerUpperValue(), primitiveBook.getCumulatedPowerUpperValue(i), 0);
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = {3L, 11L, 99L})
+	public void sort_sortedAndUnsortedRuns_matchStableSortOfAllItems(long seed) {
+		Random random = new Random(seed);
+		SupplyOrderBook supply = new SupplyOrderBook();
+		PrimitiveSupplyOrderBook primitiveSupply = new PrimitiveSupplyOrderBook();
+		DemandOrderBook demand = new DemandOrderBook();
+		PrimitiveDemandOrderBook primitiveDemand = new PrimitiveDemandOrderBook();
+		List<OrderBookItem> allItems = new ArrayList<>();
+		for (long traderId = 0; traderId < 40; traderId++) {
+			List<Bid> run = createRandomRun(random);
+			if (random.nextBoolean()) {
+				run.sort((first, second) -> Double.compare(first.getOfferPriceInEURperMWH(), second.getOfferPriceInEURperMWH()));
+			}
+			supply.addBids(run, traderId);
+			primitiveSupply.addBids(run, traderId);
+			demand.addBids(run, traderId);
+			primitiveDemand.addBids(run, traderId);
+			for (Bid bid : run) {
+				allItems.add(new OrderBookItem(bid, traderId));
+			}
+		}
+		primitiveSupply.sort();
+		primitiveDemand.sort();
+		assertCurvesMatch(supply, primitiveSupply);
+		assertCurvesMatch(demand, primitiveDemand);
+		assertOrderMatches(allItems, supply, Comparator.comparingDouble(OrderBookItem::getOfferPrice));
+		assertOrderMatches(allItems, demand, Comparator.comparingDouble(OrderBookItem::getOfferPrice).reversed());
+	}
+
+	/** Asserts that the given book lists the given items in the order of their stable sort with the given comparator */
+	private void assertOrderMatches(List<OrderBookItem> items, OrderBook book, Comparator<OrderBookItem> comparator) {
+		List<OrderBookItem> expected = new ArrayList<>(items);
+		expected.sort(comparator);
+		List<OrderBookItem> actual = book.getOrderBookItems();
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getOfferPrice(), actual.get(i).getOfferPrice(), 0);
+			assertEquals(expected.get(i).getBlockPower(), actual.get(i).getBlockPower(), 0);
+			assertEquals(expected.get(i).getTraderUuid(), actual.get(i).getTraderUuid());
+		}
+	}
+
+	/** @return new list of a random number of bids at random price levels */
+	private List<Bid> createRandomRun(Random random) {
+		List<Bid> run = new ArrayList<>();
+		int count = random.nextInt(6);
+		for (int i = 0; i < count; i++) {
+			double price = PRICE_LEVELS[random.nextInt(PRICE_LEVELS.length)];
+			run.add(new Bid(random.nextDouble() * 100, price, price * 0.9));
+		}
+		return run;
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = DistributionMethod.class, names = {"FIRST_COME_FIRST_SERVE", "SAME_SHARES"})
+	public void updateAwardedPowerInBids_randomMarket_matchesItemBooks(DistributionMethod method)
+			throws MeritOrderClearingException {
+		for (long seed = 0; seed < 20; seed++) {
+			Random random = new Random(seed);
+			SupplyOrderBook supplyBook = new SupplyOrderBook();
+			PrimitiveSupplyOrderBook primitiveSupplyBook = new PrimitiveSupplyOrderBook();
+			fillRandomly(random, 200, supplyBook, primitiveSupplyBook);
+			DemandOrderBook demandBook = new DemandOrderBook();
+			PrimitiveDemandOrderBook primitiveDemandBook = new PrimitiveDemandOrderBook();
+			fillRandomly(random, 150, demandBook, primitiveDemandBook);
+			supplyBook.sort();
+			demandBook.sort();
+			primitiveSupplyBook.sort();
+			primitiveDemandBook.sort();
+
+			ClearingDetails expected = MeritOrderKernel.clearMarketSimple(supplyBook, demandBook);
+			ClearingDetails actual = MeritOrderKernel.clearMarketSimple(primitiveSupplyBook, primitiveDemandBook);
+			assertEquals(expected.marketPriceInEURperMWH, actual.marketPriceInEURperMWH, 0);
+			assertEquals(expected.tradedEnergyInMWH, actual.tradedEnergyInMWH, 0);
+			assertEquals(expected.priceSettingDemandBidIdx, actual.priceSettingDemandBidIdx);
+			assertEquals(expected.priceSettingSupplyBidIdx, actual.priceSettingSupplyBidIdx);
+
+			award(expected, method, supplyBook, demandBook);
+			primitiveSupplyBook.updateAwardedPowerInBids(actual.tradedEnergyInMWH, actual.marketPriceInEURperMWH, method);
+			primitiveDemandBook.updateAwardedPowerInBids(actual.tradedEnergyInMWH, actual.marketPriceInEURperMWH, method);
+			assertAwardsMatch(supplyBook, primitiveSupplyBook);
+			assertAwardsMatch(demandBook, primitiveDemandBook);
+		}
+	}
+
+	/** Awards both given books with the given clearing result */
+	private void award(ClearingDetails details, DistributionMethod method, OrderBook... books) {
+		for (OrderBook book : books) {
+			book.updateAwardedPowerInBids(details.tradedEnergyInMWH, details.marketPriceInEURperMWH, method);
+		}
+	}
+
+	/** Asserts that awarded powers of items and traders are identical in both books */
+	private void assertAwardsMatch(OrderBook book, PrimitiveOrderBook primitiveBook) {
+		ArrayList<OrderBookItem> items = book.getOrderBookItems();
+		for (int i = 0; i < items.size(); i++) {
+			assertEquals(items.get(i).getAwardedPower(), primitiveBook.getAwardedPower(i), 0);
+		}
+		for (long traderId = 0; traderId < 20; traderId++) {
+			assertEquals(book.getTradersSumOfPower(traderId), primitiveBook.getTradersSumOfPower(traderId), 0);
+		}
+	}
+
+	@Test
+	public void toSupplyOrderBook_awardedBook_copiesAllItems() throws MeritOrderClearingException {
+		PrimitiveSupplyOrderBook supplyBook = new PrimitiveSupplyOrderBook();
+		supplyBook.addBids(List.of(new Bid(50, 20, 18), new Bid(100, 10, 9)), 1L);
+		PrimitiveDemandOrderBook demandBook = new PrimitiveDemandOrderBook();
+		demandBook.addBid(new Bid(120, 3000), 2L);
+		supplyBook.sort();
+		demandBook.sort();
+		ClearingDetails details = MeritOrderKernel.clearMarketSimple(supplyBook, demandBook);
+		supplyBook.updateAwardedPowerInBids(details.tradedEnergyInMWH, details.marketPriceInEURperMWH,
+				DistributionMethod.SAME_SHARES);
+
+		SupplyOrderBook copy = supplyBook.toSupplyOrderBook();
+		ArrayList<OrderBookItem> items = copy.getOrderBookItems();
+		assertEquals(3, items.size());
+		assertEquals(100, items.get(0).getAwardedPower(), 1E-10);
+		assertEquals(20, items.get(1).getAwardedPower(), 1E-10);
+		assertEquals(18, items.get(1).getMarginalCost(), 1E-10);
+		assertEquals(120, copy.getTradersSumOfPower(1L), 1E-10);
+		assertEquals(20, copy.getLastAwardedItem().getOfferPrice(), 1E-10);
+	}
+
+	@Test
+	public void updateAwardedPowerInBids_randomizeWithSameSeed_sameAwards() {
+		double[][] awards = new double[2][];
+		double[][] primitiveAwards = new double[2][];
+		for (int run = 0; run < 2; run++) {
+			SupplyOrderBook book = new SupplyOrderBook();
+			PrimitiveSupplyOrderBook primitiveBook = new PrimitiveSupplyOrderBook();
+			for (long traderId = 0; traderId < 50; traderId++) {
+				book.addBid(new Bid(10, 30), traderId);
+				primitiveBook.addBid(new Bid(10, 30), traderId);
+			}
+			book.sort();
+			primitiveBook.sort();
+			book.updateAwardedPowerInBids(255, 30, DistributionMethod.RANDOMIZE, new Random(99));
+			primitiveBook.updateAwardedPowerInBids(255, 30, DistributionMethod.RANDOMIZE, new Random(99));
+			awards[run] = book.getOrderBookItems().stream().mapToDouble(OrderBookItem::getAwardedPower).toArray();
+			primitiveAwards[run] = new double[primitiveBook.getNumberOfItems()];
+			for (int i = 0; i < primitiveBook.getNumberOfItems(); i++) {
+				primitiveAwards[run][i] = primitiveBook.getAwardedPower(i);
+			}
+		}
+		assertArrayEquals(awards[0], awards[1], 0);
+		assertArrayEquals(primitiveAwards[0], primitiveAwards[1], 0);
+	}
+}
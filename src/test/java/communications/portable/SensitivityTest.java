@@ -13,6 +13,7 @@ import org.junit.jupiter.params.provider.CsvSource;
 import agents.forecast.sensitivity.MarketClearingAssessment;
 import agents.markets.meritOrder.MarketClearingResult;
 import communications.portable.Sensitivity.InterpolationType;
+import communications.portable.SensitivityCurves.SegmentCursor;
 
 /** Tests for {@link Sensitivity}
  * 
@@ -169,6 +170,52 @@ public class SensitivityTest {
 		assertEquals(expectedValue, sensitivity.getValue(-requestedEnergy), 1E-12);
 	}
 
+	@Test
+	public void getValue_queriesInAnyOrder_returnSameValues() {
+		MarketClearingAssessment assessment = buildAssessment(array(0, 1, 2, 5, 10), array(0, 1, 20, 500, 1000),
+				array(0, 1, 2, 5, 10), array(0, 1, 20, 500, 1000));
+		sensitivity = new Sensitivity(assessment, 1.0);
+		sensitivity.setInterpolationType(InterpolationType.CUMULATIVE);
+		double[] energies = array(0.5, 7, 1.5, 4, 2, 9.5, 0.25);
+		double[] expected = new double[energies.length];
+		for (int i = 0; i < energies.length; i++) {
+			expected[i] = sensitivity.getValue(energies[i]);
+		}
+		for (int i = energies.length - 1; i >= 0; i--) {
+			assertEquals(expected[i], sensitivity.getValue(energies[i]), 0);
+		}
+	}
+
+	@ParameterizedTest
+	@CsvSource(value = {"DIRECT:1", "CUMULATIVE:1", "DIRECT:-2", "CUMULATIVE:0.5"}, delimiter = ':')
+	public void getValueWithCursor_anyOrder_matchesGetValue(InterpolationType interpolationType, double multiplier) {
+		MarketClearingAssessment assessment = buildAssessment(array(0, 1, 2, 2, 5, 10), array(0, 1, 20, 20, 500, 1000),
+				array(0, 1, 2, 5, 10), array(0, 1, 20, 500, 1000));
+		sensitivity = new Sensitivity(assessment, multiplier);
+		sensitivity.setInterpolationType(interpolationType);
+		double[] energies = array(-11, -9.5, -4, -2, -0.5, 0, 0.25, 1, 1.5, 2, 4, 7, 10, 11, 3, -3, 9.9, -0.1, 0.5,
+				Double.NaN, 6);
+		SegmentCursor cursor = new SegmentCursor();
+		for (double energy : energies) {
+			assertEquals(sensitivity.getValue(energy), sensitivity.getValue(energy, cursor), 0);
+		}
+	}
+
+	@Test
+	public void getValue_sharedCurvesDifferentMultipliers_independentResults() {
+		MarketClearingAssessment assessment = buildAssessment(array(0, 1, 2, 5, 10), array(0, 1, 20, 500, 1000),
+				array(0, 1, 2, 5, 10), array(0, 1, 20, 500, 1000));
+		SensitivityCurves curves = assessment.toCurves();
+		Sensitivity first = new Sensitivity(curves, 1.0);
+		Sensitivity second = new Sensitivity(curves, 2.0);
+		first.setInterpolationType(InterpolationType.DIRECT);
+		second.setInterpolationType(InterpolationType.CUMULATIVE);
+		assertEquals(640, first.getValue(4), 1E-12);
+		assertEquals(170, second.getValue(2), 1E-12);
+		assertEquals(160, first.getPriceInEURperMWH(4), 1E-12);
+		assertEquals(160, second.getPriceInEURperMWH(2), 1E-12);
+	}
+
 	@ParameterizedTest
 	@CsvSource(value = {"7:100", "4:160", "2:19", "1.5:19", "0.5:1"}, delimiter = ':')
 	public void getPriceInEURperMWH_multiplierOne_returnsCorrectValue(double requestedEnergy, double expectedValue) {
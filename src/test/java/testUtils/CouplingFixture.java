@@ -0,0 +1,70 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package testUtils;
+
+import java.util.Map;
+import java.util.TreeSet;
+import agents.markets.meritOrder.Bid;
+import agents.markets.meritOrder.books.DemandOrderBook;
+import agents.markets.meritOrder.books.OrderBookItem;
+import agents.markets.meritOrder.books.SupplyOrderBook;
+import agents.markets.meritOrder.books.TransmissionBook;
+import communications.message.TransmissionCapacity;
+import communications.portable.CouplingData;
+import de.dlr.gitlab.fame.time.TimeStamp;
+
+/** Builds and describes coupling requests of markets shared by tests of market coupling */
+public final class CouplingFixture {
+	/** UUID of the trader placing the inelastic demand bid of markets built by {@link #buildMarket} */
+	public static final long DEMAND_TRADER = 99L;
+
+	/** Returns coupling data of one market with a stepped supply curve and a single inelastic demand bid
+	 *
+	 * @param time of the coupling request
+	 * @param zone of the market
+	 * @param basePrice price of the cheapest supply step; each of the five steps is 10 EUR/MWh more expensive than the previous
+	 * @param demand inelastic demand in MWh
+	 * @param capacity transmission capacity to each neighbour in MW
+	 * @param neighbours zones connected to this market; the market's own zone is skipped
+	 * @return coupling data of the market */
+	public static CouplingData buildMarket(long time, String zone, double basePrice, double demand, double capacity,
+			String... neighbours) {
+		SupplyOrderBook supply = new SupplyOrderBook();
+		for (int step = 0; step < 5; step++) {
+			supply.addBid(new Bid(100 + 10 * step, basePrice + 10 * step, basePrice + 10 * step), 10L + step);
+		}
+		DemandOrderBook demandBook = new DemandOrderBook();
+		demandBook.addBid(new Bid(demand, 3000), DEMAND_TRADER);
+		TransmissionBook transmission = new TransmissionBook(zone);
+		for (String neighbour : neighbours) {
+			if (!neighbour.equals(zone)) {
+				transmission.add(new TransmissionCapacity(neighbour, capacity));
+			}
+		}
+		return new CouplingData(new TimeStamp(time), demandBook, supply, transmission);
+	}
+
+	/** @return text representation of demand without virtual bids, remaining capacities and transfers of all given markets in order
+	 *         of their id */
+	public static String describe(Map<Long, CouplingData> requests) {
+		StringBuilder builder = new StringBuilder();
+		for (long id : new TreeSet<>(requests.keySet())) {
+			CouplingData data = requests.get(id);
+			builder.append(id).append(':');
+			for (OrderBookItem item : data.getDemandOrderBook().getOrderBookItems()) {
+				if (item.getTraderUuid() == Long.MIN_VALUE) {
+					continue;
+				}
+				builder.append(item.getBlockPower()).append('@').append(item.getOfferPrice()).append('#')
+						.append(item.getTraderUuid()).append(',');
+			}
+			for (TransmissionCapacity capacity : data.getTransmissionBook().getTransmissionCapacities()) {
+				builder.append(capacity.getTarget()).append('=').append(capacity.getRemainingTransferCapacityInMW()).append(',');
+			}
+			builder.append(data.getImportOrderBook().getAccumulatedEnergyInMWH()).append('/');
+			builder.append(data.getExportOrderBook().getAccumulatedEnergyInMWH()).append(';');
+		}
+		return builder.toString();
+	}
+}
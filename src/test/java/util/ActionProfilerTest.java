@@ -0,0 +1,168 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import de.dlr.gitlab.fame.agent.Agent;
+import de.dlr.gitlab.fame.communication.Contract;
+import de.dlr.gitlab.fame.communication.message.Message;
+import util.ActionProfiler.ActionStatistics;
+import util.ActionProfiler.Counter;
+
+public class ActionProfilerTest {
+	private enum Products {
+		DoSomething
+	}
+
+	@TempDir
+	Path tempDir;
+
+	@AfterEach
+	public void tearDown() {
+		ActionProfiler.disable();
+	}
+
+	private Agent mockAgent(long id) {
+		Agent agent = mock(Agent.class);
+		when(agent.getId()).thenReturn(id);
+		return agent;
+	}
+
+	@Test
+	public void profile_disabled_returnsGivenAction() {
+		BiConsumer<ArrayList<Message>, List<Contract>> action = (messages, contracts) -> {};
+		assertSame(action, ActionProfiler.profile(mockAgent(1), Products.DoSomething, action));
+	}
+
+	@Test
+	public void count_disabled_isIgnored() {
+		ActionProfiler.count(Counter.COUPLING_ITERATIONS, 5);
+		ActionProfiler profiler = ActionProfiler.enable();
+		assertEquals(0, profiler.getCount(Counter.COUPLING_ITERATIONS));
+	}
+
+	@Test
+	public void profile_enabled_recordsCallsAndMessages() {
+		ActionProfiler profiler = ActionProfiler.enable();
+		int[] executions = new int[1];
+		BiConsumer<ArrayList<Message>, List<Contract>> action = ActionProfiler.profile(mockAgent(7), Products.DoSomething,
+				(messages, contracts) -> executions[0]++);
+		ArrayList<Message> messages = new ArrayList<>();
+		messages.add(mock(Message.class));
+		messages.add(mock(Message.class));
+		action.accept(messages, new ArrayList<>());
+		action.accept(new ArrayList<>(), new ArrayList<>());
+		assertEquals(2, executions[0]);
+		List<ActionStatistics> statistics = profiler.getSortedStatistics();
+		assertEquals(1, statistics.size());
+		assertEquals(7, statistics.get(0).agentId);
+		assertEquals("DoSomething", statistics.get(0).product);
+		assertEquals(2, statistics.get(0).calls);
+		assertEquals(2, statistics.get(0).receivedMessages);
+		assertTrue(statistics.get(0).maxWallTimeInNS <= statistics.get(0).wallTimeInNS);
+	}
+
+	@Test
+	public void profile_actionThrows_isStillRecorded() {
+		ActionProfiler profiler = ActionProfiler.enable();
+		BiConsumer<ArrayList<Message>, List<Contract>> action = ActionProfiler.profile(mockAgent(1), Products.DoSomething,
+				(messages, contracts) -> {
+					throw new RuntimeException();
+				});
+		try {
+			action.accept(new ArrayList<>(), new ArrayList<>());
+		} catch (RuntimeException e) {}
+		assertEquals(1, profiler.getSortedStatistics().get(0).calls);
+	}
+
+	@Test
+	public void count_enabled_accumulates() {
+		ActionProfiler profiler = ActionProfiler.enable();
+		ActionProfiler.count(Counter.DISPATCH_STATE_EVALUATIONS, 3);
+		ActionProfiler.count(Counter.DISPATCH_STATE_EVALUATIONS, 4);
+		assertEquals(7, profiler.getCount(Counter.DISPATCH_STATE_EVALUATIONS));
+	}
+
+	@Test
+	public void write_enabled_createsCsvAndJson() throws IOException {
+		ActionProfiler profiler = ActionProfiler.enable();
+		ActionProfiler.profile(mockAgent(3), Products.DoSomething, (messages, contracts) -> {}).accept(new ArrayList<>(),
+				new ArrayList<>());
+		ActionProfiler.count(Counter.MERIT_ORDER_CLEARINGS, 2);
+		Path csv = tempDir.resolve("profile.csv");
+		Path json = tempDir.resolve("profile.json");
+		profiler.writeCsv(csv);
+		profiler.writeJson(json);
+		List<String> lines = Files.readAllLines(csv);
+		assertEquals(ActionProfiler.CSV_HEADER, lines.get(0));
+		assertTrue(lines.get(1).contains(";3;DoSomething;1;"));
+		JSONObject result = new JSONObject(Files.readString(json));
+		assertEquals(1, result.getJSONArray("Actions").length());
+		assertEquals(2, result.getJSONObject("Counters").getLong("MERIT_ORDER_CLEARINGS"));
+	}
+
+	@Test
+	public void profile_allocationInWorkerPool_isRecorded() throws InterruptedException, ExecutionException {
+		ActionProfiler profiler = ActionProfiler.enable();
+		ForkJoinPool pool = WorkerPools.get(1);
+		pool.submit(() -> {}).get();
+		int allocationSize = 16 * 1024 * 1024;
+		long[] checksum = new long[1];
+		ActionProfiler.profile(mockAgent(1), Products.DoSomething, (messages, contracts) -> {
+			try {
+				checksum[0] = pool.submit(() -> (long) new byte[allocationSize].length).get();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e);
+			}
+		}).accept(new ArrayList<>(), new ArrayList<>());
+		assertEquals(allocationSize, checksum[0]);
+		assertTrue(profiler.getSortedStatistics().get(0).allocatedBytes >= allocationSize);
+	}
+
+	@Test
+	public void profile_allocationInUnrelatedThread_isIgnored() throws InterruptedException, ExecutionException {
+		ActionProfiler profiler = ActionProfiler.enable();
+		ExecutorService other = Executors.newSingleThreadExecutor();
+		other.submit(() -> {}).get();
+		int allocationSize = 16 * 1024 * 1024;
+		ActionProfiler.profile(mockAgent(1), Products.DoSomething, (messages, contracts) -> {
+			try {
+				other.submit(() -> (long) new byte[allocationSize].length).get();
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e);
+			}
+		}).accept(new ArrayList<>(), new ArrayList<>());
+		other.shutdown();
+		assertTrue(profiler.getSortedStatistics().get(0).allocatedBytes < allocationSize);
+	}
+
+	@Test
+	public void getProcessPrefix_rankGiven_rankAppended() {
+		assertEquals("out/profile_rank2", ActionProfiler.getProcessPrefix("out/profile", "2", 1234L));
+	}
+
+	@Test
+	public void getProcessPrefix_noRank_processIdAppended() {
+		assertEquals("out/profile_pid1234", ActionProfiler.getProcessPrefix("out/profile", null, 1234L));
+		assertEquals("out/profile_pid1234", ActionProfiler.getProcessPrefix("out/profile", " ", 1234L));
+	}
+}
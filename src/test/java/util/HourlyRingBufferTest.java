@@ -0,0 +1,101 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package util;
+
+import static de.dlr.gitlab.fame.time.Constants.STEPS_PER_HOUR;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static testUtils.Exceptions.assertThrowsMessage;
+import java.util.ArrayList;
+import java.util.List;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+public class HourlyRingBufferTest {
+	private static final long HOUR = STEPS_PER_HOUR;
+
+	@Test
+	public void constructor_capacityNotPositive_throws() {
+		assertThrowsMessage(IllegalArgumentException.class, HourlyRingBuffer.ERR_CAPACITY, () -> new HourlyRingBuffer(0));
+	}
+
+	@Test
+	public void new_isEmpty() {
+		HourlyRingBuffer buffer = new HourlyRingBuffer(3);
+		assertTrue(buffer.isEmpty());
+		assertFalse(buffer.contains(0L));
+		assertTrue(Double.isNaN(buffer.get(0L)));
+		assertTrue(buffer.toJson(Long.MIN_VALUE).isEmpty());
+	}
+
+	@Test
+	public void put_get_returnsStoredValue() {
+		HourlyRingBuffer buffer = new HourlyRingBuffer(3);
+		buffer.put(5 * HOUR, 1.5);
+		buffer.put(6 * HOUR, 2.5);
+		assertEquals(1.5, buffer.get(5 * HOUR), 1E-12);
+		assertEquals(2.5, buffer.get(6 * HOUR), 1E-12);
+		assertEquals(6 * HOUR, buffer.getLatestStep());
+		assertEquals(2.5, buffer.getLatestValue(), 1E-12);
+	}
+
+	@Test
+	public void put_beyondCapacity_overwritesOldest() {
+		HourlyRingBuffer buffer = new HourlyRingBuffer(2);
+		buffer.put(0L, 1.);
+		buffer.put(HOUR, 2.);
+		buffer.put(2 * HOUR, 3.);
+		assertFalse(buffer.contains(0L));
+		assertEquals(2., buffer.get(HOUR), 1E-12);
+		assertEquals(3., buffer.get(2 * HOUR), 1E-12);
+	}
+
+	@Test
+	public void put_negativeSteps_supported() {
+		HourlyRingBuffer buffer = new HourlyRingBuffer(3);
+		buffer.put(-2 * HOUR, 1.);
+		buffer.put(-HOUR, 2.);
+		assertEquals(1., buffer.get(-2 * HOUR), 1E-12);
+		assertEquals(-HOUR, buffer.getLatestStep());
+	}
+
+	@Test
+	public void putMissing_windowShifted_storesOnlyNewHours() {
+		HourlyRingBuffer buffer = new HourlyRingBuffer(4);
+		List<Long> requestedSteps = new ArrayList<>();
+		buffer.putMissing(0L, 3 * HOUR, step -> {
+			requestedSteps.add(step);
+			return step / HOUR;
+		});
+		buffer.putMissing(HOUR, 4 * HOUR, step -> {
+			requestedSteps.add(step);
+			return step / HOUR;
+		});
+		assertEquals(List.of(0L, HOUR, 2 * HOUR, 3 * HOUR), requestedSteps);
+		assertEquals(3., buffer.get(3 * HOUR), 1E-12);
+	}
+
+	@Test
+	public void putMissing_latestStepBeforeWindow_storesWholeWindow() {
+		HourlyRingBuffer buffer = new HourlyRingBuffer(4);
+		buffer.put(0L, 9.);
+		buffer.putMissing(5 * HOUR, 7 * HOUR, step -> step / HOUR);
+		assertEquals(5., buffer.get(5 * HOUR), 1E-12);
+		assertEquals(6., buffer.get(6 * HOUR), 1E-12);
+	}
+
+	@Test
+	public void toJson_firstStep_excludesEarlierAndOverwritten() {
+		HourlyRingBuffer buffer = new HourlyRingBuffer(3);
+		for (int hour = 0; hour < 5; hour++) {
+			buffer.put(hour * HOUR, hour);
+		}
+		JSONObject json = buffer.toJson(3 * HOUR);
+		assertEquals(2, json.length());
+		assertEquals(3., json.getDouble(Long.toString(3 * HOUR)), 1E-12);
+		assertEquals(4., json.getDouble(Long.toString(4 * HOUR)), 1E-12);
+		assertEquals(3, buffer.toJson(Long.MIN_VALUE).length());
+	}
+}
@@ -0,0 +1,184 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static testUtils.Exceptions.assertThrowsMessage;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import de.dlr.gitlab.fame.agent.input.ParameterData;
+import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
+
+public class ResponseCacheTest {
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void constructor_capacityNotPositive_throws() {
+		assertThrowsMessage(IllegalArgumentException.class, ResponseCache.ERR_CAPACITY,
+				() -> new ResponseCache(0, 0, null));
+	}
+
+	@Test
+	public void constructor_negativeTolerance_throws() {
+		assertThrowsMessage(IllegalArgumentException.class, ResponseCache.ERR_TOLERANCE,
+				() -> new ResponseCache(1, -1, null));
+	}
+
+	@Test
+	public void canonicalise_differentFieldOrder_equal() {
+		ResponseCache cache = new ResponseCache(10, 0, null);
+		JSONObject first = new JSONObject().put("a", 1).put("b", new JSONObject().put("x", "s").put("y", true));
+		JSONObject second = new JSONObject().put("b", new JSONObject().put("y", true).put("x", "s")).put("a", 1.0);
+		assertEquals(cache.canonicalise(first), cache.canonicalise(second));
+	}
+
+	@Test
+	public void canonicalise_noTolerance_smallDifferenceDistinguished() {
+		ResponseCache cache = new ResponseCache(10, 0, null);
+		assertNotEquals(cache.canonicalise(new JSONObject().put("a", 1.0)),
+				cache.canonicalise(new JSONObject().put("a", 1.0001)));
+	}
+
+	@Test
+	public void canonicalise_withinTolerance_equal() {
+		ResponseCache cache = new ResponseCache(10, 0.1, null);
+		JSONObject first = new JSONObject().put("a", new JSONArray().put(10.01).put(20.0));
+		JSONObject second = new JSONObject().put("a", new JSONArray().put(9.99).put(20.02));
+		assertEquals(cache.canonicalise(first), cache.canonicalise(second));
+	}
+
+	@Test
+	public void canonicalise_beyondRoundingRangeWithTolerance_notRounded() {
+		ResponseCache cache = new ResponseCache(10, 0.1, null);
+		String huge = cache.canonicalise(new JSONObject().put("a", new BigDecimal("1E300")));
+		String infinite = cache.canonicalise(new JSONObject().put("a", new BigDecimal("1E400")));
+		assertNotEquals(huge, cache.canonicalise(new JSONObject().put("a", new BigDecimal("2E300"))));
+		assertNotEquals(huge, infinite);
+		assertNotEquals(cache.canonicalise(new JSONObject().put("a", 0.)), infinite);
+	}
+
+	@Test
+	public void canonicalise_fieldTolerance_overridesDefault() {
+		ResponseCache cache = new ResponseCache(10, 0, null).setFieldTolerance("price", 1.);
+		assertEquals(cache.canonicalise(new JSONObject().put("price", 10.2).put("load", 5.)),
+				cache.canonicalise(new JSONObject().put("price", 9.9).put("load", 5.)));
+		assertNotEquals(cache.canonicalise(new JSONObject().put("price", 10.).put("load", 5.)),
+				cache.canonicalise(new JSONObject().put("price", 10.).put("load", 5.1)));
+	}
+
+	@Test
+	public void fromConfig_fieldTolerances_applied() throws MissingDataException {
+		ParameterData fieldTolerance = mock(ParameterData.class);
+		when(fieldTolerance.getString("FieldName")).thenReturn("price");
+		when(fieldTolerance.getDouble("Tolerance")).thenReturn(1.);
+		ParameterData input = mock(ParameterData.class);
+		when(input.getIntegerOrDefault("Capacity", ResponseCache.DEFAULT_CAPACITY)).thenReturn(10);
+		when(input.getDoubleOrDefault("NumericTolerance", 0.)).thenReturn(0.);
+		when(input.getOptionalGroupList("FieldTolerances")).thenReturn(List.of(fieldTolerance));
+		ResponseCache cache = ResponseCache.fromConfig(input);
+		assertEquals(cache.canonicalise(new JSONObject().put("price", 10.2)),
+				cache.canonicalise(new JSONObject().put("price", 9.9)));
+	}
+
+	@Test
+	public void get_countsHitsAndMisses() {
+		ResponseCache cache = new ResponseCache(10, 0, null);
+		assertNull(cache.get("key"));
+		cache.put("key", "{}");
+		assertEquals("{}", cache.get("key"));
+		assertEquals("{}", cache.get("key"));
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(2. / 3., cache.getHitRate(), 1E-12);
+	}
+
+	@Test
+	public void put_capacityExceeded_evictsLeastRecentlyUsed() {
+		ResponseCache cache = new ResponseCache(2, 0, null);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.get("a");
+		cache.put("c", "3");
+		assertEquals(2, cache.size());
+		assertEquals("1", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals("3", cache.get("c"));
+	}
+
+	@Test
+	public void put_persistenceFile_restoredByNewCache() {
+		Path file = tempDir.resolve("cache.jsonl");
+		ResponseCache cache = new ResponseCache(10, 0, file);
+		cache.put("a", "{\"x\": 1}");
+		cache.put("b", "{\"x\": 2}");
+		cache.put("a", "{\"x\": 3}");
+		ResponseCache restored = new ResponseCache(10, 0, file);
+		assertEquals(2, restored.size());
+		assertEquals("{\"x\": 3}", restored.get("a"));
+		assertEquals("{\"x\": 2}", restored.get("b"));
+	}
+
+	@Test
+	public void restore_outdatedEntries_fileCompacted() throws IOException {
+		Path file = tempDir.resolve("cache.jsonl");
+		ResponseCache cache = new ResponseCache(10, 0, file);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.put("a", "3");
+		assertEquals(3, Files.readAllLines(file).size());
+		ResponseCache restored = new ResponseCache(10, 0, file);
+		assertEquals(2, Files.readAllLines(file).size());
+		assertEquals("3", restored.get("a"));
+		assertEquals("2", restored.get("b"));
+	}
+
+	@Test
+	public void put_fileExceedsTwiceCapacity_fileCompacted() throws IOException {
+		Path file = tempDir.resolve("cache.jsonl");
+		ResponseCache cache = new ResponseCache(2, 0, file);
+		for (int i = 0; i < 5; i++) {
+			cache.put("a", Integer.toString(i));
+		}
+		assertEquals(1, Files.readAllLines(file).size());
+		assertEquals("4", new ResponseCache(2, 0, file).get("a"));
+	}
+
+	@Test
+	public void fromConfig_samePersistenceFile_sharedCache() throws MissingDataException {
+		String fileName = tempDir.resolve("shared.jsonl").toString();
+		ResponseCache cache = ResponseCache.fromConfig(mockConfig(10, 0., fileName));
+		assertSame(cache, ResponseCache.fromConfig(mockConfig(10, 0., fileName)));
+	}
+
+	@Test
+	public void fromConfig_samePersistenceFileOtherSettings_throws() throws MissingDataException {
+		String fileName = tempDir.resolve("conflict.jsonl").toString();
+		ResponseCache.fromConfig(mockConfig(10, 0., fileName));
+		ParameterData other = mockConfig(10, 0.5, fileName);
+		assertThrowsMessage(IllegalArgumentException.class, ResponseCache.ERR_CONFLICT,
+				() -> ResponseCache.fromConfig(other));
+	}
+
+	/** @return mocked configuration with given settings and no field tolerances */
+	private ParameterData mockConfig(int capacity, double tolerance, String fileName) {
+		ParameterData input = mock(ParameterData.class);
+		when(input.getIntegerOrDefault("Capacity", ResponseCache.DEFAULT_CAPACITY)).thenReturn(capacity);
+		when(input.getDoubleOrDefault("NumericTolerance", 0.)).thenReturn(tolerance);
+		when(input.getStringOrDefault("PersistenceFile", null)).thenReturn(fileName);
+		return input;
+	}
+}
@@ -3,22 +3,33 @@
 // SPDX-License-Identifier: Apache-2.0
 package util;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static testUtils.Exceptions.assertThrowsMessage;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
-import java.net.SocketTimeoutException;
-import java.net.URL;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient.Version;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.MockedConstruction;
-import org.mockito.Mockito;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 import de.dlr.gitlab.fame.agent.input.ParameterData;
 import de.dlr.gitlab.fame.agent.input.ParameterData.MissingDataException;
+import de.dlr.gitlab.fame.time.TimeStamp;
 
 public class UrlModelServiceTest {
 
@@ -34,13 +45,37 @@ public class UrlModelServiceTest {
 		}
 	}
 
+	public static class InputA implements JSONable {
+		private final int y;
+
+		public InputA(int y) {
+			this.y = y;
+		}
+
+		public int getY() {
+			return y;
+		}
+	}
+
 	private final String validURL = "http://localhost:8000/endpoint";
 
-	private HttpURLConnection mockedConnection;
+	private HttpServer server;
 
 	@BeforeEach
-	public void setup() {
-		mockedConnection = mock(HttpURLConnection.class);
+	public void setup() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	/** @return URL of the stub server's context at given path */
+	private String getUrl(String path) {
+		return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path;
 	}
 
 	@Test
@@ -75,6 +110,15 @@ public class UrlModelServiceTest {
 		assert ums.getTimeout() == 125;
 	}
 
+	@Test
+	public void constructor_inputTimeoutUsed() throws MissingDataException {
+		ParameterData mockedInput = mock(ParameterData.class);
+		when(mockedInput.getString("ServiceUrl")).thenReturn(validURL);
+		when(mockedInput.getIntegerOrDefault("TimeoutInMilliseconds", UrlModelService.DEFAULT_TIMEOUT)).thenReturn(125);
+		UrlModelService<Input, Result> ums = new UrlModelService<Input, Result>(mockedInput) {};
+		assert ums.getTimeout() == 125;
+	}
+
 	@Test
 	public void constructor_missingURL_throws() throws MissingDataException {
 		ParameterData mockedInput = mock(ParameterData.class);
@@ -87,36 +131,218 @@ public class UrlModelServiceTest {
 
 	@Test
 	public void call_serviceUnreachable_throws() {
-		UrlModelService<Input, Result> ums = new UrlModelService<Input, Result>(validURL, 1) {};
+		UrlModelService<Input, Result> ums = new UrlModelService<Input, Result>(validURL) {};
 		assertThrowsMessage(RuntimeException.class, UrlModelService.ERR_CONNECTION, () -> ums.call(new Input()));
 	}
 
 	@Test
-	public void call_serviceTimeout_throws() throws IOException {
-		UrlModelService<Input, Result> ums = injectUrlMock(Input.class, Result.class, 0);
-		try (MockedConstruction<OutputStreamWriter> mockOSW = Mockito.mockConstruction(OutputStreamWriter.class)) {
-			when(mockedConnection.getInputStream()).thenThrow(new SocketTimeoutException());
-			assertThrowsMessage(RuntimeException.class, UrlModelService.ERR_TIMEOUT, () -> ums.call(new Input()));
+	public void call_serviceTimeout_throws() {
+		server.createContext("/slow", exchange -> {
+			sleep(500);
+			respond(exchange, 200, "{}");
+		});
+		UrlModelService<Input, Result> ums = new UrlModelService<Input, Result>(getUrl("/slow"), 50) {};
+		assertThrowsMessage(RuntimeException.class, UrlModelService.ERR_TIMEOUT, () -> ums.call(new Input()));
+	}
+
+	@Test
+	public void call_responseNotOK_throws() {
+		server.createContext("/fail", exchange -> respond(exchange, HttpURLConnection.HTTP_BAD_REQUEST, ""));
+		UrlModelService<Input, Result> ums = new UrlModelService<Input, Result>(getUrl("/fail"), 0) {};
+		assertThrowsMessage(RuntimeException.class, UrlModelService.ERR_RESPONSE, () -> ums.call(new Input()));
+	}
+
+	@Test
+	public void call_validResponse_returnsResult() {
+		server.createContext("/value", exchange -> respond(exchange, 200, "{\"x\": 7.5}"));
+		UrlModelService<Input, ResultA> ums = new UrlModelService<Input, ResultA>(getUrl("/value")) {};
+		assertEquals(7.5, ums.call(new Input()).x, 1E-12);
+	}
+
+	@Test
+	public void call_sendsInputAsJson() {
+		List<String> bodies = new ArrayList<>();
+		server.createContext("/echo", exchange -> {
+			bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			respond(exchange, 200, "{}");
+		});
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/echo")) {};
+		ums.call(new InputA(3));
+		assertEquals(3, new JSONObject(bodies.get(0)).getInt("y"));
+	}
+
+	@Test
+	public void call_repeated_reusesConnection() {
+		List<Integer> remotePorts = new ArrayList<>();
+		server.createContext("/port", exchange -> {
+			remotePorts.add(exchange.getRemoteAddress().getPort());
+			respond(exchange, 200, "{}");
+		});
+		UrlModelService<Input, ResultA> ums = new UrlModelService<Input, ResultA>(getUrl("/port")) {};
+		for (int i = 0; i < 3; i++) {
+			ums.call(new Input());
 		}
+		assertEquals(3, remotePorts.size());
+		assertEquals(1, remotePorts.stream().distinct().count());
+	}
+
+	@Test
+	public void call_defaultHttpVersion_sendsNoUpgradeRequest() {
+		List<String> upgradeHeaders = createUpgradeRecordingContext("/version");
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/version")) {};
+		ums.call(new InputA(1));
+		assertEquals(Version.HTTP_1_1, ums.getHttpVersion());
+		assertEquals(1, upgradeHeaders.size());
+		assertNull(upgradeHeaders.get(0));
+	}
+
+	@Test
+	public void call_http2Configured_requestsUpgrade() {
+		List<String> upgradeHeaders = createUpgradeRecordingContext("/version");
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/version")) {};
+		ums.setHttpVersion(Version.HTTP_2);
+		ums.call(new InputA(1));
+		assertEquals("h2c", upgradeHeaders.get(0));
 	}
 
-	private <U extends JSONable, T> UrlModelService<U, T> injectUrlMock(Class<U> u, Class<T> t, int timeout) {
-		try (MockedConstruction<URL> mocked = Mockito.mockConstruction(URL.class,
-				(mock, context) -> {
-					when(mock.openConnection()).thenReturn(mockedConnection);
-				})) {
-			return new UrlModelService<U, T>(validURL, timeout) {};
+	/** Registers context at given path that records the "Upgrade" header of each request, or null if absent */
+	private List<String> createUpgradeRecordingContext(String path) {
+		List<String> upgradeHeaders = Collections.synchronizedList(new ArrayList<>());
+		server.createContext(path, exchange -> {
+			upgradeHeaders.add(exchange.getRequestHeaders().getFirst("Upgrade"));
+			respond(exchange, 200, "{\"x\": 1.0}");
+		});
+		return upgradeHeaders;
+	}
+
+	/** Registers context at given path responding with ten times the request's "y" value and counting received requests */
+	private AtomicInteger createScalingContext(String path) {
+		AtomicInteger requestCount = new AtomicInteger();
+		server.createContext(path, exchange -> {
+			requestCount.incrementAndGet();
+			JSONObject request = new JSONObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+			respond(exchange, 200, "{\"x\": " + request.getInt("y") * 10 + "}");
+		});
+		return requestCount;
+	}
+
+	@Test
+	public void callAsync_multipleRequests_awaitReturnsMatchingResults() {
+		createScalingContext("/async");
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/async")) {};
+		CompletableFuture<ResultA> first = ums.callAsync(new InputA(1));
+		CompletableFuture<ResultA> second = ums.callAsync(new InputA(2));
+		assertEquals(20., ums.await(second).x, 1E-12);
+		assertEquals(10., ums.await(first).x, 1E-12);
+	}
+
+	@Test
+	public void callPrefetched_sameInput_usesPrefetchedResponse() {
+		AtomicInteger requestCount = createScalingContext("/prefetch");
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/prefetch")) {};
+		ums.prefetch(new TimeStamp(5L), new InputA(3));
+		assertEquals(30., ums.callPrefetched(new TimeStamp(5L), new InputA(3)).x, 1E-12);
+		assertEquals(1, requestCount.get());
+	}
+
+	@Test
+	public void callPrefetched_changedInput_sendsNewRequest() {
+		AtomicInteger requestCount = createScalingContext("/prefetch");
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/prefetch")) {};
+		ums.prefetch(new TimeStamp(5L), new InputA(3));
+		assertEquals(40., ums.callPrefetched(new TimeStamp(5L), new InputA(4)).x, 1E-12);
+		assertEquals(30., ums.callPrefetched(new TimeStamp(6L), new InputA(3)).x, 1E-12);
+		assertEquals(3, requestCount.get());
+	}
+
+	@Test
+	public void callPrefetched_collected_removesPendingCall() {
+		createScalingContext("/prefetch");
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/prefetch")) {};
+		ums.prefetch(new TimeStamp(5L), new InputA(3));
+		assertEquals(1, ums.getNumberOfPendingCalls());
+		ums.callPrefetched(new TimeStamp(5L), new InputA(3));
+		assertEquals(0, ums.getNumberOfPendingCalls());
+	}
+
+	@Test
+	public void prefetch_requestFails_removesPendingCall() {
+		server.createContext("/failing", exchange -> respond(exchange, 500, ""));
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/failing")) {};
+		ums.prefetch(new TimeStamp(5L), new InputA(3));
+		awaitNoPendingCalls(ums);
+		assertEquals(0, ums.getNumberOfPendingCalls());
+	}
+
+	@Test
+	public void prefetch_requestTimesOut_removesPendingCall() {
+		server.createContext("/slow", exchange -> {
+			sleep(500);
+			respond(exchange, 200, "{\"x\": 1.0}");
+		});
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/slow"), 50) {};
+		ums.prefetch(new TimeStamp(5L), new InputA(3));
+		awaitNoPendingCalls(ums);
+		assertEquals(0, ums.getNumberOfPendingCalls());
+	}
+
+	@Test
+	public void callPrefetched_earlierDeliveryTimeUncollected_removesPendingCall() {
+		AtomicInteger requestCount = createScalingContext("/prefetch");
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/prefetch"), 100) {};
+		ums.prefetch(new TimeStamp(5L), new InputA(3));
+		ums.prefetch(new TimeStamp(6L), new InputA(4));
+		ums.prefetch(new TimeStamp(7L), new InputA(5));
+		assertEquals(40., ums.callPrefetched(new TimeStamp(6L), new InputA(4)).x, 1E-12);
+		assertEquals(1, ums.getNumberOfPendingCalls());
+		assertEquals(50., ums.callPrefetched(new TimeStamp(7L), new InputA(5)).x, 1E-12);
+		assertEquals(3, requestCount.get());
+	}
+
+	@Test
+	public void callPrefetched_uncollectedBeyondTimeout_usesPrefetchedResponse() {
+		AtomicInteger requestCount = createScalingContext("/prefetch");
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/prefetch"), 100) {};
+		ums.prefetch(new TimeStamp(5L), new InputA(3));
+		sleep(300);
+		assertEquals(30., ums.callPrefetched(new TimeStamp(5L), new InputA(3)).x, 1E-12);
+		assertEquals(1, requestCount.get());
+	}
+
+	/** Waits up to five seconds until the given service holds no more pending calls */
+	private void awaitNoPendingCalls(UrlModelService<?, ?> ums) {
+		for (int attempt = 0; attempt < 100 && ums.getNumberOfPendingCalls() > 0; attempt++) {
+			sleep(50);
 		}
 	}
 
 	@Test
-	public void call_responseNotOK_throws() throws IOException {
-		UrlModelService<Input, Result> ums = injectUrlMock(Input.class, Result.class, 0);
-		try (MockedConstruction<OutputStreamWriter> mockOSW = Mockito.mockConstruction(OutputStreamWriter.class);
-				MockedConstruction<InputStreamReader> mockISR = Mockito.mockConstruction(InputStreamReader.class);
-				MockedConstruction<BufferedReader> mockBR = Mockito.mockConstruction(BufferedReader.class);) {
-			when(mockedConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_BAD_REQUEST);
-			assertThrowsMessage(RuntimeException.class, UrlModelService.ERR_RESPONSE, () -> ums.call(new Input()));
+	public void call_responseCached_serviceCalledOnce() {
+		AtomicInteger requestCount = createScalingContext("/cached");
+		UrlModelService<InputA, ResultA> ums = new UrlModelService<InputA, ResultA>(getUrl("/cached")) {};
+		ums.setResponseCache(new ResponseCache(10, 0, null));
+		assertEquals(20., ums.call(new InputA(2)).x, 1E-12);
+		assertEquals(20., ums.call(new InputA(2)).x, 1E-12);
+		assertEquals(20., ums.await(ums.callAsync(new InputA(2))).x, 1E-12);
+		assertEquals(1, requestCount.get());
+		assertEquals(2, ums.getResponseCache().getHits());
+	}
+
+	/** Sends given response body with given status code */
+	private void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getRequestBody().readAllBytes();
+		exchange.sendResponseHeaders(statusCode, bytes.length > 0 ? bytes.length : -1);
+		try (OutputStream stream = exchange.getResponseBody()) {
+			stream.write(bytes);
+		}
+	}
+
+	private void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
 	}
 
@@ -0,0 +1,50 @@
+// SPDX-FileCopyrightText: 2026 German Aerospace Center <amiris@dlr.de>
+//
+// SPDX-License-Identifier: Apache-2.0
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class WorkerPoolsTest {
+
+	@AfterEach
+	public void tearDown() {
+		WorkerPools.shutdown();
+	}
+
+	@Test
+	public void get_sameParallelism_returnsSharedPool() {
+		assertSame(WorkerPools.get(2), WorkerPools.get(2));
+	}
+
+	@Test
+	public void get_excessiveParallelism_bounded() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		assertEquals(processors, WorkerPools.get(processors + 100).getParallelism());
+		assertEquals(1, WorkerPools.getBoundedParallelism(-5));
+	}
+
+	@Test
+	public void getWorkerThreadIds_afterTask_containsWorker() throws InterruptedException, ExecutionException {
+		long workerId = WorkerPools.get(1).submit(() -> Thread.currentThread().getId()).get();
+		assertTrue(LongStream.of(WorkerPools.getWorkerThreadIds()).anyMatch(id -> id == workerId));
+		assertFalse(LongStream.of(WorkerPools.getWorkerThreadIds()).anyMatch(id -> id == Thread.currentThread().getId()));
+	}
+
+	@Test
+	public void shutdown_poolsTerminatedAndRecreated() {
+		ForkJoinPool pool = WorkerPools.get(2);
+		WorkerPools.shutdown();
+		assertTrue(pool.isShutdown());
+		assertNotSame(pool, WorkerPools.get(2));
+	}
+}